@@ -0,0 +1,116 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.model.SDSet;
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures {@link DSDChecker#validate} for a session that activates several roles of a synthetic hierarchy.  The role
+ * index and the 'fortress.dsd' cache are seeded in memory, every role is a member of a DSD set and none of the sets
+ * is violated, so the session is left unchanged between invocations.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Dfortress.config.realm=none" )
+public class DsdBenchmark
+{
+    private static final int ROLES = 1000;
+    private static final int FAN_OUT = 4;
+    private static final int SET_SIZE = 4;
+
+    @Param( { "2", "10" } )
+    private int activatedRoles;
+
+    private DSDChecker checker;
+    private Session session;
+
+
+    @Setup
+    public void setup()
+    {
+        CacheMgr.getInstance().getCache( "fortress.roles" ).put( HierUtil.Type.ROLE.toString() + ":" + GlobalIds.HOME,
+            HierIndex.build( SyntheticHier.newGraph( ROLES, FAN_OUT ) ) );
+        // each set contains SET_SIZE consecutive roles and a cardinality no session reaches, key matches the one built by SDUtil:
+        List<SDSet> dsds = new ArrayList<>();
+        for ( int i = 0; i < ROLES; i += SET_SIZE )
+        {
+            SDSet dsd = new SDSet();
+            dsd.setName( "DSD" + i );
+            dsd.setType( SDSet.SDType.DYNAMIC );
+            dsd.setContextId( GlobalIds.HOME );
+            dsd.setCardinality( ROLES );
+            Set<String> members = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
+            for ( int j = i; j < i + SET_SIZE && j < ROLES; j++ )
+            {
+                members.add( SyntheticHier.getName( j ) );
+            }
+            dsd.setMembers( members );
+            dsds.add( dsd );
+        }
+        CacheMgr.getInstance().getCache( "fortress.dsd" ).put( "DSD:" + GlobalIds.HOME, DsdIndex.build( dsds ) );
+        List<UserRole> roles = new ArrayList<>();
+        for ( int i = 0; i < activatedRoles; i++ )
+        {
+            roles.add( new UserRole( SyntheticHier.getName( ROLES - 1 - i * 13 ) ) );
+        }
+        User user = new User( "benchUser" );
+        user.setContextId( GlobalIds.HOME );
+        session = new Session( user );
+        session.setRoles( roles );
+        checker = new DSDChecker();
+    }
+
+
+    @Benchmark
+    public int validate() throws SecurityException
+    {
+        return checker.validate( session, session.getUser(), null, null );
+    }
+}
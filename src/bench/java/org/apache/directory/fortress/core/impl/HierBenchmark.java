@@ -0,0 +1,109 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.model.Relationship;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures role hierarchy traversal, {@link HierUtil#getAscendants}, {@link HierUtil#getDescendants} and
+ * {@link RoleUtil#getInheritedRoles}, on synthetic graphs held in memory.  The tenant's {@link HierIndex} is put
+ * straight into the 'fortress.roles' cache so RoleUtil never loads it from the directory.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Dfortress.config.realm=none" )
+public class HierBenchmark
+{
+    private static final int FAN_OUT = 4;
+    private static final int ACTIVATED_ROLES = 5;
+
+    @Param( { "1000", "10000" } )
+    private int size;
+
+    private SimpleDirectedGraph<String, Relationship> graph;
+    private String leaf;
+    private String branch;
+    private List<UserRole> userRoles;
+
+
+    @Setup
+    public void setup()
+    {
+        graph = SyntheticHier.newGraph( size, FAN_OUT );
+        leaf = SyntheticHier.getName( size - 1 );
+        // a role about three levels above the leaves:
+        branch = SyntheticHier.getName( size / ( FAN_OUT * FAN_OUT * FAN_OUT ) );
+        userRoles = new ArrayList<>();
+        for ( int i = 0; i < ACTIVATED_ROLES; i++ )
+        {
+            userRoles.add( new UserRole( SyntheticHier.getName( size - 1 - i * 7 ) ) );
+        }
+        CacheMgr.getInstance().getCache( "fortress.roles" ).put( HierUtil.Type.ROLE.toString() + ":" + GlobalIds.HOME,
+            HierIndex.build( graph ) );
+    }
+
+
+    @Benchmark
+    public Set<String> getAscendants()
+    {
+        return HierUtil.getAscendants( leaf, graph );
+    }
+
+
+    @Benchmark
+    public Set<String> getDescendants()
+    {
+        return HierUtil.getDescendants( branch, graph );
+    }
+
+
+    @Benchmark
+    public Set<String> getInheritedRoles()
+    {
+        return RoleUtil.getInstance().getInheritedRoles( userRoles, GlobalIds.HOME );
+    }
+}
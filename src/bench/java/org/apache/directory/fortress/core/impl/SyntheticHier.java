@@ -0,0 +1,81 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import org.apache.directory.fortress.core.model.Relationship;
+import org.jgrapht.graph.SimpleDirectedGraph;
+
+
+/**
+ * Builds synthetic role hierarchies for the benchmarks.  Roles are named R0..Rn-1 and form a tree with the given fan
+ * out rooted at R0, every fifth role also inherits from a second role one level up so the graph is a DAG rather than
+ * a tree.  Parents always have a lower number than their children, so the graph is acyclic.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class SyntheticHier
+{
+    private SyntheticHier()
+    {
+    }
+
+
+    /**
+     * @param size   number of roles.
+     * @param fanOut number of children per role.
+     * @return new digraph with edges pointing from child to parent.
+     */
+    static SimpleDirectedGraph<String, Relationship> newGraph( int size, int fanOut )
+    {
+        SimpleDirectedGraph<String, Relationship> graph = new SimpleDirectedGraph<>( Relationship.class );
+        graph.addVertex( getName( 0 ) );
+        for ( int i = 1; i < size; i++ )
+        {
+            int parent = ( i - 1 ) / fanOut;
+            addEdge( graph, i, parent );
+            if ( i % 5 == 0 && parent > 0 )
+            {
+                addEdge( graph, i, parent - 1 );
+            }
+        }
+        return graph;
+    }
+
+
+    /**
+     * @param i number of role.
+     * @return name of role, upper case as stored in the graph.
+     */
+    static String getName( int i )
+    {
+        return "R" + i;
+    }
+
+
+    private static void addEdge( SimpleDirectedGraph<String, Relationship> graph, int child, int parent )
+    {
+        String childName = getName( child );
+        String parentName = getName( parent );
+        graph.addVertex( childName );
+        graph.addVertex( parentName );
+        graph.addEdge( childName, parentName, new Relationship( childName, parentName ) );
+    }
+}
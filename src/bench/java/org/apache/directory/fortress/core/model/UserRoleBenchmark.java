@@ -0,0 +1,106 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.model;
+
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures {@link UserRole#load} parsing the raw 'ftRC' attribute values of a user's role assignments, as done by
+ * UserDAO for every user read with its roles.  The parent lookup copies a small set, standing in for the hierarchy
+ * walk, and is only paid by {@link #loadAndGetParents()} now that it happens on first call to
+ * {@link UserRole#getParents()}.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Dfortress.config.realm=none" )
+public class UserRoleBenchmark
+{
+    private static final Set<String> PARENTS = new HashSet<>( Arrays.asList( "PARENT1", "PARENT2", "PARENT3" ) );
+    private static final ParentUtil PARENT_UTIL = ( name, contextId ) -> new HashSet<>( PARENTS );
+    private static final String DELIMITER = "$";
+
+    @Param( { "10", "100" } )
+    private int roles;
+
+    private String[] rawData;
+
+
+    @Setup
+    public void setup()
+    {
+        rawData = new String[roles];
+        for ( int i = 0; i < roles; i++ )
+        {
+            // name$timeout$beginTime$endTime$beginDate$endDate$beginLockDate$endLockDate$dayMask:
+            rawData[i] = "role" + i + "$30$0800$1700$20200101$20991231$none$none$1234567";
+        }
+    }
+
+
+    @Benchmark
+    public int load()
+    {
+        int count = 0;
+        for ( String raw : rawData )
+        {
+            UserRole userRole = new UserRole();
+            userRole.load( raw, DELIMITER, GlobalIds.HOME, PARENT_UTIL );
+            count += userRole.getTimeout();
+        }
+        return count;
+    }
+
+
+    @Benchmark
+    public int loadAndGetParents()
+    {
+        int count = 0;
+        for ( String raw : rawData )
+        {
+            UserRole userRole = new UserRole();
+            userRole.load( raw, DELIMITER, GlobalIds.HOME, PARENT_UTIL );
+            count += userRole.getParents().size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.rest;
+
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.RestException;
+import org.apache.directory.fortress.core.model.FortRequest;
+import org.apache.directory.fortress.core.model.FortResponse;
+import org.apache.directory.fortress.core.model.Permission;
+import org.apache.directory.fortress.core.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the xml conversions done on every call made through the REST managers, {@link RestUtils#marshal} of a
+ * request and {@link RestUtils#unmarshall} of a response carrying a list of permissions.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Dfortress.config.realm=none" )
+public class RestUtilsBenchmark
+{
+    @Param( { "1", "100" } )
+    private int entities;
+
+    private FortRequest request;
+    private String response;
+
+
+    @Setup
+    public void setup() throws JAXBException
+    {
+        request = RestUtils.getRequest( GlobalIds.HOME );
+        User user = new User( "benchUser", "secret", new String[] { "role1", "role2", "role3" } );
+        request.setEntity( user );
+
+        List<Permission> permissions = new ArrayList<>();
+        for ( int i = 0; i < entities; i++ )
+        {
+            Permission permission = new Permission( "obj" + ( i / 10 ), "op" + i );
+            permission.setRoles( Collections.singleton( "role" + ( i % 3 ) ) );
+            permissions.add( permission );
+        }
+        FortResponse fortResponse = new FortResponse();
+        fortResponse.setErrorCode( 0 );
+        fortResponse.setEntities( permissions );
+        StringWriter writer = new StringWriter();
+        JAXBContext.newInstance( FortResponse.class ).createMarshaller().marshal( fortResponse, writer );
+        response = writer.toString();
+    }
+
+
+    @Benchmark
+    public String marshal() throws RestException
+    {
+        return RestUtils.marshal( request );
+    }
+
+
+    @Benchmark
+    public FortResponse unmarshall() throws RestException
+    {
+        return RestUtils.unmarshall( response );
+    }
+}
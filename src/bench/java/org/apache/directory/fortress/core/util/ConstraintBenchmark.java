@@ -0,0 +1,121 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures {@link VUtil#validateConstraints} with the default temporal validators, as listed in
+ * fortress.properties.src, on a session whose user and roles pass every check.  DSD checks are left to
+ * {@code DsdBenchmark}.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Dfortress.config.realm=none" )
+public class ConstraintBenchmark
+{
+    private static final String[] VALIDATORS =
+        {
+            "org.apache.directory.fortress.core.util.time.Date",
+            "org.apache.directory.fortress.core.util.time.LockDate",
+            "org.apache.directory.fortress.core.util.time.Timeout",
+            "org.apache.directory.fortress.core.util.time.ClockTime",
+            "org.apache.directory.fortress.core.util.time.Day"
+        };
+    // name$timeout$beginTime$endTime$beginDate$endDate$beginLockDate$endLockDate$dayMask:
+    private static final String RAW_DATA = "$0$0000$2359$20200101$20991231$none$none$1234567";
+
+    @Param( { "1", "10", "50" } )
+    private int roles;
+
+    private Session session;
+
+
+    @Setup
+    public void setup()
+    {
+        // must be in place before VUtil reads them:
+        for ( int i = 0; i < VALIDATORS.length; i++ )
+        {
+            Config.getInstance().setProperty( GlobalIds.VALIDATOR_PROPS + i, VALIDATORS[i] );
+        }
+        List<UserRole> userRoles = new ArrayList<>();
+        for ( int i = 0; i < roles; i++ )
+        {
+            UserRole userRole = new UserRole();
+            userRole.load( "role" + i + RAW_DATA, GlobalIds.HOME, ( name, contextId ) -> Collections.emptySet() );
+            userRoles.add( userRole );
+        }
+        User user = new User( "benchUser" );
+        user.setTimeout( 0 );
+        user.setBeginTime( "0000" );
+        user.setEndTime( "2359" );
+        user.setBeginDate( "20200101" );
+        user.setEndDate( "20991231" );
+        user.setBeginLockDate( GlobalIds.NONE );
+        user.setEndLockDate( GlobalIds.NONE );
+        user.setDayMask( "1234567" );
+        session = new Session( user );
+        session.setRoles( userRoles );
+    }
+
+
+    @Benchmark
+    public Session validateUser() throws SecurityException
+    {
+        VUtil.getInstance().validateConstraints( session, VUtil.ConstraintType.USER, false );
+        return session;
+    }
+
+
+    @Benchmark
+    public Session validateRoles() throws SecurityException
+    {
+        VUtil.getInstance().validateConstraints( session, VUtil.ConstraintType.ROLE, false );
+        return session;
+    }
+}
@@ -224,6 +224,23 @@ public interface AccelMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * Perform user RBAC authorization for a list of permissions on behalf of the same session.  Each decision is the
+     * same as {@link #checkAccess(Session, Permission)} would return.  The accelerator evaluates one permission per
+     * extended operation, so this saves the connection borrow per permission but not the round trips.
+     *
+     * @param perms   each must contain the object, Permission#objName, and operation, Permission#opName, of
+     * permission User is trying to access.
+     * @param session This object must be instantiated by calling {@link AccessMgr#createSession} method before passing
+     * into the method.  No variables need to be set by client after returned from createSession.
+     * @return List of decisions, True if user has access, in the same order as perms.
+     * @throws SecurityException
+     *          in the event of data validation failure, security policy violation or DAO error.
+     */
+    List<Boolean> checkAccess( Session session, List<Permission> perms )
+        throws SecurityException;
+
+
     /**
      * This function returns the permissions of the session, i.e., the permissions assigned
      * to its authorized roles. The function is valid if and only if the session is a valid Fortress session.
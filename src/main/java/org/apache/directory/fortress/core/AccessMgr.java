@@ -293,6 +293,55 @@ public interface AccessMgr extends Manageable
     boolean checkAccess( Session session, Permission perm )
         throws SecurityException;
 
+
+    /**
+     * Perform user RBAC authorization for a list of permissions on behalf of the same session, e.g. to render a menu.
+     * Each decision is the same as {@link #checkAccess(Session, Permission)} would return, but the session's
+     * inherited roles are computed once, the permissions are read in a single search and the audit records are
+     * written together.  A permission that does not exist is not authorized.
+     *
+     * @param session This object must be instantiated by calling {@link AccessMgr#createSession} method before passing
+     * into the method.  No variables need to be set by client after returned from createSession.
+     * @param perms   each must contain the object, {@link Permission#objName}, and operation,
+     * {@link Permission#opName}, of permission User is trying to access.
+     * @return List of decisions, True if user has access, in the same order as perms.
+     * @throws SecurityException
+     *          in the event of data validation failure, security policy violation or DAO error.
+     */
+    List<Boolean> checkAccess( Session session, List<Permission> perms )
+        throws SecurityException;
+
+
+    /**
+     * Perform user RBAC authorization using a session held in the server side session store, so the caller need only
+     * keep the id of the session rather than the whole object.  The decision is the same as
+     * {@link #checkAccess(Session, Permission)} would return for the session.  Applies when fortress config param
+     * 'enable.session.store=true', in which case createSession stores every session it returns.  A stored session
+     * that hasn't been used for 'session.store.idle.seconds' is removed, as are the least recently used sessions when
+     * the store is full.
+     *
+     * @param sessionId returned in {@link Session#getSessionId()} by {@link AccessMgr#createSession}.
+     * @param perm    must contain the object, {@link Permission#objName}, and operation, {@link Permission#opName}, of
+     * permission User is trying to access.
+     * @return True if user has access, false otherwise.
+     * @throws SecurityException
+     *          {@link org.apache.directory.fortress.core.GlobalErrIds#USER_SESS_NOT_FOUND} if the session isn't in the
+     *          store, or in the event of data validation failure, security policy violation or DAO error.
+     */
+    boolean checkAccess( String sessionId, Permission perm )
+        throws SecurityException;
+
+
+    /**
+     * Remove a session from the server side session store, e.g. when the user logs out.  Does nothing if the session
+     * isn't stored.
+     *
+     * @param sessionId returned in {@link Session#getSessionId()} by {@link AccessMgr#createSession}.
+     * @throws SecurityException in the event of data validation failure.
+     */
+    void deleteSession( String sessionId )
+        throws SecurityException;
+
     /**
      * Combine createSession and checkAccess into a single method.
      * This function returns a Boolean value meaning whether the User is allowed or not to perform a given operation on a given object.
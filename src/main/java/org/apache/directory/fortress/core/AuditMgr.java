@@ -151,6 +151,19 @@ public interface AuditMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * Same as {@link #searchAuthZs(UserAudit)} but returns a cursor that reads the authorization events from the directory a page at a time, so result
+     * sets of any size can be processed in constant memory.  The page size is set by 'ldap.search.page.size'.  The
+     * cursor holds a connection and must be closed by the caller.
+     *
+     * @param uAudit contains the same parameters as searchAuthZs.
+     * @return cursor over objects of type AuthZ.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<AuthZ> searchAuthZsPaged( UserAudit uAudit )
+        throws SecurityException;
+
+
     /**
      * This method returns a list of authentication audit events for a particular user 
      * {@link org.apache.directory.fortress.core.model.UserAudit#userId},
@@ -174,6 +187,19 @@ public interface AuditMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * Same as {@link #searchBinds(UserAudit)} but returns a cursor that reads the bind events from the directory a page at a time, so result
+     * sets of any size can be processed in constant memory.  The page size is set by 'ldap.search.page.size'.  The
+     * cursor holds a connection and must be closed by the caller.
+     *
+     * @param uAudit contains the same parameters as searchBinds.
+     * @return cursor over objects of type Bind.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<Bind> searchBindsPaged( UserAudit uAudit )
+        throws SecurityException;
+
+
     /**
      * This method returns a list of sessions created for a given user {@link UserAudit#userId},
      * and timestamp {@link org.apache.directory.fortress.core.model.UserAudit#beginDate}.<BR>
@@ -195,6 +221,19 @@ public interface AuditMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * Same as {@link #searchUserSessions(UserAudit)} but returns a cursor that reads the session events from the directory a page at a time, so result
+     * sets of any size can be processed in constant memory.  The page size is set by 'ldap.search.page.size'.  The
+     * cursor holds a connection and must be closed by the caller.
+     *
+     * @param uAudit contains the same parameters as searchUserSessions.
+     * @return cursor over objects of type Mod.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<Mod> searchUserSessionsPaged( UserAudit uAudit )
+        throws SecurityException;
+
+
     /**
      * This method returns a list of admin operations events for a particular entity 
      * {@link org.apache.directory.fortress.core.model.UserAudit#dn},
@@ -56,11 +56,27 @@ public abstract class BaseException extends Exception implements StandardExcepti
      * @param  errorId see {@link GlobalErrIds} for list of valid error codes that can be set.  Valid values between 0 & 100_000.
      * @param msg contains textual information including method of origin and description of the root cause.
      * @param previousException contains reference to related exception which usually is system related, i.e. ldap.
+     * If it was caused by a connection refused by an open circuit breaker, the error id is
+     * {@link GlobalErrIds#FT_LDAP_CIRCUIT_OPEN} in place of the one passed.
      */
     BaseException( int errorId, String msg, Throwable previousException )
     {
         super( msg, previousException );
-        this.errorId = errorId;
+        this.errorId = isCircuitOpen( previousException ) ? GlobalErrIds.FT_LDAP_CIRCUIT_OPEN : errorId;
+    }
+
+
+    private static boolean isCircuitOpen( Throwable previousException )
+    {
+        for ( Throwable t = previousException; t != null; t = t.getCause() )
+        {
+            if ( t instanceof StandardException
+                && ( ( StandardException ) t ).getErrorId() == GlobalErrIds.FT_LDAP_CIRCUIT_OPEN )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
 
@@ -165,6 +165,23 @@ public interface DelAccessMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * This function returns a Boolean value per administrative permission, in the same order as passed, meaning
+     * whether the subject of a given session is allowed or not to perform the operation on the object.  Each decision
+     * is the same as {@link #checkAccess(Session, Permission)} would return, but the permissions are evaluated together.
+     *
+     * @param perms   each contains obj attribute which is a String and contains the name of the object user is trying to
+     * access; perm object contains operation attribute which is also a String and contains the operation name for the object.
+     * @param session This object must be instantiated by calling {@link AccessMgr#createSession} method before passing into
+     * the method.  No variables need to be set by client after returned from createSession.
+     * @return List of decisions, True of user has access, false otherwise.
+     * @throws SecurityException
+     *          is thrown if runtime error occurs with system.
+     */
+    List<Boolean> checkAccess( Session session, List<Permission> perms )
+        throws SecurityException;
+
+
     /**
      * This function adds an adminRole as an active role of a session whose owner is a given user.
      * <p>
@@ -191,6 +191,12 @@ public final class GlobalErrIds
      */
     public static final int FT_CONFIG_JSSE_TRUSTSTORE_NULL = 136;
 
+    /**
+     * The circuit breaker of an LDAP connection pool is open, the connection was refused without contacting the
+     * directory.
+     */
+    public static final int FT_LDAP_CIRCUIT_OPEN = 137;
+
     /**
      * 1000's - User Entity Rule and LDAP Errors
      */
@@ -405,6 +411,12 @@ public final class GlobalErrIds
      */
     public static final int USER_OU_NULL = 1041;
 
+    /**
+     * The Session id was not found in the session store.  It has expired or been evicted, was deleted, or the store is
+     * not enabled.
+     */
+    public static final int USER_SESS_NOT_FOUND = 1042;
+
     /**
      * 2000's User-Role assignments
      */
@@ -464,6 +464,52 @@ public final class GlobalIds
      */
     public static final String TEST_ON_IDLE = "validate.conn.idle";
 
+    /**
+     * Applies to all pools, the action taken when a pool reaches its max, 'grow' (default), 'block' or 'fail'.  When
+     * blocking, callers wait up to the max wait millis for a connection to be returned.  When failing, callers get an
+     * error at once.
+     */
+    public static final String LDAP_POOL_EXHAUSTED_ACTION = "ldap.pool.exhausted.action";
+    public static final String LDAP_POOL_MAX_WAIT_MILLIS = "ldap.pool.max.wait.millis";
+
+    /**
+     * Override the exhausted action and max wait of a single pool, prefixed by the pool name, e.g.
+     * 'user.conn.exhausted.action=fail' or 'admin.conn.max.wait.millis=2000'.
+     */
+    public static final String POOL_EXHAUSTED_ACTION = ".conn.exhausted.action";
+    public static final String POOL_MAX_WAIT_MILLIS = ".conn.max.wait.millis";
+
+    /**
+     * Applies to all pools, if enabled each pool's breaker opens after the given number of consecutive failures to get
+     * a connection and refuses connections until the open millis have passed.
+     */
+    public static final String ENABLE_LDAP_CIRCUIT_BREAKER = "enable.ldap.circuit.breaker";
+    public static final String LDAP_CIRCUIT_FAILURE_THRESHOLD = "ldap.circuit.failure.threshold";
+    public static final String LDAP_CIRCUIT_OPEN_MILLIS = "ldap.circuit.open.millis";
+
+    /**
+     * Applies to all pools, names the class that publishes the pool metrics, JMX by default.
+     */
+    public static final String LDAP_POOL_METRICS_REGISTRY = "ldap.pool.metrics.registry";
+    public static final String DISABLE_LDAP_POOL_METRICS = "disable.ldap.pool.metrics";
+
+    /**
+     * If true, the per operation ldap counters and latency histograms are not published to JMX.
+     */
+    public static final String DISABLE_LDAP_OP_METRICS = "disable.ldap.op.metrics";
+
+    /**
+     * Used by the asynchronous authorization audit writer.  If enabled, checkAccess audit compares are queued and
+     * written by background workers rather than on the caller's thread.
+     */
+    public static final String AUTHZ_AUDIT_ASYNC = "authz.audit.async";
+    public static final String AUTHZ_AUDIT_QUEUE_SIZE = "authz.audit.queue.size";
+    public static final String AUTHZ_AUDIT_WORKERS = "authz.audit.workers";
+    public static final String AUTHZ_AUDIT_BATCH_SIZE = "authz.audit.batch.size";
+    public static final String AUTHZ_AUDIT_OVERFLOW = "authz.audit.overflow";
+    public static final String AUTHZ_AUDIT_BLOCK_TIMEOUT = "authz.audit.block.timeout.millis";
+    public static final String AUTHZ_AUDIT_SPILL_FILE = "authz.audit.spill.file";
+
     // Used for TLS/SSL client-side configs:
     public static final String ENABLE_LDAP_SSL = "enable.ldap.ssl";
     public static final String ENABLE_LDAP_STARTTLS = "enable.ldap.starttls";
@@ -472,10 +518,59 @@ public final class GlobalIds
     public static final String TRUST_STORE_PW = "trust.store.password";
     public static final String TRUST_STORE_ON_CLASSPATH = "trust.store.onclasspath";
 
-    // coordinates to the LDAP server:
+    // coordinates to the LDAP server, host may list more than one provider as host[:port],host[:port]...
     public static final String LDAP_HOST = "host";
     public static final String LDAP_PORT = "port";
 
+    /**
+     * Optional list of replicas, as host[:port],host[:port]..., that serve the reads of the admin pool.
+     */
+    public static final String LDAP_REPLICA_HOSTS = "replica.hosts";
+
+    /**
+     * How reads are spread across the replicas, 'round-robin' (default), 'least-outstanding' or 'failover'.
+     */
+    public static final String LDAP_READ_BALANCE = "ldap.read.balance";
+
+    /**
+     * Time after a thread writes to the directory during which its reads go to the providers, 0 (default) to disable.
+     */
+    public static final String LDAP_READ_YOUR_WRITES_MILLIS = "ldap.read.your.writes.millis";
+
+    /**
+     * Interval at which servers marked down are checked for recovery.
+     */
+    public static final String LDAP_HEALTH_CHECK_MILLIS = "ldap.health.check.millis";
+
+    /**
+     * Set to true to invalidate the hierarchy, constraint, policy and permission caches when another process changes
+     * the directory.
+     */
+    public static final String ENABLE_CACHE_CHANGE_LISTENER = "enable.cache.change.listener";
+
+    /**
+     * How changes are followed, psearch (default) uses the persistent search control, sync the RFC 4533 content
+     * synchronization control of OpenLDAP.
+     */
+    public static final String CACHE_CHANGE_LISTENER_MODE = "cache.change.listener.mode";
+
+    /**
+     * Time to wait before the change listener reconnects after its search fails.
+     */
+    public static final String CACHE_CHANGE_LISTENER_RETRY_MILLIS = "cache.change.listener.retry.millis";
+
+    /**
+     * Interval at which cached role, admin role and org unit hierarchies are reloaded in the background, 0 (default)
+     * leaves them to expire and be reloaded by the next caller.
+     */
+    public static final String HIER_REFRESH_SECONDS = "hier.refresh.seconds";
+
+    /**
+     * Age after which a cached hierarchy that can't be reloaded in the background is left to expire, default ten
+     * refresh intervals.
+     */
+    public static final String HIER_MAX_STALENESS_SECONDS = "hier.max.staleness.seconds";
+
     /**
      * maximum number of entries allowed for ldap filter replacements.
      */
@@ -518,6 +613,11 @@ public final class GlobalIds
      */
     public static final String CONFIG_LDAP_MAX_BATCH_SIZE = "ldap.search.max.batch.size";
 
+    /**
+     * This is the config property key used to store the page size of searches that return a {@link ResultCursor}:
+     */
+    public static final String CONFIG_LDAP_PAGE_SIZE = "ldap.search.page.size";
+
     /**
      * Attribute is used in Fortress time/date constraints as default which will always pass.  i.e. values stored as beginDate=none or beginTime=none will turn the date and time constraints off
      * for a particular entity..
@@ -595,6 +695,51 @@ public final class GlobalIds
      */
     public static final String HTTP_PW_PROP = "http.pw";
 
+    /**
+     * Maximum number of pooled HTTP connections to fortress rest, across all routes.
+     */
+    public static final String HTTP_POOL_MAX_TOTAL = "http.pool.max.total";
+
+    /**
+     * Maximum number of pooled HTTP connections to a single host.
+     */
+    public static final String HTTP_POOL_MAX_PER_ROUTE = "http.pool.max.per.route";
+
+    /**
+     * Number of milliseconds to wait for a pooled HTTP connection to come free before giving up.
+     */
+    public static final String HTTP_POOL_MAX_WAIT_MILLIS = "http.pool.max.wait.millis";
+
+    /**
+     * Number of milliseconds an unused HTTP connection stays in the pool before being closed.
+     */
+    public static final String HTTP_POOL_IDLE_MILLIS = "http.pool.idle.millis";
+
+    /**
+     * Number of milliseconds to keep an HTTP connection alive when the server's response doesn't say.
+     */
+    public static final String HTTP_KEEP_ALIVE_MILLIS = "http.keep.alive.millis";
+
+    /**
+     * Number of milliseconds to wait while opening an HTTP connection.
+     */
+    public static final String HTTP_CONNECT_TIMEOUT_MILLIS = "http.connect.timeout.millis";
+
+    /**
+     * Number of milliseconds to wait for data on an open HTTP connection.
+     */
+    public static final String HTTP_SOCKET_TIMEOUT_MILLIS = "http.socket.timeout.millis";
+
+    /**
+     * When true the HTTP connection pool metrics are not registered with JMX.
+     */
+    public static final String DISABLE_HTTP_POOL_METRICS = "disable.http.pool.metrics";
+
+    /**
+     * Format of requests to the Fortress Rest server, xml (default) or json.
+     */
+    public static final String HTTP_CONTENT_TYPE = "http.content.type";
+
     /**
      * Attribute name for property ARBAC02 enforcement boolean.
      */
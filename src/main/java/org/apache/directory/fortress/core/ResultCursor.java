@@ -0,0 +1,65 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core;
+
+
+/**
+ * Forward only cursor over the results of a search, for result sets too large to be returned as a List.  Results
+ * are read from the server a page at a time as the cursor advances, so the memory used stays the same however many
+ * there are.  The cursor holds a connection until it has been read to the end or closed and must be closed by the
+ * caller, e.g. with try-with-resources:
+ * <pre>
+ * try ( ResultCursor&lt;User&gt; users = reviewMgr.findUsersPaged( new User( "jts" ) ) )
+ * {
+ *     while ( users.next() )
+ *     {
+ *         User user = users.get();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * Cursors are not thread safe.
+ *
+ * @param <T> type of entity returned by the search.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface ResultCursor<T> extends AutoCloseable
+{
+    /**
+     * Advance to the next result, fetching the next page from the server when the current one has been read.
+     *
+     * @return true if there is a result, false once the results have been read.
+     * @throws SecurityException in the event of system error, the cursor is closed before it is thrown.
+     */
+    boolean next() throws SecurityException;
+
+
+    /**
+     * @return the result {@link #next()} advanced to.
+     */
+    T get();
+
+
+    /**
+     * Abandon the remaining results, if any, and release the connection.  Calling it more than once has no effect.
+     */
+    @Override
+    void close();
+}
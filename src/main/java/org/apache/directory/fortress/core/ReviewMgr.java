@@ -32,6 +32,7 @@ import org.apache.directory.fortress.core.model.RoleConstraint;
 import org.apache.directory.fortress.core.model.RoleConstraint.RCType;
 import org.apache.directory.fortress.core.model.SDSet;
 import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserProjection;
 import org.apache.directory.fortress.core.model.UserRole;
 
 
@@ -146,6 +147,19 @@ public interface ReviewMgr extends Manageable
     List<Permission> findPermissions( Permission permission )
         throws SecurityException;
 
+
+    /**
+     * Same as {@link #findPermissions(Permission)} but returns a cursor that reads the permissions from the directory a page at a time, so result
+     * sets of any size can be processed in constant memory.  The page size is set by 'ldap.search.page.size'.  The
+     * cursor holds a connection and must be closed by the caller.
+     *
+     * @param permission contains object and operation name search strings.
+     * @return cursor over objects of type Permission.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<Permission> findPermissionsPaged( Permission permission )
+        throws SecurityException;
+
     /**
      * Method returns Permission operations for the provided permission object
      * 
@@ -263,6 +277,20 @@ public interface ReviewMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * Same as {@link #readUser(User)} but only reads the attributes of the given projection.  With
+     * {@link UserProjection#AUTHZ} the user's address, phones, mobiles, emails and photo are read from the directory
+     * on first call to one of their getters.
+     *
+     * @param user entity contains a value User#userId that matches record in the directory.
+     * @param projection selects the attributes to read.
+     * @return entity containing matching user data.
+     * @throws SecurityException if record not found or system error occurs.
+     */
+    User readUser( User user, UserProjection projection )
+        throws SecurityException;
+
+
     /**
      * Return a list of type User of all users in the people container that match all or part of the User#userId
      * field passed in User entity.
@@ -280,6 +308,19 @@ public interface ReviewMgr extends Manageable
         throws SecurityException;
 
 
+    /**
+     * Same as {@link #findUsers(User)} but returns a cursor that reads the users from the directory a page at a time, so result
+     * sets of any size can be processed in constant memory.  The page size is set by 'ldap.search.page.size'.  The
+     * cursor holds a connection and must be closed by the caller.
+     *
+     * @param user contains all or some leading chars that match userIds stored in the directory.
+     * @return cursor over objects of type User.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<User> findUsersPaged( User user )
+        throws SecurityException;
+
+
     /**
      * Return a list of type User of all users in the people container that match the name field passed in OrgUnit entity.
      * <h3></h3>
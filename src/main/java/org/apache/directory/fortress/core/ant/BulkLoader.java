@@ -0,0 +1,205 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ant;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tools.ant.BuildException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Runs one stage of {@link FortressAntTask}, e.g. add users, on a pool of worker threads.  Each call to
+ * {@link #run(String, List, Work)} returns once every entity of the stage has been processed, so the stages stay in
+ * the task's order of precedence and a stage only starts once the entities it depends on are in the directory.
+ * Entities within a stage are processed in no particular order.
+ * <p>
+ * The number of workers is set by system property 'load.threads', default 1, which processes each stage on the
+ * calling thread in the order of the xml.  Progress is logged every 'load.progress' entities, default 1000, along with
+ * the throughput of the stage.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class BulkLoader
+{
+    private static final String CLS_NM = BulkLoader.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+
+    private final int threads;
+    private final int progressInterval;
+    private ExecutorService workers;
+
+
+    /**
+     * Processes one entity of a stage.  Expected failures, i.e. SecurityException, are logged by the implementation
+     * and don't stop the stage.
+     *
+     * @param <T> type of entity.
+     */
+    interface Work<T>
+    {
+        void load( T entity );
+    }
+
+
+    /**
+     * @param threads number of workers, 1 or less processes the entities on the calling thread.
+     * @param progressInterval number of entities between progress messages.
+     */
+    BulkLoader( int threads, int progressInterval )
+    {
+        this.threads = Math.max( 1, threads );
+        this.progressInterval = Math.max( 1, progressInterval );
+    }
+
+
+    /**
+     * Process every entity of a stage and wait for them to finish.
+     *
+     * @param stage name of stage, used in log messages.
+     * @param entities to process.
+     * @param work processes one entity.
+     * @param <T> type of entity.
+     * @throws BuildException if the work threw an unexpected exception, after the rest of the stage has finished.
+     */
+    <T> void run( final String stage, final List<T> entities, final Work<T> work ) throws BuildException
+    {
+        if ( entities.isEmpty() )
+        {
+            return;
+        }
+        final long start = System.nanoTime();
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger done = new AtomicInteger();
+        Runnable worker = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                int i;
+                while ( ( i = next.getAndIncrement() ) < entities.size() )
+                {
+                    work.load( entities.get( i ) );
+                    int count = done.incrementAndGet();
+                    if ( count % progressInterval == 0 && count < entities.size() )
+                    {
+                        LOG.info( "{} processed {} of {}, {}/sec", stage, count, entities.size(), rate( count,
+                            start ) );
+                    }
+                }
+            }
+        };
+        int count = Math.min( threads, entities.size() );
+        if ( count == 1 )
+        {
+            worker.run();
+        }
+        else
+        {
+            List<Future<?>> futures = new ArrayList<>( count );
+            for ( int i = 0; i < count; i++ )
+            {
+                futures.add( getWorkers().submit( worker ) );
+            }
+            await( stage, futures );
+        }
+        LOG.info( "{} processed {} in {} ms, {}/sec", stage, entities.size(),
+            TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ), rate( entities.size(), start ) );
+    }
+
+
+    /**
+     * Stop the workers.
+     */
+    synchronized void shutdown()
+    {
+        if ( workers != null )
+        {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+
+    private synchronized ExecutorService getWorkers()
+    {
+        if ( workers == null )
+        {
+            workers = Executors.newFixedThreadPool( threads, new ThreadFactory()
+            {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread( Runnable runnable )
+                {
+                    Thread thread = new Thread( runnable, "fortress-load-" + count.getAndIncrement() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return workers;
+    }
+
+
+    private static void await( String stage, List<Future<?>> futures ) throws BuildException
+    {
+        Throwable error = null;
+        for ( Future<?> future : futures )
+        {
+            try
+            {
+                future.get();
+            }
+            catch ( ExecutionException ee )
+            {
+                error = ee.getCause();
+            }
+            catch ( InterruptedException ie )
+            {
+                Thread.currentThread().interrupt();
+                throw new BuildException( stage + " interrupted", ie );
+            }
+        }
+        if ( error != null )
+        {
+            throw new BuildException( stage + " caught " + error, error );
+        }
+    }
+
+
+    private static long rate( int count, long start )
+    {
+        long nanos = Math.max( 1, System.nanoTime() - start );
+        return count * TimeUnit.SECONDS.toNanos( 1 ) / nanos;
+    }
+}
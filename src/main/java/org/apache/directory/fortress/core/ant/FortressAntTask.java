@@ -28,6 +28,7 @@ import java.util.StringTokenizer;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
 import org.apache.directory.fortress.core.AdminMgr;
 import org.apache.directory.fortress.core.AdminMgrFactory;
 import org.apache.directory.fortress.core.CfgException;
@@ -239,6 +240,12 @@ import org.slf4j.LoggerFactory;
  *     org.apache.directory.fortress.core.model.UserRole)}
  *   </li>
  * </ol>
+ * <h3>Bulk Loads</h3>
+ * Each step above completes before the next one starts.  The steps that add or delete users, user role and adminRole
+ * assignments, RBAC roles, permission objects, operations and grants process their entities on the number of threads
+ * set by system property 'load.threads', default 1, e.g. {@code -Dload.threads=8}.  Their order within the step isn't
+ * preserved.  The admin connection pool, 'max.admin.conn', should allow at least that many connections.  Progress and
+ * throughput of each step are logged every 'load.progress' entities, default 1000.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
@@ -304,6 +311,10 @@ public class FortressAntTask extends Task implements InputHandler
     private Context context;
     // This system property can be used to set the default tenant id:
     private static final String TENANT = System.getProperty( "tenant" );
+    // These system properties set the number of workers per stage and the entities between progress messages:
+    private static final int LOAD_THREADS = NumberUtils.toInt( System.getProperty( "load.threads" ), 1 );
+    private static final int LOAD_PROGRESS = NumberUtils.toInt( System.getProperty( "load.progress" ), 1000 );
+    private final BulkLoader loader = new BulkLoader( LOAD_THREADS, LOAD_PROGRESS );
     private String tenant;
 
     public String getTenant()
@@ -952,6 +963,7 @@ public class FortressAntTask extends Task implements InputHandler
         addUserAdminRoles();
         addUserRoles();
         addRoleConstraints();
+        loader.shutdown();
 
         testResults();
 
@@ -997,11 +1009,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<UserAnt> users = new ArrayList<>();
         for ( Adduser adduser : addusers )
         {
-            List<UserAnt> users = adduser.getUsers();
-            for ( UserAnt user : users )
+            users.addAll( adduser.getUsers() );
+        }
+        loader.run( "addUsers", users, new BulkLoader.Work<UserAnt>()
+        {
+            @Override
+            public void load( UserAnt user )
             {
                 LOG.info( "addUsers tenant={} userid={} description={} orgUnit={}",
                     getTenant(), user.getUserId(), user.getDescription(), user.getOu() );
@@ -1014,7 +1031,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "addUsers userId [{}] caught SecurityException={}", user.getUserId(), se );
                 }
             }
-        }
+        } );
     }
 
     /**
@@ -1080,11 +1097,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<UserAnt> users = new ArrayList<>();
         for ( Deluser deluser : delusers )
         {
-            List<UserAnt> users = deluser.getUsers();
-            for ( UserAnt user : users )
+            users.addAll( deluser.getUsers() );
+        }
+        loader.run( "deleteUsers", users, new BulkLoader.Work<UserAnt>()
+        {
+            @Override
+            public void load( UserAnt user )
             {
                 LOG.info( "deleteUsers tenant={} userid={}", getTenant(), user.getUserId() );
                 try
@@ -1096,7 +1118,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "deleteUsers userId [{}] caught SecurityException={}", user.getUserId(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1342,11 +1364,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<UserRole> userroles = new ArrayList<>();
         for ( Adduserrole adduserrole : adduserroles )
         {
-            List<UserRole> userroles = adduserrole.getUserRoles();
-            for ( UserRole userRole : userroles )
+            userroles.addAll( adduserrole.getUserRoles() );
+        }
+        loader.run( "addUserRoles", userroles, new BulkLoader.Work<UserRole>()
+        {
+            @Override
+            public void load( UserRole userRole )
             {
                 LOG.info( "addUserRoles tenant={} userid={} role name={}", getTenant(), userRole.getUserId(), userRole.getName() );
                 try
@@ -1359,7 +1386,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "addUserRoles tenant={} userId={} roleName={} caught SecurityException={}", getTenant(), userRole.getUserId(), userRole.getName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1373,11 +1400,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<UserRole> userroles = new ArrayList<>();
         for ( Deluserrole deluserrole : deluserroles )
         {
-            List<UserRole> userroles = deluserrole.getUserRoles();
-            for ( UserRole userRole : userroles )
+            userroles.addAll( deluserrole.getUserRoles() );
+        }
+        loader.run( "delUserRoles", userroles, new BulkLoader.Work<UserRole>()
+        {
+            @Override
+            public void load( UserRole userRole )
             {
                 LOG.info( "delUserRoles tenant={} userid={} role name={}", getTenant(), userRole.getUserId(), userRole.getName() );
                 try
@@ -1389,7 +1421,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "delUserRoles tenant={} userId={} roleName={} caught SecurityException={}", getTenant(), userRole.getUserId(), userRole.getName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1484,11 +1516,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<Role> roles = new ArrayList<>();
         for ( Addrole addrole : addroles )
         {
-            List<Role> roles = addrole.getRoles();
-            for ( Role role : roles )
+            roles.addAll( addrole.getRoles() );
+        }
+        loader.run( "addRoles", roles, new BulkLoader.Work<Role>()
+        {
+            @Override
+            public void load( Role role )
             {
                 LOG.info( "addRoles tenant={} name={} description={}", getTenant(), role.getName(), role.getDescription() );
                 try
@@ -1500,7 +1537,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "addRoles tenant={} name [{}] caught SecurityException={}", getTenant(), role.getName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1684,11 +1721,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<PermObj> permObjs = new ArrayList<>();
         for ( AddpermObj addpermObj : addpermObjs )
         {
-            List<PermObj> permObjs = addpermObj.getPermObjs();
-            for ( PermObj permObj : permObjs )
+            permObjs.addAll( addpermObj.getPermObjs() );
+        }
+        loader.run( "addPermObjs", permObjs, new BulkLoader.Work<PermObj>()
+        {
+            @Override
+            public void load( PermObj permObj )
             {
                 LOG.info( "addPermObjs tenant={} objName={} description={} orgUnit={} type={}",
                     getTenant(), permObj.getObjName(), permObj.getDescription(), permObj.getOu(), permObj.getType() );
@@ -1719,7 +1761,7 @@ public class FortressAntTask extends Task implements InputHandler
                         getTenant(), permObj.getObjName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1733,11 +1775,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<PermObj> permObjs = new ArrayList<>();
         for ( DelpermObj delpermObj : delpermObjs )
         {
-            List<PermObj> permObjs = delpermObj.getObjs();
-            for ( PermObj permObj : permObjs )
+            permObjs.addAll( delpermObj.getObjs() );
+        }
+        loader.run( "deletePermObjs", permObjs, new BulkLoader.Work<PermObj>()
+        {
+            @Override
+            public void load( PermObj permObj )
             {
                 LOG.info( "deletePermObjs tenant={} objName={} description={}",
                     getTenant(), permObj.getObjName(), permObj.getDescription() );
@@ -1750,7 +1797,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "deletePermObjs tenant={} name [{}] caught SecurityException={}", getTenant(), permObj.getObjName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1764,11 +1811,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<PermAnt> permissions = new ArrayList<>();
         for ( AddpermOp addpermOp : addpermOps )
         {
-            List<PermAnt> permissions = addpermOp.getPermOps();
-            for ( PermAnt permission : permissions )
+            permissions.addAll( addpermOp.getPermOps() );
+        }
+        loader.run( "addPermOps", permissions, new BulkLoader.Work<PermAnt>()
+        {
+            @Override
+            public void load( PermAnt permission )
             {
                 LOG.info( "addPermOps tenant={} name={} objName={}", getTenant(), permission.getOpName(), permission.getObjName() );
                 try
@@ -1798,7 +1850,7 @@ public class FortressAntTask extends Task implements InputHandler
                         getTenant(), permission.getOpName(), permission.getObjName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1812,11 +1864,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<PermAnt> permissions = new ArrayList<>();
         for ( DelpermOp delpermOp : delpermOps )
         {
-            List<PermAnt> permissions = delpermOp.getPermOps();
-            for ( Permission permission : permissions )
+            permissions.addAll( delpermOp.getPermOps() );
+        }
+        loader.run( "deletePermOps", permissions, new BulkLoader.Work<PermAnt>()
+        {
+            @Override
+            public void load( PermAnt permission )
             {
                 LOG.info( "deletePermOps tenant={} name={} objName={}", getTenant(), permission.getOpName(), permission.getObjName() );
                 try
@@ -1829,7 +1886,7 @@ public class FortressAntTask extends Task implements InputHandler
                         getTenant(), permission.getOpName(), permission.getObjName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1843,11 +1900,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<PermGrant> permGrants = new ArrayList<>();
         for ( AddpermGrant addpermGrant : addpermGrants )
         {
-            List<PermGrant> permGrants = addpermGrant.getPermGrants();
-            for ( PermGrant permGrant : permGrants )
+            permGrants.addAll( addpermGrant.getPermGrants() );
+        }
+        loader.run( "addPermGrants", permGrants, new BulkLoader.Work<PermGrant>()
+        {
+            @Override
+            public void load( PermGrant permGrant )
             {
                 try
                 {
@@ -1876,7 +1938,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "addPermGrants tenant={} roleName={} objName={} opName={} objId={} caught SecurityException={}" , getTenant(), permGrant.getRoleNm(), permGrant.getObjName(), permGrant.getOpName(), permGrant.getObjId(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -1890,11 +1952,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<PermGrant> permGrants = new ArrayList<>();
         for ( DelpermGrant delpermGrant : delpermGrants )
         {
-            List<PermGrant> permGrants = delpermGrant.getPermGrants();
-            for ( PermGrant permGrant : permGrants )
+            permGrants.addAll( delpermGrant.getPermGrants() );
+        }
+        loader.run( "deletePermGrants", permGrants, new BulkLoader.Work<PermGrant>()
+        {
+            @Override
+            public void load( PermGrant permGrant )
             {
                 try
                 {
@@ -1923,7 +1990,7 @@ public class FortressAntTask extends Task implements InputHandler
                     LOG.warn( "deletePermGrants tenant={} roleName={} objName={} opName={} objId={} caught SecurityException={}" , getTenant(), permGrant.getRoleNm(), permGrant.getObjName(), permGrant.getOpName(), permGrant.getObjId(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -2454,11 +2521,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<UserAdminRole> userroles = new ArrayList<>();
         for ( Adduseradminrole adduserrole : adduseradminroles )
         {
-            List<UserAdminRole> userroles = adduserrole.getUserRoles();
-            for ( UserAdminRole userRole : userroles )
+            userroles.addAll( adduserrole.getUserRoles() );
+        }
+        loader.run( "addUserAdminRoles", userroles, new BulkLoader.Work<UserAdminRole>()
+        {
+            @Override
+            public void load( UserAdminRole userRole )
             {
                 LOG.info( "addUserAdminRoles tenant={} userid={} role name={}", getTenant(), userRole.getUserId(), userRole.getName() );
                 try
@@ -2472,7 +2544,7 @@ public class FortressAntTask extends Task implements InputHandler
                         getTenant(), userRole.getUserId(), userRole.getName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -2486,11 +2558,16 @@ public class FortressAntTask extends Task implements InputHandler
             return;
         }
 
-        // Loop through the entityclass elements
+        // Gather the entities of the entityclass elements into one stage:
+        List<UserAdminRole> userroles = new ArrayList<>();
         for ( Deluseradminrole deluserrole : deluseradminroles )
         {
-            List<UserAdminRole> userroles = deluserrole.getUserRoles();
-            for ( UserAdminRole userRole : userroles )
+            userroles.addAll( deluserrole.getUserRoles() );
+        }
+        loader.run( "delUserAdminRoles", userroles, new BulkLoader.Work<UserAdminRole>()
+        {
+            @Override
+            public void load( UserAdminRole userRole )
             {
                 LOG.info( "delUserAdminRoles tenant={} userid={} role name={}", getTenant(), userRole.getUserId(), userRole.getName() );
                 try
@@ -2503,7 +2580,7 @@ public class FortressAntTask extends Task implements InputHandler
                         getTenant(), userRole.getUserId(), userRole.getName(), se );
                 }
             }
-        }
+        } );
     }
 
 
@@ -207,6 +207,62 @@ final class AcceleratorDAO extends LdapDataProvider
     }
 
 
+    /**
+     * Perform user impl authorization for a list of permissions on behalf of the same session.  The accelerator
+     * evaluates one permission per extended operation so the operations are sent in turn over the same connection.
+     * It uses the {@link RbacCheckAccessRequest} and {@link RbacCheckAccessResponse} accelerator APIs.
+     *
+     * @param session This object must be instantiated by calling {@link #createSession} method before passing into the method.  No variables need to be set by client after returned from createSession.
+     * @param perms  each must contain the object, {@link org.apache.directory.fortress.core.model.Permission#objName}, and operation, {@link org.apache.directory.fortress.core.model.Permission#opName}, of permission User is trying to access.
+     * @return List of decisions, True if user has access, in the same order as perms.
+     * @throws SecurityException rethrows {@code LdapException} with {@code GlobalErrIds.ACEL_CHECK_ACCESS_ERR}.
+     */
+    List<Boolean> checkAccess( Session session, List<Permission> perms ) throws SecurityException
+    {
+        List<Boolean> results = new ArrayList<>( perms.size() );
+        LdapConnection ld = null;
+        Permission perm = null;
+
+        try
+        {
+            ld = getAdminConnection();
+            for ( Permission nextPerm : perms )
+            {
+                perm = nextPerm;
+                RbacCheckAccessRequest rbacCheckAccessRequest = new RbacCheckAccessRequestImpl();
+                rbacCheckAccessRequest.setSessionId( session.getSessionId() );
+                rbacCheckAccessRequest.setObject( perm.getObjName() );
+
+                // objectId is optional
+                if ( StringUtils.isNotEmpty( perm.getObjId() ) )
+                {
+                    rbacCheckAccessRequest.setObjectId( perm.getObjId() );
+                }
+
+                rbacCheckAccessRequest.setOperation( perm.getOpName() );
+                // Send the request
+                RbacCheckAccessResponse rbacCheckAccessResponse = ( RbacCheckAccessResponse ) ld.extended(
+                    rbacCheckAccessRequest );
+                LOG.debug( "checkAccess result: {}", rbacCheckAccessResponse.getLdapResult().getResultCode() );
+
+                results.add( rbacCheckAccessResponse.getLdapResult().getResultCode() == ResultCodeEnum.SUCCESS );
+            }
+        }
+        catch ( LdapException e )
+        {
+            String error = "checkAccess perm obj [" + ( perm != null ? perm.getObjName() : null ) + "], operation ["
+                + ( perm != null ? perm.getOpName() : null ) + "] caught LDAPException=" + " msg=" + e.getMessage();
+            throw new SecurityException( GlobalErrIds.ACEL_CHECK_ACCESS_ERR, error, e );
+        }
+        finally
+        {
+            closeAdminConnection( ld );
+        }
+
+        return results;
+    }
+
+
     /**
      * Deactivate user role from impl session
      * This function follows the pattern from: {@link org.apache.directory.fortress.core.AccessMgr#dropActiveRole(org.apache.directory.fortress.core.model.Session, org.apache.directory.fortress.core.model.UserRole)}.
@@ -112,7 +112,9 @@ public class AccessMgrImpl extends Manageable implements AccessMgr, Serializable
     {
         String methodName = "createSession";
         assertContext( CLS_NM, methodName, user, GlobalErrIds.USER_NULL );
-        return userP.createSession( user, isTrusted );
+        Session session = userP.createSession( user, isTrusted );
+        SessionStore.getInstance().put( session );
+        return session;
     }
 
     /**
@@ -125,7 +127,9 @@ public class AccessMgrImpl extends Manageable implements AccessMgr, Serializable
         String methodName = "createSession";
         assertContext( CLS_NM, methodName, user, GlobalErrIds.USER_NULL );
         VUtil.assertNotNull( constraints, GlobalErrIds.ROLE_CONSTRAINT_NULL, methodName );
-        return userP.createSession( user, constraints, isTrusted );
+        Session session = userP.createSession( user, constraints, isTrusted );
+        SessionStore.getInstance().put( session );
+        return session;
     }
 
     /**
@@ -137,8 +141,9 @@ public class AccessMgrImpl extends Manageable implements AccessMgr, Serializable
     {
         String methodName = "createSession";
         assertContext( CLS_NM, methodName, group, GlobalErrIds.GROUP_NULL );
-
-        return groupP.createSession( group );
+        Session session = groupP.createSession( group );
+        SessionStore.getInstance().put( session );
+        return session;
     }
 
     /**
@@ -164,6 +169,75 @@ public class AccessMgrImpl extends Manageable implements AccessMgr, Serializable
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation
+    public List<Boolean> checkAccess( Session session, List<Permission> perms )
+        throws SecurityException
+    {
+        String methodName = "checkAccess";
+        VUtil.assertNotNull( perms, GlobalErrIds.PERM_NULL, getFullMethodName( CLS_NM, methodName ) );
+        assertContext( CLS_NM, methodName, session, GlobalErrIds.USER_SESS_NULL );
+        for ( Permission perm : perms )
+        {
+            assertContext( CLS_NM, methodName, perm, GlobalErrIds.PERM_NULL );
+            VUtil.assertNotNullOrEmpty( perm.getOpName(), GlobalErrIds.PERM_OPERATION_NULL,
+                getFullMethodName( CLS_NM, methodName ) );
+            VUtil.assertNotNullOrEmpty( perm.getObjName(), GlobalErrIds.PERM_OBJECT_NULL,
+                getFullMethodName( CLS_NM, methodName ) );
+        }
+        // The constraints are validated once for the whole list:
+        VUtil.getInstance().validateConstraints( session, VUtil.ConstraintType.USER, false );
+        VUtil.getInstance().validateConstraints( session, VUtil.ConstraintType.ROLE, false );
+        setEntitySession(CLS_NM, methodName, session);
+        return permP.checkPermissions( session, perms );
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="checkAccess")
+    public boolean checkAccess( String sessionId, Permission perm )
+        throws SecurityException
+    {
+        String methodName = "checkAccess";
+        VUtil.assertNotNullOrEmpty( sessionId, GlobalErrIds.USER_SESS_NULL, getFullMethodName( CLS_NM, methodName ) );
+        // a session created under another tenant is not found:
+        Session session = SessionStore.getInstance().get( sessionId, contextId );
+        if ( session == null )
+        {
+            String info = getFullMethodName( CLS_NM, methodName ) + " session [" + sessionId + "] not found";
+            throw new SecurityException( GlobalErrIds.USER_SESS_NOT_FOUND, info );
+        }
+        // the constraint checks may drop roles from the stored session:
+        synchronized ( session )
+        {
+            return checkAccess( session, perm );
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteSession( String sessionId )
+        throws SecurityException
+    {
+        VUtil.assertNotNullOrEmpty( sessionId, GlobalErrIds.USER_SESS_NULL,
+            getFullMethodName( CLS_NM, "deleteSession" ) );
+        // nor can it be deleted:
+        if ( SessionStore.getInstance().get( sessionId, contextId ) != null )
+        {
+            SessionStore.getInstance().delete( sessionId );
+        }
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -321,6 +395,7 @@ public class AccessMgrImpl extends Manageable implements AccessMgr, Serializable
 
         // Check role temporal constraints, not DSD, performed earlier:
         VUtil.getInstance().validateConstraints( session, VUtil.ConstraintType.ROLE, false );
+        SessionStore.getInstance().update( session );
     }
 
 
@@ -351,6 +426,7 @@ public class AccessMgrImpl extends Manageable implements AccessMgr, Serializable
         if ( indx != -1 )
         {
             activatedRoles.remove( role );
+            SessionStore.getInstance().update( session );
         }
         else
         {
@@ -1089,7 +1089,9 @@ public final class AdminMgrImpl extends Manageable implements AdminMgr, Serializ
             // default cardinality == 2
             dsdSet.setCardinality( 2 );
         }
-        return sdP.add( dsdSet );
+        SDSet dsdOut = sdP.add( dsdSet );
+        updateDSDCache( dsdSet );
+        return dsdOut;
     }
 
 
@@ -1103,7 +1105,9 @@ public final class AdminMgrImpl extends Manageable implements AdminMgr, Serializ
         assertContext( CLS_NM, methodName, dsdSet, GlobalErrIds.DSD_NULL );
         setEntitySession( CLS_NM, methodName, dsdSet );
         dsdSet.setType( SDSet.SDType.DYNAMIC );
-        return sdP.update( dsdSet );
+        SDSet dsdOut = sdP.update( dsdSet );
+        updateDSDCache( dsdSet );
+        return dsdOut;
     }
 
 
@@ -1123,8 +1127,8 @@ public final class AdminMgrImpl extends Manageable implements AdminMgr, Serializ
         entity.addMember( role.getName() );
         setAdminData( CLS_NM, methodName, entity );
         SDSet dsdOut = sdP.update( entity );
-        // remove any references to the old DSD from cache:
-        clearDSDCache( dsdSet );
+        // replace the old DSD in cache:
+        updateDSDCache( dsdSet );
         return dsdOut;
     }
 
@@ -1151,8 +1155,8 @@ public final class AdminMgrImpl extends Manageable implements AdminMgr, Serializ
         }
         setAdminData( CLS_NM, methodName, entity );
         SDSet dsdOut = sdP.update( entity );
-        // remove any references to the old DSD from cache:
-        clearDSDCache( dsdSet );
+        // replace the old DSD in cache:
+        updateDSDCache( dsdSet );
         return dsdOut;
     }
 
@@ -1168,9 +1172,10 @@ public final class AdminMgrImpl extends Manageable implements AdminMgr, Serializ
         assertContext( CLS_NM, methodName, dsdSet, GlobalErrIds.DSD_NULL );
         setEntitySession( CLS_NM, methodName, dsdSet );
         dsdSet.setType( SDSet.SDType.DYNAMIC );
+        SDSet dsdOut = sdP.delete( dsdSet );
         // remove any references to the old DSD from cache:
         clearDSDCache( dsdSet );
-        return sdP.delete( dsdSet );
+        return dsdOut;
     }
 
 
@@ -1186,18 +1191,30 @@ public final class AdminMgrImpl extends Manageable implements AdminMgr, Serializ
         setEntitySession( CLS_NM, methodName, dsdSet );
         dsdSet.setType( SDSet.SDType.DYNAMIC );
         dsdSet.setCardinality( cardinality );
-        // remove any references to the old DSD from cache:
-        clearDSDCache( dsdSet );
-        return sdP.update( dsdSet );
+        SDSet dsdOut = sdP.update( dsdSet );
+        // replace the old DSD in cache:
+        updateDSDCache( dsdSet );
+        return dsdOut;
     }
 
 
     /**
-     * Clear the DSD cache entries that correspond to this DSD
+     * Replace the DSD cache entries that correspond to this DSD with its current state
      *
      * @param dsdSet
      * @throws SecurityException
      */
+    private void updateDSDCache( SDSet dsdSet ) throws SecurityException
+    {
+        SDUtil.getInstance().updateDsdCacheEntry( dsdSet.getName(), contextId );
+    }
+
+
+    /**
+     * Clear the DSD cache entries that correspond to this DSD
+     *
+     * @param dsdSet
+     */
     private void clearDSDCache( SDSet dsdSet )
     {
         SDUtil.getInstance().clearDsdCacheEntry( dsdSet.getName(), contextId );
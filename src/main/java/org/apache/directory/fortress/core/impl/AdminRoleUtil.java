@@ -20,6 +20,7 @@
 package org.apache.directory.fortress.core.impl;
 
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -35,6 +36,7 @@ import org.apache.directory.fortress.core.model.Hier;
 import org.apache.directory.fortress.core.model.Relationship;
 import org.apache.directory.fortress.core.model.UserAdminRole;
 import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
 import org.apache.directory.fortress.core.util.cache.CacheMgr;
 import org.jgrapht.graph.SimpleDirectedGraph;
 import org.slf4j.Logger;
@@ -63,7 +65,7 @@ import org.slf4j.LoggerFactory;
  */
 final class AdminRoleUtil
 {
-    private static final Cache adminRoleCache;
+    private static final Cache<String, HierIndex> adminRoleCache;
     private static final AdminRoleP adminRoleP = new AdminRoleP();
     private static final String CLS_NM = AdminRoleUtil.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
@@ -76,6 +78,7 @@ final class AdminRoleUtil
     {
         CacheMgr cacheMgr = CacheMgr.getInstance();
         adminRoleCache = cacheMgr.getCache( "fortress.admin.roles" );
+        CacheInvalidator.start();
     }
 
     /**
@@ -88,7 +91,7 @@ final class AdminRoleUtil
 
     /**
      * Used to determine if one {@link org.apache.directory.fortress.core.model.AdminRole} is the parent of another.  This method
-     * will call recursive routine {@link #getAscendants(String, String)} to walk the {@code org.jgrapht.graph.SimpleDirectedGraph} data structure
+     * checks the precomputed closure, {@link HierIndex}, of the {@code org.jgrapht.graph.SimpleDirectedGraph} data structure
      * returning flag indicating if parent-child relationship is valid.
      *
      * @param child maps to logical {@link org.apache.directory.fortress.core.model.AdminRole#name} on 'ftRls' object class.
@@ -98,13 +101,7 @@ final class AdminRoleUtil
      */
     static boolean isParent( String child, String parent, String contextId )
     {
-        boolean result = false;
-        Set<String> parents = getAscendants( child, contextId );
-        if ( parents != null && parents.size() > 0 )
-        {
-            result = parents.contains( parent.toUpperCase() );
-        }
-        return result;
+        return getIndex( contextId ).isAscendant( child, parent );
     }
 
 
@@ -116,7 +113,7 @@ final class AdminRoleUtil
      */
     static Set<String> getDescendants( String roleName, String contextId )
     {
-        return HierUtil.getDescendants( roleName, getGraph( contextId ) );
+        return getIndex( contextId ).getDescendants( roleName );
     }
 
 
@@ -128,7 +125,7 @@ final class AdminRoleUtil
      */
     public static Set<String> getAscendants( String roleName, String contextId )
     {
-        return HierUtil.getAscendants( roleName, getGraph( contextId ) );
+        return getIndex( contextId ).getAscendants( roleName );
     }
 
 
@@ -182,17 +179,15 @@ final class AdminRoleUtil
 
         if ( CollectionUtils.isNotEmpty( uRoles ) )
         {
+            HierIndex index = getIndex( contextId );
+            BitSet ids = new BitSet( index.size() );
             for ( UserAdminRole uRole : uRoles )
             {
                 String rleName = uRole.getName();
                 iRoles.add( rleName );
-                Set<String> parents = HierUtil.getAscendants( rleName, getGraph( contextId ) );
-
-                if ( CollectionUtils.isNotEmpty( parents ) )
-                {
-                    iRoles.addAll( parents );
-                }
+                ids.or( index.getAscendantIds( index.getId( rleName ) ) );
             }
+            index.addNames( ids, iRoles );
         }
         return iRoles;
     }
@@ -200,7 +195,7 @@ final class AdminRoleUtil
 
     /**
      * This api is used by {@link DelAdminMgrImpl} to determine parentage for Hierarchical ARBAC processing.
-     * It calls {@link HierUtil#validateRelationship(org.jgrapht.graph.SimpleDirectedGraph, String, String, boolean)} to evaluate three adminRole relationship expressions:
+     * It calls {@link HierUtil#validateRelationship(HierIndex, String, String, boolean)} to evaluate three adminRole relationship expressions:
      * <ol>
      * <li>If child equals parent</li>
      * <li>If mustExist true and parent-child relationship exists</li>
@@ -217,14 +212,14 @@ final class AdminRoleUtil
     static void validateRelationship( AdminRole childRole, AdminRole parentRole, boolean mustExist )
         throws ValidationException
     {
-        HierUtil.validateRelationship( getGraph( childRole.getContextId() ), childRole.getName(), parentRole.getName(),
+        HierUtil.validateRelationship( getIndex( childRole.getContextId() ), childRole.getName(), parentRole.getName(),
             mustExist );
     }
 
 
     /**
-     * This api allows synchronized access to allow updates to hierarchical relationships.
-     * Method will update the hierarchical data set and reload the JGraphT simple digraph with latest.
+     * This api serializes updates to the tenant's hierarchy without blocking its readers.
+     * Method will update a copy of the JGraphT simple digraph and replace the cached closure index with one that reflects the change.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
      * @param relationship contains parent-child relationship targeted for addition.
@@ -233,7 +228,28 @@ final class AdminRoleUtil
      */
     static void updateHier( String contextId, Relationship relationship, Hier.Op op ) throws SecurityException
     {
-        HierUtil.updateHier( getGraph( contextId ), relationship, op );
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            HierIndex index = HierUtil.updateHier( getIndex( contextId ), relationship, op );
+            adminRoleCache.put( key, index );
+        }
+    }
+
+
+    /**
+     * Drop the tenant's cached admin role hierarchy, which is reloaded from the directory on next use.  Called when another
+     * process has changed the hierarchy.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    static void invalidate( String contextId )
+    {
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            adminRoleCache.clear( key );
+        }
     }
 
 
@@ -242,31 +258,40 @@ final class AdminRoleUtil
      * using 3rd party lib, <a href="http://www.jgrapht.org/">JGraphT</a>.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing adminRole hierarchies.
+     * @return handle to closure index and simple digraph containing adminRole hierarchies.
      */
-    private static synchronized SimpleDirectedGraph<String, Relationship> loadGraph( String contextId )
+    private static HierIndex loadIndex( String contextId )
     {
-        Hier inHier = new Hier( Hier.Type.ROLE );
-        inHier.setContextId( contextId );
-        LOG.info( "loadGraph initializing ADMIN ROLE context [{}]", inHier.getContextId() );
-        List<Graphable> descendants = null;
-
+        HierIndex index;
         try
         {
-            descendants = adminRoleP.getAllDescendants( inHier.getContextId() );
+            index = readIndex( contextId );
         }
         catch ( SecurityException se )
         {
             LOG.info( "loadGraph caught SecurityException={}", se );
+            index = HierUtil.buildIndex( HierUtil.loadHier( contextId, null ) );
         }
+        return index;
+    }
 
-        Hier hier = HierUtil.loadHier( contextId, descendants );
-        SimpleDirectedGraph<String, Relationship> graph;
-
-        graph = HierUtil.buildGraph( hier );
-        adminRoleCache.put( getKey( contextId ), graph );
 
-        return graph;
+    /**
+     * Read the tenant's adminRole hierarchies from the directory, for {@link HierRefresher}, which must not replace the
+     * cached hierarchy with an empty one when the read fails.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to closure index and simple digraph containing adminRole hierarchies.
+     * @throws SecurityException in the event of a system error.
+     */
+    private static HierIndex readIndex( String contextId ) throws SecurityException
+    {
+        Hier inHier = new Hier( Hier.Type.ROLE );
+        inHier.setContextId( contextId );
+        LOG.info( "loadGraph initializing ADMIN ROLE context [{}]", inHier.getContextId() );
+        List<Graphable> descendants = adminRoleP.getAllDescendants( inHier.getContextId() );
+        Hier hier = HierUtil.loadHier( contextId, descendants );
+        return HierUtil.buildIndex( hier );
     }
 
 
@@ -275,24 +300,39 @@ final class AdminRoleUtil
      * using 3rd party lib, <a href="http://www.jgrapht.org/">JGraphT</a>.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing adminRole hierarchies.
+     * @return handle to closure index and simple digraph containing adminRole hierarchies.
+     */
+    private static HierIndex getIndex( final String contextId )
+    {
+        // one load per tenant at a time, callers that miss while it runs wait for its index:
+        return adminRoleCache.get( getKey( contextId ), new CacheLoader<String, HierIndex, RuntimeException>()
+        {
+            @Override
+            public HierIndex load( String key )
+            {
+                HierIndex index = loadIndex( contextId );
+                HierRefresher.schedule( key, adminRoleCache, new CacheLoader<String, HierIndex, SecurityException>()
+                {
+                    @Override
+                    public HierIndex load( String refreshKey ) throws SecurityException
+                    {
+                        return readIndex( contextId );
+                    }
+                } );
+                return index;
+            }
+        } );
+    }
+
+
+    /**
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to simple digraph contained by the tenant's index.
      */
     private static SimpleDirectedGraph<String, Relationship> getGraph( String contextId )
     {
-        String key = getKey( contextId );        
-        LOG.debug("Getting graph for key " + contextId);
-         
-        SimpleDirectedGraph<String, Relationship> graph = ( SimpleDirectedGraph<String, Relationship> ) adminRoleCache
-                 .get( key );
-             
-        if(graph == null){
-            LOG.debug("Graph was null, creating... " + contextId);
-            return loadGraph( contextId );
-        }
-        else{
-            LOG.debug("Graph found in cache, returning...");
-            return graph;
-        }
+        return getIndex( contextId ).getGraph();
     }
 
 
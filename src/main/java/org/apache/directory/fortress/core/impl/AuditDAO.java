@@ -34,6 +34,8 @@ import org.apache.directory.api.ldap.model.message.SearchScope;
 import org.apache.directory.fortress.core.FinderException;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.ResultCursor;
+import org.apache.directory.fortress.core.ldap.EntryMapper;
 import org.apache.directory.fortress.core.ldap.LdapDataProvider;
 import org.apache.directory.fortress.core.model.AuthZ;
 import org.apache.directory.fortress.core.model.Bind;
@@ -318,31 +320,10 @@ final class AuditDAO extends LdapDataProvider
         List<AuthZ> auditList = new ArrayList<>();
         LdapConnection ld = null;
         String auditRoot = Config.getInstance().getProperty( AUDIT_ROOT );
-        String permRoot = getRootDn( audit.isAdmin(), audit.getContextId() );
-        String userRoot = getRootDn( audit.getContextId(), GlobalIds.USER_ROOT );
 
         try
         {
-            String reqDn = PermDAO.getOpRdn( audit.getOpName(), audit.getObjId() ) + "," + GlobalIds.POBJ_NAME + "="
-                + audit.getObjName() + "," + permRoot;
-            String filter = GlobalIds.FILTER_PREFIX + ACCESS_AUTHZ_CLASS_NM + ")(" + REQDN + "=" +
-                reqDn + ")(" + REQUAUTHZID + "=" + SchemaConstants.UID_AT + "=" + audit.getUserId() + "," + userRoot
-                + ")";
-
-            if ( audit.isFailedOnly() )
-            {
-                filter += "(" + REQRESULT + "=" + GlobalIds.AUTHZ_COMPARE_FAILURE_FLAG + ")";
-            }
-
-            if ( audit.getBeginDate() != null )
-            {
-                String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
-                filter += "(" + REQEND + ">=" + szTime + ")";
-            }
-
-            filter += ")";
-
-            //System.out.println("filter=" + filter);
+            String filter = getAuthZFilter( audit );
             ld = getLogConnection();
             SearchCursor searchResults = search( ld, auditRoot,
                 SearchScope.ONELEVEL, filter, AUDIT_AUTHZ_ATRS, false, Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, GlobalIds.BATCH_SIZE ) );
@@ -372,6 +353,62 @@ final class AuditDAO extends LdapDataProvider
     }
 
 
+    /**
+     * Same as {@link #searchAuthZs} but returns a cursor whose results are read from the log a page at a time.
+     *
+     * @param audit contains the search criteria.
+     * @return cursor over the matching authorization records, must be closed by caller.
+     * @throws FinderException in the event a connection can't be borrowed.
+     */
+    ResultCursor<AuthZ> searchAuthZsPaged( UserAudit audit ) throws FinderException
+    {
+        String auditRoot = Config.getInstance().getProperty( AUDIT_ROOT );
+        try
+        {
+            return searchLogPaged( auditRoot, SearchScope.ONELEVEL, getAuthZFilter( audit ), AUDIT_AUTHZ_ATRS,
+                new EntryMapper<AuthZ>()
+                {
+                    @Override
+                    public AuthZ map( Entry entry, long sequence ) throws LdapException
+                    {
+                        return getAuthzEntityFromLdapEntry( entry, sequence );
+                    }
+                }, GlobalErrIds.AUDT_AUTHZ_SEARCH_FAILED );
+        }
+        catch ( LdapException e )
+        {
+            String error = "LdapException in AuditDAO.searchAuthZsPaged id=" + e;
+            throw new FinderException( GlobalErrIds.AUDT_AUTHZ_SEARCH_FAILED, error, e );
+        }
+    }
+
+
+    private String getAuthZFilter( UserAudit audit )
+    {
+        String permRoot = getRootDn( audit.isAdmin(), audit.getContextId() );
+        String userRoot = getRootDn( audit.getContextId(), GlobalIds.USER_ROOT );
+        String reqDn = PermDAO.getOpRdn( audit.getOpName(), audit.getObjId() ) + "," + GlobalIds.POBJ_NAME + "="
+            + audit.getObjName() + "," + permRoot;
+        String filter = GlobalIds.FILTER_PREFIX + ACCESS_AUTHZ_CLASS_NM + ")(" + REQDN + "=" +
+            reqDn + ")(" + REQUAUTHZID + "=" + SchemaConstants.UID_AT + "=" + audit.getUserId() + "," + userRoot
+            + ")";
+
+        if ( audit.isFailedOnly() )
+        {
+            filter += "(" + REQRESULT + "=" + GlobalIds.AUTHZ_COMPARE_FAILURE_FLAG + ")";
+        }
+
+        if ( audit.getBeginDate() != null )
+        {
+            String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
+            filter += "(" + REQEND + ">=" + szTime + ")";
+        }
+
+        filter += ")";
+        return filter;
+    }
+
+
     private String getRootDn( boolean isAdmin, String contextId )
     {
         String dn;
@@ -473,49 +510,10 @@ final class AuditDAO extends LdapDataProvider
         List<Bind> auditList = new ArrayList<>();
         LdapConnection ld = null;
         String auditRoot = Config.getInstance().getProperty( AUDIT_ROOT );
-        String userRoot = getRootDn( audit.getContextId(), GlobalIds.USER_ROOT );
 
         try
         {
-            String filter;
-
-            if ( audit.getUserId() != null && audit.getUserId().length() > 0 )
-            {
-                filter = GlobalIds.FILTER_PREFIX + ACCESS_BIND_CLASS_NM + ")(" +
-                    REQDN + "=" + SchemaConstants.UID_AT + "=" + audit.getUserId() + "," + userRoot + ")";
-
-                if ( audit.isFailedOnly() )
-                {
-                    filter += "(" + REQRESULT + ">=" + 1 + ")";
-                }
-
-                if ( audit.getBeginDate() != null )
-                {
-                    String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
-                    filter += "(" + REQEND + ">=" + szTime + ")";
-                }
-
-                filter += ")";
-            }
-            else
-            {
-                filter = GlobalIds.FILTER_PREFIX + ACCESS_BIND_CLASS_NM + ")";
-
-                if ( audit.isFailedOnly() )
-                {
-                    filter += "(" + REQRESULT + ">=" + 1 + ")";
-                }
-
-                if ( audit.getBeginDate() != null )
-                {
-                    String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
-                    filter += "(" + REQEND + ">=" + szTime + ")";
-                }
-
-                filter += ")";
-            }
-
-            //log.warn("filter=" + filter);
+            String filter = getBindFilter( audit );
             ld = getLogConnection();
             SearchCursor searchResults = search( ld, auditRoot,
                 SearchScope.ONELEVEL, filter, AUDIT_BIND_ATRS, false, Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, GlobalIds.BATCH_SIZE ) );
@@ -546,24 +544,50 @@ final class AuditDAO extends LdapDataProvider
 
 
     /**
-     * @param audit
-     * @return
-     * @throws org.apache.directory.fortress.core.FinderException
+     * Same as {@link #searchBinds} but returns a cursor whose results are read from the log a page at a time.
      *
+     * @param audit contains the search criteria.
+     * @return cursor over the matching bind records, must be closed by caller.
+     * @throws FinderException in the event a connection can't be borrowed.
      */
-    List<Mod> searchUserMods( UserAudit audit ) throws FinderException
+    ResultCursor<Bind> searchBindsPaged( UserAudit audit ) throws FinderException
     {
-        List<Mod> modList = new ArrayList<>();
-        LdapConnection ld = null;
         String auditRoot = Config.getInstance().getProperty( AUDIT_ROOT );
+        try
+        {
+            return searchLogPaged( auditRoot, SearchScope.ONELEVEL, getBindFilter( audit ), AUDIT_BIND_ATRS,
+                new EntryMapper<Bind>()
+                {
+                    @Override
+                    public Bind map( Entry entry, long sequence ) throws LdapException
+                    {
+                        return getBindEntityFromLdapEntry( entry, sequence );
+                    }
+                }, GlobalErrIds.AUDT_BIND_SEARCH_FAILED );
+        }
+        catch ( LdapException e )
+        {
+            String error = "LdapException in AuditDAO.searchBindsPaged id=" + e;
+            throw new FinderException( GlobalErrIds.AUDT_BIND_SEARCH_FAILED, error, e );
+        }
+    }
+
 
+    private String getBindFilter( UserAudit audit )
+    {
         String userRoot = getRootDn( audit.getContextId(), GlobalIds.USER_ROOT );
+        String filter;
 
-        try
+        if ( audit.getUserId() != null && audit.getUserId().length() > 0 )
         {
-            String filter = GlobalIds.FILTER_PREFIX + ACCESS_MOD_CLASS_NM + ")(" +
+            filter = GlobalIds.FILTER_PREFIX + ACCESS_BIND_CLASS_NM + ")(" +
                 REQDN + "=" + SchemaConstants.UID_AT + "=" + audit.getUserId() + "," + userRoot + ")";
 
+            if ( audit.isFailedOnly() )
+            {
+                filter += "(" + REQRESULT + ">=" + 1 + ")";
+            }
+
             if ( audit.getBeginDate() != null )
             {
                 String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
@@ -571,7 +595,43 @@ final class AuditDAO extends LdapDataProvider
             }
 
             filter += ")";
-            //log.warn("filter=" + filter);
+        }
+        else
+        {
+            filter = GlobalIds.FILTER_PREFIX + ACCESS_BIND_CLASS_NM + ")";
+
+            if ( audit.isFailedOnly() )
+            {
+                filter += "(" + REQRESULT + ">=" + 1 + ")";
+            }
+
+            if ( audit.getBeginDate() != null )
+            {
+                String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
+                filter += "(" + REQEND + ">=" + szTime + ")";
+            }
+
+            filter += ")";
+        }
+        return filter;
+    }
+
+
+    /**
+     * @param audit
+     * @return
+     * @throws org.apache.directory.fortress.core.FinderException
+     *
+     */
+    List<Mod> searchUserMods( UserAudit audit ) throws FinderException
+    {
+        List<Mod> modList = new ArrayList<>();
+        LdapConnection ld = null;
+        String auditRoot = Config.getInstance().getProperty( AUDIT_ROOT );
+
+        try
+        {
+            String filter = getUserModFilter( audit );
             ld = getLogConnection();
             SearchCursor searchResults = search( ld, auditRoot,
                 SearchScope.ONELEVEL, filter, AUDIT_MOD_ATRS, false, Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, GlobalIds.BATCH_SIZE ) );
@@ -601,6 +661,53 @@ final class AuditDAO extends LdapDataProvider
     }
 
 
+    /**
+     * Same as {@link #searchUserMods} but returns a cursor whose results are read from the log a page at a time.
+     *
+     * @param audit contains the search criteria.
+     * @return cursor over the matching modification records, must be closed by caller.
+     * @throws FinderException in the event a connection can't be borrowed.
+     */
+    ResultCursor<Mod> searchUserModsPaged( UserAudit audit ) throws FinderException
+    {
+        String auditRoot = Config.getInstance().getProperty( AUDIT_ROOT );
+        try
+        {
+            return searchLogPaged( auditRoot, SearchScope.ONELEVEL, getUserModFilter( audit ), AUDIT_MOD_ATRS,
+                new EntryMapper<Mod>()
+                {
+                    @Override
+                    public Mod map( Entry entry, long sequence ) throws LdapException
+                    {
+                        return getModEntityFromLdapEntry( entry, sequence );
+                    }
+                }, GlobalErrIds.AUDT_MOD_SEARCH_FAILED );
+        }
+        catch ( LdapException e )
+        {
+            String error = "searchUserModsPaged caught LdapException id=" + e;
+            throw new FinderException( GlobalErrIds.AUDT_MOD_SEARCH_FAILED, error, e );
+        }
+    }
+
+
+    private String getUserModFilter( UserAudit audit )
+    {
+        String userRoot = getRootDn( audit.getContextId(), GlobalIds.USER_ROOT );
+        String filter = GlobalIds.FILTER_PREFIX + ACCESS_MOD_CLASS_NM + ")(" +
+            REQDN + "=" + SchemaConstants.UID_AT + "=" + audit.getUserId() + "," + userRoot + ")";
+
+        if ( audit.getBeginDate() != null )
+        {
+            String szTime = TUtil.encodeGeneralizedTime( audit.getBeginDate() );
+            filter += "(" + REQEND + ">=" + szTime + ")";
+        }
+
+        filter += ")";
+        return filter;
+    }
+
+
     /**
      * @param audit
      * @return
@@ -26,6 +26,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.directory.fortress.annotation.AdminPermissionOperation;
 import org.apache.directory.fortress.core.AuditMgr;
 import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.ReviewMgr;
 import org.apache.directory.fortress.core.ReviewMgrFactory;
 import org.apache.directory.fortress.core.SecurityException;
@@ -142,6 +143,21 @@ public class AuditMgrImpl extends Manageable implements AuditMgr, Serializable
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="searchAuthZs")
+    public ResultCursor<AuthZ> searchAuthZsPaged(UserAudit uAudit)
+        throws SecurityException
+    {
+        String methodName = "searchAuthZs";
+        assertContext(CLS_NM, methodName, uAudit, GlobalErrIds.AUDT_INPUT_NULL);
+        checkAccess(CLS_NM, methodName);
+        return auditP.searchAuthZsPaged(uAudit);
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -156,6 +172,21 @@ public class AuditMgrImpl extends Manageable implements AuditMgr, Serializable
         return auditP.searchBinds(uAudit);
     }
 
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="searchBinds")
+    public ResultCursor<Bind> searchBindsPaged(UserAudit uAudit)
+        throws SecurityException
+    {
+        String methodName = "searchBinds";
+        assertContext(CLS_NM, methodName, uAudit, GlobalErrIds.AUDT_INPUT_NULL);
+        checkAccess(CLS_NM, methodName);
+        return auditP.searchBindsPaged(uAudit);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -170,6 +201,20 @@ public class AuditMgrImpl extends Manageable implements AuditMgr, Serializable
         return auditP.searchUserMods(uAudit);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="searchUserSessions")
+    public ResultCursor<Mod> searchUserSessionsPaged(UserAudit uAudit)
+        throws SecurityException
+    {
+        String methodName = "searchUserSessions";
+        assertContext(CLS_NM, methodName, uAudit, GlobalErrIds.AUDT_INPUT_NULL);
+        checkAccess(CLS_NM, methodName);
+        return auditP.searchUserModsPaged(uAudit);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -22,6 +22,7 @@ package org.apache.directory.fortress.core.impl;
 
 import java.util.List;
 
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.model.AuthZ;
 import org.apache.directory.fortress.core.model.Bind;
@@ -83,6 +84,19 @@ final class AuditP
     }
 
 
+    /**
+     * Same as {@link #searchAuthZs} but the events are read a page at a time as the cursor advances.
+     *
+     * @param uAudit This entity is instantiated and populated before invocation.
+     * @return cursor over objects of type AuthZ, must be closed by caller.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<AuthZ> searchAuthZsPaged( UserAudit uAudit ) throws SecurityException
+    {
+        return aDao.searchAuthZsPaged( uAudit );
+    }
+
+
     /**
      * This method returns a list of authentication audit events for a particular user {@link UserAudit#userId},
      * and given timestamp field {@link UserAudit#beginDate}.<BR>
@@ -97,6 +111,19 @@ final class AuditP
     }
 
 
+    /**
+     * Same as {@link #searchBinds} but the events are read a page at a time as the cursor advances.
+     *
+     * @param uAudit This entity is instantiated and populated before invocation.
+     * @return cursor over objects of type Bind, must be closed by caller.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<Bind> searchBindsPaged( UserAudit uAudit ) throws SecurityException
+    {
+        return aDao.searchBindsPaged( uAudit );
+    }
+
+
     /**
      * This method returns a list of sessions created for a given user {@link UserAudit#userId},
      * and timestamp {@link UserAudit#beginDate}.<BR>
@@ -111,6 +138,19 @@ final class AuditP
     }
 
 
+    /**
+     * Same as {@link #searchUserMods} but the events are read a page at a time as the cursor advances.
+     *
+     * @param uAudit This entity is instantiated and populated before invocation.
+     * @return cursor over objects of type Mod, must be closed by caller.
+     * @throws SecurityException if a runtime system error occurs.
+     */
+    ResultCursor<Mod> searchUserModsPaged( UserAudit uAudit ) throws SecurityException
+    {
+        return aDao.searchUserModsPaged( uAudit );
+    }
+
+
     /**
      * This method returns a list of admin operations events for a particular entity {@link UserAudit#dn},
      * object {@link UserAudit#objName} and timestamp {@link UserAudit#beginDate}.  If the internal
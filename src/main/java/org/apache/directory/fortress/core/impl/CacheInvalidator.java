@@ -0,0 +1,497 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapOperationErrorException;
+import org.apache.directory.api.ldap.model.message.AliasDerefMode;
+import org.apache.directory.api.ldap.model.message.Control;
+import org.apache.directory.api.ldap.model.message.IntermediateResponse;
+import org.apache.directory.api.ldap.model.message.Response;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.SearchResultEntry;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.message.controls.ChangeType;
+import org.apache.directory.api.ldap.model.message.controls.EntryChange;
+import org.apache.directory.api.ldap.model.message.controls.OpaqueControl;
+import org.apache.directory.api.ldap.model.message.controls.PersistentSearchImpl;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.ldap.LdapDataProvider;
+import org.apache.directory.fortress.core.model.Permission;
+import org.apache.directory.fortress.core.util.Config;
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.future.SearchFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Follows changes made to the directory, by this or any other process, and drops the cache entries that hold the
+ * changed data so they are reloaded on next use.  This keeps the role, admin role, org unit hierarchies, the SoD
+ * constraints, password policy names and permission operations of a cluster of fortress instances consistent without
+ * waiting for entries to expire.
+ * <p>
+ * Enabled with fortress config param 'enable.cache.change.listener=true'.  A daemon thread holds one admin connection
+ * with a search that doesn't complete, per 'cache.change.listener.mode'.  The search is of the suffix, so that the
+ * containers of every tenant are covered, but is filtered on the object classes of the cached entries, roles, org
+ * units, SoD sets, permissions and password policies, so that changes to users and other entries aren't sent:
+ * <ul>
+ *   <li>psearch - the persistent search control, supported by ApacheDS and others (default).</li>
+ *   <li>sync - the content synchronization control, RFC 4533, in refreshAndPersist mode, supported by OpenLDAP.
+ *   Entries sent during the refresh phase are skipped.</li>
+ * </ul>
+ * If the search fails it is sent again after 'cache.change.listener.retry.millis', and as changes may have been
+ * missed in between, the caches are flushed.  The listener is stopped by
+ * {@link LdapDataProvider#closeAllConnectionPools()}.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class CacheInvalidator extends LdapDataProvider
+{
+    private static final String CLS_NM = CacheInvalidator.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String PSEARCH = "psearch";
+    private static final String SYNC = "sync";
+    private static final String SYNC_REQUEST_OID = "1.3.6.1.4.1.4203.1.9.1.1";
+    private static final String SYNC_INFO_OID = "1.3.6.1.4.1.4203.1.9.1.4";
+    // syncRequestValue ::= SEQUENCE { mode ENUMERATED { refreshAndPersist (3) } }
+    private static final byte[] REFRESH_AND_PERSIST = { 0x30, 0x03, 0x0A, 0x01, 0x03 };
+    private static final int DEFAULT_RETRY_MILLIS = 30000;
+    private static final long POLL_MILLIS = 1000;
+    private static final long SHUTDOWN_MILLIS = 5000;
+    private static final String[] OBJECT_CLASSES =
+        {
+            GlobalIds.ROLE_OBJECT_CLASS_NM,
+            "ftOrgUnit",
+            "ftSSDSet",
+            "ftDSDSet",
+            "ftObject",
+            "ftOperation"
+    };
+    private static final String[] CACHES =
+        {
+            "fortress.roles",
+            "fortress.admin.roles",
+            "fortress.uso",
+            "fortress.pso",
+            "fortress.dsd",
+            "fortress.ssd",
+            "fortress.policies",
+            "fortress.perms"
+    };
+
+    private static volatile CacheInvalidator sINSTANCE = null;
+
+    private final ChangeRouter router;
+    private final String suffix;
+    private final boolean isSync;
+    private final long retryMillis;
+    private final Thread listener;
+    private volatile boolean running = true;
+
+
+    /**
+     * Start the listener if fortress config param 'enable.cache.change.listener' is true and it isn't running yet.
+     * Called by the utilities that own the caches when they are created.
+     */
+    static void start()
+    {
+        if ( sINSTANCE == null && Config.getInstance().getBoolean( GlobalIds.ENABLE_CACHE_CHANGE_LISTENER, false ) )
+        {
+            synchronized ( CacheInvalidator.class )
+            {
+                if ( sINSTANCE == null )
+                {
+                    sINSTANCE = new CacheInvalidator();
+                    onClose( new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            shutdown();
+                        }
+                    } );
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Stop the listener if it is running.  Called when the connection pools are closed.
+     */
+    static void shutdown()
+    {
+        CacheInvalidator invalidator;
+        synchronized ( CacheInvalidator.class )
+        {
+            invalidator = sINSTANCE;
+            sINSTANCE = null;
+        }
+        if ( invalidator != null )
+        {
+            invalidator.stop();
+        }
+    }
+
+
+    private CacheInvalidator()
+    {
+        Config cfg = Config.getInstance();
+        suffix = cfg.getProperty( GlobalIds.SUFFIX );
+        router = new ChangeRouter( suffix, getRoots( cfg ) );
+        String mode = cfg.getProperty( GlobalIds.CACHE_CHANGE_LISTENER_MODE, PSEARCH );
+        isSync = SYNC.equalsIgnoreCase( mode );
+        retryMillis = cfg.getInt( GlobalIds.CACHE_CHANGE_LISTENER_RETRY_MILLIS, DEFAULT_RETRY_MILLIS );
+        listener = new Thread( new Listener(), "fortress-cache-listener" );
+        listener.setDaemon( true );
+        listener.start();
+        LOG.info( "CacheInvalidator started mode [{}] suffix [{}]", isSync ? SYNC : PSEARCH, suffix );
+    }
+
+
+    private static Map<String, ChangeRouter.Target> getRoots( Config cfg )
+    {
+        Map<String, ChangeRouter.Target> roots = new LinkedHashMap<>();
+        putRoot( roots, cfg, GlobalIds.ROLE_ROOT, ChangeRouter.Target.ROLE );
+        putRoot( roots, cfg, GlobalIds.ADMIN_ROLE_ROOT, ChangeRouter.Target.ADMIN_ROLE );
+        putRoot( roots, cfg, GlobalIds.OSU_ROOT, ChangeRouter.Target.USER_OU );
+        putRoot( roots, cfg, GlobalIds.PSU_ROOT, ChangeRouter.Target.PERM_OU );
+        putRoot( roots, cfg, GlobalIds.SD_ROOT, ChangeRouter.Target.SD );
+        putRoot( roots, cfg, GlobalIds.PERM_ROOT, ChangeRouter.Target.PERM );
+        putRoot( roots, cfg, GlobalIds.ADMIN_PERM_ROOT, ChangeRouter.Target.ADMIN_PERM );
+        putRoot( roots, cfg, GlobalIds.PPOLICY_ROOT, ChangeRouter.Target.POLICY );
+        return roots;
+    }
+
+
+    private static void putRoot( Map<String, ChangeRouter.Target> roots, Config cfg, String name,
+        ChangeRouter.Target target )
+    {
+        String dn = cfg.getProperty( name );
+        if ( StringUtils.isNotEmpty( dn ) )
+        {
+            roots.put( dn, target );
+        }
+    }
+
+
+    private void stop()
+    {
+        running = false;
+        try
+        {
+            listener.join( SHUTDOWN_MILLIS );
+        }
+        catch ( InterruptedException ie )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Send the search and drop the cache entries of each change returned, until the search fails or the listener is
+     * stopped.
+     *
+     * @param isReconnect true if a prior search failed, which flushes the caches once the search is sent.
+     * @throws LdapException in the event the search can't be sent or fails.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    private void listen( boolean isReconnect ) throws LdapException, InterruptedException
+    {
+        LdapConnection ld = null;
+        SearchFuture future = null;
+        try
+        {
+            ld = getAdminConnection();
+            future = searchAsync( ld, newSearchRequest() );
+            if ( future == null )
+            {
+                running = false;
+                LOG.error( "listen connection does not support asynchronous searches, listener stopped" );
+                return;
+            }
+            if ( isReconnect )
+            {
+                flush();
+            }
+            // the entries of the sync refresh phase are the current content, not changes:
+            boolean isPersisting = !isSync;
+            while ( running )
+            {
+                Response response = future.get( POLL_MILLIS, TimeUnit.MILLISECONDS );
+                if ( response instanceof SearchResultEntry )
+                {
+                    if ( isPersisting )
+                    {
+                        changed( ( SearchResultEntry ) response );
+                    }
+                }
+                else if ( response instanceof IntermediateResponse )
+                {
+                    if ( SYNC_INFO_OID.equals( ( ( IntermediateResponse ) response ).getResponseName() ) )
+                    {
+                        isPersisting = true;
+                    }
+                }
+                else if ( response instanceof SearchResultDone )
+                {
+                    future = null;
+                    ResultCodeEnum.processResponse( ( SearchResultDone ) response );
+                    throw new LdapOperationErrorException( "listen search done by server" );
+                }
+            }
+        }
+        finally
+        {
+            if ( future != null )
+            {
+                future.cancel( true );
+            }
+            closeAdminConnection( ld );
+        }
+    }
+
+
+    private SearchRequest newSearchRequest() throws LdapException
+    {
+        SearchRequest searchRequest = new SearchRequestImpl();
+        searchRequest.setBase( new Dn( suffix ) );
+        searchRequest.setScope( SearchScope.SUBTREE );
+        searchRequest.setFilter( getFilter() );
+        searchRequest.setDerefAliases( AliasDerefMode.NEVER_DEREF_ALIASES );
+        // only the dn of the changed entry is needed:
+        searchRequest.addAttributes( "1.1" );
+        Control control;
+        if ( isSync )
+        {
+            OpaqueControl syncRequest = new OpaqueControl( SYNC_REQUEST_OID, true );
+            syncRequest.setEncodedValue( REFRESH_AND_PERSIST );
+            control = syncRequest;
+        }
+        else
+        {
+            PersistentSearchImpl psearch = new PersistentSearchImpl();
+            psearch.setCritical( true );
+            psearch.setChangesOnly( true );
+            psearch.setReturnECs( true );
+            psearch.enableNotification( ChangeType.ADD );
+            psearch.enableNotification( ChangeType.DELETE );
+            psearch.enableNotification( ChangeType.MODIFY );
+            psearch.enableNotification( ChangeType.MODDN );
+            control = psearch;
+        }
+        searchRequest.addControl( control );
+        return searchRequest;
+    }
+
+
+    /**
+     * @return filter matching the entries whose changes are routed to a cache.
+     */
+    private static String getFilter()
+    {
+        StringBuilder filter = new StringBuilder( "(|" );
+        for ( String objectClass : OBJECT_CLASSES )
+        {
+            filter.append( "(objectClass=" ).append( objectClass ).append( ')' );
+        }
+        // the password policy object class depends on the directory, same as PolicyDAO:
+        String policyClass = Config.getInstance().isOpenldap() ? "pwdPolicy" : "ads-passwordPolicy";
+        filter.append( "(objectClass=" ).append( policyClass ).append( ')' );
+        return filter.append( ')' ).toString();
+    }
+
+
+    /**
+     * Drop the cache entries of a changed entry, and of its former dn when it was renamed.
+     *
+     * @param response contains the dn of the entry.
+     */
+    private void changed( SearchResultEntry response )
+    {
+        invalidate( response.getObjectName().getName() );
+        Control control = response.getControl( EntryChange.OID );
+        if ( control instanceof EntryChange && ( ( EntryChange ) control ).getPreviousDn() != null )
+        {
+            invalidate( ( ( EntryChange ) control ).getPreviousDn().getName() );
+        }
+    }
+
+
+    /**
+     * Drop the cache entries that hold data read from the entry.
+     *
+     * @param dn of the changed entry.
+     */
+    void invalidate( String dn )
+    {
+        ChangeRouter.Change change = router.route( dn );
+        if ( change == null )
+        {
+            return;
+        }
+        LOG.debug( "invalidate dn [{}] target [{}] context [{}]", dn, change.getTarget(), change.getContextId() );
+        String contextId = change.getContextId();
+        // default tenant entries are cached under both HOME and no contextId:
+        String[] contextIds = GlobalIds.HOME.equals( contextId ) ? new String[]
+            { GlobalIds.HOME, null } : new String[]
+            { contextId };
+        for ( String id : contextIds )
+        {
+            switch ( change.getTarget() )
+            {
+                case ROLE:
+                    RoleUtil.getInstance().invalidate( id );
+                    break;
+
+                case ADMIN_ROLE:
+                    AdminRoleUtil.invalidate( id );
+                    break;
+
+                case USER_OU:
+                    UsoUtil.getInstance().invalidate( id );
+                    break;
+
+                case PERM_OU:
+                    PsoUtil.getInstance().invalidate( id );
+                    break;
+
+                case SD:
+                    SDUtil.getInstance().clearDsdCache( id );
+                    SDUtil.getInstance().clearSsdCache();
+                    break;
+
+                case POLICY:
+                    PolicyP.invalidate( id );
+                    break;
+
+                default:
+                    invalidatePerm( change, id );
+                    break;
+            }
+        }
+    }
+
+
+    /**
+     * Drop the permission operation that changed, or every operation when the change is to a permission object.
+     */
+    private void invalidatePerm( ChangeRouter.Change change, String contextId )
+    {
+        String objName = change.getValue( GlobalIds.POBJ_NAME );
+        String opName = change.getValue( GlobalIds.POP_NAME );
+        if ( objName != null && opName != null )
+        {
+            Permission perm = new Permission( objName, opName, change.getValue( GlobalIds.POBJ_ID ) );
+            perm.setAdmin( change.getTarget() == ChangeRouter.Target.ADMIN_PERM );
+            perm.setContextId( contextId );
+            PermUtil.getInstance().clearPermCacheEntry( perm );
+        }
+        else
+        {
+            PermUtil.getInstance().clearPermCache();
+        }
+    }
+
+
+    /**
+     * Remove every entry of the caches this listener maintains.
+     */
+    private static void flush()
+    {
+        CacheMgr cacheMgr = CacheMgr.getInstance();
+        for ( String name : CACHES )
+        {
+            cacheMgr.getCache( name ).flush();
+        }
+        LOG.info( "flush caches after reconnect" );
+    }
+
+
+    /**
+     * Keeps the search open, sending it again after a failure.
+     */
+    private class Listener implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            boolean isReconnect = false;
+            while ( running )
+            {
+                try
+                {
+                    listen( isReconnect );
+                }
+                catch ( LdapException e )
+                {
+                    LOG.warn( "Listener caught LdapException={}, retry in [{}] millis", e.getMessage(),
+                        retryMillis );
+                }
+                catch ( InterruptedException ie )
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch ( RuntimeException e )
+                {
+                    LOG.warn( "Listener caught RuntimeException={}, retry in [{}] millis", e.toString(),
+                        retryMillis );
+                }
+                isReconnect = true;
+                sleep();
+            }
+        }
+
+
+        private void sleep()
+        {
+            long until = System.currentTimeMillis() + retryMillis;
+            try
+            {
+                // wake up regularly to notice the listener has been stopped:
+                while ( running && System.currentTimeMillis() < until )
+                {
+                    Thread.sleep( Math.min( POLL_MILLIS, retryMillis ) );
+                }
+            }
+            catch ( InterruptedException ie )
+            {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.fortress.core.GlobalIds;
+
+
+/**
+ * Maps the dn of an entry that was changed in the directory to the cache that holds data read from it.  A dn is
+ * routed by the container it was found under, one of the fortress roots, e.g. 'role.root', either directly or beneath
+ * a tenant's node, {@code ou=contextId}, which is placed just above the suffix.
+ * <p>
+ * Rdns are compared case insensitive.  This class holds no mutable state and is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class ChangeRouter
+{
+    private static final String OU = "ou=";
+
+    /**
+     * The caches that can be invalidated by a change.
+     */
+    enum Target
+    {
+        ROLE,
+        ADMIN_ROLE,
+        USER_OU,
+        PERM_OU,
+        SD,
+        PERM,
+        ADMIN_PERM,
+        POLICY
+    }
+
+    private final List<String> suffix;
+    // containers, less the suffix, in the order given:
+    private final Map<List<String>, Target> containers = new LinkedHashMap<>();
+
+
+    /**
+     * @param suffix contains the dn of the directory suffix, e.g. dc=example,dc=com.
+     * @param roots  maps the dn of each container, including the suffix, to its cache.  Roots outside of the suffix
+     *               are ignored.
+     */
+    ChangeRouter( String suffix, Map<String, Target> roots )
+    {
+        this.suffix = normalize( split( suffix ) );
+        for ( Map.Entry<String, Target> root : roots.entrySet() )
+        {
+            List<String> container = strip( normalize( split( root.getKey() ) ), this.suffix );
+            if ( container != null && !container.isEmpty() )
+            {
+                containers.put( container, root.getValue() );
+            }
+        }
+    }
+
+
+    /**
+     * Return the cache entry affected by a change to the given entry.
+     *
+     * @param dn of the entry that was added, modified, deleted or renamed.
+     * @return the change, or null if the entry isn't held by any cache.
+     */
+    Change route( String dn )
+    {
+        List<String> rdns = split( dn );
+        List<String> rest = strip( rdns, suffix );
+        if ( rest == null )
+        {
+            return null;
+        }
+        for ( Map.Entry<List<String>, Target> container : containers.entrySet() )
+        {
+            List<String> entry = strip( rest, container.getKey() );
+            if ( entry != null )
+            {
+                return new Change( container.getValue(), GlobalIds.HOME, entry );
+            }
+            // under a tenant:
+            if ( !rest.isEmpty() )
+            {
+                String tenant = rest.get( rest.size() - 1 );
+                if ( tenant.regionMatches( true, 0, OU, 0, OU.length() ) )
+                {
+                    entry = strip( rest.subList( 0, rest.size() - 1 ), container.getKey() );
+                    if ( entry != null )
+                    {
+                        return new Change( container.getValue(), value( tenant ), entry );
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Return the rdns left of the given tail, or null if the rdns don't end with it.
+     */
+    private static List<String> strip( List<String> rdns, List<String> tail )
+    {
+        int size = rdns.size() - tail.size();
+        if ( size < 0 )
+        {
+            return null;
+        }
+        for ( int i = 0; i < tail.size(); i++ )
+        {
+            if ( !rdns.get( size + i ).equalsIgnoreCase( tail.get( i ) ) )
+            {
+                return null;
+            }
+        }
+        return rdns.subList( 0, size );
+    }
+
+
+    private static List<String> normalize( List<String> rdns )
+    {
+        List<String> result = new ArrayList<>( rdns.size() );
+        for ( String rdn : rdns )
+        {
+            result.add( rdn.toLowerCase() );
+        }
+        return result;
+    }
+
+
+    /**
+     * Split a dn into its rdns, left to right, with blanks around the separators removed.  Escaped commas are kept.
+     *
+     * @param dn contains the distinguished name.
+     * @return list of rdns, empty if dn is empty.
+     */
+    static List<String> split( String dn )
+    {
+        return split( dn, ',' );
+    }
+
+
+    private static List<String> split( String value, char separator )
+    {
+        List<String> parts = new ArrayList<>();
+        if ( StringUtils.isBlank( value ) )
+        {
+            return parts;
+        }
+        StringBuilder part = new StringBuilder();
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            if ( c == '\\' && i + 1 < value.length() )
+            {
+                part.append( c ).append( value.charAt( ++i ) );
+            }
+            else if ( c == separator )
+            {
+                parts.add( trim( part.toString() ) );
+                part.setLength( 0 );
+            }
+            else
+            {
+                part.append( c );
+            }
+        }
+        parts.add( trim( part.toString() ) );
+        return parts;
+    }
+
+
+    /**
+     * Trim blanks other than an escaped trailing one.
+     */
+    private static String trim( String part )
+    {
+        String trimmed = part.trim();
+        if ( trimmed.endsWith( "\\" ) && part.length() > trimmed.length() )
+        {
+            trimmed += " ";
+        }
+        return trimmed;
+    }
+
+
+    /**
+     * Return the unescaped value of a single valued rdn, e.g. 'ou=acme' returns 'acme'.
+     */
+    private static String value( String ava )
+    {
+        int idx = ava.indexOf( '=' );
+        String escaped = ava.substring( idx + 1 ).trim();
+        StringBuilder value = new StringBuilder();
+        for ( int i = 0; i < escaped.length(); i++ )
+        {
+            char c = escaped.charAt( i );
+            if ( c == '\\' && i + 1 < escaped.length() )
+            {
+                c = escaped.charAt( ++i );
+            }
+            value.append( c );
+        }
+        return value.toString();
+    }
+
+
+    /**
+     * A change to an entry held by one of the caches.
+     */
+    static final class Change
+    {
+        private final Target target;
+        private final String contextId;
+        private final List<String> rdns;
+
+
+        private Change( Target target, String contextId, List<String> rdns )
+        {
+            this.target = target;
+            this.contextId = contextId;
+            this.rdns = Collections.unmodifiableList( new ArrayList<>( rdns ) );
+        }
+
+
+        /**
+         * @return the cache holding the entry.
+         */
+        Target getTarget()
+        {
+            return target;
+        }
+
+
+        /**
+         * @return the tenant of the entry, HOME if none.
+         */
+        String getContextId()
+        {
+            return contextId;
+        }
+
+
+        /**
+         * @return rdns of the entry below its container, left to right, empty if the container itself changed.
+         */
+        List<String> getRdns()
+        {
+            return rdns;
+        }
+
+
+        /**
+         * Return the unescaped value of the named attribute in the rdns, e.g. ftObjNm, searching each value of a
+         * multi-valued rdn.
+         *
+         * @param type name of the attribute, case insensitive.
+         * @return the value, or null if not found.
+         */
+        String getValue( String type )
+        {
+            for ( String rdn : rdns )
+            {
+                for ( String ava : split( rdn, '+' ) )
+                {
+                    int idx = ava.indexOf( '=' );
+                    if ( idx > 0 && ava.substring( 0, idx ).trim().equalsIgnoreCase( type ) )
+                    {
+                        return value( ava );
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -181,6 +181,26 @@ public class DelAccessMgrImpl extends AccessMgrImpl implements DelAccessMgr, Ser
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Boolean> checkAccess(Session session, List<Permission> perms)
+        throws SecurityException
+    {
+        String methodName =  "checkAccess";
+        VUtil.assertNotNull(perms, GlobalErrIds.PERM_NULL, methodName);
+        assertContext(CLS_NM, methodName, session, GlobalErrIds.USER_SESS_NULL);
+        for (Permission perm : perms)
+        {
+            assertContext(CLS_NM, methodName, perm, GlobalErrIds.PERM_NULL);
+            // This flag set will check administrative permission data set.
+            perm.setAdmin(true);
+        }
+        return super.checkAccess(session, perms);
+    }
+
+
     /**
      * {@inheritDoc}
      */
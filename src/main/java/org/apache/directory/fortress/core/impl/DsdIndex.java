@@ -0,0 +1,174 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.model.SDSet;
+
+
+/**
+ * Immutable inverted index from role name to the DSD sets that contain it, one per tenant.  It holds every DSD of the
+ * tenant, so a role that has no entry is known not to belong to any DSD and validation of a session never has to go
+ * back to the directory.  Changes produce a new index and leave this one untouched, which lets readers use it
+ * without locking.
+ * <p>
+ * Role and set names are case insensitive.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class DsdIndex
+{
+    // DSD sets by upper case name:
+    private final Map<String, SDSet> sets;
+    // DSD sets by upper case member name:
+    private final Map<String, Set<SDSet>> roles;
+
+
+    private DsdIndex( Map<String, SDSet> sets )
+    {
+        this.sets = sets;
+        this.roles = new HashMap<>();
+        for ( SDSet dsd : sets.values() )
+        {
+            if ( dsd.getMembers() != null )
+            {
+                for ( String member : dsd.getMembers() )
+                {
+                    if ( member != null && !member.equalsIgnoreCase( GlobalIds.NONE ) )
+                    {
+                        Set<SDSet> dsds = roles.get( member.toUpperCase() );
+                        if ( dsds == null )
+                        {
+                            dsds = new HashSet<>();
+                            roles.put( member.toUpperCase(), dsds );
+                        }
+                        dsds.add( dsd );
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Build the index of a tenant's DSD sets.
+     *
+     * @param dsds every DSD set of the tenant, may be null.
+     * @return new index.
+     */
+    static DsdIndex build( Collection<SDSet> dsds )
+    {
+        Map<String, SDSet> sets = new LinkedHashMap<>();
+        if ( dsds != null )
+        {
+            for ( SDSet dsd : dsds )
+            {
+                sets.put( dsd.getName().toUpperCase(), dsd );
+            }
+        }
+        return new DsdIndex( sets );
+    }
+
+
+    /**
+     * Return the DSD sets the role is a member of.
+     *
+     * @param roleName case insensitive.
+     * @return read only set, empty if the role isn't a member of any.
+     */
+    Set<SDSet> getDsdSets( String roleName )
+    {
+        Set<SDSet> dsds = roles.get( roleName.toUpperCase() );
+        return dsds != null ? Collections.unmodifiableSet( dsds ) : Collections.<SDSet>emptySet();
+    }
+
+
+    /**
+     * Return the DSD sets that any of the roles is a member of.
+     *
+     * @param roleNames case insensitive.
+     * @return new set, empty if none of the roles is a member of a DSD.
+     */
+    Set<SDSet> getDsdSets( Collection<String> roleNames )
+    {
+        Set<SDSet> result = new HashSet<>();
+        for ( String roleName : roleNames )
+        {
+            Set<SDSet> dsds = roles.get( roleName.toUpperCase() );
+            if ( dsds != null )
+            {
+                result.addAll( dsds );
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Return an index that contains the given DSD set in place of any prior version of it.
+     *
+     * @param dsd contains name and members.
+     * @return new index.
+     */
+    DsdIndex put( SDSet dsd )
+    {
+        Map<String, SDSet> next = new LinkedHashMap<>( sets );
+        next.put( dsd.getName().toUpperCase(), dsd );
+        return new DsdIndex( next );
+    }
+
+
+    /**
+     * Return an index without the named DSD set.
+     *
+     * @param name of DSD set, case insensitive.
+     * @return new index, or this one if it didn't contain the set.
+     */
+    DsdIndex remove( String name )
+    {
+        if ( !sets.containsKey( name.toUpperCase() ) )
+        {
+            return this;
+        }
+        Map<String, SDSet> next = new LinkedHashMap<>( sets );
+        next.remove( name.toUpperCase() );
+        return new DsdIndex( next );
+    }
+
+
+    /**
+     * @return number of DSD sets in the index.
+     */
+    int size()
+    {
+        return sets.size();
+    }
+}
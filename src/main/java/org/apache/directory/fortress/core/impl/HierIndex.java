@@ -0,0 +1,409 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.directory.fortress.core.model.Relationship;
+import org.jgrapht.graph.SimpleDirectedGraph;
+
+
+/**
+ * Transitive closure of a hierarchy graph, i.e. roles, admin roles, user ous or perm ous.  Every vertex is given a
+ * dense int id and maps to a bitset of its ascendants and a bitset of its descendants, so ancestry checks are a
+ * single bit lookup rather than a walk of the graph.
+ * <p>
+ * An index is immutable once built.  Changes to the hierarchy produce a new index with a higher {@link #getVersion()}
+ * via {@link #addEdge(SimpleDirectedGraph, String, String)} or {@link #removeEdge(SimpleDirectedGraph, String, String)};
+ * only the bitsets of the vertices that were affected are recomputed, the rest are shared with the prior version.  The
+ * {@link SimpleDirectedGraph} the index was built from is carried along for the one-level lookups, i.e. parents,
+ * children.  It must not be modified once the index has been built, a change is made to a copy of the graph which goes
+ * with the new index, so a reader holding an index always sees a graph that matches it.
+ * <p>
+ * Vertex names are stored upper case, lookups are case insensitive.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class HierIndex
+{
+    private static final BitSet EMPTY = new BitSet();
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final SimpleDirectedGraph<String, Relationship> graph;
+    private final Map<String, Integer> ids;
+    private final String[] names;
+    private final BitSet[] ascendants;
+    private final BitSet[] descendants;
+    private final long version;
+
+
+    private HierIndex( SimpleDirectedGraph<String, Relationship> graph, Map<String, Integer> ids, String[] names,
+        BitSet[] ascendants, BitSet[] descendants, long version )
+    {
+        this.graph = graph;
+        this.ids = ids;
+        this.names = names;
+        this.ascendants = ascendants;
+        this.descendants = descendants;
+        this.version = version;
+    }
+
+
+    /**
+     * Compute the closure of every vertex in the graph.
+     *
+     * @param graph contains the hierarchy, may be null.
+     * @return new index.
+     */
+    static HierIndex build( SimpleDirectedGraph<String, Relationship> graph )
+    {
+        if ( graph == null )
+        {
+            graph = new SimpleDirectedGraph<>( Relationship.class );
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        String[] names = new String[graph.vertexSet().size()];
+        for ( String vertex : graph.vertexSet() )
+        {
+            String name = vertex.toUpperCase();
+            if ( !ids.containsKey( name ) )
+            {
+                names[ids.size()] = name;
+                ids.put( name, ids.size() );
+            }
+        }
+        names = Arrays.copyOf( names, ids.size() );
+        BitSet[] ascendants = new BitSet[names.length];
+        BitSet[] descendants = new BitSet[names.length];
+        HierIndex index = new HierIndex( graph, ids, names, ascendants, descendants, VERSIONS.incrementAndGet() );
+        for ( int i = 0; i < names.length; i++ )
+        {
+            index.computeAscendants( i, null );
+        }
+        for ( int i = 0; i < names.length; i++ )
+        {
+            descendants[i] = new BitSet();
+        }
+        for ( int i = 0; i < names.length; i++ )
+        {
+            for ( int j = ascendants[i].nextSetBit( 0 ); j >= 0; j = ascendants[i].nextSetBit( j + 1 ) )
+            {
+                descendants[j].set( i );
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Return a new index that reflects the edge that was just added to a copy of this index's graph.
+     *
+     * @param nextGraph copy of the graph with the edge added, to be carried by the new index.
+     * @param child name of child vertex.
+     * @param parent name of parent vertex.
+     * @return new index with a higher version.
+     */
+    HierIndex addEdge( SimpleDirectedGraph<String, Relationship> nextGraph, String child, String parent )
+    {
+        HierIndex next = withVertices( nextGraph, child, parent );
+        int c = next.getId( child );
+        int p = next.getId( parent );
+
+        // Everything at or below the child inherits everything at or above the parent, and vice versa:
+        BitSet above = ( BitSet ) next.getAscendantIds( p ).clone();
+        above.set( p );
+        BitSet below = ( BitSet ) next.getDescendantIds( c ).clone();
+        below.set( c );
+        for ( int x = below.nextSetBit( 0 ); x >= 0; x = below.nextSetBit( x + 1 ) )
+        {
+            BitSet asc = ( BitSet ) next.ascendants[x].clone();
+            asc.or( above );
+            next.ascendants[x] = asc;
+        }
+        for ( int y = above.nextSetBit( 0 ); y >= 0; y = above.nextSetBit( y + 1 ) )
+        {
+            BitSet desc = ( BitSet ) next.descendants[y].clone();
+            desc.or( below );
+            next.descendants[y] = desc;
+        }
+        return next;
+    }
+
+
+    /**
+     * Return a new index that reflects the edge that was just removed from a copy of this index's graph.
+     *
+     * @param nextGraph copy of the graph with the edge removed, to be carried by the new index.
+     * @param child name of child vertex.
+     * @param parent name of parent vertex.
+     * @return new index with a higher version.
+     */
+    HierIndex removeEdge( SimpleDirectedGraph<String, Relationship> nextGraph, String child, String parent )
+    {
+        HierIndex next = withVertices( nextGraph, child, parent );
+        int c = next.getId( child );
+        int p = next.getId( parent );
+
+        // Only pairs with one member at or below the child and the other at or above the parent can change:
+        BitSet above = ( BitSet ) next.getAscendantIds( p ).clone();
+        above.set( p );
+        BitSet below = ( BitSet ) next.getDescendantIds( c ).clone();
+        below.set( c );
+        for ( int x = below.nextSetBit( 0 ); x >= 0; x = below.nextSetBit( x + 1 ) )
+        {
+            next.ascendants[x] = null;
+        }
+        for ( int x = below.nextSetBit( 0 ); x >= 0; x = below.nextSetBit( x + 1 ) )
+        {
+            next.computeAscendants( x, null );
+        }
+        for ( int y = above.nextSetBit( 0 ); y >= 0; y = above.nextSetBit( y + 1 ) )
+        {
+            BitSet desc = ( BitSet ) next.descendants[y].clone();
+            for ( int x = below.nextSetBit( 0 ); x >= 0; x = below.nextSetBit( x + 1 ) )
+            {
+                desc.set( x, next.ascendants[x].get( y ) );
+            }
+            next.descendants[y] = desc;
+        }
+        return next;
+    }
+
+
+    /**
+     * @return the graph this index was built from.
+     */
+    SimpleDirectedGraph<String, Relationship> getGraph()
+    {
+        return graph;
+    }
+
+
+    /**
+     * Versions are unique across all indexes in the process, so a value derived from one index, e.g. a session's
+     * authorized role set, can tell whether it is stale even after the hierarchy has been reloaded.
+     *
+     * @return version number, greater than that of any index built or changed before this one.
+     */
+    long getVersion()
+    {
+        return version;
+    }
+
+
+    /**
+     * @return number of vertices in the index.
+     */
+    int size()
+    {
+        return names.length;
+    }
+
+
+    /**
+     * Return the int id assigned to the vertex.
+     *
+     * @param name of vertex, case insensitive.
+     * @return id or -1 if the vertex is not in the hierarchy.
+     */
+    int getId( String name )
+    {
+        if ( name == null )
+        {
+            return -1;
+        }
+        Integer id = ids.get( name.toUpperCase() );
+        return id == null ? -1 : id;
+    }
+
+
+    /**
+     * @param id assigned to the vertex.
+     * @return upper case vertex name.
+     */
+    String getName( int id )
+    {
+        return names[id];
+    }
+
+
+    /**
+     * Return true if parent is an ascendant, direct or inherited, of child.
+     *
+     * @param child name of child vertex.
+     * @param parent name of parent vertex.
+     * @return true if parent is above child.
+     */
+    boolean isAscendant( String child, String parent )
+    {
+        int c = getId( child );
+        int p = getId( parent );
+        return c >= 0 && p >= 0 && ascendants[c].get( p );
+    }
+
+
+    /**
+     * Return the ids of the ascendants of the given vertex.  The bitset is shared and must not be modified.
+     *
+     * @param id assigned to the vertex.
+     * @return read only bitset, empty if id is out of range.
+     */
+    BitSet getAscendantIds( int id )
+    {
+        return id >= 0 && id < ascendants.length ? ascendants[id] : EMPTY;
+    }
+
+
+    /**
+     * Return the ids of the descendants of the given vertex.  The bitset is shared and must not be modified.
+     *
+     * @param id assigned to the vertex.
+     * @return read only bitset, empty if id is out of range.
+     */
+    BitSet getDescendantIds( int id )
+    {
+        return id >= 0 && id < descendants.length ? descendants[id] : EMPTY;
+    }
+
+
+    /**
+     * @param name of vertex, case insensitive.
+     * @return Set of upper case ascendant names, sorted with case insensitive comparator.
+     */
+    Set<String> getAscendants( String name )
+    {
+        return toNames( getAscendantIds( getId( name ) ) );
+    }
+
+
+    /**
+     * @param name of vertex, case insensitive.
+     * @return Set of upper case descendant names, sorted with case insensitive comparator.
+     */
+    Set<String> getDescendants( String name )
+    {
+        return toNames( getDescendantIds( getId( name ) ) );
+    }
+
+
+    /**
+     * Add the names of the given ids to the target set.
+     *
+     * @param idSet contains ids assigned by this index.
+     * @param target will receive the upper case names.
+     */
+    void addNames( BitSet idSet, Set<String> target )
+    {
+        for ( int i = idSet.nextSetBit( 0 ); i >= 0 && i < names.length; i = idSet.nextSetBit( i + 1 ) )
+        {
+            target.add( names[i] );
+        }
+    }
+
+
+    private Set<String> toNames( BitSet idSet )
+    {
+        Set<String> result = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
+        addNames( idSet, result );
+        return result;
+    }
+
+
+    /**
+     * Copy of this index, at a new version and carrying the given graph, with any new vertices appended.  The bitset
+     * arrays are copied but the bitsets themselves are shared, callers must replace rather than modify the ones that
+     * change.
+     */
+    private HierIndex withVertices( SimpleDirectedGraph<String, Relationship> nextGraph, String child, String parent )
+    {
+        Map<String, Integer> nextIds = ids;
+        String[] nextNames = names;
+        for ( String vertex : new String[]
+            { child, parent } )
+        {
+            String name = vertex.toUpperCase();
+            if ( !nextIds.containsKey( name ) )
+            {
+                if ( nextIds == ids )
+                {
+                    nextIds = new HashMap<>( ids );
+                }
+                nextNames = Arrays.copyOf( nextNames, nextNames.length + 1 );
+                nextNames[nextNames.length - 1] = name;
+                nextIds.put( name, nextNames.length - 1 );
+            }
+        }
+        BitSet[] nextAsc = Arrays.copyOf( ascendants, nextNames.length );
+        BitSet[] nextDesc = Arrays.copyOf( descendants, nextNames.length );
+        for ( int i = names.length; i < nextNames.length; i++ )
+        {
+            nextAsc[i] = new BitSet();
+            nextDesc[i] = new BitSet();
+        }
+        return new HierIndex( nextGraph, nextIds, nextNames, nextAsc, nextDesc, VERSIONS.incrementAndGet() );
+    }
+
+
+    /**
+     * Fill in the ascendant bitset of vertex i, and of any of its ascendants that are still missing, from the graph.
+     * Only called while the index is being built, before it is shared.
+     *
+     * @param i id of vertex.
+     * @param visiting guards against a cycle in the graph, which validation should have prevented.
+     * @return the ascendants of i.
+     */
+    private BitSet computeAscendants( int i, BitSet visiting )
+    {
+        if ( ascendants[i] != null )
+        {
+            return ascendants[i];
+        }
+        if ( visiting == null )
+        {
+            visiting = new BitSet();
+        }
+        BitSet result = new BitSet();
+        visiting.set( i );
+        if ( graph.containsVertex( names[i] ) )
+        {
+            for ( Relationship edge : graph.outgoingEdgesOf( names[i] ) )
+            {
+                Integer p = ids.get( edge.getParent().toUpperCase() );
+                if ( p != null && !visiting.get( p ) )
+                {
+                    result.set( p );
+                    result.or( computeAscendants( p, visiting ) );
+                }
+            }
+        }
+        visiting.clear( i );
+        ascendants[i] = result;
+        return result;
+    }
+}
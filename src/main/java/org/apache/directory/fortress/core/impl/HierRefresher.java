@@ -0,0 +1,473 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.ldap.LdapDataProvider;
+import org.apache.directory.fortress.core.util.Config;
+import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Reloads cached hierarchies in the background, before their cache entries expire, so callers are served the last
+ * version read rather than waiting on the directory.  Switched on by fortress config param 'hier.refresh.seconds',
+ * which should be less than the timeToLiveSeconds of the hierarchy caches in ehcache.xml.
+ * <p>
+ * {@link RoleUtil}, {@link AdminRoleUtil}, {@link UsoUtil} and {@link PsoUtil} call {@link #schedule} each time they
+ * load a tenant's hierarchy.  Every interval the hierarchy is read again and, holding {@link HierUtil#getLock(String)},
+ * swapped for the cached version if that hasn't changed in the meantime.  If the read fails, the cached version is put
+ * back so it doesn't expire while the directory is unavailable, until it is older than 'hier.max.staleness.seconds',
+ * ten intervals by default.  Then it is left to expire, and callers wait on the directory again.  A hierarchy that is
+ * dropped from the cache, e.g. by {@link CacheInvalidator}, stops being reloaded until it is loaded again.
+ * <p>
+ * The refresher is stopped, and its MBean unregistered, by {@link LdapDataProvider#closeAllConnectionPools()}.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class HierRefresher implements HierRefresherMBean
+{
+    private static final String CLS_NM = HierRefresher.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String OBJECT_NAME = "org.apache.directory.fortress:type=HierarchyRefresh";
+    private static final int MAX_STALENESS_INTERVALS = 10;
+
+    private static volatile HierRefresher sINSTANCE = null;
+
+    private final int intervalSeconds;
+    private final long maxStalenessMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, Task> tasks = new ConcurrentHashMap<>();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong totalReloadNanos = new AtomicLong();
+    private final AtomicLong maxReloadNanos = new AtomicLong();
+    private volatile long lastReloadNanos;
+
+
+    /**
+     * A hierarchy being reloaded, the cache that holds it and how to read it.
+     */
+    private static final class Task
+    {
+        private final Cache<String, HierIndex> cache;
+        private final CacheLoader<String, HierIndex, SecurityException> loader;
+        private volatile long loadTime;
+        private volatile ScheduledFuture<?> future;
+
+        private Task( Cache<String, HierIndex> cache, CacheLoader<String, HierIndex, SecurityException> loader )
+        {
+            this.cache = cache;
+            this.loader = loader;
+            this.loadTime = System.currentTimeMillis();
+        }
+    }
+
+
+    /**
+     * @param intervalSeconds seconds between reloads of each hierarchy.
+     * @param maxStalenessMillis age after which a hierarchy that can't be reloaded is left to expire.
+     * @param scheduler runs the reloads.
+     */
+    HierRefresher( int intervalSeconds, long maxStalenessMillis, ScheduledExecutorService scheduler )
+    {
+        this.intervalSeconds = intervalSeconds;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.scheduler = scheduler;
+    }
+
+
+    /**
+     * Return the refresher, starting it on first use, or null if fortress config param 'hier.refresh.seconds' isn't
+     * set.
+     */
+    private static HierRefresher getInstance()
+    {
+        if ( sINSTANCE == null )
+        {
+            int intervalSeconds = Config.getInstance().getInt( GlobalIds.HIER_REFRESH_SECONDS, 0 );
+            if ( intervalSeconds <= 0 )
+            {
+                return null;
+            }
+            synchronized ( HierRefresher.class )
+            {
+                if ( sINSTANCE == null )
+                {
+                    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactory()
+                        {
+                            @Override
+                            public Thread newThread( Runnable runnable )
+                            {
+                                Thread thread = new Thread( runnable, "fortress-hier-refresh" );
+                                thread.setDaemon( true );
+                                return thread;
+                            }
+                        } );
+                    int maxStalenessSeconds = Config.getInstance().getInt( GlobalIds.HIER_MAX_STALENESS_SECONDS,
+                        MAX_STALENESS_INTERVALS * intervalSeconds );
+                    if ( maxStalenessSeconds <= 0 )
+                    {
+                        maxStalenessSeconds = MAX_STALENESS_INTERVALS * intervalSeconds;
+                    }
+                    HierRefresher refresher = new HierRefresher( intervalSeconds,
+                        TimeUnit.SECONDS.toMillis( maxStalenessSeconds ), scheduler );
+                    refresher.registerMBean();
+                    LOG.info( "getInstance hierarchies are reloaded every [{}] seconds, kept for [{}] seconds",
+                        intervalSeconds, maxStalenessSeconds );
+                    sINSTANCE = refresher;
+                    LdapDataProvider.onClose( new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            shutdown();
+                        }
+                    } );
+                }
+            }
+        }
+        return sINSTANCE;
+    }
+
+
+    private static void shutdown()
+    {
+        HierRefresher refresher;
+        synchronized ( HierRefresher.class )
+        {
+            refresher = sINSTANCE;
+            sINSTANCE = null;
+        }
+        if ( refresher != null )
+        {
+            refresher.stop();
+        }
+    }
+
+
+    /**
+     * Cancel the reloads, end the thread that runs them and unregister the MBean.
+     */
+    void stop()
+    {
+        scheduler.shutdownNow();
+        tasks.clear();
+        unregisterMBean();
+        LOG.info( "stop {}", this );
+    }
+
+
+    /**
+     * Record that a hierarchy has been read from the directory and reload it every interval from now on.  Does nothing
+     * unless fortress config param 'hier.refresh.seconds' is set.
+     *
+     * @param key of the hierarchy's cache entry, i.e. its type and contextId.
+     * @param cache that holds the hierarchy.
+     * @param loader reads the hierarchy, throwing rather than returning an empty one if the directory can't be read.
+     */
+    static void schedule( String key, Cache<String, HierIndex> cache,
+        CacheLoader<String, HierIndex, SecurityException> loader )
+    {
+        HierRefresher refresher = getInstance();
+        if ( refresher != null )
+        {
+            refresher.add( key, cache, loader );
+        }
+    }
+
+
+    /**
+     * Add a hierarchy, or reset its load time if it's already reloaded.
+     */
+    void add( final String key, Cache<String, HierIndex> cache,
+        CacheLoader<String, HierIndex, SecurityException> loader )
+    {
+        Task task = new Task( cache, loader );
+        Task prior = tasks.putIfAbsent( key, task );
+        if ( prior != null )
+        {
+            prior.loadTime = task.loadTime;
+            return;
+        }
+        try
+        {
+            task.future = scheduler.scheduleWithFixedDelay( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    refresh( key );
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // stopped:
+            tasks.remove( key, task );
+        }
+    }
+
+
+    /**
+     * Reload one hierarchy and swap it in, unless it was updated or dropped while it was read.
+     *
+     * @param key of the hierarchy's cache entry.
+     */
+    void refresh( String key )
+    {
+        Task task = tasks.get( key );
+        if ( task == null )
+        {
+            return;
+        }
+        HierIndex prior = task.cache.get( key );
+        if ( prior == null )
+        {
+            // no longer cached, the next caller loads it and schedules it again:
+            remove( key, task );
+            return;
+        }
+        HierIndex next = null;
+        long start = System.nanoTime();
+        try
+        {
+            next = task.loader.load( key );
+        }
+        catch ( SecurityException | RuntimeException e )
+        {
+            failures.incrementAndGet();
+            LOG.warn( "refresh [{}] caught {}, keeping the prior version", key, e.toString() );
+        }
+        record( System.nanoTime() - start );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            HierIndex current = task.cache.get( key );
+            if ( current != prior )
+            {
+                if ( next != null )
+                {
+                    skipped.incrementAndGet();
+                }
+                if ( current == null )
+                {
+                    remove( key, task );
+                }
+            }
+            else if ( next != null )
+            {
+                task.cache.put( key, next );
+                task.loadTime = System.currentTimeMillis();
+                refreshes.incrementAndGet();
+            }
+            else if ( System.currentTimeMillis() - task.loadTime < maxStalenessMillis )
+            {
+                // serve the last good version until the directory can be read:
+                task.cache.put( key, prior );
+            }
+            else
+            {
+                // too old to keep serving, left to expire:
+                expired.incrementAndGet();
+                LOG.warn( "refresh [{}] prior version is older than [{}] millis, no longer kept", key,
+                    maxStalenessMillis );
+            }
+        }
+    }
+
+
+    private void remove( String key, Task task )
+    {
+        if ( tasks.remove( key, task ) && task.future != null )
+        {
+            task.future.cancel( false );
+        }
+    }
+
+
+    private void record( long nanos )
+    {
+        lastReloadNanos = nanos;
+        reloads.incrementAndGet();
+        totalReloadNanos.addAndGet( nanos );
+        long max = maxReloadNanos.get();
+        while ( nanos > max && !maxReloadNanos.compareAndSet( max, nanos ) )
+        {
+            max = maxReloadNanos.get();
+        }
+    }
+
+
+    @Override
+    public int getIntervalSeconds()
+    {
+        return intervalSeconds;
+    }
+
+
+    @Override
+    public int getHierarchies()
+    {
+        return tasks.size();
+    }
+
+
+    @Override
+    public long getMaxStalenessLimitMillis()
+    {
+        return maxStalenessMillis;
+    }
+
+
+    @Override
+    public long getRefreshCount()
+    {
+        return refreshes.get();
+    }
+
+
+    @Override
+    public long getFailureCount()
+    {
+        return failures.get();
+    }
+
+
+    @Override
+    public long getSkippedCount()
+    {
+        return skipped.get();
+    }
+
+
+    @Override
+    public long getExpiredCount()
+    {
+        return expired.get();
+    }
+
+
+    @Override
+    public long getLastReloadMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( lastReloadNanos );
+    }
+
+
+    @Override
+    public long getMaxReloadMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( maxReloadNanos.get() );
+    }
+
+
+    @Override
+    public long getAverageReloadMillis()
+    {
+        long count = reloads.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis( totalReloadNanos.get() / count );
+    }
+
+
+    @Override
+    public long getMaxStalenessMillis()
+    {
+        long now = System.currentTimeMillis();
+        long staleness = 0;
+        for ( Task task : tasks.values() )
+        {
+            staleness = Math.max( staleness, now - task.loadTime );
+        }
+        return staleness;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "HierRefresher hierarchies=" + tasks.size() + ", refreshes=" + refreshes.get() + ", failures="
+            + failures.get() + ", skipped=" + skipped.get() + ", expired=" + expired.get() + ", maxReloadMillis="
+            + getMaxReloadMillis()
+            + ", maxStalenessMillis=" + getMaxStalenessMillis();
+    }
+
+
+    /**
+     * Register these metrics on the platform MBean server.
+     */
+    private void registerMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName( OBJECT_NAME );
+            if ( !server.isRegistered( name ) )
+            {
+                server.registerMBean( this, name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "registerMBean caught Exception={}", e.toString() );
+        }
+    }
+
+
+    private void unregisterMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName( OBJECT_NAME );
+            if ( server.isRegistered( name ) )
+            {
+                server.unregisterMBean( name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "unregisterMBean caught Exception={}", e.toString() );
+        }
+    }
+}
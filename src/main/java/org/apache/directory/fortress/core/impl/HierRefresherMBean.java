@@ -0,0 +1,97 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+/**
+ * Management interface of the background reloading of cached hierarchies, registered on the platform MBean server as
+ * 'org.apache.directory.fortress:type=HierarchyRefresh' when fortress config param 'hier.refresh.seconds' is set.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface HierRefresherMBean
+{
+    /**
+     * @return seconds between reloads of each hierarchy.
+     */
+    int getIntervalSeconds();
+
+
+    /**
+     * @return number of hierarchies, by type and tenant, currently reloaded in the background.
+     */
+    int getHierarchies();
+
+
+    /**
+     * @return age in milliseconds after which a hierarchy that can't be reloaded is no longer kept, per fortress config
+     * param 'hier.max.staleness.seconds'.
+     */
+    long getMaxStalenessLimitMillis();
+
+
+    /**
+     * @return number of reloads that replaced the cached hierarchy.
+     */
+    long getRefreshCount();
+
+
+    /**
+     * @return number of reloads that failed, the prior hierarchy was kept unless it was too old.
+     */
+    long getFailureCount();
+
+
+    /**
+     * @return number of failed reloads whose prior hierarchy was older than the staleness limit and left to expire.
+     */
+    long getExpiredCount();
+
+
+    /**
+     * @return number of reloads discarded because the hierarchy was updated or dropped while they ran.
+     */
+    long getSkippedCount();
+
+
+    /**
+     * @return duration of the last reload in milliseconds.
+     */
+    long getLastReloadMillis();
+
+
+    /**
+     * @return duration of the longest reload in milliseconds.
+     */
+    long getMaxReloadMillis();
+
+
+    /**
+     * @return mean duration of the reloads in milliseconds.
+     */
+    long getAverageReloadMillis();
+
+
+    /**
+     * @return age in milliseconds of the oldest hierarchy being served, i.e. the time since it was read from the
+     * directory.
+     */
+    long getMaxStalenessMillis();
+}
@@ -26,7 +26,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.directory.fortress.core.model.Graphable;
@@ -83,7 +84,7 @@ final class HierUtil
         PSO
     }
 
-    private static final Map<String, ReadWriteLock> synchMap = new HashMap<String, ReadWriteLock>();
+    private static final ConcurrentMap<String, Object> LOCKS = new ConcurrentHashMap<>();
 
 
     /**
@@ -94,6 +95,30 @@ final class HierUtil
     {
     }
 
+    /**
+     * Return the monitor that serializes the updating and invalidation of one hierarchy of one tenant, its loads are
+     * single-flight in the cache.  Readers don't take it, they get the current {@link HierIndex} from the cache, which is
+     * replaced rather than changed.
+     *
+     * @param key of the hierarchy's cache entry, i.e. its type and contextId.
+     * @return the same object for every call with the same key.
+     */
+    static Object getLock( String key )
+    {
+        Object lock = LOCKS.get( key );
+        if ( lock == null )
+        {
+            Object newLock = new Object();
+            lock = LOCKS.putIfAbsent( key, newLock );
+            if ( lock == null )
+            {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+
     /**
      * This api is used to determine parentage for Hierarchical processing.
      * It evaluates three relationship expressions:
@@ -105,15 +130,14 @@ final class HierUtil
      * Method will throw {@link org.apache.directory.fortress.core.ValidationException} if rule check fails meaning caller failed validation
      * attempt to add/remove hierarchical relationship failed.
      *
-     * @param graph     contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
+     * @param index     contains the closure of the hierarchy along with its simple digraph.
      * @param child     contains name of child.
      * @param parent    contains name of parent.
      * @param mustExist boolean is used to specify if relationship must be true.
      * @throws org.apache.directory.fortress.core.ValidationException
      *          in the event it fails one of the 3 checks.
      */
-    static void validateRelationship( SimpleDirectedGraph<String, Relationship> graph, String child, String parent,
-        boolean mustExist )
+    static void validateRelationship( HierIndex index, String child, String parent, boolean mustExist )
         throws ValidationException
     {
         // Ensure the two nodes aren't the same:
@@ -124,19 +148,19 @@ final class HierUtil
         }
         Relationship rel = new Relationship( child.toUpperCase(), parent.toUpperCase() );
         // Ensure there is a valid child to parent relationship.
-        if ( mustExist && !isRelationship( graph, rel ) )
+        if ( mustExist && !isRelationship( index.getGraph(), rel ) )
         {
             String error = "validateRelationship child [" + child + "] does not have parent [" + parent + "]";
             throw new ValidationException( GlobalErrIds.HIER_REL_NOT_EXIST, error );
         }
         // Ensure the child doesn't already have the parent as an ascendant.
-        else if ( !mustExist && isAscendant( child, parent, graph ) )
+        else if ( !mustExist && index.isAscendant( child, parent ) )
         {
             String error = "validateRelationship child [" + child + "] already has parent [" + parent + "]";
             throw new ValidationException( GlobalErrIds.HIER_REL_EXIST, error );
         }
         // Prevent cycles by making sure the child isn't an ascendant of parent.
-        else if ( !mustExist && isDescedant( parent, child, graph ) )
+        else if ( !mustExist && index.isAscendant( parent, child ) )
         {
             String error = "validateRelationship child [" + child + "] is parent of [" + parent + "]";
             throw new ValidationException( GlobalErrIds.HIER_REL_CYCLIC, error );
@@ -183,38 +207,43 @@ final class HierUtil
 
 
     /**
-     * This method is synchronized and adds an edge and its associated vertices to simple directed graph stored in static memory of this process.
+     * This method adds an edge and its associated vertices to a simple directed graph that hasn't been published yet.
      *
-     * @param graph synchronized parameter contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
+     * @param graph contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
      * @param relation contains parent-child relationship targeted for addition.
-     * @return {@code org.jgrapht.graph.SimpleDirectedGraph} containing the vertices of {@code String}, and edges, as {@link Relationship}s that correspond to relational data.
      */
     private static void addEdge( SimpleDirectedGraph<String, Relationship> graph, Relationship relation )
     {
         LOG.debug( "addEdge" );
-        synchronized ( graph )
-        {
-            graph.addVertex( relation.getChild().toUpperCase() );
-            graph.addVertex( relation.getParent().toUpperCase() );
-            graph.addEdge( relation.getChild().toUpperCase(), relation.getParent().toUpperCase(), relation );
-        }
+        graph.addVertex( relation.getChild().toUpperCase() );
+        graph.addVertex( relation.getParent().toUpperCase() );
+        graph.addEdge( relation.getChild().toUpperCase(), relation.getParent().toUpperCase(), relation );
     }
 
 
     /**
-     * This method is synchronized and removes an edge from a simple directed graph stored in static memory of this process.
+     * This method removes an edge from a simple directed graph that hasn't been published yet.
      *
-     * @param graph synchronized parameter contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
+     * @param graph contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
      * @param relation contains parent-child relationship targeted for removal.
-     * @return {@code org.jgrapht.graph.SimpleDirectedGraph} containing the vertices of {@code String}, and edges, as {@link Relationship}s that correspond to relational data.
      */
     private static void removeEdge( SimpleDirectedGraph<String, Relationship> graph, Relationship relation )
     {
         LOG.debug( "removeEdge" );
-        synchronized ( graph )
-        {
-            graph.removeEdge( relation );
-        }
+        graph.removeEdge( relation );
+    }
+
+
+    /**
+     * Copy a published graph so it can be changed without affecting readers of the original.
+     *
+     * @param graph contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
+     * @return new graph with the same vertices and edges.
+     */
+    @SuppressWarnings("unchecked")
+    private static SimpleDirectedGraph<String, Relationship> copy( SimpleDirectedGraph<String, Relationship> graph )
+    {
+        return ( SimpleDirectedGraph<String, Relationship> ) graph.clone();
     }
 
 
@@ -352,48 +381,6 @@ final class HierUtil
     }
 
 
-    /**
-     * Recursively traverse the hierarchical graph and determine child node contains a given parent as one of its ascendants.
-     *
-     * @param childName maps to vertex to determine parentage.
-     * @param parentName maps to vertex to determine parentage.
-     * @param graph      contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
-     * @return Set of names that are children of given parent.
-     */
-    private static boolean isAscendant( String childName, String parentName,
-        SimpleDirectedGraph<String, Relationship> graph )
-    {
-        boolean isAscendant = false;
-        Set<String> ascendants = getAscendants( childName, graph );
-        if ( ascendants.contains( parentName ) )
-        {
-            isAscendant = true;
-        }
-        return isAscendant;
-    }
-
-
-    /**
-     * Recursively traverse the hierarchical graph and determine if parent node contains a given child as one of its descendants.
-     *
-     * @param childName maps to vertex to determine parentage.
-     * @param parentName maps to vertex to determine parentage.
-     * @param graph      contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
-     * @return Set of names that are children of given parent.
-     */
-    private static boolean isDescedant( String childName, String parentName,
-        SimpleDirectedGraph<String, Relationship> graph )
-    {
-        boolean isDescendant = false;
-        Set<String> descendants = getDescendants( parentName, graph );
-        if ( descendants.contains( childName ) )
-        {
-            isDescendant = true;
-        }
-        return isDescendant;
-    }
-
-
     /**
      * Utility function recursively traverses a given digraph to build a set of all descendants names.
      *
@@ -618,21 +605,31 @@ final class HierUtil
 
 
     /**
-     * This api allows synchronized access to allow updates to hierarchical relationships.
-     * Method will update the hierarchical data set and reload the JGraphT simple digraph with latest.
+     * This api returns a new version of the hierarchy that reflects the change, the index passed in and its graph are
+     * left as they were so readers of the current version are unaffected.  Caller must hold {@link #getLock(String)}
+     * for the hierarchy so that concurrent updates aren't lost.
      *
-     * @param graph contains a reference to simple digraph {@code org.jgrapht.graph.SimpleDirectedGraph}.
+     * @param index contains the closure of the hierarchy along with its simple digraph.
      * @param relationship contains parent-child relationship targeted for addition.
      * @param op   used to pass the ldap op {@link Hier.Op#ADD}, {@link Hier.Op#MOD}, {@link org.apache.directory.fortress.core.model.Hier.Op#REM}
+     * @return new version of the index, the caller must replace the one passed in.
      * @throws org.apache.directory.fortress.core.SecurityException in the event of a system error.
      */
-    static void updateHier( SimpleDirectedGraph<String, Relationship> graph, Relationship relationship, Hier.Op op )
+    static HierIndex updateHier( HierIndex index, Relationship relationship, Hier.Op op )
         throws SecurityException
     {
         if ( op == Hier.Op.ADD )
+        {
+            SimpleDirectedGraph<String, Relationship> graph = copy( index.getGraph() );
             HierUtil.addEdge( graph, relationship );
+            return index.addEdge( graph, relationship.getChild(), relationship.getParent() );
+        }
         else if ( op == Hier.Op.REM )
+        {
+            SimpleDirectedGraph<String, Relationship> graph = copy( index.getGraph() );
             HierUtil.removeEdge( graph, relationship );
+            return index.removeEdge( graph, relationship.getChild(), relationship.getParent() );
+        }
         else
             throw new SecurityException( GlobalErrIds.HIER_CANNOT_PERFORM, CLS_NM
                 + "updateHier Cannot perform hierarchical operation" );
@@ -660,4 +657,18 @@ final class HierUtil
         LOG.debug( "buildGraph is success" );
         return graph;
     }
+
+
+    /**
+     * Method instantiates a new digraph using data passed in via {@link Hier} entity and computes its closure.
+     *
+     * @param hier contains the source data for digraph.
+     * @return reference to {@link HierIndex} containing the digraph.
+     */
+    static HierIndex buildIndex( Hier hier )
+    {
+        HierIndex index = HierIndex.build( buildGraph( hier ) );
+        LOG.debug( "buildIndex vertices [{}]", index.size() );
+        return index;
+    }
 }
@@ -67,7 +67,7 @@ final class OrgUnitP
     // these fields are used to synchronize access to the above static pools:
     private static final ReadWriteLock userPoolLock = new ReentrantReadWriteLock();
     private static final ReadWriteLock permPoolLock = new ReentrantReadWriteLock();
-    private static Cache ouCache;
+    private static Cache<String, Set<String>> ouCache;
 
     // DAO class for OU data sets must be initializer before the other statics:
     private OrgUnitDAO oDao = new OrgUnitDAO();
@@ -197,7 +197,7 @@ final class OrgUnitP
     private Set<String> getPermSet( OrgUnit orgUnit )
     {
         @SuppressWarnings("unchecked")
-        Set<String> permSet = ( Set<String> ) ouCache.get( getKey( PERM_OUS, orgUnit.getContextId() ) );
+        Set<String> permSet = ouCache.get( getKey( PERM_OUS, orgUnit.getContextId() ) );
 
         if ( permSet == null )
         {
@@ -216,7 +216,7 @@ final class OrgUnitP
     private Set<String> getUserSet( OrgUnit orgUnit )
     {
         @SuppressWarnings("unchecked")
-        Set<String> userSet = ( Set<String> ) ouCache.get( getKey( USER_OUS, orgUnit.getContextId() ) );
+        Set<String> userSet = ouCache.get( getKey( USER_OUS, orgUnit.getContextId() ) );
 
         if ( userSet == null )
         {
@@ -22,8 +22,11 @@ package org.apache.directory.fortress.core.impl;
 
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -48,7 +51,10 @@ import org.apache.directory.fortress.core.FinderException;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
 import org.apache.directory.fortress.core.RemoveException;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.UpdateException;
+import org.apache.directory.fortress.core.ldap.AuthZAuditWriter;
+import org.apache.directory.fortress.core.ldap.EntryMapper;
 import org.apache.directory.fortress.core.ldap.LdapDataProvider;
 import org.apache.directory.fortress.core.model.AdminRole;
 import org.apache.directory.fortress.core.model.ObjectFactory;
@@ -1244,9 +1250,17 @@ class PermDAO extends LdapDataProvider
         String dn = getOpRdn( inPerm.getOpName(), inPerm.getObjId() ) + "," + GlobalIds.POBJ_NAME + "="
             + inPerm.getObjName() + "," + getRootDn( inPerm.isAdmin(), inPerm.getContextId() );
 
+        // If the permission cache is enabled and contains this operation, the decision is made without reading from ldap server:
+        PermUtil.Entry cachedPerm = PermUtil.getInstance().getEntry( inPerm );
+        if ( cachedPerm != null )
+        {
+            return checkCachedPermission( session, cachedPerm.getPermission(), cachedPerm.getRoleSet(), dn );
+        }
+
         try
         {
-            ld = getAdminConnection();
+            // A synchronous audit compare goes on this connection and must reach the provider's access log:
+            ld = isAuditSync( session ) ? getAdminConnection() : getAdminReadConnection();
 
             // LDAP Operation #1: Read the targeted permission from ldap server
             Entry entry = read( ld, dn, PERMISSION_OP_ATRS );
@@ -1267,13 +1281,16 @@ class PermDAO extends LdapDataProvider
             // Pass the tenant id along:
             outPerm.setContextId( inPerm.getContextId() );
 
+            // Subsequent checks on this operation may be evaluated in memory:
+            PermUtil.getInstance().putPerm( inPerm, outPerm );
+
             // The objective of these next steps is to evaluate the outcome of authorization attempt and trigger a write to slapd access logger containing the result.
             // The objectClass triggered by slapd access log write for upcoming ldap op is 'auditCompare'.
             // Set this attribute either with actual operation name that will succeed compare (for authZ success) or bogus value which will fail compare (for authZ failure):
             String attributeValue;
 
             // This method determines if the user is authorized for this permission:
-            isAuthZd = isAuthorized( session, outPerm );
+            isAuthZd = isAuthorized( session, outPerm, null );
 
             // This is done to leave an audit trail in ldap server log:
             if ( isAuthZd )
@@ -1318,6 +1335,281 @@ class PermDAO extends LdapDataProvider
     }
 
 
+    /**
+     * Evaluate a list of permission operations on behalf of one session.  Operations found in the permission cache are
+     * evaluated in memory, the rest are read with a single search per permission root, the session's inherited roles
+     * are computed once, and the audit compares are issued over one connection (or handed to the audit writer).
+     * An operation that does not exist is not authorized, as with {@link #checkPermission(Session, Permission)}.
+     *
+     * @param session contains {@link Session#getUserId()}, {@link Session#getRoles()} or {@link Session#getAdminRoles()}.
+     * @param inPerms each must contain {@link Permission#objName}, {@link Permission#opName} and optionally
+     * {@link Permission#objId}.
+     * @return list of decisions, in the same order as inPerms.
+     * @throws FinderException in the event system error occurs reading the permissions or writing the audit records.
+     */
+    List<Boolean> checkPermissions( Session session, List<Permission> inPerms ) throws FinderException
+    {
+        int size = inPerms.size();
+        Permission[] outPerms = new Permission[size];
+        RoleDictionary.RoleSet[] roleSets = new RoleDictionary.RoleSet[size];
+        // Operations not found in the cache, grouped by the root they are to be searched under:
+        Map<String, List<Integer>> misses = new LinkedHashMap<>();
+
+        for ( int i = 0; i < size; i++ )
+        {
+            Permission inPerm = inPerms.get( i );
+            PermUtil.Entry cachedPerm = PermUtil.getInstance().getEntry( inPerm );
+            if ( cachedPerm != null )
+            {
+                outPerms[i] = cachedPerm.getPermission();
+                roleSets[i] = cachedPerm.getRoleSet();
+            }
+            else
+            {
+                String permRoot = getRootDn( inPerm.isAdmin(), inPerm.getContextId() );
+                List<Integer> indexes = misses.get( permRoot );
+                if ( indexes == null )
+                {
+                    indexes = new ArrayList<>();
+                    misses.put( permRoot, indexes );
+                }
+                indexes.add( i );
+            }
+        }
+
+        List<Boolean> results = new ArrayList<>( size );
+        boolean isAudit = !session.isGroupSession() && Config.getInstance().isOpenldap()
+            && !Config.getInstance().isAuditDisabled();
+        LdapConnection ld = null;
+        try
+        {
+            if ( isAudit && !AuthZAuditWriter.isEnabled() )
+            {
+                ld = getAdminConnection();
+            }
+            else if ( !misses.isEmpty() )
+            {
+                ld = getAdminReadConnection();
+            }
+
+            // LDAP Operation #1: One search per permission root for all operations not cached:
+            for ( Map.Entry<String, List<Integer>> miss : misses.entrySet() )
+            {
+                Map<String, Permission> found = findPermissionOps( ld, miss.getKey(), inPerms, miss.getValue() );
+                for ( int i : miss.getValue() )
+                {
+                    Permission inPerm = inPerms.get( i );
+                    Permission outPerm = found.get( getOpKey( inPerm.getObjName(), inPerm.getObjId(),
+                        inPerm.getOpName() ) );
+                    if ( outPerm != null )
+                    {
+                        outPerm.setAdmin( inPerm.isAdmin() );
+                        outPerm.setContextId( inPerm.getContextId() );
+                        PermUtil.getInstance().putPerm( inPerm, outPerm );
+                        outPerms[i] = outPerm;
+                    }
+                }
+            }
+
+            for ( int i = 0; i < size; i++ )
+            {
+                Permission inPerm = inPerms.get( i );
+                String attributeValue;
+                boolean isAuthZd = false;
+                if ( outPerms[i] == null )
+                {
+                    attributeValue = "AuthZ Invalid";
+                }
+                else
+                {
+                    isAuthZd = isAuthorized( session, outPerms[i], roleSets[i] );
+                    attributeValue = isAuthZd ? outPerms[i].getOpName() : outPerms[i].getOpName()
+                        + GlobalIds.FAILED_AUTHZ_INDICATOR;
+                }
+                results.add( isAuthZd );
+
+                // LDAP Operation #2: Compare, on the same connection for every operation in the list:
+                if ( isAudit )
+                {
+                    String dn = getOpRdn( inPerm.getOpName(), inPerm.getObjId() ) + "," + GlobalIds.POBJ_NAME + "="
+                        + inPerm.getObjName() + "," + getRootDn( inPerm.isAdmin(), inPerm.getContextId() );
+                    addAuthZAudit( ld, dn, session.getUser().getDn(), attributeValue );
+                }
+            }
+        }
+        catch ( LdapException e )
+        {
+            String error = "checkPermissions caught LdapException=" + e;
+            throw new FinderException( GlobalErrIds.PERM_READ_OP_FAILED, error, e );
+        }
+        catch ( CursorException e )
+        {
+            String error = "checkPermissions caught CursorException=" + e.getMessage();
+            throw new FinderException( GlobalErrIds.PERM_READ_OP_FAILED, error, e );
+        }
+        finally
+        {
+            if ( ld != null )
+            {
+                closeAdminConnection( ld );
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Read a set of permission operations that reside under the same root.  One search is issued per chunk of at most
+     * 'ldap.search.max.batch.size' operations.  Its filter ORs together the naming attributes, objName, opName and
+     * objId, of each operation, i.e. the components of its distinguished name.
+     *
+     * @param ld this method expects the ldap connection to be good.
+     * @param permRoot contains the distinguished name of the permission root to search.
+     * @param inPerms contains the permission operations.
+     * @param indexes contains the positions of the permission operations in inPerms to read.
+     * @return Map of operations found, keyed by {@link #getOpKey(String, String, String)}.
+     * @throws LdapException in the event ldap system exception occurs.
+     * @throws CursorException in the event ldap system exception occurs reading the search results.
+     */
+    private Map<String, Permission> findPermissionOps( LdapConnection ld, String permRoot, List<Permission> inPerms,
+        List<Integer> indexes ) throws LdapException, CursorException
+    {
+        Map<String, Permission> found = new HashMap<>();
+        int batchSize = Math.max( 1, Config.getInstance().getInt( GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE,
+            GlobalIds.BATCH_SIZE ) );
+        boolean isAdmin = inPerms.get( indexes.get( 0 ) ).isAdmin();
+        long sequence = 0;
+        for ( int start = 0; start < indexes.size(); start += batchSize )
+        {
+            List<Integer> chunk = indexes.subList( start, Math.min( start + batchSize, indexes.size() ) );
+            SearchCursor searchResults = search( ld, permRoot, SearchScope.SUBTREE, getPermOpsFilter( inPerms, chunk ),
+                PERMISSION_OP_ATRS, false, batchSize );
+            while ( searchResults.next() )
+            {
+                Permission outPerm = unloadPopLdapEntry( searchResults.getEntry(), sequence++, isAdmin );
+                found.put( getOpKey( outPerm.getObjName(), outPerm.getObjId(), outPerm.getOpName() ), outPerm );
+            }
+        }
+        return found;
+    }
+
+
+    /**
+     * @param inPerms contains the permission operations.
+     * @param indexes contains the positions of the permission operations in inPerms to match.
+     * @return ldap filter matching any of the operations.
+     * @throws LdapException in the event a name is longer than the maximum length.
+     */
+    private String getPermOpsFilter( List<Permission> inPerms, List<Integer> indexes ) throws LdapException
+    {
+        StringBuilder filterbuf = new StringBuilder();
+        filterbuf.append( GlobalIds.FILTER_PREFIX );
+        filterbuf.append( PERM_OP_OBJECT_CLASS_NAME );
+        filterbuf.append( ")(|" );
+        for ( int i : indexes )
+        {
+            Permission inPerm = inPerms.get( i );
+            filterbuf.append( "(&(" );
+            filterbuf.append( GlobalIds.POBJ_NAME );
+            filterbuf.append( "=" );
+            filterbuf.append( encodeSafeText( inPerm.getObjName(), GlobalIds.PERM_LEN ) );
+            filterbuf.append( ")(" );
+            filterbuf.append( GlobalIds.POP_NAME );
+            filterbuf.append( "=" );
+            filterbuf.append( encodeSafeText( inPerm.getOpName(), GlobalIds.PERM_LEN ) );
+            filterbuf.append( ")(" );
+            if ( StringUtils.isNotEmpty( inPerm.getObjId() ) )
+            {
+                filterbuf.append( GlobalIds.POBJ_ID );
+                filterbuf.append( "=" );
+                filterbuf.append( encodeSafeText( inPerm.getObjId(), GlobalIds.PERM_LEN ) );
+                filterbuf.append( "))" );
+            }
+            else
+            {
+                filterbuf.append( "!(" );
+                filterbuf.append( GlobalIds.POBJ_ID );
+                filterbuf.append( "=*)))" );
+            }
+        }
+        filterbuf.append( "))" );
+
+        return filterbuf.toString();
+    }
+
+
+    /**
+     * Names are case insensitive in the directory so the key is too.
+     *
+     * @param objName contains the permission object name.
+     * @param objId contains the optional permission object id.
+     * @param opName contains the permission operation name.
+     * @return String containing objName:objId:opName.
+     */
+    private static String getOpKey( String objName, String objId, String opName )
+    {
+        return ( objName + ":" + ( StringUtils.isNotEmpty( objId ) ? objId : "" ) + ":" + opName ).toUpperCase();
+    }
+
+
+    /**
+     * Evaluate the authorization decision against a permission operation entry that was loaded from the cache.  The ldap
+     * server is only contacted if the audit compare is to be performed.
+     *
+     * @param session contains {@link Session#getUserId()}, {@link Session#getRoles()} or {@link Session#getAdminRoles()}.
+     * @param permission contains the cached {@link Permission#getUsers()} and {@link Permission#getRoles()}.
+     * @param roleSet contains the cached encoding of {@link Permission#getRoles()}.
+     * @param dn contains distinguished name of the permission operation, used for the audit record.
+     * @return boolean containing result of check.
+     * @throws FinderException in the event system error occurs writing the audit record.
+     */
+    private boolean checkCachedPermission( Session session, Permission permission,
+        RoleDictionary.RoleSet roleSet, String dn )
+        throws FinderException
+    {
+        boolean isAuthZd = isAuthorized( session, permission, roleSet );
+
+        // Only borrow a connection if the compare is actually going to happen:
+        if ( !session.isGroupSession() && Config.getInstance().isOpenldap() && !Config.getInstance().isAuditDisabled() )
+        {
+            String attributeValue = isAuthZd ? permission.getOpName() : permission.getOpName()
+                + GlobalIds.FAILED_AUTHZ_INDICATOR;
+            if ( AuthZAuditWriter.isEnabled() )
+            {
+                // The audit writer's workers will borrow their own connection:
+                AuthZAuditWriter.getInstance().add( dn, session.getUser().getDn(), attributeValue );
+                return isAuthZd;
+            }
+            LdapConnection ld = null;
+            try
+            {
+                ld = getAdminConnection();
+                addAuthZAudit( ld, dn, session.getUser().getDn(), attributeValue );
+            }
+            catch ( LdapException e )
+            {
+                String error = "checkCachedPermission caught LdapException=" + e;
+                throw new FinderException( GlobalErrIds.PERM_READ_OP_FAILED, error, e );
+            }
+            finally
+            {
+                closeAdminConnection( ld );
+            }
+        }
+
+        return isAuthZd;
+    }
+
+
+    // True if the check's audit compare is to be made on the caller's thread, which then needs a write connection:
+    private static boolean isAuditSync( Session session )
+    {
+        return !session.isGroupSession() && Config.getInstance().isOpenldap()
+            && !Config.getInstance().isAuditDisabled() && !AuthZAuditWriter.isEnabled();
+    }
+
+
     /**
      * Perform LDAP compare operation here to associate audit record with user authorization event.
      *
@@ -1333,6 +1625,12 @@ class PermDAO extends LdapDataProvider
         // Audit can be turned off here with fortress config param: 'disable.audit=true'
         if ( Config.getInstance().isOpenldap() && ! Config.getInstance().isAuditDisabled() )
         {
+            // Hand off to the background writer if 'authz.audit.async=true', the caller doesn't wait for the compare:
+            if ( AuthZAuditWriter.isEnabled() )
+            {
+                AuthZAuditWriter.getInstance().add( permDn, userDn, attributeValue );
+                return;
+            }
             try
             {
                 // The compare method uses OpenLDAP's Proxy Authorization Control to assert identity of end user onto connection:
@@ -1363,9 +1661,10 @@ class PermDAO extends LdapDataProvider
      *
      * @param session contains the {@link org.apache.directory.fortress.core.model.Session#getUserId()},{@link Session#getRoles()} or {@link org.apache.directory.fortress.core.model.Session#getAdminRoles()}.
      * @param permission contains {@link org.apache.directory.fortress.core.model.Permission#getUsers()} and {@link Permission#getRoles()}.
+     * @param roleSet contains the encoding of {@link Permission#getRoles()}, may be null in which case they are encoded here.
      * @return binary result.
      */
-    private boolean isAuthorized( Session session, Permission permission )
+    private boolean isAuthorized( Session session, Permission permission, RoleDictionary.RoleSet roleSet )
     {
         boolean result = false;
         Set<String> userIds = permission.getUsers();
@@ -1399,18 +1698,16 @@ class PermDAO extends LdapDataProvider
             }
             else
             {
-                // RBAC Permission check include's User's inherited roles:
-                Set<String> activatedRoles = RoleUtil.getInstance().getInheritedRoles( session.getRoles(), permission.getContextId() );
-
-                for ( String role : roles )
+                // RBAC Permission check include's User's inherited roles, both sides are encoded by the tenant's role dictionary:
+                RoleDictionary.RoleSet activatedRoles = RoleUtil.getInstance().getAuthorizedRoleSet( session,
+                    permission.getContextId() );
+                if ( roleSet == null )
                 {
-                    // This is case insensitive op determines if user has matching role:
-                    if ( activatedRoles.contains( role ) )
-                    {
-                        result = true;
-                        break;
-                    }
+                    roleSet = RoleUtil.getInstance().getRoleSet( roles, permission.getContextId() );
                 }
+
+                // A single intersection replaces the case insensitive compare of each role:
+                result = activatedRoles.intersects( roleSet );
             }
         }
 
@@ -1526,23 +1823,10 @@ class PermDAO extends LdapDataProvider
 
         try
         {
-            String permObjVal = encodeSafeText( permission.getObjName(), GlobalIds.PERM_LEN );
-            String permOpVal = encodeSafeText( permission.getOpName(), GlobalIds.PERM_LEN );
-            StringBuilder filterbuf = new StringBuilder();
-            filterbuf.append( GlobalIds.FILTER_PREFIX );
-            filterbuf.append( PERM_OP_OBJECT_CLASS_NAME );
-            filterbuf.append( ")(" );
-            filterbuf.append( GlobalIds.POBJ_NAME );
-            filterbuf.append( "=" );
-            filterbuf.append( permObjVal );
-            filterbuf.append( "*)(" );
-            filterbuf.append( GlobalIds.POP_NAME );
-            filterbuf.append( "=" );
-            filterbuf.append( permOpVal );
-            filterbuf.append(  "*))" );
+            String filter = getFindPermissionsFilter( permission );
             ld = getAdminConnection();
             SearchCursor searchResults = search( ld, permRoot,
-                SearchScope.SUBTREE, filterbuf.toString(), PERMISSION_OP_ATRS, false, Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, GlobalIds.BATCH_SIZE ) );
+                SearchScope.SUBTREE, filter, PERMISSION_OP_ATRS, false, Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, GlobalIds.BATCH_SIZE ) );
             long sequence = 0;
 
             while ( searchResults.next() )
@@ -1567,6 +1851,56 @@ class PermDAO extends LdapDataProvider
         return permList;
     }
 
+
+    /**
+     * Same as {@link #findPermissions(Permission)} but returns a cursor whose results are read a page at a time.
+     *
+     * @param permission contains the objName and opName search criteria.
+     * @return cursor over the matching permission operations, must be closed by caller.
+     * @throws FinderException in the event a connection can't be borrowed.
+     */
+    ResultCursor<Permission> findPermissionsPaged( final Permission permission ) throws FinderException
+    {
+        String permRoot = getRootDn( permission.isAdmin(), permission.getContextId() );
+        try
+        {
+            return searchPaged( permRoot, SearchScope.SUBTREE, getFindPermissionsFilter( permission ),
+                PERMISSION_OP_ATRS, new EntryMapper<Permission>()
+                {
+                    @Override
+                    public Permission map( Entry entry, long sequence ) throws LdapException
+                    {
+                        return unloadPopLdapEntry( entry, sequence, permission.isAdmin() );
+                    }
+                }, GlobalErrIds.PERM_SEARCH_FAILED );
+        }
+        catch ( LdapException e )
+        {
+            String error = "findPermissionsPaged caught LdapException=" + e;
+            throw new FinderException( GlobalErrIds.PERM_SEARCH_FAILED, error, e );
+        }
+    }
+
+
+    private String getFindPermissionsFilter( Permission permission ) throws LdapException
+    {
+        String permObjVal = encodeSafeText( permission.getObjName(), GlobalIds.PERM_LEN );
+        String permOpVal = encodeSafeText( permission.getOpName(), GlobalIds.PERM_LEN );
+        StringBuilder filterbuf = new StringBuilder();
+        filterbuf.append( GlobalIds.FILTER_PREFIX );
+        filterbuf.append( PERM_OP_OBJECT_CLASS_NAME );
+        filterbuf.append( ")(" );
+        filterbuf.append( GlobalIds.POBJ_NAME );
+        filterbuf.append( "=" );
+        filterbuf.append( permObjVal );
+        filterbuf.append( "*)(" );
+        filterbuf.append( GlobalIds.POP_NAME );
+        filterbuf.append( "=" );
+        filterbuf.append( permOpVal );
+        filterbuf.append(  "*))" );
+        return filterbuf.toString();
+    }
+
     List<Permission> findPermissionOperations( PermObj permObj )
             throws FinderException
         {
@@ -28,6 +28,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.directory.fortress.core.FinderException;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.ValidationException;
 import org.apache.directory.fortress.core.model.AdminRole;
@@ -90,6 +91,21 @@ final class PermP
     }
 
 
+    /**
+     * Evaluate a list of permissions for the same session, see {@link #checkPermission(Session, Permission)}.  The
+     * operations are read in a single search and the session's inherited roles are computed once.
+     *
+     * @param session    This object must be instantiated by calling {@link AccessMgrImpl#createSession} method before passing into the method.  No variables need to be set by client after returned from createSession.
+     * @param permissions each contains the object and operation names, and optional object id, the user is trying to access.
+     * @return List of decisions, true if user has access, in the same order as permissions.
+     * @throws SecurityException in the event of data validation failure, security policy violation or DAO error.
+     */
+    List<Boolean> checkPermissions( Session session, List<Permission> permissions ) throws SecurityException
+    {
+        return pDao.checkPermissions( session, permissions );
+    }
+
+
     /**
      * Takes a Permission entity that contains full or partial object name and/or full or partial operation name for search.
      *
@@ -101,6 +117,19 @@ final class PermP
     {
         return pDao.findPermissions( permission );
     }
+
+
+    /**
+     * Same as {@link #search(Permission)} but the matching entities are read a page at a time as the cursor advances.
+     *
+     * @param permission contains all or partial object name and/or all or partial operation name.
+     * @return cursor over the matching Permission entities, must be closed by caller.
+     * @throws SecurityException in the event of DAO search error.
+     */
+    ResultCursor<Permission> searchPaged( Permission permission ) throws SecurityException
+    {
+        return pDao.findPermissionsPaged( permission );
+    }
     
     /**
      * Takes a permission object that contains an object name and returns permisison operations for that object
@@ -214,6 +243,8 @@ final class PermP
             {
                 revoke( perm, user );
             }
+            // Entries returned by the search may not carry the tenant id, clear them all:
+            PermUtil.getInstance().clearPermCache();
         }
         catch ( FinderException fe )
         {
@@ -240,6 +271,8 @@ final class PermP
             {
                 revoke( perm, role );
             }
+            // Entries returned by the search may not carry the tenant id, clear them all:
+            PermUtil.getInstance().clearPermCache();
         }
         catch ( FinderException fe )
         {
@@ -267,6 +300,8 @@ final class PermP
                 perm.setAdmin( true );
                 revoke( perm, role );
             }
+            // Entries returned by the search may not carry the tenant id, clear them all:
+            PermUtil.getInstance().clearPermCache();
         }
         catch ( FinderException fe )
         {
@@ -364,7 +399,9 @@ final class PermP
     Permission add( Permission entity ) throws SecurityException
     {
         validate( entity, false );
-        return pDao.createOperation( entity );
+        Permission outPerm = pDao.createOperation( entity );
+        PermUtil.getInstance().clearPermCacheEntry( entity );
+        return outPerm;
     }
     
     /**
@@ -491,7 +528,9 @@ final class PermP
         {
             validate( entity, true );
         }
-        return pDao.updateOperation( entity );
+        Permission outPerm = pDao.updateOperation( entity );
+        PermUtil.getInstance().clearPermCacheEntry( entity );
+        return outPerm;
     }
 
 
@@ -506,6 +545,8 @@ final class PermP
     void delete( PermObj entity ) throws SecurityException
     {
         pDao.deleteObj( entity );
+        // All of the object's operations are gone, no way to tell which entries those were:
+        PermUtil.getInstance().clearPermCache();
     }
 
 
@@ -519,6 +560,7 @@ final class PermP
     void delete( Permission entity ) throws SecurityException
     {
         pDao.deleteOperation( entity );
+        PermUtil.getInstance().clearPermCacheEntry( entity );
     }
 
     //TODO: add documentation
@@ -542,6 +584,7 @@ final class PermP
     {
         // Now assign it to the perm op:
         pDao.grant( pOp, role );
+        PermUtil.getInstance().clearPermCacheEntry( pOp );
     }
 
 
@@ -559,6 +602,7 @@ final class PermP
     void revoke( Permission pOp, Role role ) throws SecurityException
     {
         pDao.revoke( pOp, role );
+        PermUtil.getInstance().clearPermCacheEntry( pOp );
     }
 
 
@@ -573,6 +617,7 @@ final class PermP
     {
         // call dao to grant userId access to the perm op:
         pDao.grant( pOp, user );
+        PermUtil.getInstance().clearPermCacheEntry( pOp );
     }
 
 
@@ -586,6 +631,7 @@ final class PermP
     void revoke( Permission pOp, User user ) throws SecurityException
     {
         pDao.revoke( pOp, user );
+        PermUtil.getInstance().clearPermCacheEntry( pOp );
     }
 
 
@@ -0,0 +1,221 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.model.Permission;
+import org.apache.directory.fortress.core.util.Config;
+import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This utility maintains an in-process cache of permission operation entries, i.e. the ftOperation node's roles,
+ * users and admin flag, along with the roles encoded by the tenant's {@link RoleDictionary}, which is used by
+ * {@link PermDAO#checkPermission} to evaluate authorization decisions without a round trip to the directory.  The cache is keyed by contextId, admin flag, objName, objId and opName,
+ * is bounded and expires entries per the 'fortress.perms' settings in ehcache.xml, and is disabled by default.
+ * To switch it on, set fortress config param 'enable.perm.cache=true'.
+ * <p>
+ * Entries are cleared by {@link PermP} whenever a permission is added, updated, deleted, granted or revoked.
+ * Changes made to the directory by other processes are picked up when the entry expires, or as they happen when
+ * {@link CacheInvalidator} is enabled.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class PermUtil
+{
+    private static final String CLS_NM = PermUtil.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String FORTRESS_PERMS = "fortress.perms";
+    private static final String IS_PERM_CACHE_ENABLED_PARM = "enable.perm.cache";
+    private static final String ADMIN_KEY = "ADMIN";
+    private static final String RBAC_KEY = "RBAC";
+    private static final String SEP = ":";
+    private Cache<String, Entry> permCache;
+    private boolean isCacheEnabled;
+
+    private static volatile PermUtil sINSTANCE = null;
+
+    static PermUtil getInstance()
+    {
+        if ( sINSTANCE == null )
+        {
+            synchronized ( PermUtil.class )
+            {
+                if ( sINSTANCE == null )
+                {
+                    sINSTANCE = new PermUtil();
+                }
+            }
+        }
+        return sINSTANCE;
+    }
+
+    private void init()
+    {
+        isCacheEnabled = Config.getInstance().getBoolean( IS_PERM_CACHE_ENABLED_PARM, false );
+        if ( isCacheEnabled )
+        {
+            // This cache is not searchable and contains Permission objects by tenant and operation:
+            permCache = CacheMgr.getInstance().getCache( FORTRESS_PERMS );
+            LOG.info( "init permission cache enabled" );
+        }
+        CacheInvalidator.start();
+    }
+
+    /**
+     * Private constructor
+     *
+     */
+    private PermUtil()
+    {
+        init();
+    }
+
+    /**
+     * Return true if the permission cache has been switched on.
+     *
+     * @return boolean value of fortress config param 'enable.perm.cache'.
+     */
+    boolean isCacheEnabled()
+    {
+        return isCacheEnabled;
+    }
+
+    /**
+     * Return the cached permission operation that matches the supplied key attributes.
+     *
+     * @param perm contains {@link Permission#objName}, {@link Permission#opName}, {@link Permission#objId},
+     * {@link Permission#isAdmin()} and the tenant id.
+     * @return Entry containing Permission with roles and users or null if not cached or cache is disabled.
+     */
+    Entry getEntry( Permission perm )
+    {
+        Entry entry = null;
+        if ( isCacheEnabled )
+        {
+            entry = permCache.get( getKey( perm ) );
+        }
+        return entry;
+    }
+
+    /**
+     * Load the permission operation that has been read from the directory into the cache.
+     *
+     * @param inPerm contains the key attributes used by caller to read the entry.
+     * @param outPerm contains the permission operation entry read from the directory.
+     */
+    void putPerm( Permission inPerm, Permission outPerm )
+    {
+        if ( isCacheEnabled )
+        {
+            // admin permissions are checked by name:
+            RoleDictionary.RoleSet roleSet = outPerm.isAdmin() ? null
+                : RoleUtil.getInstance().getRoleSet( outPerm.getRoles(), outPerm.getContextId() );
+            permCache.put( getKey( inPerm ), new Entry( outPerm, roleSet ) );
+        }
+    }
+
+    /**
+     * Given a permission operation, clear its corresponding entry from the cache.
+     *
+     * @param perm contains {@link Permission#objName}, {@link Permission#opName}, {@link Permission#objId},
+     * {@link Permission#isAdmin()} and the tenant id.
+     */
+    void clearPermCacheEntry( Permission perm )
+    {
+        if ( isCacheEnabled )
+        {
+            permCache.clear( getKey( perm ) );
+        }
+    }
+
+    /**
+     * Clear all entries from the cache.  Used when a change can affect more than one permission operation, e.g.
+     * removal of a permission object along with its operations.
+     */
+    void clearPermCache()
+    {
+        if ( isCacheEnabled )
+        {
+            permCache.flush();
+        }
+    }
+
+    /**
+     * Builds the cache key as: contextId:ADMIN|RBAC:objName:objId:opName.  Names are case insensitive in the
+     * directory so the key is too.
+     *
+     * @param perm contains the key attributes.
+     * @return String containing the key.
+     */
+    private static String getKey( Permission perm )
+    {
+        String contextId = perm.getContextId();
+        if ( StringUtils.isEmpty( contextId ) || contextId.equals( GlobalIds.NULL ) )
+        {
+            contextId = GlobalIds.HOME;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append( contextId ).append( SEP );
+        sb.append( perm.isAdmin() ? ADMIN_KEY : RBAC_KEY ).append( SEP );
+        sb.append( perm.getObjName() ).append( SEP );
+        sb.append( StringUtils.isNotEmpty( perm.getObjId() ) ? perm.getObjId() : "" ).append( SEP );
+        sb.append( perm.getOpName() );
+        return sb.toString().toUpperCase();
+    }
+
+
+    /**
+     * Cached value, the permission operation and its encoded roles.
+     */
+    static final class Entry
+    {
+        private final Permission permission;
+        private final RoleDictionary.RoleSet roleSet;
+
+        private Entry( Permission permission, RoleDictionary.RoleSet roleSet )
+        {
+            this.permission = permission;
+            this.roleSet = roleSet;
+        }
+
+        /**
+         * @return Permission containing roles, users and admin flag.
+         */
+        Permission getPermission()
+        {
+            return permission;
+        }
+
+        /**
+         * @return read only set of the permission's roles, null if it is an admin permission.
+         */
+        RoleDictionary.RoleSet getRoleSet()
+        {
+            return roleSet;
+        }
+    }
+}
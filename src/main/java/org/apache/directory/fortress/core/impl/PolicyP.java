@@ -67,7 +67,7 @@ final class PolicyP
     // this field is used to synchronize access to the above static data set:
     private static final ReadWriteLock policySetLock = new ReentrantReadWriteLock();
     // static field holds the list of names for all valid pw policies in effect:
-    private static Cache policyCache;
+    private static Cache<String, Set<String>> policyCache;
     private static final int MIN_PW_LEN = 20;
     private static final int MAX_FAILURE = 100;
     private static final int MAX_GRACE_COUNT = 10;
@@ -403,7 +403,7 @@ final class PolicyP
         {
             policySetLock.readLock().lock();
 
-            Set<String> policySet = ( Set<String> ) policyCache.get( getKey( contextId ) );
+            Set<String> policySet = policyCache.get( getKey( contextId ) );
 
             if ( policySet == null )
             {
@@ -419,6 +419,29 @@ final class PolicyP
     }
 
 
+    /**
+     * Drop the tenant's cached set of policy names, which is reloaded from the directory on next use.  Does nothing
+     * if the cache hasn't been created yet.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    static void invalidate( String contextId )
+    {
+        try
+        {
+            policySetLock.writeLock().lock();
+            if ( policyCache != null )
+            {
+                policyCache.clear( getKey( contextId ) );
+            }
+        }
+        finally
+        {
+            policySetLock.writeLock().unlock();
+        }
+    }
+
+
     /**
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
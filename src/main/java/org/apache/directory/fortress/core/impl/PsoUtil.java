@@ -20,6 +20,7 @@
 package org.apache.directory.fortress.core.impl;
 
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -34,6 +35,7 @@ import org.apache.directory.fortress.core.model.Hier;
 import org.apache.directory.fortress.core.model.OrgUnit;
 import org.apache.directory.fortress.core.model.Relationship;
 import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
 import org.apache.directory.fortress.core.util.cache.CacheMgr;
 import org.jgrapht.graph.SimpleDirectedGraph;
 import org.slf4j.Logger;
@@ -63,7 +65,7 @@ import org.slf4j.LoggerFactory;
  */
 final class PsoUtil
 {
-    private Cache psoCache;
+    private Cache<String, HierIndex> psoCache;
     private OrgUnitP orgUnitP;
     private static final String CLS_NM = PsoUtil.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
@@ -99,6 +101,7 @@ final class PsoUtil
     
         CacheMgr cacheMgr = CacheMgr.getInstance();
         psoCache = cacheMgr.getCache( "fortress.pso" );                
+        CacheInvalidator.start();
     }
 
 
@@ -111,7 +114,7 @@ final class PsoUtil
      */
     Set<String> getDescendants( String name, String contextId )
     {
-        return HierUtil.getDescendants( name, getGraph( contextId ) );
+        return getIndex( contextId ).getDescendants( name );
     }
 
 
@@ -124,7 +127,7 @@ final class PsoUtil
      */
     Set<String> getAscendants( String name, String contextId )
     {
-        return HierUtil.getAscendants( name, getGraph( contextId ) );
+        return getIndex( contextId ).getAscendants( name );
     }
 
 
@@ -180,17 +183,15 @@ final class PsoUtil
         Set<String> iOUs = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
         if ( CollectionUtils.isNotEmpty( ous ) )
         {
+            HierIndex index = getIndex( contextId );
+            BitSet ids = new BitSet( index.size() );
             for ( OrgUnit ou : ous )
             {
                 String name = ou.getName();
                 iOUs.add( name );
-                Set<String> parents = HierUtil.getAscendants( name, getGraph( contextId ) );
-
-                if ( CollectionUtils.isNotEmpty( parents ) )
-                {
-                    iOUs.addAll( parents );
-                }
+                ids.or( index.getAscendantIds( index.getId( name ) ) );
             }
+            index.addNames( ids, iOUs );
         }
         return iOUs;
     }
@@ -198,7 +199,7 @@ final class PsoUtil
 
     /**
      * This api is used by {@link DelAdminMgrImpl} to determine parentage for Permission OU processing.
-     * It calls {@link HierUtil#validateRelationship(org.jgrapht.graph.SimpleDirectedGraph, String, String, boolean)} to evaluate three OU relationship expressions:
+     * It calls {@link HierUtil#validateRelationship(HierIndex, String, String, boolean)} to evaluate three OU relationship expressions:
      * <ol>
      * <li>If child equals parent</li>
      * <li>If mustExist true and parent-child relationship exists</li>
@@ -216,13 +217,13 @@ final class PsoUtil
     void validateRelationship( OrgUnit child, OrgUnit parent, boolean mustExist )
         throws ValidationException
     {
-        HierUtil.validateRelationship( getGraph( child.getContextId() ), child.getName(), parent.getName(), mustExist );
+        HierUtil.validateRelationship( getIndex( child.getContextId() ), child.getName(), parent.getName(), mustExist );
     }
 
 
     /**
-     * This api allows synchronized access to allow updates to hierarchical relationships.
-     * Method will update the hierarchical data set and reload the JGraphT simple digraph with latest.
+     * This api serializes updates to the tenant's hierarchy without blocking its readers.
+     * Method will update a copy of the JGraphT simple digraph and replace the cached closure index with one that reflects the change.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
      * @param relationship contains parent-child relationship targeted for addition.
@@ -231,7 +232,28 @@ final class PsoUtil
      */
     void updateHier( String contextId, Relationship relationship, Hier.Op op ) throws SecurityException
     {
-        HierUtil.updateHier( getGraph( contextId ), relationship, op );
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            HierIndex index = HierUtil.updateHier( getIndex( contextId ), relationship, op );
+            psoCache.put( key, index );
+        }
+    }
+
+
+    /**
+     * Drop the tenant's cached perm org unit hierarchy, which is reloaded from the directory on next use.  Called when another
+     * process has changed the hierarchy.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    void invalidate( String contextId )
+    {
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            psoCache.clear( key );
+        }
     }
 
 
@@ -240,57 +262,81 @@ final class PsoUtil
      * using 3rd party lib, <a href="http://www.jgrapht.org/">JGraphT</a>.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing perm ou hierarchies.
+     * @return handle to closure index and simple digraph containing perm ou hierarchies.
      */
-    private synchronized SimpleDirectedGraph<String, Relationship> loadGraph( String contextId )
+    private HierIndex loadIndex( String contextId )
     {
-        Hier inHier = new Hier( Hier.Type.ROLE );
-        inHier.setContextId( contextId );
-        LOG.info( "loadGraph initializing PSO context [{}]", inHier.getContextId() );
-        List<Graphable> descendants = null;
-
+        HierIndex index;
         try
         {
-            OrgUnit orgUnit = new OrgUnit();
-            orgUnit.setType( OrgUnit.Type.PERM );
-            orgUnit.setContextId( contextId );
-            descendants = orgUnitP.getAllDescendants( orgUnit );
+            index = readIndex( contextId );
         }
         catch ( SecurityException se )
         {
             LOG.info( "loadGraph caught SecurityException={}", se );
+            index = HierUtil.buildIndex( HierUtil.loadHier( contextId, null ) );
         }
+        return index;
+    }
+
 
+    /**
+     * Read the tenant's perm ou hierarchies from the directory, for {@link HierRefresher}, which must not replace the
+     * cached hierarchy with an empty one when the read fails.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to closure index and simple digraph containing perm ou hierarchies.
+     * @throws SecurityException in the event of a system error.
+     */
+    private HierIndex readIndex( String contextId ) throws SecurityException
+    {
+        Hier inHier = new Hier( Hier.Type.ROLE );
+        inHier.setContextId( contextId );
+        LOG.info( "loadGraph initializing PSO context [{}]", inHier.getContextId() );
+        OrgUnit orgUnit = new OrgUnit();
+        orgUnit.setType( OrgUnit.Type.PERM );
+        orgUnit.setContextId( contextId );
+        List<Graphable> descendants = orgUnitP.getAllDescendants( orgUnit );
         Hier hier = HierUtil.loadHier( contextId, descendants );
-        SimpleDirectedGraph<String, Relationship> graph;
+        return HierUtil.buildIndex( hier );
+    }
 
-        graph = HierUtil.buildGraph( hier );
-        psoCache.put( getKey( contextId ), graph );
 
-        return graph;
+    /**
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to closure index and simple digraph containing perm ou hierarchies.
+     */
+    private HierIndex getIndex( final String contextId )
+    {
+        // one load per tenant at a time, callers that miss while it runs wait for its index:
+        return psoCache.get( getKey( contextId ), new CacheLoader<String, HierIndex, RuntimeException>()
+        {
+            @Override
+            public HierIndex load( String key )
+            {
+                HierIndex index = loadIndex( contextId );
+                HierRefresher.schedule( key, psoCache, new CacheLoader<String, HierIndex, SecurityException>()
+                {
+                    @Override
+                    public HierIndex load( String refreshKey ) throws SecurityException
+                    {
+                        return readIndex( contextId );
+                    }
+                } );
+                return index;
+            }
+        } );
     }
 
 
     /**
+     *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing perm ou hierarchies.
+     * @return handle to simple digraph contained by the tenant's index.
      */
     private SimpleDirectedGraph<String, Relationship> getGraph( String contextId )
     {
-        String key = getKey( contextId );        
-        LOG.debug("Getting graph for key " + contextId);
-         
-        SimpleDirectedGraph<String, Relationship> graph = ( SimpleDirectedGraph<String, Relationship> ) psoCache
-                 .get( key );
-             
-        if(graph == null){
-            LOG.debug("Graph was null, creating... " + contextId);
-            return loadGraph( contextId );
-        }
-        else{
-            LOG.debug("Graph found in cache, returning...");
-            return graph;
-        }
+        return getIndex( contextId ).getGraph();
     }
 
 
@@ -30,6 +30,7 @@ import java.util.Set;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.directory.fortress.annotation.AdminPermissionOperation;
 import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.ReviewMgr;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.model.OrgUnit;
@@ -41,6 +42,7 @@ import org.apache.directory.fortress.core.model.RoleConstraint;
 import org.apache.directory.fortress.core.model.RoleConstraint.RCType;
 import org.apache.directory.fortress.core.model.SDSet;
 import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserProjection;
 import org.apache.directory.fortress.core.model.UserRole;
 import org.apache.directory.fortress.core.util.Config;
 import org.apache.directory.fortress.core.util.VUtil;
@@ -154,6 +156,20 @@ public class ReviewMgrImpl extends Manageable implements ReviewMgr, Serializable
         return permP.search( permission );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="findPermissions")
+    public ResultCursor<Permission> findPermissionsPaged( Permission permission )
+        throws SecurityException
+    {
+        String methodName = "findPermissions";
+        assertContext( CLS_NM, methodName, permission, GlobalErrIds.PERM_OPERATION_NULL );
+        checkAccess(CLS_NM, methodName);
+        return permP.searchPaged( permission );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -274,6 +290,21 @@ public class ReviewMgrImpl extends Manageable implements ReviewMgr, Serializable
         return userP.read( user, true );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="readUser")
+    public final User readUser(User user, UserProjection projection)
+        throws SecurityException
+    {
+        String methodName = "readUser";
+        assertContext( CLS_NM, methodName, user, GlobalErrIds.USER_NULL );
+        VUtil.assertNotNullOrEmpty( user.getUserId(), GlobalErrIds.USER_ID_NULL, CLS_NM + "." + methodName );
+        checkAccess( CLS_NM, methodName );
+        return userP.read( user, projection != null ? projection : UserProjection.FULL );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -288,6 +319,20 @@ public class ReviewMgrImpl extends Manageable implements ReviewMgr, Serializable
         return userP.search( user );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @AdminPermissionOperation(operationName="findUsers")
+    public ResultCursor<User> findUsersPaged( User user )
+        throws SecurityException
+    {
+        String methodName = "findUsers";
+        assertContext( CLS_NM, methodName, user, GlobalErrIds.USER_NULL );
+        checkAccess(CLS_NM, methodName);
+        return userP.searchPaged( user );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,225 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.fortress.core.GlobalIds;
+
+
+/**
+ * Assigns dense int ids to RBAC role names, one dictionary per tenant.  A set of roles can then be carried as a
+ * {@link RoleSet}, e.g. a session's authorized roles and the roles granted a permission, and an authorization decision
+ * becomes a bitset intersection rather than a string compare per role.
+ * <p>
+ * Only roles that are in the tenant's role hierarchy, {@link HierIndex}, are given ids, so the dictionary can't be grown
+ * by names that are merely passed in, e.g. the roles of a session built by the caller.  Other names, of roles with no
+ * parent or child or of no role at all, are carried by name in the {@link RoleSet}.  Ids are never reassigned or
+ * removed for the life of the process, so a bitset stays meaningful after the role hierarchy is reloaded.  Names are
+ * case insensitive.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class RoleDictionary
+{
+    private static final ConcurrentMap<String, RoleDictionary> DICTIONARIES = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+
+    private RoleDictionary()
+    {
+    }
+
+
+    /**
+     * Return the dictionary of the given tenant, creating it on first use.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return the tenant's dictionary.
+     */
+    static RoleDictionary getInstance( String contextId )
+    {
+        String key = GlobalIds.HOME;
+        if ( StringUtils.isNotEmpty( contextId ) && !contextId.equalsIgnoreCase( GlobalIds.NULL ) )
+        {
+            key = contextId.toUpperCase();
+        }
+        RoleDictionary dictionary = DICTIONARIES.get( key );
+        if ( dictionary == null )
+        {
+            RoleDictionary newDictionary = new RoleDictionary();
+            dictionary = DICTIONARIES.putIfAbsent( key, newDictionary );
+            if ( dictionary == null )
+            {
+                dictionary = newDictionary;
+            }
+        }
+        return dictionary;
+    }
+
+
+    /**
+     * @param name of role, case insensitive.
+     * @return id of role or -1 if it hasn't been assigned one.
+     */
+    int getId( String name )
+    {
+        Integer id = ids.get( name.toUpperCase() );
+        return id == null ? -1 : id;
+    }
+
+
+    /**
+     * Return the id of the role, assigning the next one if the role hasn't been seen before.
+     *
+     * @param key upper case name of role.
+     * @return id of role.
+     */
+    private int intern( String key )
+    {
+        Integer id = ids.get( key );
+        if ( id == null )
+        {
+            synchronized ( this )
+            {
+                id = ids.get( key );
+                if ( id == null )
+                {
+                    id = nextId.getAndIncrement();
+                    ids.put( key, id );
+                }
+            }
+        }
+        return id;
+    }
+
+
+    /**
+     * Return the given roles as ids, assigning them to the roles found in the hierarchy, and as names for the others.
+     *
+     * @param names of roles, case insensitive.
+     * @param hierarchy the tenant's current role hierarchy.
+     * @return new set, empty if names is null.
+     */
+    RoleSet encode( Collection<String> names, HierIndex hierarchy )
+    {
+        BitSet roleIds = new BitSet( nextId.get() );
+        Set<String> others = null;
+        if ( names != null )
+        {
+            for ( String name : names )
+            {
+                if ( name == null )
+                {
+                    continue;
+                }
+                String key = name.toUpperCase();
+                Integer id = ids.get( key );
+                if ( id == null && hierarchy.getId( key ) >= 0 )
+                {
+                    id = intern( key );
+                }
+                if ( id != null )
+                {
+                    roleIds.set( id );
+                }
+                else
+                {
+                    if ( others == null )
+                    {
+                        others = new HashSet<>();
+                    }
+                    others.add( key );
+                }
+            }
+        }
+        return new RoleSet( this, roleIds, others == null ? Collections.<String>emptySet() : others );
+    }
+
+
+    /**
+     * @return number of ids assigned so far.
+     */
+    int size()
+    {
+        return nextId.get();
+    }
+
+
+    /**
+     * Immutable set of roles encoded by a dictionary, the ids of those that have one and the upper case names of the
+     * others.
+     */
+    static final class RoleSet
+    {
+        private final RoleDictionary dictionary;
+        private final BitSet roleIds;
+        private final Set<String> names;
+
+        private RoleSet( RoleDictionary dictionary, BitSet roleIds, Set<String> names )
+        {
+            this.dictionary = dictionary;
+            this.roleIds = roleIds;
+            this.names = names;
+        }
+
+        /**
+         * Return true if the sets have a role in common.  A role one set carries by name, because it had no id when the
+         * set was encoded, and the other by id is found too.
+         *
+         * @param other set encoded by the same dictionary.
+         * @return true if a role is in both sets.
+         */
+        boolean intersects( RoleSet other )
+        {
+            return roleIds.intersects( other.roleIds ) || containsAny( other.names ) || other.containsAny( names );
+        }
+
+        private boolean containsAny( Set<String> keys )
+        {
+            for ( String key : keys )
+            {
+                if ( names.contains( key ) )
+                {
+                    return true;
+                }
+                int id = dictionary.getId( key );
+                if ( id >= 0 && roleIds.get( id ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -20,6 +20,8 @@
 package org.apache.directory.fortress.core.impl;
 
 
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -34,8 +36,10 @@ import org.apache.directory.fortress.core.model.Hier;
 import org.apache.directory.fortress.core.model.ParentUtil;
 import org.apache.directory.fortress.core.model.Relationship;
 import org.apache.directory.fortress.core.model.Role;
+import org.apache.directory.fortress.core.model.Session;
 import org.apache.directory.fortress.core.model.UserRole;
 import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
 import org.apache.directory.fortress.core.util.cache.CacheMgr;
 import org.jgrapht.graph.SimpleDirectedGraph;
 import org.slf4j.Logger;
@@ -64,13 +68,16 @@ import org.slf4j.LoggerFactory;
  */
 final class RoleUtil implements ParentUtil
 {
-    private Cache roleCache;
+    private Cache<String, HierIndex> roleCache;
     private RoleP roleP = new RoleP();
     private static final String CLS_NM = RoleUtil.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
 
     private static volatile RoleUtil sINSTANCE = null;
 
+    // Authorized role ids per session, weakly keyed on the session object itself whatever its equals says:
+    private final WeakIdentityMap<Session, AuthorizedRoles> authorizedRoles = new WeakIdentityMap<>();
+
     static RoleUtil getInstance()
     {
         if(sINSTANCE == null)
@@ -101,12 +108,13 @@ final class RoleUtil implements ParentUtil
     
         CacheMgr cacheMgr = CacheMgr.getInstance();
         roleCache = cacheMgr.getCache( "fortress.roles" );
+        CacheInvalidator.start();
     }
 
 
     /**
      * Used to determine if one {@link org.apache.directory.fortress.core.model.Role} is the parent of another.  This method
-     * will call recursive routine {@link #getAscendants(String, String)} to walk the {@code org.jgrapht.graph.SimpleDirectedGraph} data structure
+     * checks the precomputed closure, {@link HierIndex}, of the {@code org.jgrapht.graph.SimpleDirectedGraph} data structure
      * returning flag indicating if parent-child relationship is valid.
      *
      * @param child  maps to logical {@link org.apache.directory.fortress.core.model.Role#name} on 'ftRls' object class.
@@ -116,13 +124,7 @@ final class RoleUtil implements ParentUtil
      */
     boolean isParent( String child, String parent, String contextId )
     {
-        boolean result = false;
-        Set<String> parents = getAscendants( child, contextId );
-        if ( parents != null && parents.size() > 0 )
-        {
-            result = parents.contains( parent.toUpperCase() );
-        }
-        return result;
+        return getIndex( contextId ).isAscendant( child, parent );
     }
 
 
@@ -135,7 +137,7 @@ final class RoleUtil implements ParentUtil
      */
     Set<String> getDescendants( String roleName, String contextId )
     {
-        return HierUtil.getDescendants( roleName.toUpperCase(), getGraph( contextId ) );
+        return getIndex( contextId ).getDescendants( roleName.toUpperCase() );
     }
 
 
@@ -161,7 +163,7 @@ final class RoleUtil implements ParentUtil
      */
     Set<String> getAscendants( String roleName, String contextId )
     {
-        return HierUtil.getAscendants( roleName.toUpperCase(), getGraph( contextId ) );
+        return getIndex( contextId ).getAscendants( roleName.toUpperCase() );
     }
 
 
@@ -218,21 +220,60 @@ final class RoleUtil implements ParentUtil
         Set<String> iRoles = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
         if ( CollectionUtils.isNotEmpty( uRoles ) )
         {
+            // Union the precomputed closures then resolve the names once:
+            HierIndex index = getIndex( contextId );
+            BitSet ids = new BitSet( index.size() );
             for ( UserRole uRole : uRoles )
             {
                 String rleName = uRole.getName();
                 iRoles.add( rleName );
-                Set<String> parents = HierUtil.getAscendants( rleName, getGraph( contextId ) );
-                if ( CollectionUtils.isNotEmpty( parents ) )
-                {
-                    iRoles.addAll( parents );
-                }
+                ids.or( index.getAscendantIds( index.getId( rleName ) ) );
             }
+            index.addNames( ids, iRoles );
         }
         return iRoles;
     }
 
 
+    /**
+     * Return the session's activated and inherited RBAC roles encoded by the tenant's {@link RoleDictionary}.  The set is
+     * computed once and kept for the session, outside of it, until its activated role names or the role hierarchy
+     * change.  Used by {@link org.apache.directory.fortress.core.impl.PermDAO#checkPermission} to test a permission's
+     * roles with a single bitset intersection.
+     *
+     * @param session contains the activated {@link org.apache.directory.fortress.core.model.UserRole}s.
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return read only set of roles.
+     */
+    RoleDictionary.RoleSet getAuthorizedRoleSet( Session session, String contextId )
+    {
+        HierIndex index = getIndex( contextId );
+        List<UserRole> uRoles = session.getRoles();
+        AuthorizedRoles authorized = authorizedRoles.get( session );
+        if ( authorized == null || !authorized.isCurrent( index.getVersion(), uRoles ) )
+        {
+            RoleDictionary.RoleSet roleSet = RoleDictionary.getInstance( contextId ).encode(
+                getInheritedRoles( uRoles, contextId ), index );
+            authorized = new AuthorizedRoles( index.getVersion(), uRoles, roleSet );
+            authorizedRoles.put( session, authorized );
+        }
+        return authorized.roleSet;
+    }
+
+
+    /**
+     * Return the roles encoded by the tenant's {@link RoleDictionary}, e.g. those granted a permission.
+     *
+     * @param roles names of RBAC roles, case insensitive.
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return read only set of roles.
+     */
+    RoleDictionary.RoleSet getRoleSet( Collection<String> roles, String contextId )
+    {
+        return RoleDictionary.getInstance( contextId ).encode( roles, getIndex( contextId ) );
+    }
+
+
     /**
      *
      * @param roles
@@ -245,15 +286,14 @@ final class RoleUtil implements ParentUtil
         Set<String> iRoles = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
         if ( CollectionUtils.isNotEmpty( roles ) )
         {
+            HierIndex index = getIndex( contextId );
+            BitSet ids = new BitSet( index.size() );
             for ( String role : roles )
             {
                 iRoles.add( role );
-                Set<String> parents = HierUtil.getAscendants( role, getGraph( contextId ) );
-                if ( CollectionUtils.isNotEmpty( parents ) )
-                {
-                    iRoles.addAll( parents );
-                }
+                ids.or( index.getAscendantIds( index.getId( role ) ) );
             }
+            index.addNames( ids, iRoles );
         }
         return iRoles;
     }
@@ -271,15 +311,14 @@ final class RoleUtil implements ParentUtil
         Set<String> iRoles = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
         if ( CollectionUtils.isNotEmpty( roles ) )
         {
+            HierIndex index = getIndex( contextId );
+            BitSet ids = new BitSet( index.size() );
             for ( String role : roles )
             {
                 iRoles.add( role );
-                Set<String> children = HierUtil.getDescendants( role, getGraph( contextId ) );
-                if ( CollectionUtils.isNotEmpty( children ) )
-                {
-                    iRoles.addAll( children );
-                }
+                ids.or( index.getDescendantIds( index.getId( role ) ) );
             }
+            index.addNames( ids, iRoles );
         }
         return iRoles;
     }
@@ -302,7 +341,7 @@ final class RoleUtil implements ParentUtil
 
     /**
      * This api is used by {@link AdminMgrImpl} to determine parentage for Hierarchical RBAC processing.
-     * It calls {@link HierUtil#validateRelationship(org.jgrapht.graph.SimpleDirectedGraph, String, String, boolean)} to evaluate three adminRole relationship expressions:
+     * It calls {@link HierUtil#validateRelationship(HierIndex, String, String, boolean)} to evaluate three adminRole relationship expressions:
      * <ol>
      * <li>If child equals parent</li>
      * <li>If mustExist true and parent-child relationship exists</li>
@@ -320,14 +359,14 @@ final class RoleUtil implements ParentUtil
     void validateRelationship( Role childRole, Role parentRole, boolean mustExist )
         throws ValidationException
     {
-        HierUtil.validateRelationship( getGraph( childRole.getContextId() ), childRole.getName(), parentRole.getName(),
+        HierUtil.validateRelationship( getIndex( childRole.getContextId() ), childRole.getName(), parentRole.getName(),
             mustExist );
     }
 
 
     /**
-     * This api allows synchronized access to allow updates to hierarchical relationships.
-     * Method will update the hierarchical data set and reload the JGraphT simple digraph with latest.
+     * This api serializes updates to the tenant's hierarchy without blocking its readers.
+     * Method will update a copy of the JGraphT simple digraph and replace the cached closure index with one that reflects the change.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
      * @param relationship contains parent-child relationship targeted for addition.
@@ -336,7 +375,28 @@ final class RoleUtil implements ParentUtil
      */
     void updateHier( String contextId, Relationship relationship, Hier.Op op ) throws SecurityException
     {
-        HierUtil.updateHier( getGraph( contextId ), relationship, op );
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            HierIndex index = HierUtil.updateHier( getIndex( contextId ), relationship, op );
+            roleCache.put( key, index );
+        }
+    }
+
+
+    /**
+     * Drop the tenant's cached role hierarchy, which is reloaded from the directory on next use.  Called when another
+     * process has changed the hierarchy.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    void invalidate( String contextId )
+    {
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            roleCache.clear( key );
+        }
     }
 
 
@@ -345,31 +405,40 @@ final class RoleUtil implements ParentUtil
      * using 3rd party lib, <a href="http://www.jgrapht.org/">JGraphT</a>.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing role hierarchies.
+     * @return handle to closure index and simple digraph containing role hierarchies.
      */
-    private synchronized SimpleDirectedGraph<String, Relationship> loadGraph( String contextId )
+    private HierIndex loadIndex( String contextId )
     {
-        Hier inHier = new Hier( Hier.Type.ROLE );
-        inHier.setContextId( contextId );
-        LOG.info( "loadGraph initializing ROLE context [{}]", inHier.getContextId() );
-        List<Graphable> descendants = null;
-
+        HierIndex index;
         try
         {
-            descendants = roleP.getAllDescendants( inHier.getContextId() );
+            index = readIndex( contextId );
         }
         catch ( SecurityException se )
         {
             LOG.info( "loadGraph caught SecurityException={}", se );
+            index = HierUtil.buildIndex( HierUtil.loadHier( contextId, null ) );
         }
+        return index;
+    }
 
-        Hier hier = HierUtil.loadHier( contextId, descendants );
-        SimpleDirectedGraph<String, Relationship> graph;
-
-        graph = HierUtil.buildGraph( hier );
-        roleCache.put( getKey( contextId ), graph );
 
-        return graph;
+    /**
+     * Read the tenant's role hierarchies from the directory, for {@link HierRefresher}, which must not replace the
+     * cached hierarchy with an empty one when the read fails.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to closure index and simple digraph containing role hierarchies.
+     * @throws SecurityException in the event of a system error.
+     */
+    private HierIndex readIndex( String contextId ) throws SecurityException
+    {
+        Hier inHier = new Hier( Hier.Type.ROLE );
+        inHier.setContextId( contextId );
+        LOG.info( "loadGraph initializing ROLE context [{}]", inHier.getContextId() );
+        List<Graphable> descendants = roleP.getAllDescendants( inHier.getContextId() );
+        Hier hier = HierUtil.loadHier( contextId, descendants );
+        return HierUtil.buildIndex( hier );
     }
 
 
@@ -394,23 +463,83 @@ final class RoleUtil implements ParentUtil
     /**
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing role hierarchies.
+     * @return handle to closure index and simple digraph containing role hierarchies.
+     */
+    private HierIndex getIndex( final String contextId )
+    {
+        // one load per tenant at a time, callers that miss while it runs wait for its index:
+        return roleCache.get( getKey( contextId ), new CacheLoader<String, HierIndex, RuntimeException>()
+        {
+            @Override
+            public HierIndex load( String key )
+            {
+                HierIndex index = loadIndex( contextId );
+                HierRefresher.schedule( key, roleCache, new CacheLoader<String, HierIndex, SecurityException>()
+                {
+                    @Override
+                    public HierIndex load( String refreshKey ) throws SecurityException
+                    {
+                        return readIndex( contextId );
+                    }
+                } );
+                return index;
+            }
+        } );
+    }
+
+
+    /**
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to simple digraph contained by the tenant's index.
      */
     private SimpleDirectedGraph<String, Relationship> getGraph( String contextId )
     {
-        String key = getKey( contextId );        
-        LOG.debug("Getting graph for key " + contextId);
-         
-        SimpleDirectedGraph<String, Relationship> graph = ( SimpleDirectedGraph<String, Relationship> ) roleCache
-                 .get( key );
-             
-        if(graph == null){
-            LOG.debug("Graph was null, creating... " + contextId);
-            return loadGraph( contextId );
+        return getIndex( contextId ).getGraph();
+    }
+
+
+    /**
+     * The authorized roles of a session along with the hierarchy version and the activated role names they were
+     * computed from.  Comparing the names catches changes made in place to the session's role list.
+     */
+    private static final class AuthorizedRoles
+    {
+        private final long version;
+        private final String[] names;
+        private final RoleDictionary.RoleSet roleSet;
+
+        private AuthorizedRoles( long version, List<UserRole> uRoles, RoleDictionary.RoleSet roleSet )
+        {
+            this.version = version;
+            this.names = getNames( uRoles );
+            this.roleSet = roleSet;
+        }
+
+        private boolean isCurrent( long version, List<UserRole> uRoles )
+        {
+            if ( this.version != version || names.length != ( uRoles == null ? 0 : uRoles.size() ) )
+            {
+                return false;
+            }
+            for ( int i = 0; i < names.length; i++ )
+            {
+                if ( !StringUtils.equals( names[i], uRoles.get( i ).getName() ) )
+                {
+                    return false;
+                }
+            }
+            return true;
         }
-        else{
-            LOG.debug("Graph found in cache, returning...");
-            return graph;
+
+        private static String[] getNames( List<UserRole> uRoles )
+        {
+            String[] names = new String[uRoles == null ? 0 : uRoles.size()];
+            for ( int i = 0; i < names.length; i++ )
+            {
+                names[i] = uRoles.get( i ).getName();
+            }
+            return names;
         }
     }
 }
@@ -19,30 +19,30 @@
  */
 package org.apache.directory.fortress.core.impl;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import net.sf.ehcache.search.Attribute;
-import net.sf.ehcache.search.Query;
-import net.sf.ehcache.search.Result;
-import net.sf.ehcache.search.Results;
-
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.directory.api.ldap.model.constants.SchemaConstants;
 import org.apache.directory.fortress.core.*;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.model.*;
 import org.apache.directory.fortress.core.util.Config;
 import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
 import org.apache.directory.fortress.core.util.cache.CacheMgr;
-import org.apache.directory.fortress.core.util.cache.DsdCacheEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This utilty provides functionality necessary for SSD and DSD processing and cannot be called by components outside fortress.
  * This class also contains utility functions for maintaining the SSD and DSD cache.
  * <p>
+ * The DSD cache holds one {@link DsdIndex} per tenant, loaded with a single search of the tenant's DSD sets and kept
+ * current by the {@link AdminMgrImpl} DSD methods, so activation of a session's roles is checked in memory.
+ * <p>
  * This class is thread safe.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
@@ -50,15 +50,15 @@ import org.apache.directory.fortress.core.util.cache.DsdCacheEntry;
  */
 final class SDUtil
 {
-    private Cache m_dsdCache;
+    private static final String CLS_NM = SDUtil.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private Cache<String, DsdIndex> m_dsdCache;
     private static final String FORTRESS_DSDS = "fortress.dsd";
-    private Cache m_ssdCache;
+    private Cache<String, List<SDSet>> m_ssdCache;
     private static final String FORTRESS_SSDS = "fortress.ssd";
     private SdP sp;
     private static final String IS_DSD_CACHE_DISABLED_PARM = "disable.dsd.cache";
-    private static final String DSD_NAME = "name";
-    private static final String EMPTY_ELEMENT = "empty";
-    private static final String CONTEXT_ID = "contextId";
+    private static final String DSD_KEY = "DSD";
 
     private static volatile SDUtil sINSTANCE = null;
 
@@ -83,10 +83,11 @@ final class SDUtil
     
         // Get a reference to the CacheManager Singleton object:
         CacheMgr cacheMgr = CacheMgr.getInstance();
-        // This cache contains a wrapper entry for DSD and is searchable by both DSD and Role name:
+        // This cache is not searchable and contains the index of DSD sets by tenant:
         m_dsdCache = cacheMgr.getCache(FORTRESS_DSDS);
         // This cache is not searchable and contains Lists of SSD objects by Role:
         m_ssdCache = cacheMgr.getCache(FORTRESS_SSDS);
+        CacheInvalidator.start();
     }
 
     /**
@@ -262,25 +263,72 @@ final class SDUtil
     }
 
     /**
-     * Given DSD entry name, clear its corresponding object values from the cache.
+     * Given a DSD that has been added or changed, replace its prior version in the tenant's DSD cache.  The set is
+     * read back from the directory, so it doesn't matter which of its attributes the caller changed.  Nothing is
+     * done if the tenant's index hasn't been loaded yet, it will contain the change when it is.
      *
-     * @param name contains the name of object to be cleared.
-     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.     *
+     * @param name contains the name of the DSD set.
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
      * @throws SecurityException in the event of system or rule violation.
      */
-    void clearDsdCacheEntry(String name, String contextId)
+    synchronized void updateDsdCacheEntry( String name, String contextId ) throws SecurityException
+    {
+        contextId = getContextId( contextId );
+        DsdIndex index = m_dsdCache.get( getKey( DSD_KEY, contextId ) );
+        if ( index == null )
+        {
+            // drop a load that may have read the sets before this change:
+            m_dsdCache.clear( getKey( DSD_KEY, contextId ) );
+        }
+        else
+        {
+            SDSet inSet = new SDSet();
+            inSet.setName( name );
+            inSet.setType( SDSet.SDType.DYNAMIC );
+            inSet.setContextId( contextId );
+            SDSet dsd = sp.read( inSet );
+            dsd.setContextId( contextId );
+            m_dsdCache.put( getKey( DSD_KEY, contextId ), index.put( dsd ) );
+        }
+    }
+
+    /**
+     * Given DSD entry name, remove it from the tenant's DSD cache.
+     *
+     * @param name contains the name of the DSD set to be removed.
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    synchronized void clearDsdCacheEntry( String name, String contextId )
     {
-        Attribute<String> context = m_dsdCache.getSearchAttribute(CONTEXT_ID);
-        Attribute<String> dsdName = m_dsdCache.getSearchAttribute(DSD_NAME);
-        Query query = m_dsdCache.createQuery();
-        query.includeKeys();
-        query.includeValues();
-        query.addCriteria(dsdName.eq(name).and(context.eq(contextId)));
-        Results results = query.execute();
-        for (Result result : results.all())
+        contextId = getContextId( contextId );
+        DsdIndex index = m_dsdCache.get( getKey( DSD_KEY, contextId ) );
+        if ( index == null )
         {
-            m_dsdCache.clear(result.getKey());
+            m_dsdCache.clear( getKey( DSD_KEY, contextId ) );
         }
+        else
+        {
+            m_dsdCache.put( getKey( DSD_KEY, contextId ), index.remove( name ) );
+        }
+    }
+
+    /**
+     * Drop the tenant's DSD index, which is reloaded from the directory on next use.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    synchronized void clearDsdCache( String contextId )
+    {
+        m_dsdCache.clear( getKey( DSD_KEY, contextId ) );
+    }
+
+    /**
+     * Remove all entries from the SSD cache.  It is keyed by role name so the entries of a changed set can't be
+     * found without reading it.
+     */
+    void clearSsdCache()
+    {
+        m_ssdCache.flush();
     }
 
     /**
@@ -294,36 +342,7 @@ final class SDUtil
     private Set<SDSet> getDsdCache(String name, String contextId)
         throws SecurityException
     {
-        contextId = getContextId(contextId);
-        Set<SDSet> finalSet = new HashSet<>();
-        Attribute<String> context = m_dsdCache.getSearchAttribute(CONTEXT_ID);
-        Attribute<String> member = m_dsdCache.getSearchAttribute(SchemaConstants.MEMBER_AT);
-        Query query = m_dsdCache.createQuery();
-        query.includeKeys();
-        query.includeValues();
-        query.addCriteria(member.eq(name).and(context.eq(contextId)));
-        Results results = query.execute();
-        boolean empty = false;
-        for (Result result : results.all())
-        {
-            DsdCacheEntry entry = (DsdCacheEntry) result.getValue();
-            if (!entry.isEmpty())
-            {
-                finalSet.add(entry.getSdSet());
-                finalSet = putDsdCache(name, contextId);
-            }
-            else
-            {
-                empty = true;
-            }
-            finalSet.add(entry.getSdSet());
-        }
-        // If nothing was found in the cache, determine if it needs to be seeded:
-        if (finalSet.size() == 0 && !empty)
-        {
-            finalSet = putDsdCache(name, contextId);
-        }
-        return finalSet;
+        return getDsdIndex( contextId ).getDsdSets( name );
     }
 
     /**
@@ -354,148 +373,64 @@ final class SDUtil
             sdSet.setContextId(contextId);
             dsdRetSets = sp.search(authorizedRoleSet, sdSet);
         }
-        // Search the DSD cache for matching Role members:
+        // Look up the authorized roles in the tenant's index:
         else
         {
-            // Search on roleName attribute which maps to 'member' attr on the cache record:
-            Attribute<String> member = m_dsdCache.getSearchAttribute(SchemaConstants.MEMBER_AT);
-            Attribute<String> context = m_dsdCache.getSearchAttribute(CONTEXT_ID);
-            Query query = m_dsdCache.createQuery();
-            query.includeKeys();
-            query.includeValues();
-            // Add the passed in authorized Role names to this cache query:
-            Set<String> roles = new HashSet<>(authorizedRoleSet);
-            query.addCriteria(member.in(roles).and(context.eq(contextId)));
-            // Return all DSD cache entries that match roleName to the 'member' attribute in cache entry:
-            Results results = query.execute();
-            for (Result result : results.all())
-            {
-                DsdCacheEntry entry = (DsdCacheEntry) result.getValue();
-                // Do not add dummy DSD sets to the final list:
-                if (!entry.isEmpty())
-                {
-                    dsdRetSets.add(entry.getSdSet());
-                }
-                // Remove role member from authorizedRoleSet to preclude from upcoming DSD search:
-                //authorizedRoleSet.remove(entry.getMember());
-            }
-            // Authorized roles remaining in this set correspond to missed cache hits from above:
-            if (authorizedRoleSet.size() > 0)
-            {
-                dsdRetSets = putDsdCache(authorizedRoleSet, contextId);
-            }
+            dsdRetSets = getDsdIndex( contextId ).getDsdSets( authorizedRoleSet );
         }
         return dsdRetSets;
     }
 
     /**
-     * Get the matching DSD's from directory and add to the cache (if found).  If matching DSD not found,
-     * add dummy entry to cache to prevent repeated searches.
+     * Return the tenant's DSD index, loading it from the directory if it isn't cached.
      *
-     * @param authorizedRoleSet contains set of Roles used to search directory for matching DSD's.
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return List of DSD's who have matching Role members.
+     * @return index of DSD sets by role name.
      * @throws SecurityException in the event of system or rule violation.
      */
-    private Set<SDSet> putDsdCache(Set<String> authorizedRoleSet, String contextId)
-        throws SecurityException
+    private DsdIndex getDsdIndex( String contextId ) throws SecurityException
     {
-        contextId = getContextId(contextId);
-        Set<SDSet> dsdSets = new HashSet<>();
-        // Search the DSD's iteratively to seed the DSD cache by Role name:
-        for (String roleName : authorizedRoleSet)
-        {
-            Role role = new Role(roleName);
-            role.setContextId(contextId);
-            List<SDSet> dsdList = sp.search(role, SDSet.SDType.DYNAMIC);
-            if (CollectionUtils.isNotEmpty( dsdList ))
+        final String szContextId = getContextId( contextId );
+        // one load per tenant at a time, callers that miss while it runs wait for its index:
+        return m_dsdCache.get( getKey( DSD_KEY, szContextId ),
+            new CacheLoader<String, DsdIndex, SecurityException>()
             {
-                for (SDSet dsd : dsdList)
+                @Override
+                public DsdIndex load( String key ) throws SecurityException
                 {
-                    dsd.setContextId(contextId);
-                    Set<String> members = dsd.getMembers();
-                    if (members != null)
-                    {
-                        // Seed the cache with DSD objects mapped to role name:
-                        for (String member : members)
-                        {
-                            String key = buildKey(dsd.getName(), member);
-                            DsdCacheEntry entry = new DsdCacheEntry(member, dsd, false);
-                            entry.setName(dsd.getName());
-                            m_dsdCache.put(getKey(key, contextId), entry);
-                        }
-                    }
+                    return loadDsdIndex( szContextId );
                 }
-                // Maintain the set of DSD's to be returned to the caller:
-                dsdSets.addAll(dsdList);
-            }
-            else
-            {
-                // Seed the cache with dummy entry for a Role that is not referenced by DSD:
-                String key = buildKey(EMPTY_ELEMENT, roleName);
-                SDSet sdSet = new SDSet();
-                sdSet.setType(SDSet.SDType.DYNAMIC);
-                sdSet.setName(key);
-                sdSet.setMember(roleName);
-                sdSet.setContextId(contextId);
-                DsdCacheEntry entry = new DsdCacheEntry(roleName, sdSet, true);
-                entry.setName(key);
-                m_dsdCache.put(getKey(sdSet.getName(), contextId), entry);
-            }
-        }
-        return dsdSets;
+            } );
     }
 
     /**
-     * Get the matching DSD's from directory and add to the cache (if found).  If matching DSD not found,
-     * add dummy entry to cache to prevent repeated searches.
+     * Read every DSD set of the tenant and build the index that is cached.  The sets are read with a paged search so
+     * none are left out however many the tenant has, a search that fails part way, e.g. on a server side size limit,
+     * throws rather than leave an index that would skip the missing sets' checks.
      *
-     * @param roleName of Role is used to search directory for matching DSD's.
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return Set of DSD's who have matching Role member.
+     * @return index of DSD sets by role name.
      * @throws SecurityException in the event of system or rule violation.
      */
-    private Set<SDSet> putDsdCache(String roleName, String contextId)
-        throws SecurityException
+    private DsdIndex loadDsdIndex( String contextId ) throws SecurityException
     {
-        contextId = getContextId(contextId);
-        Role role = new Role(roleName);
-        role.setContextId(contextId);
-        List<SDSet> dsdList = sp.search(role, SDSet.SDType.DYNAMIC);
-        Set<SDSet> finalSet = new HashSet<>(dsdList);
-        if ( CollectionUtils.isNotEmpty( dsdList ))
+        SDSet sdSet = new SDSet();
+        sdSet.setName( "" );
+        sdSet.setType( SDSet.SDType.DYNAMIC );
+        sdSet.setContextId( contextId );
+        List<SDSet> dsds = new ArrayList<>();
+        try ( ResultCursor<SDSet> cursor = sp.searchPaged( sdSet ) )
         {
-            for (SDSet dsd : dsdList)
+            while ( cursor.next() )
             {
-                dsd.setContextId(contextId);
-                Set<String> members = dsd.getMembers();
-                if (members != null)
-                {
-                    // Seed the cache with DSD objects mapped to role name:
-                    for (String member : members)
-                    {
-                        String key = buildKey(dsd.getName(), member);
-                        DsdCacheEntry entry = new DsdCacheEntry(member, dsd, false);
-                        entry.setName(dsd.getName());
-                        m_dsdCache.put(getKey(key, contextId), entry);
-                    }
-                }
+                SDSet dsd = cursor.get();
+                dsd.setContextId( contextId );
+                dsds.add( dsd );
             }
         }
-        else
-        {
-            // Seed the cache with dummy entry for Role that does not have DSD:
-            String key = buildKey(EMPTY_ELEMENT, roleName);
-            SDSet sdSet = new SDSet();
-            sdSet.setType(SDSet.SDType.DYNAMIC);
-            sdSet.setName(key);
-            sdSet.setMember(roleName);
-            sdSet.setContextId(contextId);
-            DsdCacheEntry entry = new DsdCacheEntry(roleName, sdSet, true);
-            entry.setName(key);
-            m_dsdCache.put(getKey(sdSet.getName(), contextId), entry);
-        }
-        return finalSet;
+        DsdIndex index = DsdIndex.build( dsds );
+        LOG.info( "loadDsdIndex context [{}] loaded [{}] DSD sets", contextId, index.size() );
+        return index;
     }
 
     /**
@@ -512,21 +447,19 @@ final class SDUtil
     }
 
     /**
-     * Get the matching SSD's from directory and add to the cache (if found).
+     * Get the matching SSD's from directory, to be added to the cache.
      *
      * @param name of Role is used to search directory for matching SSD's.
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
      * @return List of SSD's who have matching Role member.
      * @throws SecurityException in the event of system or rule violation.
      */
-    private List<SDSet> putSsdCache(String name, String contextId)
+    private List<SDSet> loadSsdSets(String name, String contextId)
         throws SecurityException
     {
         Role role = new Role(name);
         role.setContextId(contextId);
-        List<SDSet> ssdSets = sp.search(role, SDSet.SDType.STATIC);
-        m_ssdCache.put(getKey(name, contextId), ssdSets);
-        return ssdSets;
+        return sp.search(role, SDSet.SDType.STATIC);
     }
 
     /**
@@ -537,26 +470,17 @@ final class SDUtil
      * @return List of SSD's who have matching Role member.
      * @throws SecurityException in the event of system or rule violation.
      */
-    private List<SDSet> getSsdCache(String name, String contextId)
+    private List<SDSet> getSsdCache(final String name, final String contextId)
         throws SecurityException
     {
-        List<SDSet> ssdSets = (List<SDSet>) m_ssdCache.get(getKey(name, contextId));
-        if (ssdSets == null)
+        return m_ssdCache.get(getKey(name, contextId), new CacheLoader<String, List<SDSet>, SecurityException>()
         {
-            ssdSets = putSsdCache(name, contextId);
-        }
-        return ssdSets;
-    }
-
-    /**
-     *
-     * @param parm1
-     * @param parm2
-     * @return
-     */
-    private static String buildKey(String parm1, String parm2)
-    {
-        return parm1 + ":" + parm2;
+            @Override
+            public List<SDSet> load(String key) throws SecurityException
+            {
+                return loadSsdSets(name, contextId);
+            }
+        });
     }
 
     /**
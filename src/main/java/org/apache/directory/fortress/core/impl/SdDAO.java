@@ -44,7 +44,9 @@ import org.apache.directory.fortress.core.FinderException;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
 import org.apache.directory.fortress.core.RemoveException;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.UpdateException;
+import org.apache.directory.fortress.core.ldap.EntryMapper;
 import org.apache.directory.fortress.core.ldap.LdapDataProvider;
 import org.apache.directory.fortress.core.model.ObjectFactory;
 import org.apache.directory.fortress.core.model.Role;
@@ -424,6 +426,48 @@ final class SdDAO extends LdapDataProvider
     }
 
 
+    /**
+     * Same as {@link #search(SDSet)} but returns a cursor whose results are read a page at a time, so there is no
+     * limit on how many are returned.
+     *
+     * @param sdset requires name and type.
+     * @return cursor over the matching SDSets, must be closed by caller.
+     * @throws FinderException in the event a connection can't be borrowed.
+     */
+    ResultCursor<SDSet> searchPaged( SDSet sdset ) throws FinderException
+    {
+        String ssdRoot = getSdRoot( sdset.getContextId() );
+        String objectClass = SSD_OBJECT_CLASS_NM;
+        int errCode = GlobalErrIds.SSD_SEARCH_FAILED;
+
+        if ( sdset.getType() == SDSet.SDType.DYNAMIC )
+        {
+            objectClass = DSD_OBJECT_CLASS_NM;
+            errCode = GlobalErrIds.DSD_SEARCH_FAILED;
+        }
+
+        try
+        {
+            String searchVal = encodeSafeText( sdset.getName(), GlobalIds.ROLE_LEN );
+            String filter = GlobalIds.FILTER_PREFIX + objectClass + ")(" + SD_SET_NM + "=" + searchVal + "*))";
+            return searchPaged( ssdRoot, SearchScope.SUBTREE, filter, SD_SET_ATRS, new EntryMapper<SDSet>()
+            {
+                @Override
+                public SDSet map( Entry entry, long sequence ) throws LdapException
+                {
+                    return unloadLdapEntry( entry, sequence );
+                }
+            }, errCode );
+        }
+        catch ( LdapException e )
+        {
+            String error = "searchPaged sdset name [" + sdset.getName() + "] type [" + sdset.getType()
+                + "] caught LdapException=" + e;
+            throw new FinderException( errCode, error, e );
+        }
+    }
+
+
     /**
      * @param role
      * @return
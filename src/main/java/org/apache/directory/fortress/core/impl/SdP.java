@@ -25,6 +25,7 @@ import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.model.Role;
 import org.apache.directory.fortress.core.model.SDSet;
@@ -144,6 +145,19 @@ final class SdP
     }
 
 
+    /**
+     * Same as {@link #search(SDSet)} but the matching entities are read a page at a time as the cursor advances.
+     *
+     * @param sdSet contains sdSet name or partial name along with sdSet type of STATIC or DYNAMIC.
+     * @return cursor over the matching SDSet entities, must be closed by caller.
+     * @throws SecurityException in the event of DAO search error.
+     */
+    ResultCursor<SDSet> searchPaged( SDSet sdSet ) throws SecurityException
+    {
+        return sdDao.searchPaged( sdSet );
+    }
+
+
     /**
      * Will search using a single RBAC Role name either STATIC or DYNAMIC SDSet depending on which type is passed.
      * The role entity contains full RBAC Role name associated with SDSet node in directory.
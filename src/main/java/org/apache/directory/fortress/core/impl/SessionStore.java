@@ -0,0 +1,425 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.model.Group;
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.apache.directory.fortress.core.model.Warning;
+import org.apache.directory.fortress.core.util.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Server side store of RBAC sessions keyed by {@link Session#getSessionId()}, so a caller may hold on to the id
+ * returned by createSession and pass it to {@link AccessMgrImpl#checkAccess(String, org.apache.directory.fortress.core.model.Permission)}
+ * in place of the whole Session.  A stored session is a compact copy of the original that keeps the user's id,
+ * constraint and activated roles, along with the authorized role ids once computed, and drops the rest of the User,
+ * e.g. password, properties, address and admin roles.
+ * <p>
+ * The store is bounded by number of sessions and by an estimate of the memory they use.  When either limit is reached
+ * the least recently used session is evicted.  A session not used for longer than the idle timeout is removed.
+ * <p>
+ * The store is disabled by default.  To switch it on, set fortress config param 'enable.session.store=true'.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class SessionStore
+{
+    private static final String CLS_NM = SessionStore.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String IS_SESSION_STORE_ENABLED_PARM = "enable.session.store";
+    private static final String MAX_ENTRIES_PARM = "session.store.max.entries";
+    private static final String MAX_MEGABYTES_PARM = "session.store.max.megabytes";
+    private static final String IDLE_SECONDS_PARM = "session.store.idle.seconds";
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final int DEFAULT_MAX_MEGABYTES = 64;
+    private static final int DEFAULT_IDLE_SECONDS = 1800;
+    // rough sizes used to estimate memory, object headers plus references:
+    private static final int SESSION_BYTES = 256;
+    private static final int ROLE_BYTES = 160;
+
+    private final boolean isEnabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long idleMillis;
+    // access ordered, so iteration starts with the least recently used session:
+    private final LinkedHashMap<String, Entry> sessions = new LinkedHashMap<>( 16, 0.75f, true );
+    private long bytes;
+
+    private static volatile SessionStore sINSTANCE = null;
+
+    static SessionStore getInstance()
+    {
+        if ( sINSTANCE == null )
+        {
+            synchronized ( SessionStore.class )
+            {
+                if ( sINSTANCE == null )
+                {
+                    Config cfg = Config.getInstance();
+                    sINSTANCE = new SessionStore( cfg.getBoolean( IS_SESSION_STORE_ENABLED_PARM, false ),
+                        cfg.getInt( MAX_ENTRIES_PARM, DEFAULT_MAX_ENTRIES ),
+                        cfg.getInt( MAX_MEGABYTES_PARM, DEFAULT_MAX_MEGABYTES ) * 1024L * 1024L,
+                        cfg.getInt( IDLE_SECONDS_PARM, DEFAULT_IDLE_SECONDS ) * 1000L );
+                }
+            }
+        }
+        return sINSTANCE;
+    }
+
+
+    /**
+     * Package private for unit tests, others use {@link #getInstance()}.
+     *
+     * @param isEnabled if false the store holds nothing.
+     * @param maxEntries max number of sessions.
+     * @param maxBytes max estimated size of the sessions.
+     * @param idleMillis time a session may go unused before it's removed, zero for never.
+     */
+    SessionStore( boolean isEnabled, int maxEntries, long maxBytes, long idleMillis )
+    {
+        this.isEnabled = isEnabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.idleMillis = idleMillis;
+        if ( isEnabled )
+        {
+            LOG.info( "SessionStore enabled maxEntries [{}] maxBytes [{}] idleMillis [{}]", maxEntries, maxBytes,
+                idleMillis );
+        }
+    }
+
+
+    /**
+     * Return true if the session store has been switched on.
+     *
+     * @return boolean value of fortress config param 'enable.session.store'.
+     */
+    boolean isEnabled()
+    {
+        return isEnabled;
+    }
+
+
+    /**
+     * Store a compact copy of the session under its session id, replacing any session already stored there.
+     *
+     * @param session contains a session id along with the user or group and its activated roles.
+     */
+    void put( Session session )
+    {
+        if ( isEnabled && session != null && session.getSessionId() != null )
+        {
+            Entry entry = new Entry( compact( session ) );
+            synchronized ( this )
+            {
+                remove( session.getSessionId() );
+                sessions.put( session.getSessionId(), entry );
+                bytes += entry.size;
+                evict();
+            }
+        }
+    }
+
+
+    /**
+     * Replace the stored copy of the session, if there is one, e.g. after a role has been activated or dropped.
+     *
+     * @param session contains a session id along with the user or group and its activated roles.
+     */
+    void update( Session session )
+    {
+        if ( isEnabled && session != null && session.getSessionId() != null )
+        {
+            boolean isStored;
+            synchronized ( this )
+            {
+                isStored = sessions.containsKey( session.getSessionId() );
+            }
+            if ( isStored )
+            {
+                put( session );
+            }
+        }
+    }
+
+
+    /**
+     * Return the stored session and mark it as used.  Callers that pass it on to the access checks must synchronize on
+     * it, as those may remove roles whose constraints no longer pass.
+     *
+     * @param sessionId returned by createSession.
+     * @return stored session, or null if not found, expired or the store is disabled.
+     */
+    Session get( String sessionId )
+    {
+        Session session = null;
+        if ( isEnabled && sessionId != null )
+        {
+            long now = System.currentTimeMillis();
+            synchronized ( this )
+            {
+                Entry entry = sessions.get( sessionId );
+                if ( entry != null )
+                {
+                    if ( isExpired( entry, now ) )
+                    {
+                        remove( sessionId );
+                    }
+                    else
+                    {
+                        entry.lastUsed = now;
+                        session = entry.session;
+                    }
+                }
+            }
+        }
+        return session;
+    }
+
+
+    /**
+     * Return the stored session if it belongs to the tenant, see {@link #get(String)}.
+     *
+     * @param sessionId returned by createSession.
+     * @param contextId of the caller, maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return stored session, or null if not found, expired, created for another tenant or the store is disabled.
+     */
+    Session get( String sessionId, String contextId )
+    {
+        Session session = get( sessionId );
+        if ( session != null && !getTenant( getContextId( session ) ).equalsIgnoreCase( getTenant( contextId ) ) )
+        {
+            LOG.warn( "get session [{}] of tenant [{}] requested by tenant [{}]", sessionId,
+                getContextId( session ), contextId );
+            session = null;
+        }
+        return session;
+    }
+
+
+    /**
+     * Remove the session from the store.
+     *
+     * @param sessionId returned by createSession.
+     * @return true if the session was stored.
+     */
+    boolean delete( String sessionId )
+    {
+        boolean result = false;
+        if ( isEnabled && sessionId != null )
+        {
+            synchronized ( this )
+            {
+                result = remove( sessionId );
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * @return number of sessions stored.
+     */
+    synchronized int size()
+    {
+        return sessions.size();
+    }
+
+
+    /**
+     * @return estimated size of the sessions stored.
+     */
+    synchronized long getBytes()
+    {
+        return bytes;
+    }
+
+
+    private boolean remove( String sessionId )
+    {
+        Entry entry = sessions.remove( sessionId );
+        if ( entry != null )
+        {
+            bytes -= entry.size;
+        }
+        return entry != null;
+    }
+
+
+    /**
+     * Drop expired sessions and then least recently used ones until the store is within its limits.  Both start at
+     * the head of the access order so this stops at the first session that may stay.
+     */
+    private void evict()
+    {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Entry>> it = sessions.entrySet().iterator();
+        while ( it.hasNext() )
+        {
+            Entry entry = it.next().getValue();
+            boolean isFull = sessions.size() > maxEntries || bytes > maxBytes;
+            if ( !isFull && !isExpired( entry, now ) )
+            {
+                break;
+            }
+            // never evict the session just stored:
+            if ( sessions.size() == 1 )
+            {
+                break;
+            }
+            it.remove();
+            bytes -= entry.size;
+            if ( isFull && LOG.isDebugEnabled() )
+            {
+                LOG.debug( "evict session [{}] size [{}] bytes [{}]", entry.session.getSessionId(), sessions.size(),
+                    bytes );
+            }
+        }
+    }
+
+
+    private boolean isExpired( Entry entry, long now )
+    {
+        return idleMillis > 0 && now - entry.lastUsed > idleMillis;
+    }
+
+
+    private static String getContextId( Session session )
+    {
+        return session.isGroupSession() ? session.getGroup().getContextId() : session.getUser().getContextId();
+    }
+
+
+    /**
+     * @param contextId as set on a manager or entity.
+     * @return the contextId, or {@link GlobalIds#HOME} for the default tenant which may also be null or "null".
+     */
+    private static String getTenant( String contextId )
+    {
+        if ( StringUtils.isEmpty( contextId ) || contextId.equalsIgnoreCase( GlobalIds.NULL ) )
+        {
+            return GlobalIds.HOME;
+        }
+        return contextId;
+    }
+
+
+    /**
+     * Copy what the access checks need from the session: the user id, internal id, tenant and constraint or group
+     * name, and the activated RBAC roles.
+     *
+     * @param session to copy.
+     * @return new session with the same id.
+     */
+    static Session compact( Session session )
+    {
+        Session result;
+        if ( session.isGroupSession() )
+        {
+            Group inGroup = session.getGroup();
+            Group group = new Group( inGroup.getName() );
+            group.setContextId( inGroup.getContextId() );
+            group.setRoles( copyRoles( inGroup.getRoles() ) );
+            result = new Session( group, session.getSessionId() );
+        }
+        else
+        {
+            User inUser = session.getUser();
+            User user = new User( inUser.getUserId() );
+            user.setInternalId( inUser.getInternalId() );
+            user.setContextId( inUser.getContextId() );
+            // not ConstraintUtil.copy, which would load the validators:
+            user.setTimeout( inUser.getTimeout() );
+            user.setBeginTime( inUser.getBeginTime() );
+            user.setEndTime( inUser.getEndTime() );
+            user.setBeginDate( inUser.getBeginDate() );
+            user.setEndDate( inUser.getEndDate() );
+            user.setBeginLockDate( inUser.getBeginLockDate() );
+            user.setEndLockDate( inUser.getEndLockDate() );
+            user.setDayMask( inUser.getDayMask() );
+            user.setRoles( copyRoles( inUser.getRoles() ) );
+            result = new Session( user, session.getSessionId() );
+        }
+        // copies last access and authentication status, along with the user or group which are put back:
+        Group group = result.getGroup();
+        User user = result.getUser();
+        result.copy( session );
+        result.setGroup( group );
+        result.setUser( user );
+        result.setWarnings( session.getWarnings() != null ? new ArrayList<Warning>( session.getWarnings() ) : null );
+        return result;
+    }
+
+
+    private static List<UserRole> copyRoles( List<UserRole> roles )
+    {
+        return roles != null ? new ArrayList<>( roles ) : new ArrayList<UserRole>();
+    }
+
+
+    private static long estimateSize( Session session )
+    {
+        long size = SESSION_BYTES;
+        String id = session.isGroupSession() ? session.getGroupName() : session.getUserId();
+        size += id != null ? 2L * id.length() : 0;
+        List<UserRole> roles = session.getRoles();
+        if ( roles != null )
+        {
+            for ( UserRole role : roles )
+            {
+                size += ROLE_BYTES + ( role.getName() != null ? 2L * role.getName().length() : 0 );
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * Stored value, the compact session with its size and time of last use.
+     */
+    private static final class Entry
+    {
+        private final Session session;
+        private final long size;
+        private long lastUsed;
+
+        private Entry( Session session )
+        {
+            this.session = session;
+            this.size = estimateSize( session );
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
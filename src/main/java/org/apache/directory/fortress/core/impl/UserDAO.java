@@ -53,14 +53,17 @@ import org.apache.directory.api.ldap.model.message.BindResponse;
 import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
 import org.apache.directory.api.ldap.model.message.SearchScope;
 import org.apache.directory.fortress.core.CfgException;
+import org.apache.directory.fortress.core.CfgRuntimeException;
 import org.apache.directory.fortress.core.CreateException;
 import org.apache.directory.fortress.core.FinderException;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
 import org.apache.directory.fortress.core.PasswordException;
 import org.apache.directory.fortress.core.RemoveException;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.UpdateException;
+import org.apache.directory.fortress.core.ldap.EntryMapper;
 import org.apache.directory.fortress.core.ldap.LdapDataProvider;
 import org.apache.directory.fortress.core.model.*;
 import org.apache.directory.fortress.core.util.PropUpdater;
@@ -143,7 +146,7 @@ import static org.apache.directory.fortress.core.impl.RoleDAO.IS_RFC2307;
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  * @created August 30, 2009
  */
-final class UserDAO extends LdapDataProvider implements PropUpdater
+final class UserDAO extends LdapDataProvider implements PropUpdater, UserDetailUtil
 {
     /*
       *  *************************************************************************
@@ -198,6 +201,23 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
     // These will be loaded in static initializer that follows:
     private static String[] authnAtrs = null;
     private static String[] defaultAtrs = null;
+    private static String[] authzAtrs = null;
+    // Read on demand for users read with UserProjection.AUTHZ:
+    private static final String[] DETAIL_ATRS =
+        {
+            SchemaConstants.POSTAL_ADDRESS_AT,
+            SchemaConstants.L_AT,
+            SchemaConstants.POSTALCODE_AT,
+            SchemaConstants.POSTOFFICEBOX_AT,
+            SchemaConstants.ST_AT,
+            SchemaConstants.PHYSICAL_DELIVERY_OFFICE_NAME_AT,
+            DEPARTMENT_NUMBER,
+            ROOM_NUMBER,
+            SchemaConstants.TELEPHONE_NUMBER_AT,
+            MOBILE,
+            SchemaConstants.MAIL_AT,
+            JPEGPHOTO
+        };
     private static final String[] ROLE_ATR = { GlobalIds.USER_ROLE_DATA };
     private static final String[] AROLE_ATR = { GlobalIds.USER_ADMINROLE_DATA };
     private static final String[] USERID_ATR = { SchemaConstants.UID_AT };
@@ -657,30 +677,31 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
      */
     User getUser( User user, boolean isRoles ) throws FinderException
     {
-        User entity = null;
-        LdapConnection ld = null;
-        String userDn = getDn( user.getUserId(), user.getContextId() );
-
-        String[] uATTRS;
-        // Retrieve role attributes?
-
-        if ( isRoles )
-        {
-            // Retrieve the User's assigned RBAC and Admin Role attributes from directory.
-            uATTRS = defaultAtrs;
+        // Retrieve the User's assigned RBAC and Admin Role attributes from directory?
+        return getUser( user, isRoles ? UserProjection.FULL : UserProjection.AUTHN );
+    }
 
-        }
-        else
-        {
-            // Do not retrieve the User's assigned RBAC and Admin Role attributes from directory.
-            uATTRS = authnAtrs;
-        }
 
+    /**
+     * Read the user with the attributes of the given projection.  For {@link UserProjection#AUTHZ} the entity reads
+     * the rest of its attributes from the directory on first use, see {@link #getDetailCB(User)}.
+     *
+     * @param user contains userId and contextId.
+     * @param projection selects the attributes to read.
+     * @return entity containing the user data.
+     * @throws FinderException if the user isn't found or the read fails.
+     */
+    User getUser( User user, UserProjection projection ) throws FinderException
+    {
+        LdapConnection ld = null;
+        String userDn = getDn( user.getUserId(), user.getContextId() );
+        String[] uATTRS = getAttrs( projection );
         Entry findEntry = null;
 
         try
         {
-            ld = getAdminConnection();
+            // session reads may be served by a replica, a full read is likely to precede an update:
+            ld = projection == UserProjection.FULL ? getAdminConnection() : getAdminReadConnection();
             findEntry = read( ld, userDn, uATTRS );
         }
         catch ( LdapNoSuchObjectException e )
@@ -698,6 +719,114 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
             closeAdminConnection( ld );
         }
 
+        return unloadUser( findEntry, user, projection );
+    }
+
+
+    /**
+     * Authenticate the user and read its entry in one step.  The read is sent on an admin connection without waiting
+     * for the response, the bind is done on a user connection, then the read is collected.  So it takes about as long
+     * as the slower of the two rather than both.  Falls back to {@link #getUser(User, UserProjection)} followed by
+     * {@link #checkPassword(User)} if the connection can't send asynchronously.
+     * <p>
+     * The error precedence is the same as reading then binding, i.e. a user that doesn't exist fails with
+     * {@link GlobalErrIds#USER_NOT_FOUND} and not a password error.
+     *
+     * @param user contains userId, password and contextId.
+     * @param projection selects the attributes to read.
+     * @return Session containing the authentication result along with the user entity.
+     * @throws FinderException if the user isn't found or the read fails.
+     * @throws PasswordException if the password is invalid or violates the password policy.
+     */
+    Session checkPasswordAndRead( User user, UserProjection projection ) throws FinderException, PasswordException
+    {
+        LdapConnection ld = null;
+        String userDn = getDn( user.getUserId(), user.getContextId() );
+        PendingRead pendingRead = null;
+        Entry findEntry;
+        Session session;
+
+        try
+        {
+            ld = getAdminReadConnection();
+            pendingRead = readAsync( ld, userDn, getAttrs( projection ) );
+            if ( pendingRead == null )
+            {
+                closeAdminConnection( ld );
+                ld = null;
+                User entity = getUser( user, projection );
+                session = checkPassword( user );
+                session.setUser( entity );
+                return session;
+            }
+
+            FinderException bindError = null;
+            PasswordException pwError = null;
+            session = null;
+            try
+            {
+                session = checkPassword( user );
+            }
+            catch ( FinderException e )
+            {
+                bindError = e;
+            }
+            catch ( PasswordException e )
+            {
+                pwError = e;
+            }
+
+            // the read must be complete before the connection goes back to the pool:
+            findEntry = readResult( pendingRead );
+            if ( findEntry == null && ( bindError != null || pwError != null ) )
+            {
+                // a user that doesn't exist is reported as such:
+                String warning = "checkPasswordAndRead COULD NOT FIND ENTRY for user [" + user.getUserId() + "]";
+                throw new FinderException( GlobalErrIds.USER_NOT_FOUND, warning );
+            }
+            else if ( bindError != null )
+            {
+                throw bindError;
+            }
+            else if ( pwError != null )
+            {
+                throw pwError;
+            }
+        }
+        catch ( LdapException e )
+        {
+            String error = "checkPasswordAndRead [" + userDn + "]= caught LDAPException=" + e;
+            throw new FinderException( GlobalErrIds.USER_READ_FAILED, error, e );
+        }
+        finally
+        {
+            closeAdminConnection( ld );
+        }
+
+        session.setUser( unloadUser( findEntry, user, projection ) );
+        return session;
+    }
+
+
+    private String[] getAttrs( UserProjection projection )
+    {
+        switch ( projection )
+        {
+            case AUTHN:
+                return authnAtrs;
+
+            case AUTHZ:
+                return authzAtrs;
+
+            default:
+                return defaultAtrs;
+        }
+    }
+
+
+    private User unloadUser( Entry findEntry, User user, UserProjection projection ) throws FinderException
+    {
+        User entity = null;
         try
         {
             if ( findEntry != null )
@@ -717,10 +846,70 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
             throw new FinderException( GlobalErrIds.USER_NOT_FOUND, warning );
         }
 
+        if ( projection == UserProjection.AUTHZ )
+        {
+            // these weren't read, leave them unset so the entity fetches them when asked:
+            entity.setAddress( null );
+            entity.setPhones( null );
+            entity.setMobiles( null );
+            entity.setEmails( null );
+            entity.setJpegPhoto( null );
+            entity.setDetailUtil( this );
+        }
+
         return entity;
     }
 
 
+    /**
+     * Called back by a {@link User} read with {@link UserProjection#AUTHZ} on first use of its address, phones,
+     * mobiles, emails or photo, or before it's marshalled or serialized.  The getters can't throw a checked exception
+     * so a failure is thrown as {@link CfgRuntimeException}.
+     *
+     * @param user contains the dn, or userId and contextId, of the entry.
+     * @return User containing the detail attributes or null if the entry is no longer there.
+     * @throws CfgRuntimeException if the read fails.
+     */
+    @Override
+    public User getDetailCB( User user )
+    {
+        User detail = null;
+        LdapConnection ld = null;
+        String userDn = StringUtils.isNotEmpty( user.getDn() ) ? user.getDn() : getDn( user.getUserId(), user
+            .getContextId() );
+
+        try
+        {
+            ld = getAdminReadConnection();
+            Entry entry = read( ld, userDn, DETAIL_ATRS );
+            if ( entry != null )
+            {
+                detail = new ObjectFactory().createUser();
+                detail.setAddress( unloadAddress( entry ) );
+                detail.setPhones( getAttributes( entry, SchemaConstants.TELEPHONE_NUMBER_AT ) );
+                detail.setMobiles( getAttributes( entry, MOBILE ) );
+                detail.setEmails( getAttributes( entry, SchemaConstants.MAIL_AT ) );
+                detail.setJpegPhoto( getPhoto( entry, JPEGPHOTO ) );
+            }
+        }
+        catch ( LdapNoSuchObjectException e )
+        {
+            LOG.debug( "getDetailCB [{}] not found", userDn );
+        }
+        catch ( LdapException e )
+        {
+            String error = "getDetailCB [" + userDn + "] caught LDAPException=" + e;
+            throw new CfgRuntimeException( GlobalErrIds.USER_READ_FAILED, error, e );
+        }
+        finally
+        {
+            closeAdminConnection( ld );
+        }
+
+        return detail;
+    }
+
+
     /**
      * @param user
      * @return
@@ -989,43 +1178,9 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
 
         try
         {
-            //String filter;
-            StringBuilder filterbuf = new StringBuilder();
-            if ( StringUtils.isNotEmpty( user.getUserId() ) )
-            {
-                // place a wild card after the input userId:
-                String searchVal = encodeSafeText( user.getUserId(), GlobalIds.USERID_LEN );
-                filterbuf.append( GlobalIds.FILTER_PREFIX );
-                filterbuf.append( Config.getInstance().getProperty( USER_OBJECT_CLASS ) );
-                filterbuf.append( ")(" );
-                filterbuf.append( SchemaConstants.UID_AT );
-                filterbuf.append( "=" );
-                filterbuf.append( searchVal );
-                filterbuf.append( "*))" );
-            }
-            else if ( StringUtils.isNotEmpty( user.getInternalId() ) )
-            {
-                // internalUserId search
-                String searchVal = encodeSafeText( user.getInternalId(), GlobalIds.USERID_LEN );
-                // this is not a wildcard search. Must be exact match.
-                filterbuf.append( GlobalIds.FILTER_PREFIX );
-                filterbuf.append( Config.getInstance().getProperty( USER_OBJECT_CLASS ) );
-                filterbuf.append( ")(" );
-                filterbuf.append( GlobalIds.FT_IID );
-                filterbuf.append( "=" );
-                filterbuf.append( searchVal );
-                filterbuf.append( "))" );
-            }
-            else
-            {
-                // Beware - returns ALL users!!:"
-                filterbuf.append( "(objectclass=" );
-                filterbuf.append( Config.getInstance().getProperty( USER_OBJECT_CLASS ) );
-                filterbuf.append( ")" );
-            }
-
-            ld = getAdminConnection();
-            SearchCursor searchResults = search( ld, userRoot, SearchScope.ONELEVEL, filterbuf.toString(), defaultAtrs, false,
+            String filter = getFindUsersFilter( user );
+            ld = getAdminReadConnection();
+            SearchCursor searchResults = search( ld, userRoot, SearchScope.ONELEVEL, filter, defaultAtrs, false,
                     Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, Config.getInstance().getInt(GlobalIds.CONFIG_LDAP_MAX_BATCH_SIZE, GlobalIds.BATCH_SIZE ) ) );
             long sequence = 0;
 
@@ -1053,6 +1208,75 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
     }
 
 
+    /**
+     * Same as {@link #findUsers(User)} but returns a cursor whose results are read a page at a time.
+     *
+     * @param user contains the userId or internalId search criteria.
+     * @return cursor over the matching users, must be closed by caller.
+     * @throws FinderException in the event a connection can't be borrowed.
+     */
+    ResultCursor<User> findUsersPaged( final User user ) throws FinderException
+    {
+        String userRoot = getRootDn( user.getContextId(), GlobalIds.USER_ROOT );
+        try
+        {
+            return searchPaged( userRoot, SearchScope.ONELEVEL, getFindUsersFilter( user ), defaultAtrs,
+                new EntryMapper<User>()
+                {
+                    @Override
+                    public User map( Entry entry, long sequence ) throws LdapException
+                    {
+                        return unloadLdapEntry( entry, sequence, user.getContextId() );
+                    }
+                }, GlobalErrIds.USER_SEARCH_FAILED );
+        }
+        catch ( LdapException e )
+        {
+            String warning = "findUsersPaged userRoot [" + userRoot + "] caught LDAPException=" + e;
+            throw new FinderException( GlobalErrIds.USER_SEARCH_FAILED, warning, e );
+        }
+    }
+
+
+    private String getFindUsersFilter( User user ) throws LdapException
+    {
+        StringBuilder filterbuf = new StringBuilder();
+        if ( StringUtils.isNotEmpty( user.getUserId() ) )
+        {
+            // place a wild card after the input userId:
+            String searchVal = encodeSafeText( user.getUserId(), GlobalIds.USERID_LEN );
+            filterbuf.append( GlobalIds.FILTER_PREFIX );
+            filterbuf.append( Config.getInstance().getProperty( USER_OBJECT_CLASS ) );
+            filterbuf.append( ")(" );
+            filterbuf.append( SchemaConstants.UID_AT );
+            filterbuf.append( "=" );
+            filterbuf.append( searchVal );
+            filterbuf.append( "*))" );
+        }
+        else if ( StringUtils.isNotEmpty( user.getInternalId() ) )
+        {
+            // internalUserId search
+            String searchVal = encodeSafeText( user.getInternalId(), GlobalIds.USERID_LEN );
+            // this is not a wildcard search. Must be exact match.
+            filterbuf.append( GlobalIds.FILTER_PREFIX );
+            filterbuf.append( Config.getInstance().getProperty( USER_OBJECT_CLASS ) );
+            filterbuf.append( ")(" );
+            filterbuf.append( GlobalIds.FT_IID );
+            filterbuf.append( "=" );
+            filterbuf.append( searchVal );
+            filterbuf.append( "))" );
+        }
+        else
+        {
+            // Beware - returns ALL users!!:"
+            filterbuf.append( "(objectclass=" );
+            filterbuf.append( Config.getInstance().getProperty( USER_OBJECT_CLASS ) );
+            filterbuf.append( ")" );
+        }
+        return filterbuf.toString();
+    }
+
+
     /**
      * @param user
      * @param limit
@@ -2662,29 +2886,38 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
         if ( roles != null )
         {
             long sequence = 0;
+            String delimiter = Config.getInstance().getDelimiter();
+            ParentUtil parentUtil = RoleUtil.getInstance();
 
             for ( String raw : roles )
             {
                 //get role name
-                String roleName = raw.substring( 0, raw.indexOf( Config.getInstance().getDelimiter() ) ).toUpperCase();
-                
+                int nameLen = raw.indexOf( delimiter );
+                if ( nameLen < 0 )
+                {
+                    nameLen = raw.length();
+                }
+
                 //if role name filter provided, only unload role if it has that name
-                if ( ( roleNameFilter == null ) || roleNameFilter.toUpperCase().equals( roleName ) )
+                if ( ( roleNameFilter == null ) || ( roleNameFilter.length() == nameLen && raw.regionMatches( true, 0,
+                    roleNameFilter, 0, nameLen ) ) )
                 {
+                    // the map is case insensitive:
+                    String roleName = raw.substring( 0, nameLen );
+                    UserRole userRole = uRoles.get( roleName );
                     //if already found, add to user role
-                    if(uRoles.containsKey(roleName))
+                    if ( userRole != null )
                     {
-                        UserRole userRole = uRoles.get(roleName);
-                        userRole.load( raw, contextId, RoleUtil.getInstance() );
+                        userRole.load( raw, delimiter, contextId, parentUtil );
                     }
                     //else create new
                     else
                     {
-                        UserRole userRole = new ObjectFactory().createUserRole();
-                        userRole.load( raw, contextId, RoleUtil.getInstance() );
+                        userRole = new ObjectFactory().createUserRole();
+                        userRole.load( raw, delimiter, contextId, parentUtil );
                         userRole.setUserId( userId );
                         userRole.setSequenceId( sequence++ );
-                        uRoles.put(roleName, userRole );
+                        uRoles.put( roleName, userRole );
                     }
                 }
             }
@@ -2838,5 +3071,16 @@ final class UserDAO extends LdapDataProvider implements PropUpdater
                     GlobalIds.CONSTRAINT,
                     GlobalIds.PROPS };
         }
+
+        // Everything but the detail attributes, for sessions:
+        List<String> atrs = new ArrayList<>();
+        for ( String atr : defaultAtrs )
+        {
+            if ( atr != null && !ArrayUtils.contains( DETAIL_ATRS, atr ) )
+            {
+                atrs.add( atr );
+            }
+        }
+        authzAtrs = atrs.toArray( new String[atrs.size()] );
     }
 }
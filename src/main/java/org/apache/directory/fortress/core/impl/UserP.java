@@ -30,6 +30,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
 import org.apache.directory.fortress.core.PasswordException;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.ValidationException;
 import org.apache.directory.fortress.core.model.AdminRole;
@@ -44,6 +45,7 @@ import org.apache.directory.fortress.core.model.RoleConstraint.RCType;
 import org.apache.directory.fortress.core.model.Session;
 import org.apache.directory.fortress.core.model.User;
 import org.apache.directory.fortress.core.model.UserAdminRole;
+import org.apache.directory.fortress.core.model.UserProjection;
 import org.apache.directory.fortress.core.model.UserRole;
 import org.apache.directory.fortress.core.util.Config;
 import org.apache.directory.fortress.core.util.VUtil;
@@ -91,6 +93,19 @@ final class UserP
     }
 
 
+    /**
+     * Same as {@link #search(User)} but the matching entities are read a page at a time as the cursor advances.
+     *
+     * @param user contains all or partial userId or full internal userId.
+     * @return cursor over the matching User entities, must be closed by caller.
+     * @throws SecurityException in the event of DAO search error.
+     */
+    ResultCursor<User> searchPaged( User user ) throws SecurityException
+    {
+        return uDao.findUsersPaged( user );
+    }
+
+
     List<User> search( OrgUnit ou, boolean limitSize ) throws SecurityException
     {
         return uDao.findUsers( ou, limitSize );
@@ -252,6 +267,21 @@ final class UserP
     }
 
 
+    /**
+     * Return a User entity for a given userId populated with the attributes of the projection.  If the User entry is
+     * not found a SecurityException will be thrown.
+     *
+     * @param user  contains full userId value.
+     * @param projection selects the attributes to read.
+     * @return User entity containing the attributes of the projection.
+     * @throws SecurityException in the event of User not found or DAO search error.
+     */
+    User read( User user, UserProjection projection ) throws SecurityException
+    {
+        return uDao.getUser( user, projection );
+    }
+
+
     /**
      * Adds a new User entity to directory.  The User entity input object will be validated to ensure that:
      * userId is present, orgUnitId is valid, roles (optiona) are valid, reasonability checks on all of the
@@ -570,15 +600,19 @@ final class UserP
     private Session createSession( User inUser )
         throws SecurityException
     {
-        // read user entity:
-        User user = read( inUser, true );
-        user.setContextId( inUser.getContextId() );
+        // authenticate password, check pw policies and read user entity, overlapped:
+        Session session = uDao.checkPasswordAndRead( inUser, UserProjection.AUTHZ );
+        session.getUser().setContextId( inUser.getContextId() );
 
-        // authenticate password, check pw policies and validate user temporal constraints:
-        Session session = authenticate( inUser );
+        if ( !session.isAuthenticated() )
+        {
+            String info = "UserP.createSession failed  for userId [" + inUser.getUserId() + "] reason code ["
+                + session.getErrorId() + "] msg [" + session.getMsg() + "]";
+            throw new PasswordException( session.getErrorId(), info );
+        }
 
-        // Set the user entity into the session object:
-        session.setUser( user );
+        // validate user temporal constraints, against the entity that was read as the trusted path does:
+        VUtil.getInstance().validateConstraints( session, VUtil.ConstraintType.USER, false );
         return session;
     }
 
@@ -593,7 +627,7 @@ final class UserP
     private Session createSessionTrusted( User inUser )
         throws SecurityException
     {
-        User user = read( inUser, true );
+        User user = read( inUser, UserProjection.AUTHZ );
         user.setContextId( inUser.getContextId() );
 
         if ( user.isLocked() )
@@ -20,6 +20,7 @@
 package org.apache.directory.fortress.core.impl;
 
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -34,6 +35,7 @@ import org.apache.directory.fortress.core.model.Hier;
 import org.apache.directory.fortress.core.model.OrgUnit;
 import org.apache.directory.fortress.core.model.Relationship;
 import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
 import org.apache.directory.fortress.core.util.cache.CacheMgr;
 import org.jgrapht.graph.SimpleDirectedGraph;
 import org.slf4j.Logger;
@@ -62,7 +64,7 @@ import org.slf4j.LoggerFactory;
  */
 final class UsoUtil
 {
-    private Cache usoCache;
+    private Cache<String, HierIndex> usoCache;
     private OrgUnitP orgUnitP;
     private static final String CLS_NM = UsoUtil.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
@@ -95,6 +97,7 @@ final class UsoUtil
     
         CacheMgr cacheMgr = CacheMgr.getInstance();
         usoCache = cacheMgr.getCache( "fortress.uso" );
+        CacheInvalidator.start();
     }
 
     /**
@@ -114,7 +117,7 @@ final class UsoUtil
      */
     Set<String> getDescendants( String name, String contextId )
     {
-        return HierUtil.getDescendants( name, getGraph( contextId ) );
+        return getIndex( contextId ).getDescendants( name );
     }
 
 
@@ -126,7 +129,7 @@ final class UsoUtil
      */
     Set<String> getAscendants( String name, String contextId )
     {
-        return HierUtil.getAscendants( name, getGraph( contextId ) );
+        return getIndex( contextId ).getAscendants( name );
     }
 
 
@@ -179,17 +182,15 @@ final class UsoUtil
         
         if ( CollectionUtils.isNotEmpty( ous ) )
         {
+            HierIndex index = getIndex( contextId );
+            BitSet ids = new BitSet( index.size() );
             for ( OrgUnit ou : ous )
             {
                 String name = ou.getName();
                 iOUs.add( name );
-                Set<String> parents = HierUtil.getAscendants( name, getGraph( contextId ) );
-                
-                if ( CollectionUtils.isNotEmpty( parents ) )
-                {
-                    iOUs.addAll( parents );
-                }
+                ids.or( index.getAscendantIds( index.getId( name ) ) );
             }
+            index.addNames( ids, iOUs );
         }
         
         return iOUs;
@@ -198,7 +199,7 @@ final class UsoUtil
 
     /**
      * This api is used by {@link DelAdminMgrImpl} to determine parentage for User OU processing.
-     * It calls {@link HierUtil#validateRelationship(org.jgrapht.graph.SimpleDirectedGraph, String, String, boolean)} to evaluate three OU relationship expressions:
+     * It calls {@link HierUtil#validateRelationship(HierIndex, String, String, boolean)} to evaluate three OU relationship expressions:
      * <ol>
      * <li>If child equals parent</li>
      * <li>If mustExist true and parent-child relationship exists</li>
@@ -216,13 +217,13 @@ final class UsoUtil
     void validateRelationship( OrgUnit child, OrgUnit parent, boolean mustExist )
         throws ValidationException
     {
-        HierUtil.validateRelationship( getGraph( child.getContextId() ), child.getName(), parent.getName(), mustExist );
+        HierUtil.validateRelationship( getIndex( child.getContextId() ), child.getName(), parent.getName(), mustExist );
     }
 
 
     /**
-     * This api allows synchronized access to allow updates to hierarchical relationships.
-     * Method will update the hierarchical data set and reload the JGraphT simple digraph with latest.
+     * This api serializes updates to the tenant's hierarchy without blocking its readers.
+     * Method will update a copy of the JGraphT simple digraph and replace the cached closure index with one that reflects the change.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
      * @param relationship contains parent-child relationship targeted for addition.
@@ -231,7 +232,28 @@ final class UsoUtil
      */
     void updateHier( String contextId, Relationship relationship, Hier.Op op ) throws SecurityException
     {
-        HierUtil.updateHier( getGraph( contextId ), relationship, op );
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            HierIndex index = HierUtil.updateHier( getIndex( contextId ), relationship, op );
+            usoCache.put( key, index );
+        }
+    }
+
+
+    /**
+     * Drop the tenant's cached user org unit hierarchy, which is reloaded from the directory on next use.  Called when another
+     * process has changed the hierarchy.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     */
+    void invalidate( String contextId )
+    {
+        String key = getKey( contextId );
+        synchronized ( HierUtil.getLock( key ) )
+        {
+            usoCache.clear( key );
+        }
     }
 
 
@@ -240,57 +262,81 @@ final class UsoUtil
      * using 3rd party lib, <a href="http://www.jgrapht.org/">JGraphT</a>.
      *
      * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
-     * @return handle to simple digraph containing user ou hierarchies.
+     * @return handle to closure index and simple digraph containing user ou hierarchies.
      */
-    private synchronized SimpleDirectedGraph<String, Relationship> loadGraph( String contextId )
+    private HierIndex loadIndex( String contextId )
     {
-        Hier inHier = new Hier( Hier.Type.ROLE );
-        inHier.setContextId( contextId );
-        LOG.info( "loadGraph initializing USO context [{}]", inHier.getContextId() );
-        
-        List<Graphable> descendants = null;
+        HierIndex index;
         try
         {
-            OrgUnit orgUnit = new OrgUnit();
-            orgUnit.setType( OrgUnit.Type.USER );
-            orgUnit.setContextId( contextId );
-            descendants = orgUnitP.getAllDescendants( orgUnit );
+            index = readIndex( contextId );
         }
         catch ( SecurityException se )
         {
             LOG.info( "loadGraph caught SecurityException={}", se );
+            index = HierUtil.buildIndex( HierUtil.loadHier( contextId, null ) );
         }
-        
+        return index;
+    }
+
+
+    /**
+     * Read the tenant's user ou hierarchies from the directory, for {@link HierRefresher}, which must not replace the
+     * cached hierarchy with an empty one when the read fails.
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to closure index and simple digraph containing user ou hierarchies.
+     * @throws SecurityException in the event of a system error.
+     */
+    private HierIndex readIndex( String contextId ) throws SecurityException
+    {
+        Hier inHier = new Hier( Hier.Type.ROLE );
+        inHier.setContextId( contextId );
+        LOG.info( "loadGraph initializing USO context [{}]", inHier.getContextId() );
+        OrgUnit orgUnit = new OrgUnit();
+        orgUnit.setType( OrgUnit.Type.USER );
+        orgUnit.setContextId( contextId );
+        List<Graphable> descendants = orgUnitP.getAllDescendants( orgUnit );
         Hier hier = HierUtil.loadHier( contextId, descendants );
-        SimpleDirectedGraph<String, Relationship> graph;
-        
-        graph = HierUtil.buildGraph( hier );
-        usoCache.put( getKey( contextId ), graph );
-        
-        return graph;
+        return HierUtil.buildIndex( hier );
     }
 
 
     /**
      *
-     * @return handle to simple digraph containing user ou hierarchies.
+     * @return handle to closure index and simple digraph containing user ou hierarchies.
+     */
+    private HierIndex getIndex( final String contextId )
+    {
+        // one load per tenant at a time, callers that miss while it runs wait for its index:
+        return usoCache.get( getKey( contextId ), new CacheLoader<String, HierIndex, RuntimeException>()
+        {
+            @Override
+            public HierIndex load( String key )
+            {
+                HierIndex index = loadIndex( contextId );
+                HierRefresher.schedule( key, usoCache, new CacheLoader<String, HierIndex, SecurityException>()
+                {
+                    @Override
+                    public HierIndex load( String refreshKey ) throws SecurityException
+                    {
+                        return readIndex( contextId );
+                    }
+                } );
+                return index;
+            }
+        } );
+    }
+
+
+    /**
+     *
+     * @param contextId maps to sub-tree in DIT, e.g. ou=contextId, dc=example, dc=com.
+     * @return handle to simple digraph contained by the tenant's index.
      */
     private SimpleDirectedGraph<String, Relationship> getGraph( String contextId )
     {
-        String key = getKey( contextId );        
-        LOG.debug("Getting graph for key " + contextId);
-         
-        SimpleDirectedGraph<String, Relationship> graph = ( SimpleDirectedGraph<String, Relationship> ) usoCache
-                 .get( key );
-             
-        if(graph == null){
-            LOG.debug("Graph was null, creating... " + contextId);
-            return loadGraph( contextId );
-        }
-        else{
-            LOG.debug("Graph found in cache, returning...");
-            return graph;
-        }
+        return getIndex( contextId ).getGraph();
     }
 
 
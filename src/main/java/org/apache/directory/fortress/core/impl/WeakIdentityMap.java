@@ -0,0 +1,125 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Map whose keys are held by weak reference and compared by identity, i.e. with {@code ==}, not {@code equals}.  An
+ * entry is dropped once its key has been garbage collected, so values can be kept on the side of objects, e.g. a
+ * {@link org.apache.directory.fortress.core.model.Session}, that are owned by the caller and have no field for them.
+ * <p>
+ * This class is thread safe, reads don't lock.
+ *
+ * @param <K> type of key.
+ * @param <V> type of value.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class WeakIdentityMap<K, V>
+{
+    private final ConcurrentMap<Key<K>, V> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+
+    /**
+     * @param key whose value is returned.
+     * @return value of the key or null if there is none.
+     */
+    V get( K key )
+    {
+        return map.get( new Key<K>( key, null ) );
+    }
+
+
+    /**
+     * Set the value of the key, replacing any it had.  Entries whose keys have been collected are removed first.
+     *
+     * @param key not null.
+     * @param value not null.
+     */
+    void put( K key, V value )
+    {
+        purge();
+        map.put( new Key<>( key, queue ), value );
+    }
+
+
+    /**
+     * @return number of entries whose keys haven't been collected, or were collected only just.
+     */
+    int size()
+    {
+        purge();
+        return map.size();
+    }
+
+
+    private void purge()
+    {
+        Reference<? extends K> ref;
+        while ( ( ref = queue.poll() ) != null )
+        {
+            map.remove( ref );
+        }
+    }
+
+
+    /**
+     * Weak reference to a key, equal to another only while both refer to the same object.  A collected key is equal
+     * only to itself, which is how {@link #purge()} finds its entry.
+     */
+    private static final class Key<K> extends WeakReference<K>
+    {
+        private final int hash;
+
+        private Key( K referent, ReferenceQueue<? super K> queue )
+        {
+            super( referent, queue );
+            this.hash = System.identityHashCode( referent );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( o == this )
+            {
+                return true;
+            }
+            if ( !( o instanceof Key ) )
+            {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ( ( Key<?> ) o ).get();
+        }
+    }
+}
@@ -0,0 +1,584 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.api.ldap.model.entry.DefaultAttribute;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapNoSuchObjectException;
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.util.Config;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Writes the authorization audit records, i.e. the ldap compare operations issued by checkAccess, from a bounded
+ * in-memory queue using background workers.  Callers enqueue the decision and return immediately.  Workers borrow a
+ * single admin connection per batch of events.
+ * <p>
+ * Enabled with fortress config param 'authz.audit.async=true'.  When the queue is full, the 'authz.audit.overflow'
+ * param decides what happens to the event:
+ * <ul>
+ *   <li>drop - the event is discarded and counted (default).</li>
+ *   <li>block - the caller waits up to 'authz.audit.block.timeout.millis' for space, then the event is dropped.</li>
+ *   <li>spill - the event is appended to the local file named by 'authz.audit.spill.file'.</li>
+ * </ul>
+ * Pending events are written when {@link LdapDataProvider#closeAllConnectionPools()} is called.  The writer is not
+ * restarted after that, events added later are dropped and counted.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class AuthZAuditWriter extends LdapDataProvider
+{
+    private static final String CLS_NM = AuthZAuditWriter.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_WORKERS = 1;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_BLOCK_TIMEOUT = 1000;
+    private static final String DEFAULT_SPILL_FILE = "fortress-authz-audit.spill";
+    private static final long POLL_MILLIS = 500;
+    private static final long SHUTDOWN_MILLIS = 10000;
+    private static final String SEP = "\t";
+
+    /**
+     * What to do with an audit event when the queue is full.
+     */
+    public enum Overflow
+    {
+        DROP,
+        BLOCK,
+        SPILL
+    }
+
+    private static volatile AuthZAuditWriter sINSTANCE = null;
+
+    private final BlockingQueue<AuditEvent> queue;
+    private final Sink sink;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Overflow overflow;
+    private final int batchSize;
+    private final long blockTimeout;
+    private final File spillFile;
+    private BufferedWriter spillWriter;
+    private volatile boolean running = true;
+
+    private final AtomicLong enqueued = new AtomicLong( 0 );
+    private final AtomicLong written = new AtomicLong( 0 );
+    private final AtomicLong dropped = new AtomicLong( 0 );
+    private final AtomicLong spilled = new AtomicLong( 0 );
+    private final AtomicLong failed = new AtomicLong( 0 );
+
+
+    /**
+     * Return true if fortress config param 'authz.audit.async' has been set.
+     *
+     * @return boolean value of 'authz.audit.async'.
+     */
+    public static boolean isEnabled()
+    {
+        return Config.getInstance().getBoolean( GlobalIds.AUTHZ_AUDIT_ASYNC, false );
+    }
+
+
+    /**
+     * Return the writer, starting its workers on first use.  Once {@link #shutdown()} has run the stopped writer is
+     * returned.
+     *
+     * @return reference to the singleton.
+     */
+    public static AuthZAuditWriter getInstance()
+    {
+        if ( sINSTANCE == null )
+        {
+            synchronized ( AuthZAuditWriter.class )
+            {
+                if ( sINSTANCE == null )
+                {
+                    sINSTANCE = create();
+                }
+            }
+        }
+        return sINSTANCE;
+    }
+
+
+    /**
+     * Stop accepting events, write what is pending and stop the workers.  Called before the connection pools are
+     * closed.  Does nothing if the writer was never started.  The stopped writer stays in place so a late caller does
+     * not start new workers against closed pools.
+     */
+    static void shutdown()
+    {
+        AuthZAuditWriter writer = sINSTANCE;
+        if ( writer != null )
+        {
+            writer.stop();
+        }
+    }
+
+
+    private static AuthZAuditWriter create()
+    {
+        Config cfg = Config.getInstance();
+        return new AuthZAuditWriter( cfg.getInt( GlobalIds.AUTHZ_AUDIT_QUEUE_SIZE, DEFAULT_QUEUE_SIZE ),
+            cfg.getInt( GlobalIds.AUTHZ_AUDIT_WORKERS, DEFAULT_WORKERS ),
+            cfg.getInt( GlobalIds.AUTHZ_AUDIT_BATCH_SIZE, DEFAULT_BATCH_SIZE ),
+            cfg.getInt( GlobalIds.AUTHZ_AUDIT_BLOCK_TIMEOUT, DEFAULT_BLOCK_TIMEOUT ),
+            getOverflow( cfg.getProperty( GlobalIds.AUTHZ_AUDIT_OVERFLOW ) ),
+            getSpillFile( cfg.getProperty( GlobalIds.AUTHZ_AUDIT_SPILL_FILE ) ), null );
+    }
+
+
+    /**
+     * Create a writer and start its workers.
+     *
+     * @param queueSize maximum number of events waiting to be written.
+     * @param numWorkers number of worker threads.
+     * @param batchSize maximum number of events written per admin connection.
+     * @param blockTimeout milliseconds a caller waits for space under {@link Overflow#BLOCK}.
+     * @param overflow what to do with an event when the queue is full.
+     * @param spillFile where events go under {@link Overflow#SPILL}.
+     * @param sink writes the batches, null for the ldap compares.
+     */
+    AuthZAuditWriter( int queueSize, int numWorkers, int batchSize, long blockTimeout, Overflow overflow,
+        File spillFile, Sink sink )
+    {
+        this.queue = new ArrayBlockingQueue<>( Math.max( 1, queueSize ) );
+        this.batchSize = Math.max( 1, batchSize );
+        this.blockTimeout = blockTimeout;
+        this.overflow = overflow;
+        this.spillFile = spillFile;
+        this.sink = sink != null ? sink : new Sink()
+        {
+            @Override
+            public int write( List<AuditEvent> batch )
+            {
+                return compareBatch( batch );
+            }
+        };
+        numWorkers = Math.max( 1, numWorkers );
+        for ( int i = 0; i < numWorkers; i++ )
+        {
+            Thread worker = new Thread( new Worker(), "fortress-authz-audit-" + i );
+            worker.setDaemon( true );
+            workers.add( worker );
+            worker.start();
+        }
+        LOG.info( "AuthZAuditWriter started workers [{}] queue size [{}] overflow [{}]", numWorkers,
+            queue.remainingCapacity(), overflow );
+    }
+
+
+    /**
+     * Queue an authorization audit record.  The compare will be performed later by a worker using the admin pool.
+     *
+     * @param permDn contains distinguished name of the permission object.
+     * @param userDn contains the distinguished name of the user object.
+     * @param attributeValue string value will be associated with the 'audit' record stored in ldap.
+     */
+    public void add( String permDn, String userDn, String attributeValue )
+    {
+        AuditEvent event = new AuditEvent( permDn, userDn, attributeValue );
+        if ( !running )
+        {
+            // Stopped along with the connection pools, no worker is left to write it.
+            dropStopped( event );
+            return;
+        }
+        boolean isQueued = queue.offer( event );
+        if ( !isQueued )
+        {
+            switch ( overflow )
+            {
+                case BLOCK:
+                    try
+                    {
+                        isQueued = running && queue.offer( event, blockTimeout, TimeUnit.MILLISECONDS );
+                    }
+                    catch ( InterruptedException ie )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    if ( !isQueued )
+                    {
+                        drop( event );
+                    }
+                    break;
+
+                case SPILL:
+                    spill( event );
+                    break;
+
+                default:
+                    drop( event );
+                    break;
+            }
+        }
+        if ( isQueued && !running && queue.remove( event ) )
+        {
+            // Stopped after the check above, and its drain of the queue has already run:
+            dropStopped( event );
+            return;
+        }
+        if ( isQueued )
+        {
+            enqueued.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * @return number of events waiting to be written.
+     */
+    public int getQueueDepth()
+    {
+        return queue.size();
+    }
+
+
+    /**
+     * @return number of events accepted onto the queue.
+     */
+    public long getEnqueued()
+    {
+        return enqueued.get();
+    }
+
+
+    /**
+     * @return number of events written to the ldap server.
+     */
+    public long getWritten()
+    {
+        return written.get();
+    }
+
+
+    /**
+     * @return number of events discarded because the queue was full.
+     */
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+
+    /**
+     * @return number of events appended to the spill file.
+     */
+    public long getSpilled()
+    {
+        return spilled.get();
+    }
+
+
+    /**
+     * @return number of events that could not be written due to ldap error.
+     */
+    public long getFailed()
+    {
+        return failed.get();
+    }
+
+
+    /**
+     * Compare one batch of events using a single admin connection.
+     *
+     * @param batch contains the events to write.
+     * @return number of events written.
+     */
+    private int compareBatch( List<AuditEvent> batch )
+    {
+        int count = 0;
+        LdapConnection ld = null;
+        try
+        {
+            ld = getAdminConnection();
+            for ( AuditEvent event : batch )
+            {
+                try
+                {
+                    compareNode( ld, event.permDn, event.userDn, new DefaultAttribute( GlobalIds.POP_NAME,
+                        event.attributeValue ) );
+                    count++;
+                }
+                catch ( LdapNoSuchObjectException e )
+                {
+                    // The permission was removed after the decision, nothing to audit against.
+                    count++;
+                }
+                catch ( LdapException | UnsupportedEncodingException e )
+                {
+                    failed.incrementAndGet();
+                    LOG.warn( "write permDn [{}] userDn [{}] caught {}", event.permDn, event.userDn, e.toString() );
+                }
+            }
+        }
+        catch ( LdapException e )
+        {
+            LOG.warn( "write batch size [{}] caught LdapException={}", batch.size(), e.toString() );
+            for ( AuditEvent event : batch )
+            {
+                if ( overflow == Overflow.SPILL )
+                {
+                    spill( event );
+                }
+                else
+                {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+        finally
+        {
+            closeAdminConnection( ld );
+        }
+        return count;
+    }
+
+
+    private void dropStopped( AuditEvent event )
+    {
+        if ( dropped.incrementAndGet() == 1 )
+        {
+            LOG.warn( "add authz audit writer stopped, dropping events, first permDn [{}]", event.permDn );
+        }
+    }
+
+
+    private void drop( AuditEvent event )
+    {
+        if ( dropped.incrementAndGet() == 1 )
+        {
+            LOG.warn( "add authz audit queue full, dropping events, first permDn [{}]", event.permDn );
+        }
+    }
+
+
+    /**
+     * Append the event to the spill file as a tab separated line: time, user dn, perm dn, attribute value.
+     *
+     * @param event contains the audit record.
+     */
+    private synchronized void spill( AuditEvent event )
+    {
+        try
+        {
+            if ( spillWriter == null )
+            {
+                spillWriter = Files.newBufferedWriter( spillFile.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+            }
+            spillWriter.write( new Date( event.timestamp ).toString() + SEP + event.userDn + SEP + event.permDn + SEP
+                + event.attributeValue );
+            spillWriter.newLine();
+            spillWriter.flush();
+            spilled.incrementAndGet();
+        }
+        catch ( IOException e )
+        {
+            LOG.warn( "spill file [{}] caught IOException={}", spillFile, e.getMessage() );
+            dropped.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Stop accepting events, let the workers write what is queued and spill or drop the rest.  Only the first call has
+     * an effect.
+     */
+    void stop()
+    {
+        synchronized ( this )
+        {
+            if ( !running )
+            {
+                return;
+            }
+            running = false;
+        }
+        for ( Thread worker : workers )
+        {
+            try
+            {
+                worker.join( SHUTDOWN_MILLIS );
+            }
+            catch ( InterruptedException ie )
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Anything left could not be written in time:
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo( remaining );
+        for ( AuditEvent event : remaining )
+        {
+            if ( overflow == Overflow.SPILL )
+            {
+                spill( event );
+            }
+            else
+            {
+                dropped.incrementAndGet();
+            }
+        }
+        synchronized ( this )
+        {
+            if ( spillWriter != null )
+            {
+                try
+                {
+                    spillWriter.close();
+                }
+                catch ( IOException e )
+                {
+                    LOG.warn( "stop spill file [{}] caught IOException={}", spillFile, e.getMessage() );
+                }
+                spillWriter = null;
+            }
+        }
+        LOG.info( "AuthZAuditWriter stopped written [{}] dropped [{}] spilled [{}] failed [{}]", written.get(),
+            dropped.get(), spilled.get(), failed.get() );
+    }
+
+
+    private static Overflow getOverflow( String szOverflow )
+    {
+        Overflow result = Overflow.DROP;
+        if ( StringUtils.isNotEmpty( szOverflow ) )
+        {
+            try
+            {
+                result = Overflow.valueOf( szOverflow.trim().toUpperCase() );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                LOG.warn( "getOverflow invalid value [{}], using [{}]", szOverflow, result );
+            }
+        }
+        return result;
+    }
+
+
+    private static File getSpillFile( String szSpillFile )
+    {
+        if ( StringUtils.isEmpty( szSpillFile ) )
+        {
+            szSpillFile = System.getProperty( "java.io.tmpdir" ) + File.separator + DEFAULT_SPILL_FILE;
+        }
+        return new File( szSpillFile );
+    }
+
+
+    /**
+     * Drains the queue in batches until the writer is stopped and the queue is empty.
+     */
+    private class Worker implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            List<AuditEvent> batch = new ArrayList<>( batchSize );
+            while ( running || !queue.isEmpty() )
+            {
+                try
+                {
+                    AuditEvent event = queue.poll( POLL_MILLIS, TimeUnit.MILLISECONDS );
+                    if ( event == null )
+                    {
+                        continue;
+                    }
+                    batch.add( event );
+                    queue.drainTo( batch, batchSize - 1 );
+                    written.addAndGet( sink.write( batch ) );
+                }
+                catch ( InterruptedException ie )
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch ( RuntimeException e )
+                {
+                    failed.addAndGet( batch.size() );
+                    LOG.warn( "run caught RuntimeException={}", e.toString() );
+                }
+                finally
+                {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Writes a batch of events.  The default sink issues the ldap compares, tests replace it.
+     */
+    interface Sink
+    {
+        /**
+         * @param batch contains at most batch size events.
+         * @return number of events written, the sink counts its own failures.
+         */
+        int write( List<AuditEvent> batch );
+    }
+
+
+    /**
+     * An authorization decision waiting to be written.
+     */
+    static final class AuditEvent
+    {
+        final String permDn;
+        final String userDn;
+        final String attributeValue;
+        final long timestamp;
+
+        private AuditEvent( String permDn, String userDn, String attributeValue )
+        {
+            this.permDn = permDn;
+            this.userDn = userDn;
+            this.attributeValue = attributeValue;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.io.IOException;
+
+import org.apache.directory.api.ldap.model.exception.LdapServiceUnavailableException;
+import org.apache.directory.ldap.client.api.exception.InvalidConnectionException;
+import org.apache.directory.ldap.client.api.exception.LdapConnectionTimeOutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Guards one ldap pool against a directory that isn't answering.  The outcome of each ldap operation on a connection
+ * from the pool is recorded, see {@link LdapConnectionProvider#recordOutcome}.  An operation fails if the directory
+ * didn't answer: it timed out, the connection was lost or couldn't be opened, or the directory said it was busy or
+ * unavailable, see {@link #isFailure(Throwable)}.  Any other answer, an error result included, is a success.  After a
+ * number of consecutive failures the breaker opens and borrows fail at once without going to the pool or the
+ * directory.  Once the open interval has passed one borrow is let through as a probe, the breaker is half open, and
+ * the probe makes a round trip to the directory before its connection is handed out.  If the probe succeeds the
+ * breaker closes, else it opens for another interval.
+ * <p>
+ * State transitions are counted by the pool's {@link PoolMetrics}.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class CircuitBreaker
+{
+    private static final String CLS_NM = CircuitBreaker.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    // messages of the LdapNetworkConnection exceptions, which are package private there:
+    private static final String TIME_OUT_ERROR = "TimeOut occurred";
+    private static final String NO_RESPONSE_ERROR = "The response queue has been emptied";
+
+    enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final PoolMetrics metrics;
+    // read without the lock on the borrow path, written under it:
+    private volatile State state = State.CLOSED;
+    private volatile int failures;
+    private long openedAt;
+    private boolean probing;
+
+
+    /**
+     * @param name of the pool.
+     * @param failureThreshold number of consecutive failures that opens the breaker.
+     * @param openMillis time the breaker stays open before letting a probe through.
+     * @param metrics of the pool, counts the transitions.
+     */
+    CircuitBreaker( String name, int failureThreshold, long openMillis, PoolMetrics metrics )
+    {
+        this.name = name;
+        this.failureThreshold = Math.max( 1, failureThreshold );
+        this.openMillis = openMillis;
+        this.metrics = metrics;
+        metrics.circuitTransition( state );
+    }
+
+
+    /**
+     * Called before a borrow.
+     *
+     * @param now current time in millis.
+     * @return true if the borrow may go ahead, false if it should fail fast.
+     */
+    boolean allowRequest( long now )
+    {
+        if ( state == State.CLOSED )
+        {
+            return true;
+        }
+        synchronized ( this )
+        {
+            switch ( state )
+            {
+                case OPEN:
+                    if ( now - openedAt < openMillis )
+                    {
+                        break;
+                    }
+                    transition( State.HALF_OPEN );
+                    probing = true;
+                    return true;
+
+                case HALF_OPEN:
+                    // one probe at a time:
+                    if ( !probing )
+                    {
+                        probing = true;
+                        return true;
+                    }
+                    break;
+
+                default:
+                    return true;
+            }
+        }
+        metrics.rejected();
+        return false;
+    }
+
+
+    /**
+     * Called after an ldap operation the directory answered.
+     */
+    void success()
+    {
+        if ( state == State.CLOSED && failures == 0 )
+        {
+            return;
+        }
+        synchronized ( this )
+        {
+            failures = 0;
+            probing = false;
+            if ( state != State.CLOSED )
+            {
+                transition( State.CLOSED );
+            }
+        }
+    }
+
+
+    /**
+     * Called when the probe let through while half open couldn't get a connection from the pool, without reaching the
+     * directory, e.g. because the pool is exhausted.  The next borrow becomes the probe.
+     */
+    synchronized void probeAborted()
+    {
+        if ( state == State.HALF_OPEN )
+        {
+            probing = false;
+        }
+    }
+
+
+    /**
+     * Called after an ldap operation the directory didn't answer.
+     *
+     * @param now current time in millis.
+     */
+    synchronized void failure( long now )
+    {
+        probing = false;
+        if ( state == State.HALF_OPEN )
+        {
+            openedAt = now;
+            transition( State.OPEN );
+        }
+        else if ( state == State.CLOSED && ++failures >= failureThreshold )
+        {
+            openedAt = now;
+            transition( State.OPEN );
+        }
+    }
+
+
+    /**
+     * @return current state.
+     */
+    State getState()
+    {
+        return state;
+    }
+
+
+    /**
+     * Tell whether an ldap operation failed because the directory didn't answer, rather than answered with an error.
+     *
+     * @param e thrown by the operation, or one of its causes.
+     * @return true if the operation timed out, the connection was lost or couldn't be opened or the directory is busy
+     * or unavailable.
+     */
+    static boolean isFailure( Throwable e )
+    {
+        for ( Throwable cause = e; cause != null; cause = cause.getCause() )
+        {
+            if ( cause instanceof LdapConnectionTimeOutException || cause instanceof InvalidConnectionException
+                || cause instanceof LdapServiceUnavailableException || cause instanceof IOException )
+            {
+                return true;
+            }
+            // the client throws a plain LdapException when an operation times out or the connection is closed under it:
+            String message = cause.getMessage();
+            if ( message != null && ( message.contains( TIME_OUT_ERROR ) || message.contains( NO_RESPONSE_ERROR ) ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private void transition( State next )
+    {
+        LOG.warn( "LDAP POOL:  [{}] circuit breaker {} -> {}, consecutive failures [{}]", name, state, next,
+            failures );
+        state = next;
+        if ( next == State.CLOSED )
+        {
+            failures = 0;
+        }
+        metrics.circuitTransition( next );
+    }
+}
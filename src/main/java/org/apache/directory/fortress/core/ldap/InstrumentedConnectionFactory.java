@@ -0,0 +1,103 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.apache.directory.ldap.client.api.LdapConnection;
+
+
+/**
+ * Wraps the pool's connection factory to count the connections created, failing validation and closed, on behalf of
+ * {@link PoolMetrics}.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class InstrumentedConnectionFactory implements PoolableObjectFactory<LdapConnection>
+{
+    private final PoolableObjectFactory<LdapConnection> factory;
+    private volatile PoolMetrics metrics;
+
+
+    InstrumentedConnectionFactory( PoolableObjectFactory<LdapConnection> factory )
+    {
+        this.factory = factory;
+    }
+
+
+    /**
+     * Set once the pool that uses this factory, and so its metrics, has been created.
+     *
+     * @param metrics of the pool.
+     */
+    void setMetrics( PoolMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public LdapConnection makeObject() throws Exception
+    {
+        LdapConnection connection = factory.makeObject();
+        if ( metrics != null )
+        {
+            metrics.created();
+        }
+        return connection;
+    }
+
+
+    @Override
+    public void destroyObject( LdapConnection connection ) throws Exception
+    {
+        if ( metrics != null )
+        {
+            metrics.evicted();
+        }
+        factory.destroyObject( connection );
+    }
+
+
+    @Override
+    public boolean validateObject( LdapConnection connection )
+    {
+        boolean isValid = factory.validateObject( connection );
+        if ( !isValid && metrics != null )
+        {
+            metrics.validationFailed();
+        }
+        return isValid;
+    }
+
+
+    @Override
+    public void activateObject( LdapConnection connection ) throws Exception
+    {
+        factory.activateObject( connection );
+    }
+
+
+    @Override
+    public void passivateObject( LdapConnection connection ) throws Exception
+    {
+        factory.passivateObject( connection );
+    }
+}
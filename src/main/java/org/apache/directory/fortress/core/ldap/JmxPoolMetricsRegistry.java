@@ -0,0 +1,92 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Default {@link PoolMetricsRegistry}, registers each pool's metrics on the platform MBean server as
+ * 'org.apache.directory.fortress:type=LdapConnectionPool,name=[admin|user|log]'.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class JmxPoolMetricsRegistry implements PoolMetricsRegistry
+{
+    private static final String CLS_NM = JmxPoolMetricsRegistry.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String DOMAIN = "org.apache.directory.fortress";
+    private static final String TYPE = "LdapConnectionPool";
+
+
+    @Override
+    public void register( PoolMetrics metrics )
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean( metrics, getObjectName( metrics ) );
+        }
+        catch ( InstanceAlreadyExistsException e )
+        {
+            // Another copy of fortress, e.g. in a second web app, got there first:
+            LOG.warn( "register pool metrics [{}] already registered", metrics.getName() );
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "register pool metrics [{}] caught Exception={}", metrics.getName(), e.toString() );
+        }
+    }
+
+
+    @Override
+    public void unregister( PoolMetrics metrics )
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = getObjectName( metrics );
+            if ( server.isRegistered( name ) )
+            {
+                server.unregisterMBean( name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "unregister pool metrics [{}] caught Exception={}", metrics.getName(), e.toString() );
+        }
+    }
+
+
+    private static ObjectName getObjectName( PoolMetrics metrics ) throws Exception
+    {
+        return new ObjectName( DOMAIN + ":type=" + TYPE + ",name=" + ObjectName.quote( metrics.getName() ) );
+    }
+}
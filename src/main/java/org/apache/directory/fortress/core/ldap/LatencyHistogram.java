@@ -0,0 +1,223 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.  Each power of two microseconds
+ * is split into 8 linear sub-buckets so a recorded value is accurate to within 12.5%, from 1 microsecond up to about
+ * 19 hours, using a fixed array of 272 counters.  Recording is a couple of shifts and an atomic increment.
+ * <p>
+ * This class is thread safe.  A {@link #reset()} concurrent with recording may leave a few of those values behind.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_MAGNITUDE = 35;
+    private static final long MAX_VALUE = ( 1L << ( MAX_MAGNITUDE + 1 ) ) - 1;
+    private static final int BUCKETS = ( MAX_MAGNITUDE - SUB_BITS + 2 ) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray( BUCKETS );
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+
+    /**
+     * Record one operation.
+     *
+     * @param nanos time the operation took.
+     */
+    public void record( long nanos )
+    {
+        long micros = Math.min( Math.max( nanos / 1000, 0 ), MAX_VALUE );
+        buckets.incrementAndGet( getIndex( micros ) );
+        count.increment();
+        totalMicros.add( micros );
+        long max = maxMicros.get();
+        while ( micros > max && !maxMicros.compareAndSet( max, micros ) )
+        {
+            max = maxMicros.get();
+        }
+    }
+
+
+    /**
+     * @return copy of the current values.
+     */
+    public Snapshot snapshot()
+    {
+        long[] counts = new long[BUCKETS];
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            counts[i] = buckets.get( i );
+        }
+        return new Snapshot( counts, count.sum(), totalMicros.sum(), maxMicros.get() );
+    }
+
+
+    /**
+     * Set all values back to zero.
+     */
+    public void reset()
+    {
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            buckets.set( i, 0 );
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.set( 0 );
+    }
+
+
+    /**
+     * Values below 8 have a bucket each, above that the magnitude selects a group of 8 buckets and the next 3 bits
+     * select the bucket within the group.
+     */
+    static int getIndex( long micros )
+    {
+        if ( micros < SUB_BUCKETS )
+        {
+            return ( int ) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros( micros ) - SUB_BITS;
+        return ( shift + 1 ) * SUB_BUCKETS + ( int ) ( ( micros >>> shift ) - SUB_BUCKETS );
+    }
+
+
+    /**
+     * @return largest value that maps to the bucket.
+     */
+    static long getUpperBound( int index )
+    {
+        if ( index < SUB_BUCKETS )
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return ( ( long ) ( SUB_BUCKETS + index % SUB_BUCKETS + 1 ) << shift ) - 1;
+    }
+
+
+    /**
+     * Point in time copy of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot
+    {
+        private final long[] counts;
+        private final long count;
+        private final long totalMicros;
+        private final long maxMicros;
+
+
+        private Snapshot( long[] counts, long count, long totalMicros, long maxMicros )
+        {
+            this.counts = counts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+
+        /**
+         * @return number of operations recorded.
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+
+        /**
+         * @return sum of the time taken by the operations, in microseconds.
+         */
+        public long getTotalMicros()
+        {
+            return totalMicros;
+        }
+
+
+        /**
+         * @return mean time taken, in microseconds.
+         */
+        public long getMeanMicros()
+        {
+            return count == 0 ? 0 : totalMicros / count;
+        }
+
+
+        /**
+         * @return longest time taken, in microseconds.
+         */
+        public long getMaxMicros()
+        {
+            return maxMicros;
+        }
+
+
+        /**
+         * Return the time within which the given percentage of operations completed.
+         *
+         * @param percentile between 0 and 100, e.g. 99.
+         * @return upper bound of the bucket holding the percentile, in microseconds, never more than the max.
+         */
+        public long getPercentileMicros( double percentile )
+        {
+            long total = 0;
+            for ( long bucket : counts )
+            {
+                total += bucket;
+            }
+            if ( total == 0 )
+            {
+                return 0;
+            }
+            long rank = Math.max( 1, ( long ) Math.ceil( total * percentile / 100 ) );
+            long seen = 0;
+            for ( int i = 0; i < counts.length; i++ )
+            {
+                seen += counts[i];
+                if ( seen >= rank )
+                {
+                    return Math.min( getUpperBound( i ), maxMicros );
+                }
+            }
+            return maxMicros;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "count=" + count + ", meanMicros=" + getMeanMicros() + ", p50Micros=" + getPercentileMicros( 50 )
+                + ", p90Micros=" + getPercentileMicros( 90 ) + ", p99Micros=" + getPercentileMicros( 99 )
+                + ", maxMicros=" + maxMicros;
+        }
+    }
+}
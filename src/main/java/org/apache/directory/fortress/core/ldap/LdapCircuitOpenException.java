@@ -0,0 +1,58 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.StandardException;
+
+
+/**
+ * Thrown when a connection is refused because the {@link CircuitBreaker} of its pool is open.  Being an
+ * {@link LdapException}, the DAOs wrap it as they do any other failure to get a connection, the exception they throw
+ * then takes its error id, {@link GlobalErrIds#FT_LDAP_CIRCUIT_OPEN}, in place of their own.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class LdapCircuitOpenException extends LdapException implements StandardException
+{
+    private static final long serialVersionUID = 1L;
+
+
+    /**
+     * @param pool name of the pool whose breaker is open.
+     */
+    LdapCircuitOpenException( String pool )
+    {
+        super( "errCode=" + GlobalErrIds.FT_LDAP_CIRCUIT_OPEN + " getConnection [" + pool
+            + "] pool circuit breaker is open" );
+    }
+
+
+    /**
+     * @return {@link GlobalErrIds#FT_LDAP_CIRCUIT_OPEN}.
+     */
+    @Override
+    public int getErrorId()
+    {
+        return GlobalErrIds.FT_LDAP_CIRCUIT_OPEN;
+    }
+}
@@ -21,6 +21,9 @@ package org.apache.directory.fortress.core.ldap;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.pool.PoolableObjectFactory;
@@ -28,10 +31,13 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 import org.apache.directory.api.ldap.codec.api.LdapApiService;
 import org.apache.directory.api.ldap.codec.api.LdapApiServiceFactory;
 import org.apache.directory.api.ldap.codec.standalone.StandaloneLdapApiService;
+import org.apache.directory.api.ldap.model.constants.SchemaConstants;
 import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.name.Dn;
 import org.apache.directory.fortress.core.CfgRuntimeException;
 import org.apache.directory.fortress.core.GlobalErrIds;
 import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.util.ClassUtil;
 import org.apache.directory.fortress.core.util.Config;
 import org.apache.directory.fortress.core.util.EncryptUtil;
 import org.apache.directory.ldap.client.api.LdapConnection;
@@ -51,6 +57,26 @@ import org.slf4j.LoggerFactory;
  *
  * Each connection pool is initialized on first invocation of getInstance() which stores a reference to self used by subsequent callers.
  * <p>
+ * When a pool reaches its max it grows by default.  Set fortress config param 'ldap.pool.exhausted.action=block' to
+ * instead have callers wait up to 'ldap.pool.max.wait.millis' for a connection to be returned, which bounds the number
+ * of connections opened to the directory, or 'fail' to have them get an error at once.  Each pool may override these,
+ * e.g. 'user.conn.exhausted.action' and 'user.conn.max.wait.millis'.
+ * <p>
+ * If 'enable.ldap.circuit.breaker=true' each pool is guarded by a {@link CircuitBreaker} that, after
+ * 'ldap.circuit.failure.threshold' consecutive ldap operations on its connections that the directory didn't answer,
+ * e.g. timed out, refuses connections for 'ldap.circuit.open.millis' with an {@link LdapException} carrying error
+ * {@link GlobalErrIds#FT_LDAP_CIRCUIT_OPEN}, rather than have every caller wait on a directory that isn't answering.
+ * <p>
+ * Config param 'host' may list more than one provider, e.g. 'host=ldap1,ldap2:1389', and 'replica.hosts' the replicas
+ * that serve reads.  Admin and user connections then fail over across the providers in the order listed, while
+ * connections got by {@link #getAdminReadConnection()} are spread over the replicas, or the providers if none are
+ * listed, per 'ldap.read.balance'.  A server that can't be connected to is skipped until a background check reaches
+ * it again.  For 'ldap.read.your.writes.millis' after a thread has written to the directory, its reads go to the
+ * providers too.  The audit log pool always uses the first provider.
+ * <p>
+ * The metrics of each pool, see {@link PoolMetrics}, are published to the {@link PoolMetricsRegistry} named by
+ * 'ldap.pool.metrics.registry', JMX by default, unless 'disable.ldap.pool.metrics=true'.
+ * <p>
  * This class is not thread safe.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
@@ -61,6 +87,15 @@ public class LdapConnectionProvider
     private static final String CLS_NM = LdapConnectionProvider.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
     private static final String ENABLE_LDAP_STARTTLS = "enable.ldap.starttls";
+    private static final String EXHAUSTED_GROW = "grow";
+    private static final String EXHAUSTED_BLOCK = "block";
+    private static final String EXHAUSTED_FAIL = "fail";
+    private static final int DEFAULT_MAX_WAIT_MILLIS = 5000;
+    private static final String ADMIN = "admin";
+    private static final String USER = "user";
+    private static final String AUDIT_LOG = "log";
+    private static final String READ = "read";
+    private static final int DEFAULT_HEALTH_CHECK_MILLIS = 10000;
     private boolean IS_SSL;
 
     /**
@@ -78,6 +113,42 @@ public class LdapConnectionProvider
      */
     private static LdapConnectionPool userPool;
 
+    /**
+     * The metrics of each pool and where they are published
+     */
+    private static PoolMetrics adminMetrics;
+    private static PoolMetrics logMetrics;
+    private static PoolMetrics userMetrics;
+    private static PoolMetricsRegistry metricsRegistry;
+
+    /**
+     * The circuit breaker of each pool, null unless enabled, along with the breaker of each borrowed connection
+     */
+    private static CircuitBreaker adminBreaker;
+    private static CircuitBreaker logBreaker;
+    private static CircuitBreaker userBreaker;
+    private static final ConcurrentMap<LdapConnection, CircuitBreaker> GUARDED = new ConcurrentHashMap<>();
+
+    /**
+     * The servers of each kind of connection, null unless more than one provider or any replicas are configured,
+     * along with the server each borrowed connection came from
+     */
+    private static LdapServerGroup adminServers;
+    private static LdapServerGroup userServers;
+    private static LdapServerGroup readServers;
+    private static final List<LdapServer> SERVERS = new ArrayList<>();
+    private static final ConcurrentMap<LdapConnection, LdapServer> LEASES = new ConcurrentHashMap<>();
+    private static volatile Thread healthCheck;
+    private static int readYourWritesMillis;
+    private static final ThreadLocal<long[]> LAST_WRITE = new ThreadLocal<long[]>()
+    {
+        @Override
+        protected long[] initialValue()
+        {
+            return new long[1];
+        }
+    };
+
     private static volatile LdapConnectionProvider sINSTANCE = null;
 
     /**
@@ -119,8 +190,15 @@ public class LdapConnectionProvider
             Config.getInstance().getProperty( GlobalIds.TRUST_STORE ) != null &&
             Config.getInstance().getProperty( GlobalIds.TRUST_STORE_PW, true ) != null );
 
-        String host = Config.getInstance().getProperty( GlobalIds.LDAP_HOST, "localhost" );
         int port = Config.getInstance().getInt( GlobalIds.LDAP_PORT, 389 );
+        List<String> providers = getHosts( Config.getInstance().getProperty( GlobalIds.LDAP_HOST, "localhost" ), port );
+        if ( providers.isEmpty() )
+        {
+            providers.add( "localhost:" + port );
+        }
+        List<String> replicas = getHosts( Config.getInstance().getProperty( GlobalIds.LDAP_REPLICA_HOSTS ), port );
+        String host = getHost( providers.get( 0 ) );
+        port = getPort( providers.get( 0 ) );
         int min = Config.getInstance().getInt( GlobalIds.LDAP_ADMIN_POOL_MIN, 1 );
         int max = Config.getInstance().getInt( GlobalIds.LDAP_ADMIN_POOL_MAX, 10 );
         int logmin = Config.getInstance().getInt( GlobalIds.LDAP_LOG_POOL_MIN, 1 );
@@ -192,25 +270,34 @@ public class LdapConnectionProvider
         PoolableObjectFactory<LdapConnection> poolFactory = new ValidatingPoolableLdapConnectionFactory( config );
 
         // Create the Admin pool
-        adminPool = new LdapConnectionPool( poolFactory );
+        InstrumentedConnectionFactory adminFactory = new InstrumentedConnectionFactory( poolFactory );
+        adminPool = new LdapConnectionPool( adminFactory );
         adminPool.setTestOnBorrow( testOnBorrow );
-        adminPool.setWhenExhaustedAction( GenericObjectPool.WHEN_EXHAUSTED_GROW );
+        adminPool.setWhenExhaustedAction( getWhenExhaustedAction( ADMIN ) );
+        adminPool.setMaxWait( getMaxWait( ADMIN ) );
         adminPool.setMaxActive( max );
         adminPool.setMinIdle( min );
         adminPool.setMaxIdle( -1 );
         adminPool.setTestWhileIdle( testWhileIdle );
         adminPool.setTimeBetweenEvictionRunsMillis( timeBetweenEvictionRunMillis );
-        //adminPool.setMaxWait( 0 );
+        adminMetrics = new PoolMetrics( ADMIN, adminPool );
+        adminFactory.setMetrics( adminMetrics );
+        adminBreaker = newCircuitBreaker( ADMIN, adminMetrics );
 
         // Create the User pool
-        userPool = new LdapConnectionPool( poolFactory );
+        InstrumentedConnectionFactory userFactory = new InstrumentedConnectionFactory( poolFactory );
+        userPool = new LdapConnectionPool( userFactory );
         userPool.setTestOnBorrow( testOnBorrow );
-        userPool.setWhenExhaustedAction( GenericObjectPool.WHEN_EXHAUSTED_GROW );
+        userPool.setWhenExhaustedAction( getWhenExhaustedAction( USER ) );
+        userPool.setMaxWait( getMaxWait( USER ) );
         userPool.setMaxActive( max );
         userPool.setMinIdle( min );
         userPool.setMaxIdle( -1 );
         userPool.setTestWhileIdle( testWhileIdle );
         userPool.setTimeBetweenEvictionRunsMillis( timeBetweenEvictionRunMillis );
+        userMetrics = new PoolMetrics( USER, userPool );
+        userFactory.setMetrics( userMetrics );
+        userBreaker = newCircuitBreaker( USER, userMetrics );
 
         // This pool of access log connections is used by {@link org.apache.directory.fortress.AuditMgr}.
         // To enable, set {@code log.admin.user} && {@code log.admin.pw} inside fortress.properties file:
@@ -246,15 +333,568 @@ public class LdapConnectionProvider
                 logPw = Config.getInstance().getProperty( GlobalIds.LDAP_LOG_POOL_PW, true );
             }
             logConfig.setCredentials( logPw );
-            poolFactory = new ValidatingPoolableLdapConnectionFactory( logConfig );
-            logPool = new LdapConnectionPool( poolFactory );
+            InstrumentedConnectionFactory logFactory = new InstrumentedConnectionFactory(
+                new ValidatingPoolableLdapConnectionFactory( logConfig ) );
+            logPool = new LdapConnectionPool( logFactory );
             logPool.setTestOnBorrow( testOnBorrow );
-            logPool.setWhenExhaustedAction( GenericObjectPool.WHEN_EXHAUSTED_GROW );
+            logPool.setWhenExhaustedAction( getWhenExhaustedAction( AUDIT_LOG ) );
+            logPool.setMaxWait( getMaxWait( AUDIT_LOG ) );
             logPool.setMaxActive( logmax );
             logPool.setMinIdle( logmin );
             logPool.setTestWhileIdle( testWhileIdle );
             logPool.setTimeBetweenEvictionRunsMillis( logTimeBetweenEvictionRunMillis );
+            logMetrics = new PoolMetrics( AUDIT_LOG, logPool );
+            logFactory.setMetrics( logMetrics );
+            logBreaker = newCircuitBreaker( AUDIT_LOG, logMetrics );
+        }
+
+        if ( providers.size() > 1 || !replicas.isEmpty() )
+        {
+            LdapServer admin = new LdapServer( providers.get( 0 ), adminPool, adminMetrics, adminBreaker );
+            LdapServer user = new LdapServer( providers.get( 0 ), userPool, userMetrics, userBreaker );
+            List<LdapServer> admins = new ArrayList<>();
+            List<LdapServer> users = new ArrayList<>();
+            admins.add( admin );
+            users.add( user );
+            SERVERS.add( admin );
+            SERVERS.add( user );
+            for ( String provider : providers.subList( 1, providers.size() ) )
+            {
+                LdapConnectionConfig providerConfig = copyConfig( config, provider );
+                admins.add( newServer( ADMIN, provider, providerConfig, min, max, testOnBorrow, testWhileIdle,
+                    timeBetweenEvictionRunMillis ) );
+                users.add( newServer( USER, provider, providerConfig, min, max, testOnBorrow, testWhileIdle,
+                    timeBetweenEvictionRunMillis ) );
+            }
+            List<LdapServer> reads = new ArrayList<>();
+            for ( String replica : replicas )
+            {
+                reads.add( newServer( READ, replica, copyConfig( config, replica ), min, max, testOnBorrow,
+                    testWhileIdle, timeBetweenEvictionRunMillis ) );
+            }
+            if ( reads.isEmpty() )
+            {
+                reads = admins;
+            }
+            String balance = Config.getInstance().getProperty( GlobalIds.LDAP_READ_BALANCE,
+                LdapServerGroup.ROUND_ROBIN );
+            adminServers = new LdapServerGroup( admins, LdapServerGroup.FAILOVER );
+            userServers = new LdapServerGroup( users, LdapServerGroup.FAILOVER );
+            readServers = new LdapServerGroup( reads, balance );
+            readYourWritesMillis = Config.getInstance().getInt( GlobalIds.LDAP_READ_YOUR_WRITES_MILLIS, 0 );
+            LOG.info( "LDAP POOL:  providers=[{}], reads=[{}], read your writes millis=[{}]", adminServers,
+                readServers, readYourWritesMillis );
+            startHealthCheck( Config.getInstance().getInt( GlobalIds.LDAP_HEALTH_CHECK_MILLIS,
+                DEFAULT_HEALTH_CHECK_MILLIS ) );
+        }
+
+        registerMetrics();
+    }
+
+
+    /**
+     * Split a comma separated list of servers, each host or host:port, into host:port entries.
+     *
+     * @param hosts list of servers, may be null.
+     * @param defaultPort used for servers without a port.
+     * @return list of host:port, empty if hosts is empty.
+     */
+    static List<String> getHosts( String hosts, int defaultPort )
+    {
+        List<String> result = new ArrayList<>();
+        if ( StringUtils.isNotBlank( hosts ) )
+        {
+            for ( String host : hosts.split( "," ) )
+            {
+                host = host.trim();
+                if ( host.length() > 0 )
+                {
+                    result.add( host.indexOf( ':' ) == -1 ? host + ":" + defaultPort : host );
+                }
+            }
         }
+        return result;
+    }
+
+
+    private static String getHost( String hostPort )
+    {
+        return hostPort.substring( 0, hostPort.lastIndexOf( ':' ) );
+    }
+
+
+    private static int getPort( String hostPort )
+    {
+        return Integer.parseInt( hostPort.substring( hostPort.lastIndexOf( ':' ) + 1 ) );
+    }
+
+
+    /**
+     * Return a copy of the connection config that points to another server.
+     *
+     * @param config of the first provider.
+     * @param hostPort of the other server.
+     * @return new connection config.
+     */
+    private static LdapConnectionConfig copyConfig( LdapConnectionConfig config, String hostPort )
+    {
+        LdapConnectionConfig copy = new LdapConnectionConfig();
+        copy.setLdapHost( getHost( hostPort ) );
+        copy.setLdapPort( getPort( hostPort ) );
+        copy.setName( config.getName() );
+        copy.setCredentials( config.getCredentials() );
+        copy.setUseSsl( config.isUseSsl() );
+        copy.setUseTls( config.isUseTls() );
+        copy.setTrustManagers( config.getTrustManagers() );
+        copy.setLdapApiService( config.getLdapApiService() );
+        return copy;
+    }
+
+
+    /**
+     * Create the pool of connections to one more server.  Its metrics are named after the kind of pool and the
+     * server, e.g. read@ldap2:389.
+     */
+    private static LdapServer newServer( String poolName, String hostPort, LdapConnectionConfig config, int min,
+        int max, boolean testOnBorrow, boolean testWhileIdle, int timeBetweenEvictionRunMillis )
+    {
+        InstrumentedConnectionFactory factory = new InstrumentedConnectionFactory(
+            new ValidatingPoolableLdapConnectionFactory( config ) );
+        LdapConnectionPool pool = new LdapConnectionPool( factory );
+        pool.setTestOnBorrow( testOnBorrow );
+        pool.setWhenExhaustedAction( getWhenExhaustedAction( poolName ) );
+        pool.setMaxWait( getMaxWait( poolName ) );
+        pool.setMaxActive( max );
+        pool.setMinIdle( min );
+        pool.setMaxIdle( -1 );
+        pool.setTestWhileIdle( testWhileIdle );
+        pool.setTimeBetweenEvictionRunsMillis( timeBetweenEvictionRunMillis );
+        PoolMetrics metrics = new PoolMetrics( poolName + "@" + hostPort, pool );
+        factory.setMetrics( metrics );
+        LdapServer server = new LdapServer( hostPort, pool, metrics, newCircuitBreaker( metrics.getName(), metrics ) );
+        SERVERS.add( server );
+        return server;
+    }
+
+
+    /**
+     * Start the daemon thread that, every interval, tries to get a connection to each server marked down and puts
+     * the server back in rotation if it can.
+     *
+     * @param intervalMillis time between checks.
+     */
+    private static void startHealthCheck( final int intervalMillis )
+    {
+        Thread thread = new Thread( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                while ( healthCheck == Thread.currentThread() )
+                {
+                    try
+                    {
+                        Thread.sleep( intervalMillis );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        return;
+                    }
+                    for ( LdapServer server : SERVERS )
+                    {
+                        if ( !server.isUp() )
+                        {
+                            checkHealth( server );
+                        }
+                    }
+                }
+            }
+        }, "fortress-ldap-health" );
+        thread.setDaemon( true );
+        healthCheck = thread;
+        thread.start();
+    }
+
+
+    private static void checkHealth( LdapServer server )
+    {
+        try
+        {
+            LdapConnection connection = server.getPool().getConnection();
+            server.getPool().releaseConnection( connection );
+            server.markUp();
+        }
+        catch ( Exception e )
+        {
+            LOG.debug( "LDAP SERVER:  [{}] [{}] still down: {}", server.getMetrics().getName(), server.getName(), e );
+        }
+    }
+
+
+    /**
+     * Read fortress config param '[pool].conn.exhausted.action', else 'ldap.pool.exhausted.action', either grow
+     * (default), block or fail.
+     *
+     * @param pool name, admin, user or log.
+     * @return the commons pool exhausted action.
+     */
+    private static byte getWhenExhaustedAction( String pool )
+    {
+        String action = Config.getInstance().getProperty( pool + GlobalIds.POOL_EXHAUSTED_ACTION,
+            Config.getInstance().getProperty( GlobalIds.LDAP_POOL_EXHAUSTED_ACTION, EXHAUSTED_GROW ) );
+        if ( EXHAUSTED_BLOCK.equalsIgnoreCase( action ) )
+        {
+            LOG.info( "LDAP POOL:  [{}] exhausted action=[{}], max wait millis=[{}]", pool, action, getMaxWait( pool ) );
+            return GenericObjectPool.WHEN_EXHAUSTED_BLOCK;
+        }
+        else if ( EXHAUSTED_FAIL.equalsIgnoreCase( action ) )
+        {
+            LOG.info( "LDAP POOL:  [{}] exhausted action=[{}]", pool, action );
+            return GenericObjectPool.WHEN_EXHAUSTED_FAIL;
+        }
+        else if ( !EXHAUSTED_GROW.equalsIgnoreCase( action ) )
+        {
+            LOG.warn( "LDAP POOL:  [{}] invalid exhausted action=[{}], using [{}]", pool, action, EXHAUSTED_GROW );
+        }
+        return GenericObjectPool.WHEN_EXHAUSTED_GROW;
+    }
+
+
+    /**
+     * Read fortress config param '[pool].conn.max.wait.millis', else 'ldap.pool.max.wait.millis'.
+     *
+     * @param pool name, admin, user or log.
+     * @return max time a borrow blocks, in millis.
+     */
+    private static long getMaxWait( String pool )
+    {
+        return Config.getInstance().getInt( pool + GlobalIds.POOL_MAX_WAIT_MILLIS,
+            Config.getInstance().getInt( GlobalIds.LDAP_POOL_MAX_WAIT_MILLIS, DEFAULT_MAX_WAIT_MILLIS ) );
+    }
+
+
+    /**
+     * Create the pool's circuit breaker if fortress config param 'enable.ldap.circuit.breaker' is true.
+     *
+     * @param pool name, admin, user or log.
+     * @param metrics of the pool.
+     * @return circuit breaker, or null if not enabled.
+     */
+    private static CircuitBreaker newCircuitBreaker( String pool, PoolMetrics metrics )
+    {
+        if ( !Config.getInstance().getBoolean( GlobalIds.ENABLE_LDAP_CIRCUIT_BREAKER, false ) )
+        {
+            return null;
+        }
+        int threshold = Config.getInstance().getInt( GlobalIds.LDAP_CIRCUIT_FAILURE_THRESHOLD, 5 );
+        int openMillis = Config.getInstance().getInt( GlobalIds.LDAP_CIRCUIT_OPEN_MILLIS, 30000 );
+        LOG.info( "LDAP POOL:  [{}] circuit breaker failure threshold=[{}], open millis=[{}]", pool, threshold,
+            openMillis );
+        return new CircuitBreaker( pool, threshold, openMillis, metrics );
+    }
+
+
+    /**
+     * Publish the pool metrics to the registry named by fortress config param 'ldap.pool.metrics.registry', and the
+     * ldap operation counters to JMX.
+     */
+    private static void registerMetrics()
+    {
+        if ( !Config.getInstance().getBoolean( GlobalIds.DISABLE_LDAP_OP_METRICS, false ) )
+        {
+            LdapDataProvider.getLdapCounters().registerMBean();
+        }
+        if ( Config.getInstance().getBoolean( GlobalIds.DISABLE_LDAP_POOL_METRICS, false ) )
+        {
+            return;
+        }
+        String registryClassName = Config.getInstance().getProperty( GlobalIds.LDAP_POOL_METRICS_REGISTRY );
+        try
+        {
+            if ( StringUtils.isEmpty( registryClassName ) )
+            {
+                metricsRegistry = new JmxPoolMetricsRegistry();
+            }
+            else
+            {
+                metricsRegistry = ( PoolMetricsRegistry ) ClassUtil.createInstance( registryClassName );
+            }
+        }
+        catch ( Exception e )
+        {
+            String error = "Exception caught loading pool metrics registry [" + registryClassName + "]: " + e;
+            throw new CfgRuntimeException( GlobalErrIds.FT_APACHE_LDAP_POOL_INIT_FAILED, error, e );
+        }
+        for ( PoolMetrics metrics : getAllMetrics() )
+        {
+            metricsRegistry.register( metrics );
+        }
+    }
+
+
+    private static List<PoolMetrics> getAllMetrics()
+    {
+        List<PoolMetrics> allMetrics = new ArrayList<>();
+        for ( PoolMetrics metrics : new PoolMetrics[]{ adminMetrics, userMetrics, logMetrics } )
+        {
+            if ( metrics != null )
+            {
+                allMetrics.add( metrics );
+            }
+        }
+        for ( LdapServer server : SERVERS )
+        {
+            if ( !allMetrics.contains( server.getMetrics() ) )
+            {
+                allMetrics.add( server.getMetrics() );
+            }
+        }
+        return allMetrics;
+    }
+
+
+    /**
+     * Borrow a connection from the pool and record the time spent waiting for it.  If the pool's breaker is half open
+     * the connection is the probe, and makes a round trip to the directory before it is handed out.
+     *
+     * @param pool to borrow from.
+     * @param metrics of the pool.
+     * @param breaker of the pool, may be null.
+     * @return ldap connection.
+     * @throws LdapException If we had an issue getting an LDAP connection, or {@link LdapCircuitOpenException} if the
+     * pool's breaker is open
+     */
+    static LdapConnection getConnection( LdapConnectionPool pool, PoolMetrics metrics, CircuitBreaker breaker )
+        throws LdapException
+    {
+        if ( breaker != null && !breaker.allowRequest( System.currentTimeMillis() ) )
+        {
+            throw new LdapCircuitOpenException( metrics.getName() );
+        }
+        // let through while half open, this borrow is the probe:
+        boolean isProbe = breaker != null && breaker.getState() == CircuitBreaker.State.HALF_OPEN;
+        long start = System.nanoTime();
+        LdapConnection connection;
+        try
+        {
+            connection = pool.getConnection();
+            metrics.borrowed( System.nanoTime() - start );
+        }
+        catch ( NoSuchElementException e )
+        {
+            // The pool is exhausted and either fails at once or has blocked for the max wait:
+            metrics.timedOut();
+            if ( isProbe )
+            {
+                // the directory wasn't reached, let the next borrow probe:
+                breaker.probeAborted();
+            }
+            throw new LdapException( e );
+        }
+        catch ( Exception e )
+        {
+            // The connection couldn't be opened:
+            if ( breaker != null )
+            {
+                breaker.failure( System.currentTimeMillis() );
+            }
+            throw new LdapException( e );
+        }
+        if ( breaker != null )
+        {
+            if ( isProbe )
+            {
+                probe( pool, connection, breaker );
+            }
+            GUARDED.put( connection, breaker );
+        }
+        return connection;
+    }
+
+
+    /**
+     * Read the root dse over a connection borrowed while its pool's breaker is half open, which closes the breaker if
+     * the directory answers.  Else the connection is discarded and the breaker opens again.
+     *
+     * @param pool the connection came from.
+     * @param connection the probe.
+     * @param breaker of the pool.
+     * @throws LdapException if the directory didn't answer
+     */
+    private static void probe( LdapConnectionPool pool, LdapConnection connection, CircuitBreaker breaker )
+        throws LdapException
+    {
+        try
+        {
+            connection.lookup( Dn.ROOT_DSE, SchemaConstants.NO_ATTRIBUTE_ARRAY );
+        }
+        catch ( LdapException e )
+        {
+            if ( CircuitBreaker.isFailure( e ) )
+            {
+                breaker.failure( System.currentTimeMillis() );
+                discard( pool, connection );
+                throw e;
+            }
+        }
+        catch ( RuntimeException e )
+        {
+            breaker.failure( System.currentTimeMillis() );
+            discard( pool, connection );
+            throw e;
+        }
+        breaker.success();
+    }
+
+
+    private static void discard( LdapConnectionPool pool, LdapConnection connection )
+    {
+        try
+        {
+            pool.invalidateObject( connection );
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "Error discarding probe connection: " + e );
+        }
+    }
+
+
+    /**
+     * Record the outcome of an ldap operation with the circuit breaker of the pool the connection came from.  Called by
+     * {@link LdapDataProvider} after every operation.
+     *
+     * @param connection the operation used.
+     * @param e thrown by the operation, null if it succeeded.
+     */
+    static void recordOutcome( LdapConnection connection, Exception e )
+    {
+        CircuitBreaker breaker = GUARDED.get( connection );
+        if ( breaker == null )
+        {
+            return;
+        }
+        if ( e != null && CircuitBreaker.isFailure( e ) )
+        {
+            breaker.failure( System.currentTimeMillis() );
+        }
+        else
+        {
+            breaker.success();
+        }
+    }
+
+
+    /**
+     * Borrow a connection from the first server of the group, in the order of {@link LdapServerGroup#order()}, that
+     * gives one.  A server whose connection couldn't be opened is marked down.
+     *
+     * @param group of servers.
+     * @return ldap connection, to be released through the server it came from.
+     * @throws LdapException If no server of the group gave a connection
+     */
+    private static LdapConnection getConnection( LdapServerGroup group ) throws LdapException
+    {
+        LdapException failure = null;
+        LdapCircuitOpenException open = null;
+        for ( LdapServer server : group.order() )
+        {
+            try
+            {
+                LdapConnection connection = getConnection( server.getPool(), server.getMetrics(),
+                    server.getBreaker() );
+                server.acquired();
+                LEASES.put( connection, server );
+                return connection;
+            }
+            catch ( LdapCircuitOpenException e )
+            {
+                // the server's circuit breaker is open:
+                open = e;
+            }
+            catch ( LdapException e )
+            {
+                // an exhausted pool says the server is busy, not down:
+                if ( !( e.getCause() instanceof NoSuchElementException ) )
+                {
+                    server.markDown( e );
+                }
+                failure = e;
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+        throw open;
+    }
+
+
+    /**
+     * Return a connection borrowed from a server group to the pool it came from.
+     *
+     * @param connection handle to ldap connection object.
+     * @return true if the connection came from a server group.
+     * @throws Exception if the pool couldn't take the connection back
+     */
+    private static boolean releaseLease( LdapConnection connection ) throws Exception
+    {
+        GUARDED.remove( connection );
+        LdapServer server = LEASES.remove( connection );
+        if ( server == null )
+        {
+            return false;
+        }
+        server.released();
+        server.getPool().releaseConnection( connection );
+        return true;
+    }
+
+
+    /**
+     * Record that the current thread has written to the directory, so that its reads go to the providers for the next
+     * 'ldap.read.your.writes.millis'.  Called by {@link LdapDataProvider} on every add, modify and delete.
+     */
+    static void recordWrite()
+    {
+        if ( readYourWritesMillis > 0 )
+        {
+            LAST_WRITE.get()[0] = System.currentTimeMillis();
+        }
+    }
+
+
+    private static boolean isReadYourWrites()
+    {
+        return readYourWritesMillis > 0
+            && System.currentTimeMillis() - LAST_WRITE.get()[0] < readYourWritesMillis;
+    }
+
+
+    /**
+     * @return metrics of the Admin connection pool.
+     */
+    public PoolMetrics getAdminPoolMetrics()
+    {
+        return adminMetrics;
+    }
+
+
+    /**
+     * @return metrics of the Log connection pool.
+     */
+    public PoolMetrics getLogPoolMetrics()
+    {
+        return logMetrics;
+    }
+
+
+    /**
+     * @return metrics of the User connection pool.
+     */
+    public PoolMetrics getUserPoolMetrics()
+    {
+        return userMetrics;
     }
 
 
@@ -265,9 +905,17 @@ public class LdapConnectionProvider
      */
     public void closeAdminConnection(LdapConnection connection)
     {
+        if ( connection == null )
+        {
+            // nothing was borrowed, e.g. the borrow itself failed:
+            return;
+        }
         try
         {
-            adminPool.releaseConnection( connection );
+            if ( !releaseLease( connection ) )
+            {
+                adminPool.releaseConnection( connection );
+            }
         }
         catch ( Exception e )
         {
@@ -284,8 +932,13 @@ public class LdapConnectionProvider
      */
     public void closeLogConnection(LdapConnection connection)
     {
+        if ( connection == null )
+        {
+            return;
+        }
         try
         {
+            GUARDED.remove( connection );
             logPool.releaseConnection( connection );
         }
         catch ( Exception e )
@@ -303,9 +956,16 @@ public class LdapConnectionProvider
      */
     public void closeUserConnection(LdapConnection connection)
     {
+        if ( connection == null )
+        {
+            return;
+        }
         try
         {
-            userPool.releaseConnection( connection );
+            if ( !releaseLease( connection ) )
+            {
+                userPool.releaseConnection( connection );
+            }
         }
         catch ( Exception e )
         {
@@ -323,14 +983,28 @@ public class LdapConnectionProvider
      */
     public LdapConnection getAdminConnection() throws LdapException
     {
-        try
+        if ( adminServers != null )
         {
-            return adminPool.getConnection();
+            return getConnection( adminServers );
         }
-        catch ( Exception e )
+        return getConnection( adminPool, adminMetrics, adminBreaker );
+    }
+
+
+    /**
+     * Get an Admin connection for reading.  Comes from the replicas when they are configured, unless the current
+     * thread has written within 'ldap.read.your.writes.millis'.  Release with {@link #closeAdminConnection}.
+     *
+     * @return ldap connection.
+     * @throws LdapException If we had an issue getting an LDAP connection
+     */
+    public LdapConnection getAdminReadConnection() throws LdapException
+    {
+        if ( readServers == null || isReadYourWrites() )
         {
-            throw new LdapException( e );
+            return getAdminConnection();
         }
+        return getConnection( readServers );
     }
 
 
@@ -342,14 +1016,7 @@ public class LdapConnectionProvider
      */
     public LdapConnection getLogConnection() throws LdapException
     {
-        try
-        {
-            return logPool.getConnection();
-        }
-        catch ( Exception e )
-        {
-            throw new LdapException( e );
-        }
+        return getConnection( logPool, logMetrics, logBreaker );
     }
 
 
@@ -361,14 +1028,11 @@ public class LdapConnectionProvider
      */
     public LdapConnection getUserConnection() throws LdapException
     {
-        try
+        if ( userServers != null )
         {
-            return userPool.getConnection();
-        }
-        catch ( Exception e )
-        {
-            throw new LdapException( e );
+            return getConnection( userServers );
         }
+        return getConnection( userPool, userMetrics, userBreaker );
     }
 
     /**
@@ -376,6 +1040,37 @@ public class LdapConnectionProvider
      */
     public static void closeAllConnectionPools()
     {
+        LdapDataProvider.getLdapCounters().unregisterMBean();
+        if ( metricsRegistry != null )
+        {
+            for ( PoolMetrics metrics : getAllMetrics() )
+            {
+                metricsRegistry.unregister( metrics );
+            }
+        }
+
+        Thread thread = healthCheck;
+        if ( thread != null )
+        {
+            healthCheck = null;
+            thread.interrupt();
+        }
+        for ( LdapServer server : SERVERS )
+        {
+            if ( server.getPool() != adminPool && server.getPool() != userPool )
+            {
+                try
+                {
+                    LOG.info( "Closing {} pool", server.getMetrics().getName() );
+                    server.getPool().close();
+                }
+                catch ( Exception e )
+                {
+                    LOG.warn( "Error closing " + server.getMetrics().getName() + " pool: " + e );
+                }
+            }
+        }
+
         try
         {
             LOG.info( "Closing admin pool" );
@@ -20,22 +20,64 @@
 package org.apache.directory.fortress.core.ldap;
 
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
- * This class handles simple counters that correspond to ldap operations.
+ * This class handles simple counters that correspond to ldap operations, along with a {@link LatencyHistogram} of
+ * the time each operation takes broken down by operation, calling DAO and tenant.  {@link #getLatencies()} returns a
+ * snapshot, {@link #reset()} starts over and the same is available over JMX as
+ * 'org.apache.directory.fortress:type=LdapCounters' unless 'disable.ldap.op.metrics=true'.
+ * <p>
+ * This class is thread safe.
  *
  */
-public class LdapCounters
+public class LdapCounters implements LdapCountersMBean
 {
-    private AtomicInteger readCtr = new AtomicInteger( 0 );
-    private AtomicInteger searchCtr = new AtomicInteger( 0 );
-    private AtomicInteger compareCtr = new AtomicInteger( 0 );
-    private AtomicInteger addCtr = new AtomicInteger( 0 );
-    private AtomicInteger modCtr = new AtomicInteger( 0 );
-    private AtomicInteger deleteCtr = new AtomicInteger( 0 );
-    private AtomicInteger bindCtr = new AtomicInteger( 0 );
+    private static final String CLS_NM = LdapCounters.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String OBJECT_NAME = "org.apache.directory.fortress:type=LdapCounters";
+
+    /**
+     * The ldap operations that are timed.
+     */
+    public enum Op
+    {
+        READ, SEARCH, COMPARE, ADD, MOD, DELETE, BIND
+    }
+
+    private LongAdder readCtr = new LongAdder();
+    private LongAdder searchCtr = new LongAdder();
+    private LongAdder compareCtr = new LongAdder();
+    private LongAdder addCtr = new LongAdder();
+    private LongAdder modCtr = new LongAdder();
+    private LongAdder deleteCtr = new LongAdder();
+    private LongAdder bindCtr = new LongAdder();
+    // op -> dao -> contextId -> histogram, the outer map is filled here and never changes:
+    private final Map<Op, ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>>> latencies =
+        new EnumMap<>( Op.class );
+
+
+    public LdapCounters()
+    {
+        for ( Op op : Op.values() )
+        {
+            latencies.put( op, new ConcurrentHashMap<String, ConcurrentMap<String, LatencyHistogram>>() );
+        }
+    }
 
 
     /**
@@ -43,7 +85,7 @@ public class LdapCounters
      */
     public void incrementSearch()
     {
-        searchCtr.incrementAndGet();
+        searchCtr.increment();
     }
 
 
@@ -52,7 +94,7 @@ public class LdapCounters
      */
     public void incrementRead()
     {
-        readCtr.incrementAndGet();
+        readCtr.increment();
     }
 
 
@@ -61,7 +103,7 @@ public class LdapCounters
      */
     public void incrementCompare()
     {
-        compareCtr.incrementAndGet();
+        compareCtr.increment();
     }
 
 
@@ -70,7 +112,7 @@ public class LdapCounters
      */
     public void incrementAdd()
     {
-        addCtr.incrementAndGet();
+        addCtr.increment();
     }
 
 
@@ -79,7 +121,7 @@ public class LdapCounters
      */
     public void incrementMod()
     {
-        modCtr.incrementAndGet();
+        modCtr.increment();
     }
 
 
@@ -88,7 +130,7 @@ public class LdapCounters
      */
     public void incrementDelete()
     {
-        deleteCtr.incrementAndGet();
+        deleteCtr.increment();
     }
 
     /**
@@ -97,7 +139,34 @@ public class LdapCounters
 
     public void incrementBind()
     {
-        bindCtr.incrementAndGet();
+        bindCtr.increment();
+    }
+
+
+    /**
+     * Record the time an ldap operation took.
+     *
+     * @param op the operation.
+     * @param dao simple class name of the caller, e.g. UserDAO.
+     * @param contextId tenant the operation was made on behalf of.
+     * @param nanos time the operation took.
+     */
+    public void record( Op op, String dao, String contextId, long nanos )
+    {
+        ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> byDao = latencies.get( op );
+        ConcurrentMap<String, LatencyHistogram> byTenant = byDao.get( dao );
+        if ( byTenant == null )
+        {
+            byDao.putIfAbsent( dao, new ConcurrentHashMap<String, LatencyHistogram>() );
+            byTenant = byDao.get( dao );
+        }
+        LatencyHistogram histogram = byTenant.get( contextId );
+        if ( histogram == null )
+        {
+            byTenant.putIfAbsent( contextId, new LatencyHistogram() );
+            histogram = byTenant.get( contextId );
+        }
+        histogram.record( nanos );
     }
 
 
@@ -105,9 +174,10 @@ public class LdapCounters
      * Return the search counter.
      * @return long containing search.
      */
+    @Override
     public long getSearch()
     {
-        return searchCtr.intValue();
+        return searchCtr.sum();
     }
 
 
@@ -115,9 +185,10 @@ public class LdapCounters
      * Return the read counter.
      * @return long containing read.
      */
+    @Override
     public long getRead()
     {
-        return readCtr.intValue();
+        return readCtr.sum();
     }
 
 
@@ -125,9 +196,10 @@ public class LdapCounters
      * Return the compare counter.
      * @return long containing compare.
      */
+    @Override
     public long getCompare()
     {
-        return compareCtr.intValue();
+        return compareCtr.sum();
     }
 
 
@@ -135,9 +207,10 @@ public class LdapCounters
      * Return the add counter.
      * @return long containing add.
      */
+    @Override
     public long getAdd()
     {
-        return addCtr.intValue();
+        return addCtr.sum();
     }
 
 
@@ -145,9 +218,10 @@ public class LdapCounters
      * Return the blank counter.
      * @return long containing blank.
      */
+    @Override
     public long getMod()
     {
-        return modCtr.intValue();
+        return modCtr.sum();
     }
 
 
@@ -155,9 +229,10 @@ public class LdapCounters
      * Return the delete counter.
      * @return long containing delete.
      */
+    @Override
     public long getDelete()
     {
-        return deleteCtr.intValue();
+        return deleteCtr.sum();
     }
 
 
@@ -165,8 +240,165 @@ public class LdapCounters
      * Return the bind counter.
      * @return long containing bind.
      */
+    @Override
     public long getBind()
     {
-        return bindCtr.intValue();
+        return bindCtr.sum();
+    }
+
+
+    /**
+     * Return a snapshot of the latency of every operation, DAO and tenant combination that has been recorded.
+     *
+     * @return List of latencies.
+     */
+    public List<Latency> getLatencies()
+    {
+        List<Latency> result = new ArrayList<>();
+        for ( Map.Entry<Op, ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>>> byOp : latencies.entrySet() )
+        {
+            for ( Map.Entry<String, ConcurrentMap<String, LatencyHistogram>> byDao : byOp.getValue().entrySet() )
+            {
+                for ( Map.Entry<String, LatencyHistogram> byTenant : byDao.getValue().entrySet() )
+                {
+                    result.add( new Latency( byOp.getKey(), byDao.getKey(), byTenant.getKey(),
+                        byTenant.getValue().snapshot() ) );
+                }
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public String[] getLatencySummary()
+    {
+        List<Latency> snapshot = getLatencies();
+        String[] result = new String[snapshot.size()];
+        for ( int i = 0; i < result.length; i++ )
+        {
+            result[i] = snapshot.get( i ).toString();
+        }
+        return result;
+    }
+
+
+    /**
+     * Set the counters and latencies back to zero.
+     */
+    @Override
+    public void reset()
+    {
+        readCtr.reset();
+        searchCtr.reset();
+        compareCtr.reset();
+        addCtr.reset();
+        modCtr.reset();
+        deleteCtr.reset();
+        bindCtr.reset();
+        for ( ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> byDao : latencies.values() )
+        {
+            for ( ConcurrentMap<String, LatencyHistogram> byTenant : byDao.values() )
+            {
+                for ( LatencyHistogram histogram : byTenant.values() )
+                {
+                    histogram.reset();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Register these counters on the platform MBean server.
+     */
+    void registerMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName( OBJECT_NAME );
+            if ( !server.isRegistered( name ) )
+            {
+                server.registerMBean( this, name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "registerMBean caught Exception={}", e.toString() );
+        }
+    }
+
+
+    /**
+     * Remove these counters from the platform MBean server.
+     */
+    void unregisterMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName( OBJECT_NAME );
+            if ( server.isRegistered( name ) )
+            {
+                server.unregisterMBean( name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "unregisterMBean caught Exception={}", e.toString() );
+        }
+    }
+
+
+    /**
+     * The latency of one operation, DAO and tenant combination.
+     */
+    public static final class Latency
+    {
+        private final Op op;
+        private final String dao;
+        private final String contextId;
+        private final LatencyHistogram.Snapshot snapshot;
+
+
+        private Latency( Op op, String dao, String contextId, LatencyHistogram.Snapshot snapshot )
+        {
+            this.op = op;
+            this.dao = dao;
+            this.contextId = contextId;
+            this.snapshot = snapshot;
+        }
+
+
+        public Op getOp()
+        {
+            return op;
+        }
+
+
+        public String getDao()
+        {
+            return dao;
+        }
+
+
+        public String getContextId()
+        {
+            return contextId;
+        }
+
+
+        public LatencyHistogram.Snapshot getSnapshot()
+        {
+            return snapshot;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return op + " " + dao + " " + contextId + ": " + snapshot;
+        }
     }
-}
\ No newline at end of file
+}
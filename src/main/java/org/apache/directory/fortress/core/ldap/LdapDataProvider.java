@@ -28,6 +28,10 @@ import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.directory.api.ldap.extras.controls.ppolicy.PasswordPolicy;
@@ -52,6 +56,7 @@ import org.apache.directory.api.ldap.model.message.controls.ProxiedAuthz;
 import org.apache.directory.api.ldap.model.message.controls.ProxiedAuthzImpl;
 import org.apache.directory.api.ldap.model.name.Dn;
 import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.model.Constraint;
 import org.apache.directory.fortress.core.model.ConstraintUtil;
 import org.apache.directory.fortress.core.model.FortEntity;
@@ -59,7 +64,11 @@ import org.apache.directory.fortress.core.model.Hier;
 import org.apache.directory.fortress.core.model.Relationship;
 import org.apache.directory.fortress.core.util.Config;
 import org.apache.directory.fortress.core.util.LdapUtil;
+import org.apache.directory.ldap.client.api.LdapAsyncConnection;
 import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.LdapConnectionConfig;
+import org.apache.directory.ldap.client.api.Wrapper;
+import org.apache.directory.ldap.client.api.future.SearchFuture;
 
 
 /**
@@ -78,7 +87,13 @@ public abstract class LdapDataProvider
     private static final String CLS_NM = LdapDataProvider.class.getName();
     private static final int MAX_DEPTH = 100;
     private static final LdapCounters COUNTERS = new LdapCounters();
+    // Maps the rdn of each tenant's node, e.g. ou=acme, to its contextId, used to attribute ldap operations to tenants:
+    private static final ConcurrentMap<String, String> TENANT_RDNS = new ConcurrentHashMap<>();
+    // The contextIds already in TENANT_RDNS, checked on every getRootDn:
+    private static final Set<String> TENANTS = ConcurrentHashMap.newKeySet();
     private static final PasswordPolicy PP_REQ_CTRL = new PasswordPolicyImpl();
+    // Stops the background tasks of subclasses that hold connections, see onClose:
+    private static final List<Runnable> CLOSE_TASKS = new CopyOnWriteArrayList<>();
 
     /**
      * Given a contextId and a fortress param name return the LDAP dn.
@@ -98,6 +113,7 @@ public abstract class LdapDataProvider
             int idx = szDn.indexOf( Config.getInstance().getProperty( GlobalIds.SUFFIX ) );
             if ( idx > 0 )
             {
+                addTenant( contextId );
                 // Found. The DN is ,ou=<contextId>,
                 StringBuilder dn = new StringBuilder();
                 dn.append( szDn.substring( 0, idx - 1 ) ).append( "," ).append( SchemaConstants.OU_AT ).append( "=" )
@@ -129,6 +145,7 @@ public abstract class LdapDataProvider
         if ( StringUtils.isNotEmpty( contextId ) && !contextId.equalsIgnoreCase( GlobalIds.NULL ) && !contextId
             .equals( GlobalIds.HOME ) )
         {
+            addTenant( contextId );
             dn.append( SchemaConstants.OU_AT ).append( "=" ).append( contextId ).append( "," +
                 "" ).append( Config.getInstance().getProperty( GlobalIds.SUFFIX ) );
         }
@@ -140,6 +157,63 @@ public abstract class LdapDataProvider
     }
 
 
+    /**
+     * Remember the tenant so the ldap operations made under its node can be attributed to it.
+     *
+     * @param contextId of a tenant other than HOME.
+     */
+    private static void addTenant( String contextId )
+    {
+        if ( !TENANTS.contains( contextId ) && TENANTS.add( contextId ) )
+        {
+            TENANT_RDNS.putIfAbsent( ( SchemaConstants.OU_AT + "=" + contextId ).toLowerCase(), contextId );
+        }
+    }
+
+
+    /**
+     * Return the tenant a dn belongs to.  A tenant's nodes are placed under ou=contextId just above the suffix.
+     *
+     * @param dn contains ldap distinguished name.
+     * @return contextId of the tenant, HOME if none.
+     */
+    private static String getContextId( String dn )
+    {
+        String suffix = Config.getInstance().getProperty( GlobalIds.SUFFIX );
+        if ( TENANT_RDNS.isEmpty() || dn == null || suffix == null )
+        {
+            return GlobalIds.HOME;
+        }
+        // index of the comma that precedes the suffix:
+        int end = dn.length() - suffix.length() - 1;
+        if ( end <= 0 || !dn.regionMatches( true, end + 1, suffix, 0, suffix.length() ) )
+        {
+            return GlobalIds.HOME;
+        }
+        int start = dn.lastIndexOf( ',', end - 1 ) + 1;
+        String contextId = TENANT_RDNS.get( dn.substring( start, end ).trim().toLowerCase() );
+        return contextId != null ? contextId : GlobalIds.HOME;
+    }
+
+
+    /**
+     * Record the latency of an ldap operation by the calling DAO and tenant.  A write also starts the thread's read
+     * your writes window, see {@link LdapConnectionProvider#getAdminReadConnection()}.
+     *
+     * @param op    the operation.
+     * @param dn    target of the operation, or base of a search.
+     * @param start value of {@link System#nanoTime()} when the operation began.
+     */
+    private void record( LdapCounters.Op op, String dn, long start )
+    {
+        COUNTERS.record( op, getClass().getSimpleName(), getContextId( dn ), System.nanoTime() - start );
+        if ( op == LdapCounters.Op.ADD || op == LdapCounters.Op.MOD || op == LdapCounters.Op.DELETE )
+        {
+            LdapConnectionProvider.recordWrite();
+        }
+    }
+
+
     /**
      * Read the ldap record from specified location.
      *
@@ -152,8 +226,22 @@ public abstract class LdapDataProvider
     protected Entry read( LdapConnection connection, String dn, String[] attrs ) throws LdapException
     {
         COUNTERS.incrementRead();
-
-        return connection.lookup( dn, attrs );
+        long start = System.nanoTime();
+        try
+        {
+            Entry entry = connection.lookup( dn, attrs );
+            LdapConnectionProvider.recordOutcome( connection, null );
+            return entry;
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.READ, dn, start );
+        }
     }
 
 
@@ -169,8 +257,22 @@ public abstract class LdapDataProvider
     protected Entry read( LdapConnection connection, Dn dn, String[] attrs ) throws LdapException
     {
         COUNTERS.incrementRead();
-
-        return connection.lookup( dn, attrs );
+        long start = System.nanoTime();
+        try
+        {
+            Entry entry = connection.lookup( dn, attrs );
+            LdapConnectionProvider.recordOutcome( connection, null );
+            return entry;
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.READ, dn.getName(), start );
+        }
     }
 
 
@@ -190,8 +292,167 @@ public abstract class LdapDataProvider
     protected Entry read( LdapConnection connection, String dn, String[] attrs, String userDn ) throws LdapException
     {
         COUNTERS.incrementRead();
+        long start = System.nanoTime();
+        try
+        {
+            Entry entry = connection.lookup( dn, attrs );
+            LdapConnectionProvider.recordOutcome( connection, null );
+            return entry;
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.READ, dn, start );
+        }
+    }
+
 
-        return connection.lookup( dn, attrs );
+    /**
+     * Send a read of the ldap record without waiting for the response, so the caller can go on to work on another
+     * connection, e.g. bind, while the server processes it.  The read must be completed with
+     * {@link #readResult(PendingRead)} before the connection is closed.
+     *
+     * @param connection handle to ldap connection.
+     * @param dn         contains ldap distinguished name.
+     * @param attrs      array contains array names to pull back.
+     * @return the outstanding read or null if the connection can't send asynchronously, in which case the caller
+     * should use {@link #read(LdapConnection, String, String[])}.
+     * @throws LdapException in the event system error occurs.
+     */
+    protected PendingRead readAsync( LdapConnection connection, String dn, String[] attrs ) throws LdapException
+    {
+        LdapAsyncConnection target = getAsyncConnection( connection );
+        if ( target == null )
+        {
+            return null;
+        }
+        COUNTERS.incrementRead();
+        long start = System.nanoTime();
+        SearchRequest searchRequest = new SearchRequestImpl();
+        searchRequest.setBase( new Dn( dn ) );
+        searchRequest.setScope( SearchScope.OBJECT );
+        searchRequest.setFilter( "(objectClass=*)" );
+        searchRequest.setDerefAliases( AliasDerefMode.NEVER_DEREF_ALIASES );
+        for ( String attr : attrs )
+        {
+            if ( attr != null )
+            {
+                searchRequest.addAttributes( attr );
+            }
+        }
+        searchRequest.setSizeLimit( 1 );
+        SearchFuture future = target.searchAsync( searchRequest );
+        return new PendingRead( future, dn, start );
+    }
+
+
+    /**
+     * Send a search without waiting for its results, which are read from the returned future as they arrive.  Used
+     * for searches that don't complete, e.g. a persistent search.  The caller must cancel the future when done.
+     *
+     * @param connection    is LdapConnection object used for all communication with host.
+     * @param searchRequest contains the search, including its controls.
+     * @return future of the search responses, or null if the connection can't be used asynchronously.
+     * @throws LdapException in the event system error occurs.
+     */
+    protected SearchFuture searchAsync( LdapConnection connection, SearchRequest searchRequest ) throws LdapException
+    {
+        LdapAsyncConnection target = getAsyncConnection( connection );
+        if ( target == null )
+        {
+            return null;
+        }
+        COUNTERS.incrementSearch();
+        return target.searchAsync( searchRequest );
+    }
+
+
+    /**
+     * Return the asynchronous connection beneath the wrappers the pool hands out, or null if there isn't one.
+     */
+    @SuppressWarnings("unchecked")
+    private static LdapAsyncConnection getAsyncConnection( LdapConnection connection )
+    {
+        LdapConnection target = connection;
+        while ( target instanceof Wrapper )
+        {
+            target = ( ( Wrapper<LdapConnection> ) target ).wrapped();
+        }
+        return target instanceof LdapAsyncConnection ? ( LdapAsyncConnection ) target : null;
+    }
+
+
+    /**
+     * Wait for the response of a read sent by {@link #readAsync(LdapConnection, String, String[])}.  Gives up after
+     * the default connection timeout and abandons the request.
+     *
+     * @param pendingRead the outstanding read.
+     * @return ldap entry or null if there isn't an entry at the dn, same as
+     * {@link #read(LdapConnection, String, String[])}.
+     * @throws LdapException in the event system error occurs or the timeout is reached.
+     */
+    protected Entry readResult( PendingRead pendingRead ) throws LdapException
+    {
+        Entry entry = null;
+        try
+        {
+            while ( true )
+            {
+                Response response = pendingRead.future.get( LdapConnectionConfig.DEFAULT_TIMEOUT,
+                    TimeUnit.MILLISECONDS );
+                if ( response == null )
+                {
+                    pendingRead.future.cancel( true );
+                    throw new LdapOperationErrorException( "readResult timed out dn [" + pendingRead.dn + "]" );
+                }
+                else if ( response instanceof SearchResultEntry )
+                {
+                    entry = ( ( SearchResultEntry ) response ).getEntry();
+                }
+                else if ( response instanceof SearchResultDone )
+                {
+                    LdapResult result = ( ( SearchResultDone ) response ).getLdapResult();
+                    if ( result.getResultCode() == ResultCodeEnum.NO_SUCH_OBJECT )
+                    {
+                        return null;
+                    }
+                    ResultCodeEnum.processResponse( ( SearchResultDone ) response );
+                    return entry;
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            pendingRead.future.cancel( true );
+            Thread.currentThread().interrupt();
+            throw new LdapOperationErrorException( "readResult interrupted dn [" + pendingRead.dn + "]", e );
+        }
+        finally
+        {
+            record( LdapCounters.Op.READ, pendingRead.dn, pendingRead.start );
+        }
+    }
+
+
+    /**
+     * A read sent by {@link #readAsync(LdapConnection, String, String[])} and not yet completed.
+     */
+    protected static final class PendingRead
+    {
+        private final SearchFuture future;
+        private final String dn;
+        private final long start;
+
+        private PendingRead( SearchFuture future, String dn, long start )
+        {
+            this.future = future;
+            this.dn = dn;
+            this.start = start;
+        }
     }
 
 
@@ -205,7 +466,21 @@ public abstract class LdapDataProvider
     protected void add( LdapConnection connection, Entry entry ) throws LdapException
     {
         COUNTERS.incrementAdd();
-        connection.add( entry );
+        long start = System.nanoTime();
+        try
+        {
+            connection.add( entry );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.ADD, entry.getDn().getName(), start );
+        }
     }
 
 
@@ -259,8 +534,21 @@ public abstract class LdapDataProvider
         {
             addRequest.addControl( new RelaxControlImpl() );
         }
-        AddResponse response = connection.add( addRequest );
-        ResultCodeEnum.processResponse(response);
+        long start = System.nanoTime();
+        try
+        {
+            ResultCodeEnum.processResponse( connection.add( addRequest ) );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.ADD, entry.getDn().getName(), start );
+        }
     }
 
 
@@ -275,7 +563,21 @@ public abstract class LdapDataProvider
     protected void modify( LdapConnection connection, String dn, List<Modification> mods ) throws LdapException
     {
         COUNTERS.incrementMod();
-        connection.modify( dn, mods.toArray( new Modification[]{} ) );
+        long start = System.nanoTime();
+        try
+        {
+            connection.modify( dn, mods.toArray( new Modification[]{} ) );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.MOD, dn, start );
+        }
     }
 
 
@@ -290,8 +592,22 @@ public abstract class LdapDataProvider
     protected void modify( LdapConnection connection, Dn dn, List<Modification> mods ) throws LdapException
     {
         COUNTERS.incrementMod();
-        connection.modify( dn, mods.toArray( new Modification[]
-            {} ) );
+        long start = System.nanoTime();
+        try
+        {
+            connection.modify( dn, mods.toArray( new Modification[]
+                {} ) );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.MOD, dn.getName(), start );
+        }
     }
 
 
@@ -337,8 +653,21 @@ public abstract class LdapDataProvider
             modRequest.addControl( new RelaxControlImpl() );
         }
         modRequest.setName( new Dn( dn ) );
-        ModifyResponse response = connection.modify( modRequest );
-        ResultCodeEnum.processResponse(response);
+        long start = System.nanoTime();
+        try
+        {
+            ResultCodeEnum.processResponse( connection.modify( modRequest ) );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.MOD, dn, start );
+        }
     }
 
 
@@ -356,7 +685,21 @@ public abstract class LdapDataProvider
     {
         COUNTERS.incrementMod();
         audit( mods, entity );
-        connection.modify( dn, mods.toArray( new Modification[] {} ) );
+        long start = System.nanoTime();
+        try
+        {
+            connection.modify( dn, mods.toArray( new Modification[] {} ) );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.MOD, dn.getName(), start );
+        }
     }
 
 
@@ -370,7 +713,21 @@ public abstract class LdapDataProvider
     protected void delete( LdapConnection connection, String dn ) throws LdapException
     {
         COUNTERS.incrementDelete();
-        connection.delete( dn );
+        long start = System.nanoTime();
+        try
+        {
+            connection.delete( dn );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.DELETE, dn, start );
+        }
     }
 
 
@@ -395,7 +752,21 @@ public abstract class LdapDataProvider
             modify( connection, dn, mods );
         }
 
-        connection.delete( dn );
+        long start = System.nanoTime();
+        try
+        {
+            connection.delete( dn );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.DELETE, dn, start );
+        }
     }
 
 
@@ -420,7 +791,21 @@ public abstract class LdapDataProvider
             modify( connection, dn, mods );
         }
 
-        connection.delete( dn );
+        long start = System.nanoTime();
+        try
+        {
+            connection.delete( dn );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.DELETE, dn.getName(), start );
+        }
     }
 
 
@@ -580,7 +965,8 @@ public abstract class LdapDataProvider
         searchRequest.setTypesOnly( attrsOnly );
         searchRequest.addAttributes( attrs );
 
-        return connection.search( searchRequest );
+        // the search is timed until its results have been consumed:
+        return timedSearch( connection, searchRequest, baseDn );
     }
 
 
@@ -612,7 +998,127 @@ public abstract class LdapDataProvider
         searchRequest.setTypesOnly( attrsOnly );
         searchRequest.addAttributes( attrs );
 
-        return connection.search( searchRequest );
+        // the search is timed until its results have been consumed:
+        return timedSearch( connection, searchRequest, baseDn );
+    }
+
+
+    /**
+     * Perform an ldap search whose results are read a page at a time, as the returned cursor advances, using an
+     * admin connection that is held until the cursor has been read to the end or closed.
+     *
+     * @param baseDn     contains address of distinguished name to begin ldap search
+     * @param scope      indicates depth of search starting at basedn.
+     * @param filter     contains the search criteria
+     * @param attrs      is the requested list of attritubutes to return from directory search.
+     * @param mapper     converts each entry into its entity.
+     * @param errorId    reported by the exception thrown if a page can't be read.
+     * @param <T>        type of entity.
+     * @return cursor over the entities, must be closed by the caller.
+     * @throws LdapException thrown if a connection can't be borrowed.
+     */
+    protected <T> ResultCursor<T> searchPaged( String baseDn, SearchScope scope, String filter, String[] attrs,
+        EntryMapper<T> mapper, int errorId ) throws LdapException
+    {
+        return newPagedCursor( getAdminConnection(), false, baseDn, scope, filter, attrs, mapper, errorId );
+    }
+
+
+    /**
+     * Same as {@link #searchPaged} but reads from the audit log using a log connection.
+     *
+     * @param baseDn     contains address of distinguished name to begin ldap search
+     * @param scope      indicates depth of search starting at basedn.
+     * @param filter     contains the search criteria
+     * @param attrs      is the requested list of attritubutes to return from directory search.
+     * @param mapper     converts each entry into its entity.
+     * @param errorId    reported by the exception thrown if a page can't be read.
+     * @param <T>        type of entity.
+     * @return cursor over the entities, must be closed by the caller.
+     * @throws LdapException thrown if a connection can't be borrowed.
+     */
+    protected <T> ResultCursor<T> searchLogPaged( String baseDn, SearchScope scope, String filter, String[] attrs,
+        EntryMapper<T> mapper, int errorId ) throws LdapException
+    {
+        return newPagedCursor( getLogConnection(), true, baseDn, scope, filter, attrs, mapper, errorId );
+    }
+
+
+    private <T> ResultCursor<T> newPagedCursor( LdapConnection connection, final boolean isLog, final String baseDn,
+        SearchScope scope, String filter, String[] attrs, EntryMapper<T> mapper, int errorId ) throws LdapException
+    {
+        SearchRequest searchRequest = new SearchRequestImpl();
+        try
+        {
+            searchRequest.setBase( new Dn( baseDn ) );
+            searchRequest.setScope( scope );
+            searchRequest.setFilter( filter );
+            searchRequest.addAttributes( attrs );
+        }
+        catch ( LdapException e )
+        {
+            releaseConnection( connection, isLog );
+            throw e;
+        }
+        int pageSize = Config.getInstance().getInt( GlobalIds.CONFIG_LDAP_PAGE_SIZE, GlobalIds.BATCH_SIZE );
+        return new PagedSearchCursor<T>( connection, searchRequest, pageSize, mapper, errorId )
+        {
+            @Override
+            SearchCursor search( LdapConnection connection, SearchRequest request ) throws LdapException
+            {
+                // each page is counted and timed as a search of its own:
+                COUNTERS.incrementSearch();
+                return timedSearch( connection, request, baseDn );
+            }
+
+
+            @Override
+            void release( LdapConnection connection )
+            {
+                releaseConnection( connection, isLog );
+            }
+        };
+    }
+
+
+    /**
+     * Send a search whose cursor records the time it took, and the outcome, once its results have been consumed.
+     *
+     * @param connection    is LdapConnection object used for all communication with host.
+     * @param searchRequest contains the search.
+     * @param baseDn        base of the search.
+     * @return cursor over the search responses.
+     * @throws LdapException thrown in the event of error in ldap client or server code.
+     */
+    private SearchCursor timedSearch( LdapConnection connection, SearchRequest searchRequest, String baseDn )
+        throws LdapException
+    {
+        long start = System.nanoTime();
+        SearchCursor cursor;
+        try
+        {
+            cursor = connection.search( searchRequest );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        return new TimedSearchCursor( cursor, connection, COUNTERS, getClass().getSimpleName(),
+            getContextId( baseDn ), start );
+    }
+
+
+    private void releaseConnection( LdapConnection connection, boolean isLog )
+    {
+        if ( isLog )
+        {
+            closeLogConnection( connection );
+        }
+        else
+        {
+            closeAdminConnection( connection );
+        }
     }
 
 
@@ -642,17 +1148,31 @@ public abstract class LdapDataProvider
         searchRequest.setTypesOnly( attrsOnly );
         searchRequest.addAttributes( attrs );
 
-        SearchCursor result = connection.search( searchRequest );
+        long start = System.nanoTime();
+        try
+        {
+            SearchCursor result = connection.search( searchRequest );
+
+            Entry entry = result.getEntry();
 
-        Entry entry = result.getEntry();
+            if ( result.next() )
+            {
+                throw new LdapException( "searchNode failed to return unique record for LDAP search of base DN [" +
+                    baseDn + "] filter [" + filter + "]" );
+            }
 
-        if ( result.next() )
+            LdapConnectionProvider.recordOutcome( connection, null );
+            return entry;
+        }
+        catch ( LdapException | CursorException e )
         {
-            throw new LdapException( "searchNode failed to return unique record for LDAP search of base DN [" +
-                baseDn + "] filter [" + filter + "]" );
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.SEARCH, baseDn, start );
         }
-
-        return entry;
     }
 
 
@@ -685,17 +1205,31 @@ public abstract class LdapDataProvider
         searchRequest.setTypesOnly( attrsOnly );
         searchRequest.addAttributes( attrs );
 
-        SearchCursor result = connection.search( searchRequest );
+        long start = System.nanoTime();
+        try
+        {
+            SearchCursor result = connection.search( searchRequest );
+
+            Entry entry = result.getEntry();
 
-        Entry entry = result.getEntry();
+            if ( result.next() )
+            {
+                throw new LdapException( "searchNode failed to return unique record for LDAP search of base DN [" +
+                    baseDn + "] filter [" + filter + "]" );
+            }
 
-        if ( result.next() )
+            LdapConnectionProvider.recordOutcome( connection, null );
+            return entry;
+        }
+        catch ( LdapException | CursorException e )
         {
-            throw new LdapException( "searchNode failed to return unique record for LDAP search of base DN [" +
-                baseDn + "] filter [" + filter + "]" );
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.SEARCH, baseDn, start );
         }
-
-        return entry;
     }
 
 
@@ -729,7 +1263,22 @@ public abstract class LdapDataProvider
         ProxiedAuthz proxiedAuthzControl = new ProxiedAuthzImpl();
         proxiedAuthzControl.setAuthzId( "dn: " + userDn );
         compareRequest.addControl( proxiedAuthzControl );
-        CompareResponse response = connection.compare( compareRequest );
+        long start = System.nanoTime();
+        CompareResponse response;
+        try
+        {
+            response = connection.compare( compareRequest );
+            LdapConnectionProvider.recordOutcome( connection, null );
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.COMPARE, dn, start );
+        }
         return response.getLdapResult().getResultCode() == ResultCodeEnum.SUCCESS;
     }
 
@@ -1238,7 +1787,22 @@ public abstract class LdapDataProvider
         bindReq.setDn( userDn );
         bindReq.setCredentials( password );
         bindReq.addControl( PP_REQ_CTRL );
-        return connection.bind( bindReq );
+        long start = System.nanoTime();
+        try
+        {
+            BindResponse response = connection.bind( bindReq );
+            LdapConnectionProvider.recordOutcome( connection, null );
+            return response;
+        }
+        catch ( LdapException e )
+        {
+            LdapConnectionProvider.recordOutcome( connection, e );
+            throw e;
+        }
+        finally
+        {
+            record( LdapCounters.Op.BIND, szUserDn, start );
+        }
     }
 
 
@@ -1287,6 +1851,19 @@ public abstract class LdapDataProvider
     }
 
 
+    /**
+     * Calls the PoolMgr to get an Admin connection for reading, from a replica if they are configured.  Release it
+     * with {@link #closeAdminConnection(LdapConnection)}.
+     *
+     * @return ldap connection.
+     * @throws LdapException If we had an issue getting an LDAP connection
+     */
+    protected LdapConnection getAdminReadConnection() throws LdapException
+    {
+        return LdapConnectionProvider.getInstance().getAdminReadConnection();
+    }
+
+
     /**
      * Calls the PoolMgr to get an Log connection to the LDAP server.
      *
@@ -1368,9 +1945,26 @@ public abstract class LdapDataProvider
     }
 
     /**
-     * Closes all the ldap connection pools.
+     * Register a task to be run by {@link #closeAllConnectionPools()} before the pools are closed, e.g. to stop a
+     * background thread that holds a connection.
+     *
+     * @param task called once.
+     */
+    public static void onClose( Runnable task )
+    {
+        CLOSE_TASKS.add( task );
+    }
+
+    /**
+     * Closes all the ldap connection pools.  Pending asynchronous authorization audit records are written first.
      */
     public static void closeAllConnectionPools(){
+        for ( Runnable task : CLOSE_TASKS )
+        {
+            CLOSE_TASKS.remove( task );
+            task.run();
+        }
+        AuthZAuditWriter.shutdown();
         LdapConnectionProvider.closeAllConnectionPools();
     }
 
@@ -0,0 +1,150 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.ldap.client.api.LdapConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * One directory server of a {@link LdapServerGroup} along with the pool of connections to it.  Tracks the number of
+ * connections currently borrowed, used to balance reads, and whether the server is thought to be up.  A server is
+ * marked down when a connection to it can't be opened and up again once the health check gets one.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class LdapServer
+{
+    private static final String CLS_NM = LdapServer.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+
+    private final String name;
+    private final LdapConnectionPool pool;
+    private final PoolMetrics metrics;
+    private final CircuitBreaker breaker;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean up = true;
+
+
+    /**
+     * @param name of the server, host:port.
+     * @param pool of connections to the server.
+     * @param metrics of the pool.
+     * @param breaker of the pool, may be null.
+     */
+    LdapServer( String name, LdapConnectionPool pool, PoolMetrics metrics, CircuitBreaker breaker )
+    {
+        this.name = name;
+        this.pool = pool;
+        this.metrics = metrics;
+        this.breaker = breaker;
+    }
+
+
+    String getName()
+    {
+        return name;
+    }
+
+
+    LdapConnectionPool getPool()
+    {
+        return pool;
+    }
+
+
+    PoolMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+
+    CircuitBreaker getBreaker()
+    {
+        return breaker;
+    }
+
+
+    /**
+     * @return number of connections currently borrowed from this server's pool.
+     */
+    int getOutstanding()
+    {
+        return outstanding.get();
+    }
+
+
+    /**
+     * Record a connection borrowed from the pool.
+     */
+    void acquired()
+    {
+        outstanding.incrementAndGet();
+    }
+
+
+    /**
+     * Record a connection returned to the pool.
+     */
+    void released()
+    {
+        outstanding.decrementAndGet();
+    }
+
+
+    boolean isUp()
+    {
+        return up;
+    }
+
+
+    /**
+     * Take the server out of rotation until the health check finds it up.
+     *
+     * @param e the reason.
+     */
+    void markDown( Exception e )
+    {
+        if ( up )
+        {
+            up = false;
+            LOG.warn( "LDAP SERVER:  [{}] [{}] marked down: {}", metrics.getName(), name, e.toString() );
+        }
+    }
+
+
+    /**
+     * Put the server back in rotation.
+     */
+    void markUp()
+    {
+        if ( !up )
+        {
+            up = true;
+            LOG.info( "LDAP SERVER:  [{}] [{}] marked up", metrics.getName(), name );
+        }
+    }
+}
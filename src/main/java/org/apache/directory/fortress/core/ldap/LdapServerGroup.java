@@ -0,0 +1,174 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The directory servers that may serve one kind of connection, e.g. the providers that take writes or the replicas
+ * that serve reads, and the order in which they are tried.  Servers that are down are tried only after all of those
+ * that are up.
+ * <ul>
+ *   <li>failover - in the order configured, the first server that is up takes all the traffic</li>
+ *   <li>round-robin - each borrow starts at the next server</li>
+ *   <li>least-outstanding - each borrow starts at the server with the fewest connections borrowed</li>
+ * </ul>
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class LdapServerGroup
+{
+    private static final String CLS_NM = LdapServerGroup.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    static final String FAILOVER = "failover";
+    static final String ROUND_ROBIN = "round-robin";
+    static final String LEAST_OUTSTANDING = "least-outstanding";
+
+    private final LdapServer[] servers;
+    private final String balance;
+    private final AtomicInteger next = new AtomicInteger();
+
+
+    /**
+     * @param servers in the order configured, at least one.
+     * @param balance one of failover, round-robin or least-outstanding, anything else is taken as failover.
+     */
+    LdapServerGroup( List<LdapServer> servers, String balance )
+    {
+        this.servers = servers.toArray( new LdapServer[servers.size()] );
+        if ( ROUND_ROBIN.equalsIgnoreCase( balance ) )
+        {
+            this.balance = ROUND_ROBIN;
+        }
+        else if ( LEAST_OUTSTANDING.equalsIgnoreCase( balance ) )
+        {
+            this.balance = LEAST_OUTSTANDING;
+        }
+        else
+        {
+            if ( !FAILOVER.equalsIgnoreCase( balance ) )
+            {
+                LOG.warn( "LDAP SERVER:  invalid balance=[{}], using [{}]", balance, FAILOVER );
+            }
+            this.balance = FAILOVER;
+        }
+    }
+
+
+    /**
+     * @return all servers in the order configured.
+     */
+    LdapServer[] getServers()
+    {
+        return servers;
+    }
+
+
+    /**
+     * Return the servers in the order a borrow should try them: those that are up, starting at the one picked by the
+     * balance policy, followed by those that are down.
+     *
+     * @return new array containing every server of the group.
+     */
+    LdapServer[] order()
+    {
+        int size = servers.length;
+        int start = 0;
+        if ( size > 1 )
+        {
+            if ( balance == ROUND_ROBIN )
+            {
+                start = ( next.getAndIncrement() & Integer.MAX_VALUE ) % size;
+            }
+            else if ( balance == LEAST_OUTSTANDING )
+            {
+                start = getLeastOutstanding();
+            }
+        }
+        LdapServer[] result = new LdapServer[size];
+        int up = 0;
+        int down = size;
+        for ( int i = 0; i < size; i++ )
+        {
+            LdapServer server = servers[( start + i ) % size];
+            if ( server.isUp() )
+            {
+                result[up++] = server;
+            }
+            else
+            {
+                result[--down] = server;
+            }
+        }
+        // the down servers were filled from the end, put them back in order:
+        for ( int i = up, j = size - 1; i < j; i++, j-- )
+        {
+            LdapServer server = result[i];
+            result[i] = result[j];
+            result[j] = server;
+        }
+        return result;
+    }
+
+
+    private int getLeastOutstanding()
+    {
+        // rotate where the scan starts so ties are spread out:
+        int size = servers.length;
+        int offset = ( next.getAndIncrement() & Integer.MAX_VALUE ) % size;
+        int result = -1;
+        int least = Integer.MAX_VALUE;
+        for ( int i = 0; i < size; i++ )
+        {
+            int index = ( offset + i ) % size;
+            LdapServer server = servers[index];
+            if ( server.isUp() && server.getOutstanding() < least )
+            {
+                least = server.getOutstanding();
+                result = index;
+            }
+        }
+        return result == -1 ? 0 : result;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder( balance ).append( '[' );
+        for ( int i = 0; i < servers.length; i++ )
+        {
+            if ( i > 0 )
+            {
+                sb.append( ',' );
+            }
+            sb.append( servers[i].getName() );
+        }
+        return sb.append( ']' ).toString();
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import org.apache.directory.api.ldap.model.cursor.CursorException;
+import org.apache.directory.api.ldap.model.cursor.SearchCursor;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchResultDone;
+import org.apache.directory.api.ldap.model.message.controls.PagedResults;
+import org.apache.directory.api.ldap.model.message.controls.PagedResultsImpl;
+import org.apache.directory.fortress.core.FinderException;
+import org.apache.directory.fortress.core.ResultCursor;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Reads the results of a search a page at a time using the Simple Paged Results control, RFC 2696.  Each page is a
+ * separate search request that carries the cookie returned with the previous one, the last page comes back with an
+ * empty cookie.  A server that ignores the control returns everything as a single page.  A cursor closed between
+ * pages sends a last request of size zero, which tells the server to discard its state.
+ * <p>
+ * The connection is returned to its pool once the results have been read, on error, or when the cursor is closed.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <T> type of entity returned by the cursor.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+abstract class PagedSearchCursor<T> implements ResultCursor<T>
+{
+    private static final String CLS_NM = PagedSearchCursor.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+
+    private final LdapConnection connection;
+    private final SearchRequest request;
+    private final int pageSize;
+    private final EntryMapper<T> mapper;
+    private final int errorId;
+    private SearchCursor page;
+    private byte[] cookie;
+    private T current;
+    private long sequence;
+    private boolean isClosed;
+
+
+    /**
+     * @param connection used for every page, released by {@link #release}.
+     * @param request contains the base dn, scope, filter and attributes.
+     * @param pageSize max number of entries per page.
+     * @param mapper converts entries into entities.
+     * @param errorId reported by the {@link FinderException} thrown on error.
+     */
+    PagedSearchCursor( LdapConnection connection, SearchRequest request, int pageSize, EntryMapper<T> mapper,
+        int errorId )
+    {
+        this.connection = connection;
+        this.request = request;
+        this.pageSize = pageSize;
+        this.mapper = mapper;
+        this.errorId = errorId;
+    }
+
+
+    /**
+     * Send the search for one page of results.
+     *
+     * @param connection of this cursor.
+     * @param request to send, carries the paged results control.
+     * @return cursor over the page.
+     * @throws LdapException in the event of ldap client error.
+     */
+    abstract SearchCursor search( LdapConnection connection, SearchRequest request ) throws LdapException;
+
+
+    /**
+     * Return the connection to the pool it was borrowed from.
+     *
+     * @param connection of this cursor.
+     */
+    abstract void release( LdapConnection connection );
+
+
+    @Override
+    public boolean next() throws FinderException
+    {
+        current = null;
+        if ( isClosed )
+        {
+            return false;
+        }
+        try
+        {
+            while ( true )
+            {
+                if ( page == null )
+                {
+                    PagedResults control = new PagedResultsImpl();
+                    control.setSize( pageSize );
+                    control.setCookie( cookie );
+                    request.addControl( control );
+                    page = search( connection, request );
+                }
+                if ( page.next() )
+                {
+                    if ( page.isEntry() )
+                    {
+                        current = mapper.map( page.getEntry(), sequence++ );
+                        return true;
+                    }
+                    // skip referrals and intermediate responses:
+                    continue;
+                }
+                // end of page, the done message says whether there is another:
+                SearchResultDone done = page.getSearchResultDone();
+                closePage();
+                if ( done != null )
+                {
+                    ResultCodeEnum.processResponse( done );
+                }
+                PagedResults control = done != null ? ( PagedResults ) done.getControl( PagedResults.OID ) : null;
+                if ( control == null || control.getCookie() == null || control.getCookie().length == 0 )
+                {
+                    cookie = null;
+                    close();
+                    return false;
+                }
+                cookie = control.getCookie();
+            }
+        }
+        catch ( LdapException e )
+        {
+            close();
+            String error = "next base dn [" + request.getBase() + "] caught LdapException=" + e;
+            throw new FinderException( errorId, error, e );
+        }
+        catch ( CursorException e )
+        {
+            close();
+            String error = "next base dn [" + request.getBase() + "] caught CursorException=" + e.getMessage();
+            throw new FinderException( errorId, error, e );
+        }
+    }
+
+
+    @Override
+    public T get()
+    {
+        return current;
+    }
+
+
+    @Override
+    public void close()
+    {
+        if ( !isClosed )
+        {
+            isClosed = true;
+            // abandons the rest of a page that wasn't read to the end:
+            closePage();
+            if ( cookie != null )
+            {
+                abandonPages();
+            }
+            release( connection );
+        }
+    }
+
+
+    private void abandonPages()
+    {
+        try
+        {
+            PagedResults control = new PagedResultsImpl();
+            control.setSize( 0 );
+            control.setCookie( cookie );
+            request.addControl( control );
+            page = search( connection, request );
+            while ( page.next() )
+            {
+                // nothing is returned
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "abandonPages base dn [{}] caught Exception={}", request.getBase(), e.toString() );
+        }
+        finally
+        {
+            cookie = null;
+            closePage();
+        }
+    }
+
+
+    private void closePage()
+    {
+        if ( page != null )
+        {
+            try
+            {
+                page.close();
+            }
+            catch ( Exception e )
+            {
+                LOG.warn( "closePage base dn [{}] caught Exception={}", request.getBase(), e.toString() );
+            }
+            page = null;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.pool.impl.GenericObjectPool;
+
+
+/**
+ * Collects the metrics of one ldap connection pool: borrow wait histogram, active and idle gauges, grow events,
+ * timeouts, validation failures, evictions and circuit breaker transitions.  The gauges are read from the pool when asked for, the counters are
+ * updated by {@link LdapConnectionProvider} on each borrow and by the pool's connection factory.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class PoolMetrics implements PoolMetricsMBean
+{
+    private static final long[] BUCKET_MICROS =
+        {
+            10, 50, 100, 500, 1000, 5000, 10000, 50000, 100000, 500000, 1000000
+    };
+
+    private final String name;
+    private final GenericObjectPool<?> pool;
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder grows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder circuitOpens = new LongAdder();
+    private final LongAdder circuitHalfOpens = new LongAdder();
+    private final LongAdder circuitCloses = new LongAdder();
+    private final LongAdder circuitRejections = new LongAdder();
+    private volatile CircuitBreaker.State circuitState;
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder[] histogram = new LongAdder[BUCKET_MICROS.length + 1];
+
+
+    /**
+     * @param name of the pool, admin, user or log.
+     * @param pool whose gauges are to be read.
+     */
+    PoolMetrics( String name, GenericObjectPool<?> pool )
+    {
+        this.name = name;
+        this.pool = pool;
+        for ( int i = 0; i < histogram.length; i++ )
+        {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+
+    /**
+     * Record a successful borrow.
+     *
+     * @param nanos time spent waiting for the connection.
+     */
+    void borrowed( long nanos )
+    {
+        borrows.increment();
+        waitNanos.add( nanos );
+        long max = maxWaitNanos.get();
+        while ( nanos > max && !maxWaitNanos.compareAndSet( max, nanos ) )
+        {
+            max = maxWaitNanos.get();
+        }
+        long micros = nanos / 1000;
+        int i = 0;
+        while ( i < BUCKET_MICROS.length && micros > BUCKET_MICROS[i] )
+        {
+            i++;
+        }
+        histogram[i].increment();
+    }
+
+
+    /**
+     * Record a borrow that gave up waiting for a connection.
+     */
+    void timedOut()
+    {
+        timeouts.increment();
+    }
+
+
+    /**
+     * Record a connection opened by the pool.  Called before the pool counts the new connection as active, so a pool
+     * that is already at its max active is growing past it, which only happens when the exhausted action is grow.
+     */
+    void created()
+    {
+        created.increment();
+        int maxActive = pool.getMaxActive();
+        if ( maxActive > 0 && pool.getNumActive() >= maxActive )
+        {
+            grows.increment();
+        }
+    }
+
+
+    /**
+     * Record a connection that failed validation.
+     */
+    void validationFailed()
+    {
+        validationFailures.increment();
+    }
+
+
+    /**
+     * Record a connection closed by the pool.
+     */
+    void evicted()
+    {
+        evictions.increment();
+    }
+
+
+    /**
+     * Record a change of state of the pool's circuit breaker, the first call sets its initial state.
+     *
+     * @param state entered.
+     */
+    void circuitTransition( CircuitBreaker.State state )
+    {
+        CircuitBreaker.State prior = circuitState;
+        circuitState = state;
+        if ( prior == null )
+        {
+            // the breaker has just been created:
+            return;
+        }
+        switch ( state )
+        {
+            case OPEN:
+                circuitOpens.increment();
+                break;
+            case HALF_OPEN:
+                circuitHalfOpens.increment();
+                break;
+            default:
+                circuitCloses.increment();
+        }
+    }
+
+
+    /**
+     * Record a borrow refused by the pool's open circuit breaker.
+     */
+    void rejected()
+    {
+        circuitRejections.increment();
+    }
+
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+
+    @Override
+    public int getActive()
+    {
+        return pool.getNumActive();
+    }
+
+
+    @Override
+    public int getIdle()
+    {
+        return pool.getNumIdle();
+    }
+
+
+    @Override
+    public int getMaxActive()
+    {
+        return pool.getMaxActive();
+    }
+
+
+    @Override
+    public long getBorrows()
+    {
+        return borrows.sum();
+    }
+
+
+    @Override
+    public long getGrows()
+    {
+        return grows.sum();
+    }
+
+
+    @Override
+    public long getTimeouts()
+    {
+        return timeouts.sum();
+    }
+
+
+    @Override
+    public long getCreated()
+    {
+        return created.sum();
+    }
+
+
+    @Override
+    public long getValidationFailures()
+    {
+        return validationFailures.sum();
+    }
+
+
+    @Override
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+
+    @Override
+    public String getCircuitState()
+    {
+        CircuitBreaker.State state = circuitState;
+        return state == null ? "" : state.name();
+    }
+
+
+    @Override
+    public long getCircuitOpens()
+    {
+        return circuitOpens.sum();
+    }
+
+
+    @Override
+    public long getCircuitHalfOpens()
+    {
+        return circuitHalfOpens.sum();
+    }
+
+
+    @Override
+    public long getCircuitCloses()
+    {
+        return circuitCloses.sum();
+    }
+
+
+    @Override
+    public long getCircuitRejections()
+    {
+        return circuitRejections.sum();
+    }
+
+
+    @Override
+    public long getBorrowWaitMeanMicros()
+    {
+        long count = borrows.sum();
+        return count == 0 ? 0 : waitNanos.sum() / count / 1000;
+    }
+
+
+    @Override
+    public long getBorrowWaitMaxMicros()
+    {
+        return maxWaitNanos.get() / 1000;
+    }
+
+
+    @Override
+    public long[] getBorrowWaitBucketMicros()
+    {
+        return BUCKET_MICROS.clone();
+    }
+
+
+    @Override
+    public long[] getBorrowWaitHistogram()
+    {
+        long[] result = new long[histogram.length];
+        for ( int i = 0; i < histogram.length; i++ )
+        {
+            result[i] = histogram[i].sum();
+        }
+        return result;
+    }
+
+
+    @Override
+    public void reset()
+    {
+        borrows.reset();
+        grows.reset();
+        timeouts.reset();
+        created.reset();
+        validationFailures.reset();
+        evictions.reset();
+        circuitOpens.reset();
+        circuitHalfOpens.reset();
+        circuitCloses.reset();
+        circuitRejections.reset();
+        waitNanos.reset();
+        maxWaitNanos.set( 0 );
+        for ( LongAdder bucket : histogram )
+        {
+            bucket.reset();
+        }
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "PoolMetrics{name=" + name + ", active=" + getActive() + ", idle=" + getIdle() + ", borrows="
+            + getBorrows() + ", grows=" + getGrows() + ", timeouts=" + getTimeouts() + ", validationFailures="
+            + getValidationFailures() + ", evictions=" + getEvictions() + ", circuitState=" + getCircuitState()
+            + ", circuitOpens=" + getCircuitOpens() + ", circuitRejections=" + getCircuitRejections()
+            + ", borrowWaitMeanMicros=" + getBorrowWaitMeanMicros() + ", borrowWaitMaxMicros="
+            + getBorrowWaitMaxMicros() + "}";
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+/**
+ * Management interface of {@link PoolMetrics}, one instance is registered per ldap connection pool.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface PoolMetricsMBean
+{
+    /**
+     * @return name of the pool, admin, user or log.
+     */
+    String getName();
+
+
+    /**
+     * @return number of connections currently borrowed from the pool.
+     */
+    int getActive();
+
+
+    /**
+     * @return number of connections currently idle in the pool.
+     */
+    int getIdle();
+
+
+    /**
+     * @return configured maximum number of active connections.
+     */
+    int getMaxActive();
+
+
+    /**
+     * @return number of connections borrowed since startup.
+     */
+    long getBorrows();
+
+
+    /**
+     * @return number of connections the pool opened beyond its max active, i.e. under the grow exhausted action.
+     */
+    long getGrows();
+
+
+    /**
+     * @return number of borrows that found the pool exhausted and gave up waiting for a connection, or failed at once.
+     */
+    long getTimeouts();
+
+
+    /**
+     * @return number of connections opened by the pool.
+     */
+    long getCreated();
+
+
+    /**
+     * @return number of connections that failed validation.
+     */
+    long getValidationFailures();
+
+
+    /**
+     * @return number of connections closed by the pool, either evicted while idle or after failing validation.
+     */
+    long getEvictions();
+
+
+    /**
+     * @return state of the pool's circuit breaker, CLOSED, OPEN or HALF_OPEN, empty if the breaker is not enabled.
+     */
+    String getCircuitState();
+
+
+    /**
+     * @return number of times the circuit breaker has opened.
+     */
+    long getCircuitOpens();
+
+
+    /**
+     * @return number of times the circuit breaker has let a probe through after being open.
+     */
+    long getCircuitHalfOpens();
+
+
+    /**
+     * @return number of times the circuit breaker has closed after a successful probe.
+     */
+    long getCircuitCloses();
+
+
+    /**
+     * @return number of borrows refused because the circuit breaker was open.
+     */
+    long getCircuitRejections();
+
+
+    /**
+     * @return mean time spent waiting for a connection, in microseconds.
+     */
+    long getBorrowWaitMeanMicros();
+
+
+    /**
+     * @return longest time spent waiting for a connection, in microseconds.
+     */
+    long getBorrowWaitMaxMicros();
+
+
+    /**
+     * @return upper bound of each borrow wait histogram bucket, in microseconds.  The last bucket is unbounded.
+     */
+    long[] getBorrowWaitBucketMicros();
+
+
+    /**
+     * @return number of borrows whose wait fell in each bucket of {@link #getBorrowWaitBucketMicros()}, plus one for
+     * the unbounded bucket.
+     */
+    long[] getBorrowWaitHistogram();
+
+
+    /**
+     * Set the counters and histogram back to zero.  The gauges are unaffected.
+     */
+    void reset();
+}
@@ -0,0 +1,46 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+
+/**
+ * Publishes the metrics of the ldap connection pools to a monitoring system.  The implementation is named by fortress
+ * config param 'ldap.pool.metrics.registry' and must have a public no-arg constructor.  The default,
+ * {@link JmxPoolMetricsRegistry}, registers each pool as an MBean on the platform server.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface PoolMetricsRegistry
+{
+    /**
+     * Called once per pool after the pools have been created.
+     *
+     * @param metrics of the pool.
+     */
+    void register( PoolMetrics metrics );
+
+
+    /**
+     * Called once per pool when the pools are closed.
+     *
+     * @param metrics of the pool.
+     */
+    void unregister( PoolMetrics metrics );
+}
@@ -20,6 +20,8 @@
 package org.apache.directory.fortress.core.model;
 
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -27,12 +29,15 @@ import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
 
+import org.apache.directory.fortress.core.util.time.CompiledConstraint;
+
 
 /**
  * All entities ({@link User}, {@link org.apache.directory.fortress.core.model.Role}, 
@@ -311,6 +316,10 @@ public class User extends FortEntity implements Constraint, Serializable
     private String homeDirectory;
     private String loginShell;
     private String gecos;
+    // temporal constraint in parsed form, see CompiledConstraint:
+    private transient CompiledConstraint compiledConstraint;
+    // set when read with UserProjection.AUTHZ, the detail attributes are read on first use:
+    private transient UserDetailUtil detailUtil;
 
 
     public String getUidNumber()
@@ -1408,6 +1417,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public Address getAddress()
     {
+        loadDetail();
         if ( address == null )
         {
             address = new Address();
@@ -1444,6 +1454,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public List<String> getPhones()
     {
+        loadDetail();
         if ( phones == null )
         {
             phones = new ArrayList<>();
@@ -1471,6 +1482,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public void setPhone( String phone )
     {
+        loadDetail();
         if ( phones == null )
         {
             phones = new ArrayList<>();
@@ -1487,6 +1499,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public List<String> getMobiles()
     {
+        loadDetail();
         if ( mobiles == null )
         {
             mobiles = new ArrayList<>();
@@ -1514,6 +1527,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public void setMobile( String mobile )
     {
+        loadDetail();
         if ( mobiles == null )
         {
             mobiles = new ArrayList<>();
@@ -1530,6 +1544,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public List<String> getEmails()
     {
+        loadDetail();
         if ( emails == null )
         {
             emails = new ArrayList<>();
@@ -1595,6 +1610,7 @@ public class User extends FortEntity implements Constraint, Serializable
      */
     public byte[] getJpegPhoto()
     {
+        loadDetail();
         return jpegPhoto;
     }
 
@@ -1660,4 +1676,97 @@ public class User extends FortEntity implements Constraint, Serializable
 
         return thatUser.getUserId().equalsIgnoreCase( userId );
     }
+
+
+    /**
+     * Used internally by the {@link org.apache.directory.fortress.core.util.time.Validator}s.  Not marshalled.
+     *
+     * @return the parsed temporal constraint or null if not yet compiled.
+     */
+    public CompiledConstraint getCompiledConstraint()
+    {
+        return compiledConstraint;
+    }
+
+
+    /**
+     * Used internally by the {@link org.apache.directory.fortress.core.util.time.Validator}s.
+     *
+     * @param compiledConstraint the parsed temporal constraint.
+     */
+    public void setCompiledConstraint( CompiledConstraint compiledConstraint )
+    {
+        this.compiledConstraint = compiledConstraint;
+    }
+
+
+    /**
+     * Used internally by UserDAO when the user has been read with {@link UserProjection#AUTHZ}.  The address, phones,
+     * mobiles, emails and photo are fetched with the callback on first call to one of their getters, or before the
+     * entity is marshalled or serialized, and are only set where they haven't been set since.
+     *
+     * @param detailUtil reads the detail attributes, null if there's nothing to read.
+     */
+    public void setDetailUtil( UserDetailUtil detailUtil )
+    {
+        this.detailUtil = detailUtil;
+    }
+
+
+    /**
+     * JAXB callback, reads the detail attributes if not already so they're included when this is marshalled.
+     *
+     * @param marshaller not used.
+     */
+    void beforeMarshal( Marshaller marshaller )
+    {
+        loadDetail();
+    }
+
+
+    /**
+     * Reads the detail attributes if not already, as is done for JAXB, since the callback isn't serialized.
+     *
+     * @param out stream to write to.
+     * @throws IOException if the stream can't be written.
+     */
+    private void writeObject( ObjectOutputStream out ) throws IOException
+    {
+        loadDetail();
+        out.defaultWriteObject();
+    }
+
+
+    private void loadDetail()
+    {
+        if ( detailUtil != null )
+        {
+            // a failed read throws and is tried again on next use:
+            User detail = detailUtil.getDetailCB( this );
+            detailUtil = null;
+            if ( detail != null )
+            {
+                if ( address == null )
+                {
+                    address = detail.address;
+                }
+                if ( phones == null )
+                {
+                    phones = detail.phones;
+                }
+                if ( mobiles == null )
+                {
+                    mobiles = detail.mobiles;
+                }
+                if ( emails == null )
+                {
+                    emails = detail.emails;
+                }
+                if ( jpegPhoto == null )
+                {
+                    jpegPhoto = detail.jpegPhoto;
+                }
+            }
+        }
+    }
 }
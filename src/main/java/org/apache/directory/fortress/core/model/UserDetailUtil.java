@@ -0,0 +1,40 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.model;
+
+
+/**
+ * This interface provides a callback mechanism for {@link User} entities read with {@link UserProjection#AUTHZ} to
+ * fetch the attributes that were left out, and is implemented by UserDAO.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface UserDetailUtil
+{
+    /**
+     * Read the address, phones, mobiles, emails and photo of a user.
+     *
+     * @param user contains the dn of the entry.
+     * @return User containing the detail attributes or null if the entry no longer exists.
+     * @throws org.apache.directory.fortress.core.CfgRuntimeException if the read fails, the getters can't throw a
+     * checked exception.
+     */
+    User getDetailCB( User user );
+}
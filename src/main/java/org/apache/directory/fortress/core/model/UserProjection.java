@@ -0,0 +1,48 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.model;
+
+
+/**
+ * Named sets of attributes to read for a {@link User}, so callers that only need part of the entry don't pay to
+ * transfer and decode the rest of it.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public enum UserProjection
+{
+    /**
+     * Attributes needed to authenticate and validate the user: ids, names, ou, temporal constraints, lock and reset
+     * flags and properties.  Role assignments aren't read.
+     */
+    AUTHN,
+
+    /**
+     * Adds the RBAC and ARBAC role assignments to {@link #AUTHN}, along with the password policy, title, employee type
+     * and system flag.  This is what a session needs.  The address, phones, mobiles, emails and photo are read from
+     * the directory on first call to one of their getters.
+     */
+    AUTHZ,
+
+    /**
+     * All of the user's attributes.
+     */
+    FULL
+}
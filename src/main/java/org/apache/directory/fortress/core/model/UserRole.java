@@ -20,11 +20,14 @@
 package org.apache.directory.fortress.core.model;
 
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlRootElement;
@@ -33,6 +36,7 @@ import javax.xml.bind.annotation.XmlType;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.directory.fortress.core.util.Config;
+import org.apache.directory.fortress.core.util.time.CompiledConstraint;
 
 
 /**
@@ -108,6 +112,11 @@ public class UserRole extends FortEntity implements Serializable, Constraint
     private String dayMask;
     private Set<String> parents;
     private List<RoleConstraint> roleConstraints;
+    // set by load, the parents are looked up on first call to getParents:
+    private transient ParentUtil parentUtil;
+    private transient String parentContextId;
+    // temporal constraint in parsed form, see CompiledConstraint:
+    private transient CompiledConstraint compiledConstraint;
 
     /**
      * Default constructor is used by internal Fortress classes.
@@ -178,68 +187,123 @@ public class UserRole extends FortEntity implements Serializable, Constraint
      * @param parentUtil provides method to getParents.
      */
     public void load( String szRawData, String contextId, ParentUtil parentUtil )
+    {
+        load( szRawData, Config.getInstance().getDelimiter(), contextId, parentUtil );
+    }
+
+
+    /**
+     * Same as {@link #load(String, String, ParentUtil)} for callers that unload many values and have already read the
+     * delimiter from config.  The value is scanned once in place, only the fields that are set are copied out, and
+     * the parents aren't looked up until {@link #getParents()} is called.
+     *
+     * @param szRawData contains a raw formatted String that maps to 'ftRC' attribute on 'ftUserAttrs' object class
+     * @param delimiter separates the fields of the raw data, see {@link Config#getDelimiter()}.
+     * @param contextId contains the tenant id.
+     * @param parentUtil provides method to getParents.
+     */
+    public void load( String szRawData, String delimiter, String contextId, ParentUtil parentUtil )
     {
         if ( ( szRawData != null ) && ( szRawData.length() > 0 ) )
         {
-            String[] tokens = StringUtils.splitPreserveAllTokens( szRawData, Config.getInstance().getDelimiter() );
-            
+            int end = szRawData.indexOf( delimiter );
+            int next = end < 0 ? -1 : end + delimiter.length();
+
             //newer style constaint type
-            if(tokens[1].equals(RoleConstraint.RC_TYPE_NAME)){
+            if ( next >= 0 && szRawData.startsWith( RoleConstraint.RC_TYPE_NAME, next )
+                && ( next + RoleConstraint.RC_TYPE_NAME.length() == szRawData.length()
+                || szRawData.startsWith( delimiter, next + RoleConstraint.RC_TYPE_NAME.length() ) ) )
+            {
+                String[] tokens = StringUtils.splitPreserveAllTokens( szRawData, delimiter );
                 RoleConstraint rc = new RoleConstraint(tokens[5], tokens[4], RoleConstraint.RCType.valueOf( tokens[2] ),
                     tokens[3]);
                 this.getRoleConstraints().add(rc);
             }
-            else{
-                for ( int i = 0; i < tokens.length; i++ )
+            else
+            {
+                int begin = 0;
+                for ( int i = 0; begin <= szRawData.length(); i++ )
                 {
-                    if ( StringUtils.isNotEmpty( tokens[i] ) )
+                    end = szRawData.indexOf( delimiter, begin );
+                    if ( end < 0 )
+                    {
+                        end = szRawData.length();
+                    }
+                    if ( end > begin )
                     {
                         switch ( i )
                         {
                             case 0:
-                                name = tokens[i];
-                                parents = parentUtil.getParentsCB( name.toUpperCase(), contextId );
+                                name = szRawData.substring( begin, end );
+                                this.parents = null;
+                                this.parentUtil = parentUtil;
+                                this.parentContextId = contextId;
                                 break;
-    
+
                             case 1:
-                                timeout = Integer.parseInt( tokens[i] );
+                                timeout = parseInt( szRawData, begin, end );
                                 break;
-    
+
                             case 2:
-                                beginTime = tokens[i];
+                                beginTime = szRawData.substring( begin, end );
                                 break;
-    
+
                             case 3:
-                                endTime = tokens[i];
+                                endTime = szRawData.substring( begin, end );
                                 break;
-    
+
                             case 4:
-                                beginDate = tokens[i];
+                                beginDate = szRawData.substring( begin, end );
                                 break;
-    
+
                             case 5:
-                                endDate = tokens[i];
+                                endDate = szRawData.substring( begin, end );
                                 break;
-    
+
                             case 6:
-                                beginLockDate = tokens[i];
+                                beginLockDate = szRawData.substring( begin, end );
                                 break;
-    
+
                             case 7:
-                                endLockDate = tokens[i];
+                                endLockDate = szRawData.substring( begin, end );
                                 break;
-    
+
                             case 8:
-                                dayMask = tokens[i];
+                                dayMask = szRawData.substring( begin, end );
                                 break;
                         }
                     }
+                    begin = end + delimiter.length();
                 }
             }
         }
     }
 
 
+    /**
+     * Parse the decimal digits between begin and end without copying them out.  Anything other than up to nine plain
+     * digits, e.g. a sign, is left to {@link Integer#parseInt(String)} so the result and errors are the same.
+     */
+    private static int parseInt( String value, int begin, int end )
+    {
+        int result = 0;
+        if ( end - begin > 9 )
+        {
+            return Integer.parseInt( value.substring( begin, end ) );
+        }
+        for ( int i = begin; i < end; i++ )
+        {
+            int digit = value.charAt( i ) - '0';
+            if ( digit < 0 || digit > 9 )
+            {
+                return Integer.parseInt( value.substring( begin, end ) );
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+
     /**
      * Required on DAO classes convert Temporal attributes stored on entity to raw data object format needed for ldap
      * .  For internal use only.
@@ -603,6 +667,12 @@ public class UserRole extends FortEntity implements Serializable, Constraint
      */
     public Set<String> getParents()
     {
+        if ( parentUtil != null )
+        {
+            parents = parentUtil.getParentsCB( name.toUpperCase(), parentContextId );
+            parentUtil = null;
+            parentContextId = null;
+        }
         return parents;
     }
 
@@ -615,6 +685,32 @@ public class UserRole extends FortEntity implements Serializable, Constraint
     public void setParents( Set<String> parents )
     {
         this.parents = parents;
+        this.parentUtil = null;
+        this.parentContextId = null;
+    }
+
+
+    /**
+     * JAXB callback, looks up the parents if not already so they're included when this is marshalled.
+     *
+     * @param marshaller not used.
+     */
+    void beforeMarshal( Marshaller marshaller )
+    {
+        getParents();
+    }
+
+
+    /**
+     * Looks up the parents if not already, as is done for JAXB, since the lookup isn't serialized.
+     *
+     * @param out stream to write to.
+     * @throws IOException if the stream can't be written.
+     */
+    private void writeObject( ObjectOutputStream out ) throws IOException
+    {
+        getParents();
+        out.defaultWriteObject();
     }
 
     /**
@@ -679,7 +775,7 @@ public class UserRole extends FortEntity implements Serializable, Constraint
         result = 31 * result + ( beginLockDate != null ? beginLockDate.hashCode() : 0 );
         result = 31 * result + ( endLockDate != null ? endLockDate.hashCode() : 0 );
         result = 31 * result + ( dayMask != null ? dayMask.hashCode() : 0 );
-        result = 31 * result + ( parents != null ? parents.hashCode() : 0 );
+        // not the parents, which may not have been looked up yet:
         return result;
     }
 
@@ -707,4 +803,26 @@ public class UserRole extends FortEntity implements Serializable, Constraint
     public void setRoleConstraints(List<RoleConstraint> roleConstraints) {
         this.roleConstraints = roleConstraints;
     }
+
+
+    /**
+     * Used internally by the {@link org.apache.directory.fortress.core.util.time.Validator}s.  Not marshalled.
+     *
+     * @return the parsed temporal constraint or null if not yet compiled.
+     */
+    public CompiledConstraint getCompiledConstraint()
+    {
+        return compiledConstraint;
+    }
+
+
+    /**
+     * Used internally by the {@link org.apache.directory.fortress.core.util.time.Validator}s.
+     *
+     * @param compiledConstraint the parsed temporal constraint.
+     */
+    public void setCompiledConstraint( CompiledConstraint compiledConstraint )
+    {
+        this.compiledConstraint = compiledConstraint;
+    }
 }
@@ -92,9 +92,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         User retUser;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_ADD );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_ADD );
         if ( response.getErrorCode() == 0 )
         {
             retUser = ( User ) response.getEntity();
@@ -117,9 +115,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( user, GlobalErrIds.USER_NULL, CLS_NM + ".disableUser" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_DISABLE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_DISABLE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -137,9 +133,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( user, GlobalErrIds.USER_NULL, CLS_NM + ".deleteUser" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_DELETE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_DELETE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -158,9 +152,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         User retUser;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retUser = ( User ) response.getEntity();
@@ -185,9 +177,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         user.setNewPassword( newPassword );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_CHGPW );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_CHGPW );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -205,9 +195,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( user, GlobalErrIds.USER_NULL, CLS_NM + ".lockUserAccount" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_LOCK );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_LOCK );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -225,9 +213,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( user, GlobalErrIds.USER_NULL, CLS_NM + ".unlockUserAccount" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_UNLOCK );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_UNLOCK );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -247,9 +233,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         user.setNewPassword( newPassword );
         request.setEntity( user );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_RESET );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_RESET );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -280,9 +264,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         Role retRole;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( role );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_ADD );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_ADD );
         if ( response.getErrorCode() == 0 )
         {
             retRole = ( Role ) response.getEntity();
@@ -305,9 +287,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( role, GlobalErrIds.ROLE_NULL, CLS_NM + ".deleteRole" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( role );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DELETE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DELETE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -326,9 +306,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         Role retRole;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( role );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retRole = ( Role ) response.getEntity();
@@ -351,9 +329,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( uRole, GlobalErrIds.URLE_NULL, CLS_NM + ".assignUser" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( uRole );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_ASGN );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_ASGN );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -371,9 +347,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( uRole, GlobalErrIds.URLE_NULL, CLS_NM + ".deassignUser" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( uRole );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DEASGN );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DEASGN );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -392,9 +366,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         Permission retPerm;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( perm );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_ADD );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_ADD );
         if ( response.getErrorCode() == 0 )
         {
             retPerm = ( Permission ) response.getEntity();
@@ -418,9 +390,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         Permission retPerm;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( perm );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retPerm = ( Permission ) response.getEntity();
@@ -443,9 +413,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( perm, GlobalErrIds.PERM_OPERATION_NULL, CLS_NM + ".deletePermission" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( perm );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_DELETE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_DELETE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -464,9 +432,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         PermObj retObj;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( pObj );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.OBJ_ADD );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.OBJ_ADD );
         if ( response.getErrorCode() == 0 )
         {
             retObj = ( PermObj ) response.getEntity();
@@ -490,9 +456,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         PermObj retObj;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( pObj );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.OBJ_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.OBJ_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retObj = ( PermObj ) response.getEntity();
@@ -515,9 +479,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( pObj, GlobalErrIds.PERM_OBJECT_NULL, CLS_NM + ".deletePermObj" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( pObj );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.OBJ_DELETE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.OBJ_DELETE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -542,9 +504,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         permGrant.setOpName( perm.getOpName() );
         permGrant.setRoleNm( role.getName() );
         request.setEntity( permGrant );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_GRANT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_GRANT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -569,9 +529,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         permGrant.setOpName( perm.getOpName() );
         permGrant.setRoleNm( role.getName() );
         request.setEntity( permGrant );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_REVOKE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_REVOKE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -596,9 +554,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         permGrant.setOpName( perm.getOpName() );
         permGrant.setUserId( user.getUserId() );
         request.setEntity( permGrant );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_GRANT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_GRANT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -623,9 +579,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         permGrant.setOpName( perm.getOpName() );
         permGrant.setUserId( user.getUserId() );
         request.setEntity( permGrant );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.USER_REVOKE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.USER_REVOKE );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -647,9 +601,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         relationship.setParent( parentRole );
         relationship.setChild( childRole );
         request.setEntity( relationship );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DESC );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DESC );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -671,9 +623,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         relationship.setParent( parentRole );
         relationship.setChild( childRole );
         request.setEntity( relationship );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_ASC );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_ASC );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -695,9 +645,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         relationship.setParent( parentRole );
         relationship.setChild( childRole );
         request.setEntity( relationship );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_ADDINHERIT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_ADDINHERIT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -719,9 +667,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         relationship.setParent( parentRole );
         relationship.setChild( childRole );
         request.setEntity( relationship );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DELINHERIT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DELINHERIT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -740,9 +686,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         SDSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( ssdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.SSD_ADD );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.SSD_ADD );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -765,9 +709,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         SDSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( ssdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.SSD_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.SSD_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -793,9 +735,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( ssdSet );
         request.setValue( role.getName() );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.SSD_ADD_MEMBER );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.SSD_ADD_MEMBER );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -821,9 +761,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( ssdSet );
         request.setValue( role.getName() );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.SSD_DEL_MEMBER );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.SSD_DEL_MEMBER );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -847,9 +785,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         SDSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( ssdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.SSD_DELETE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.SSD_DELETE );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -874,9 +810,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         ssdSet.setCardinality( cardinality );
         request.setEntity( ssdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.SSD_CARD_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.SSD_CARD_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -900,9 +834,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         SDSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( dsdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.DSD_ADD );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.DSD_ADD );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -925,9 +857,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         SDSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( dsdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.DSD_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.DSD_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -953,9 +883,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( dsdSet );
         request.setValue( role.getName() );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.DSD_ADD_MEMBER );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.DSD_ADD_MEMBER );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -981,9 +909,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( dsdSet );
         request.setValue( role.getName() );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.DSD_DEL_MEMBER );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.DSD_DEL_MEMBER );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -1007,9 +933,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         SDSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( dsdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.DSD_DELETE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.DSD_DELETE );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -1034,9 +958,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         dsdSet.setCardinality( cardinality );
         request.setEntity( dsdSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.DSD_CARD_UPDATE );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.DSD_CARD_UPDATE );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( SDSet ) response.getEntity();
@@ -1062,9 +984,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( uRole );
         request.setEntity2( roleConstraint );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_ADD_CONSTRAINT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_ADD_CONSTRAINT );
         if ( response.getErrorCode() == 0 )
         {
             retCnst = ( RoleConstraint ) response.getEntity();
@@ -1088,9 +1008,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( uRole );
         request.setEntity2( roleConstraint );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DELETE_CONSTRAINT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DELETE_CONSTRAINT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -1109,9 +1027,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         PermissionAttributeSet retSet;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( permAttributeSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_ADD_ATTRIBUTE_SET );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_ADD_ATTRIBUTE_SET );
         if ( response.getErrorCode() == 0 )
         {
             retSet = ( PermissionAttributeSet ) response.getEntity();
@@ -1134,9 +1050,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         VUtil.assertNotNull( permAttributeSet, GlobalErrIds.PERM_ATTRIBUTE_SET_NULL, CLS_NM + ".deletePermissionAttributeSet" );
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( permAttributeSet );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_DELETE_ATTRIBUTE_SET );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_DELETE_ATTRIBUTE_SET );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -1157,9 +1071,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( permAttribute );
         request.setValue( attributeSetName );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_ADD_PERM_ATTRIBUTE_TO_SET );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_ADD_PERM_ATTRIBUTE_TO_SET );
         if ( response.getErrorCode() == 0 )
         {
             retAttr = ( PermissionAttribute ) response.getEntity();
@@ -1184,9 +1096,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( permAttribute );
         request.setValue( attributeSetName );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_DELETE_PERM_ATTRIBUTE_TO_SET );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_DELETE_PERM_ATTRIBUTE_TO_SET );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -1208,9 +1118,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         request.setEntity( permAttribute );
         request.setValue( attributeSetName );
         request.setIsFlag( replaceValidValues );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.PERM_UPDATE_PERM_ATTRIBUTE_IN_SET );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.PERM_UPDATE_PERM_ATTRIBUTE_IN_SET );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -1230,9 +1138,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( uRole );
         request.setValue( roleConstraintId );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DELETE_CONSTRAINT_ID );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DELETE_CONSTRAINT_ID );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -1252,9 +1158,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( role );
         request.setEntity2( roleConstraint );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_ENABLE_CONSTRAINT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_ENABLE_CONSTRAINT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -1274,9 +1178,7 @@ public final class AdminMgrRestImpl extends Manageable implements AdminMgr
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity( role );
         request.setEntity2( roleConstraint );
-        String szRequest = RestUtils.marshal( request );
-        String szResponse = RestUtils.getInstance().post( szRequest, HttpIds.ROLE_DISABLE_CONSTRAINT );
-        FortResponse response = RestUtils.unmarshall( szResponse );
+        FortResponse response = RestUtils.getInstance().post( request, HttpIds.ROLE_DISABLE_CONSTRAINT );
         if ( response.getErrorCode() != 0 )
         {
             throw new SecurityException( response.getErrorCode(), response.getErrorMessage() );
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.apache.directory.fortress.core.AuditMgr;
 import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.impl.Manageable;
 import org.apache.directory.fortress.core.model.AuthZ;
@@ -121,9 +122,7 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(uAudit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.AUDIT_UAUTHZS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.AUDIT_UAUTHZS);
         if (response.getErrorCode() == 0)
         {
             outRecords = response.getEntities();
@@ -153,9 +152,7 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(uAudit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.AUDIT_AUTHZS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.AUDIT_AUTHZS);
         if (response.getErrorCode() == 0)
         {
             outRecords = response.getEntities();
@@ -172,6 +169,16 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         return outRecords;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultCursor<AuthZ> searchAuthZsPaged(UserAudit uAudit)
+        throws SecurityException
+    {
+        return new ListResultCursor<>( searchAuthZs( uAudit ) );
+    }
+
 
     /**
      * {@inheritDoc}
@@ -185,9 +192,7 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(uAudit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.AUDIT_BINDS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.AUDIT_BINDS);
         if (response.getErrorCode() == 0)
         {
             outRecords = response.getEntities();
@@ -204,6 +209,16 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         return outRecords;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultCursor<Bind> searchBindsPaged(UserAudit uAudit)
+        throws SecurityException
+    {
+        return new ListResultCursor<>( searchBinds( uAudit ) );
+    }
+
 
     /**
      * {@inheritDoc}
@@ -217,9 +232,7 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(uAudit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.AUDIT_SESSIONS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.AUDIT_SESSIONS);
         if (response.getErrorCode() == 0)
         {
             outRecords = response.getEntities();
@@ -236,6 +249,16 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         return outRecords;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultCursor<Mod> searchUserSessionsPaged(UserAudit uAudit)
+        throws SecurityException
+    {
+        return new ListResultCursor<>( searchUserSessions( uAudit ) );
+    }
+
 
     /**
      * {@inheritDoc}
@@ -249,9 +272,7 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(uAudit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.AUDIT_MODS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.AUDIT_MODS);
         if (response.getErrorCode() == 0)
         {
             outRecords = response.getEntities();
@@ -281,9 +302,7 @@ public class AuditMgrRestImpl extends Manageable implements AuditMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(uAudit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.AUDIT_INVLD);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.AUDIT_INVLD);
         if (response.getErrorCode() == 0)
         {
             outRecords = response.getEntities();
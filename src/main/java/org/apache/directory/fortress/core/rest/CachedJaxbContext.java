@@ -19,7 +19,10 @@
  */
 package org.apache.directory.fortress.core.rest;
 
-import java.util.Hashtable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -31,6 +34,10 @@ import javax.xml.bind.Unmarshaller;
  * processing.
  * The intent is to reduce the performance penalty for calling JAXBContext.newInstance( class );
  * <p>
+ * Lookups of a context that has already been created don't lock.  Marshallers and unmarshallers aren't thread safe
+ * but are cheap to reuse, so one of each per type is kept for every thread, see {@link #getMarshaller(Class)} and
+ * {@link #getUnmarshaller(Class)}.
+ * <p>
  * This class is thread safe.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
@@ -39,7 +46,26 @@ import javax.xml.bind.Unmarshaller;
 public class CachedJaxbContext
 {
 
-    private static volatile Hashtable<Class, JAXBCachedEntry> jaxbInstanceCache = new Hashtable();
+    private static final ConcurrentMap<Class, JAXBCachedEntry> jaxbInstanceCache = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<Class, Marshaller>> marshallers = new ThreadLocal<Map<Class, Marshaller>>()
+    {
+        @Override
+        protected Map<Class, Marshaller> initialValue()
+        {
+            return new HashMap<>();
+        }
+    };
+
+    private static final ThreadLocal<Map<Class, Unmarshaller>> unmarshallers =
+        new ThreadLocal<Map<Class, Unmarshaller>>()
+    {
+        @Override
+        protected Map<Class, Unmarshaller> initialValue()
+        {
+            return new HashMap<>();
+        }
+    };
 
     /**
      * Once constructed this object can be stored as static member of class that performs JAX XML processing.
@@ -48,15 +74,18 @@ public class CachedJaxbContext
      * @return handle to JAXBContext to be used to marshall or unmarshall XML data.
      * @throws JAXBException in the event the JAXBContext cannot be obtained.
      */
-    public synchronized JAXBContext getJaxbContext( Class type ) throws JAXBException
+    public JAXBContext getJaxbContext( Class type ) throws JAXBException
     {
-
         JAXBCachedEntry cache = jaxbInstanceCache.get( type );
         if ( cache == null )
         {
-            cache = new JAXBCachedEntry( type );
-            jaxbInstanceCache.put( type, cache );
-            return cache.getContext();
+            // Two threads may both create the context the first time, only one is kept:
+            JAXBCachedEntry newCache = new JAXBCachedEntry( type );
+            cache = jaxbInstanceCache.putIfAbsent( type, newCache );
+            if ( cache == null )
+            {
+                cache = newCache;
+            }
         }
         return cache.getContext();
     }
@@ -87,4 +116,46 @@ public class CachedJaxbContext
         JAXBContext context = getJaxbContext( type );
         return context.createMarshaller();
     }
+
+
+    /**
+     * Return the calling thread's marshaller for a particular data type, creating it on first use.  It must not be
+     * passed to another thread.
+     *
+     * @param type contains the class name associated with a particular data type.
+     * @return handle to JAXB marshaller.
+     * @throws JAXBException in the event the marshaller cannot be created.
+     */
+    public Marshaller getMarshaller( Class type ) throws JAXBException
+    {
+        Map<Class, Marshaller> map = marshallers.get();
+        Marshaller marshaller = map.get( type );
+        if ( marshaller == null )
+        {
+            marshaller = createMarshaller( type );
+            map.put( type, marshaller );
+        }
+        return marshaller;
+    }
+
+
+    /**
+     * Return the calling thread's unmarshaller for a particular data type, creating it on first use.  It must not be
+     * passed to another thread.
+     *
+     * @param type contains the class name associated with a particular data type.
+     * @return handle to JAXB unmarshaller.
+     * @throws JAXBException in the event the unmarshaller cannot be created.
+     */
+    public Unmarshaller getUnmarshaller( Class type ) throws JAXBException
+    {
+        Map<Class, Unmarshaller> map = unmarshallers.get();
+        Unmarshaller unmarshaller = map.get( type );
+        if ( unmarshaller == null )
+        {
+            unmarshaller = createUnMarshaller( type );
+            map.put( type, unmarshaller );
+        }
+        return unmarshaller;
+    }
 }
@@ -19,6 +19,7 @@
  */
 package org.apache.directory.fortress.core.rest;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -80,9 +81,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         UserRole uRole = new UserRole(user.getUserId(), role.getName());
         request.setSession(session);
         request.setEntity(uRole);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_ASSIGN);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_ASSIGN);
         if (response.getErrorCode() == 0)
         {
             result = response.getAuthorized();
@@ -114,9 +113,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         UserRole uRole = new UserRole(user.getUserId(), role.getName());
         request.setSession(session);
         request.setEntity(uRole);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_DEASSIGN);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_DEASSIGN);
         if (response.getErrorCode() == 0)
         {
             result = response.getAuthorized();
@@ -150,9 +147,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         context.setRole(role);
         request.setSession(session);
         request.setEntity(context);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_GRANT);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_GRANT);
         if (response.getErrorCode() == 0)
         {
             result = response.getAuthorized();
@@ -186,9 +181,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         context.setRole(role);
         request.setSession(session);
         request.setEntity(context);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_REVOKE);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_REVOKE);
         if (response.getErrorCode() == 0)
         {
             result = response.getAuthorized();
@@ -220,9 +213,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         request.setContextId(this.contextId);
         request.setSession(session);
         request.setEntity(perm);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_AUTHZ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_AUTHZ);
         if (response.getErrorCode() == 0)
         {
             result = response.getAuthorized();
@@ -237,6 +228,43 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Boolean> checkAccess(Session session, List<Permission> perms)
+        throws SecurityException
+    {
+        String methodName = CLS_NM + ".checkAccess";
+        VUtil.assertNotNull(perms, GlobalErrIds.PERM_NULL, methodName);
+        VUtil.assertNotNull(session, GlobalErrIds.USER_SESS_NULL, methodName);
+        List<Boolean> results = new ArrayList<>();
+        FortRequest request = new FortRequest();
+        request.setContextId(this.contextId);
+        request.setSession(session);
+        request.setEntities(perms);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_AUTHZ_LIST);
+        if (response.getErrorCode() == 0)
+        {
+            // The decisions are returned as values, in the same order as the permissions:
+            if (response.getValues() != null)
+            {
+                for (String value : response.getValues())
+                {
+                    results.add(Boolean.valueOf(value));
+                }
+            }
+            Session outSession = response.getSession();
+            session.copy(outSession);
+        }
+        else
+        {
+            throw new SecurityException(response.getErrorCode(), response.getErrorMessage());
+        }
+        return results;
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -251,9 +279,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         request.setContextId(this.contextId);
         request.setSession(session);
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_ADD);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_ADD);
         if (response.getErrorCode() == 0)
         {
             Session outSession = response.getSession();
@@ -280,9 +306,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         request.setContextId(this.contextId);
         request.setSession(session);
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_DROP);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_DROP);
         if (response.getErrorCode() == 0)
         {
             Session outSession = response.getSession();
@@ -307,9 +331,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setSession(session);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_ROLES);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_ROLES);
         if (response.getErrorCode() == 0)
         {
             roles = response.getEntities();
@@ -336,9 +358,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setSession(session);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_AUTHZ_ROLES);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_AUTHZ_ROLES);
         if (response.getErrorCode() == 0)
         {
             Set<String> tempNames = response.getValueSet();
@@ -367,9 +387,7 @@ public class DelAccessMgrRestImpl extends AccessMgrRestImpl implements DelAccess
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setSession(session);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ADMIN_PERMS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ADMIN_PERMS);
         if (response.getErrorCode() == 0)
         {
             retPerms = response.getEntities();
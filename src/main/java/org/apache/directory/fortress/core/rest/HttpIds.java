@@ -32,6 +32,9 @@ public class HttpIds
     public static final String RBAC_CHECK_ROLE = "rbacCheckRole";
     public static final String RBAC_CREATE_TRUSTED = "rbacCreateT";
     public static final String RBAC_AUTHZ = "rbacAuthZ";
+    public static final String RBAC_AUTHZ_LIST = "rbacAuthZList";
+    public static final String RBAC_AUTHZ_ID = "rbacAuthZId";
+    public static final String RBAC_DELETE_SESSION = "rbacDeleteSess";
     public static final String RBAC_PERMS = "rbacPerms";
     public static final String RBAC_ROLES = "rbacRoles";
     public static final String RBAC_AUTHZ_ROLES = "rbacAuthzRoles";
@@ -134,6 +137,7 @@ public class HttpIds
     public static final String DSD_DEL_MEMBER = "dsdDelMember";
     public static final String DSD_CARD_UPDATE = "dsdCardUpdate";
     public static final String ADMIN_AUTHZ = "adminAuthZ";
+    public static final String ADMIN_AUTHZ_LIST = "adminAuthZList";
     public static final String ADMIN_ROLES = "adminRoles";
     public static final String ADMIN_PERMS = "adminPerms";
     public static final String ADMIN_AUTHZ_ROLES = "adminAuthzRoles";
@@ -0,0 +1,171 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.rest;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Exposes the state of the http connection pool used by {@link RestUtils}, registered on the platform MBean server
+ * as 'org.apache.directory.fortress:type=HttpConnectionPool,name=rest'.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class HttpPoolMetrics implements HttpPoolMetricsMBean
+{
+    private static final String CLS_NM = HttpPoolMetrics.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final String OBJECT_NAME = "org.apache.directory.fortress:type=HttpConnectionPool,name=rest";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+
+    HttpPoolMetrics( PoolingHttpClientConnectionManager connectionManager )
+    {
+        this.connectionManager = connectionManager;
+    }
+
+
+    void incrementRequests()
+    {
+        requests.incrementAndGet();
+    }
+
+
+    void incrementErrors()
+    {
+        errors.incrementAndGet();
+    }
+
+
+    @Override
+    public int getLeased()
+    {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+
+    @Override
+    public int getAvailable()
+    {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+
+    @Override
+    public int getPending()
+    {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+
+    @Override
+    public int getMax()
+    {
+        return connectionManager.getMaxTotal();
+    }
+
+
+    @Override
+    public int getMaxPerRoute()
+    {
+        return connectionManager.getDefaultMaxPerRoute();
+    }
+
+
+    @Override
+    public long getRequests()
+    {
+        return requests.get();
+    }
+
+
+    @Override
+    public long getErrors()
+    {
+        return errors.get();
+    }
+
+
+    @Override
+    public String toString()
+    {
+        PoolStats stats = connectionManager.getTotalStats();
+        return "HttpPoolMetrics leased=" + stats.getLeased() + ", available=" + stats.getAvailable() + ", pending="
+            + stats.getPending() + ", max=" + stats.getMax() + ", requests=" + requests.get() + ", errors="
+            + errors.get();
+    }
+
+
+    /**
+     * Register these metrics on the platform MBean server.
+     */
+    void registerMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName( OBJECT_NAME );
+            if ( !server.isRegistered( name ) )
+            {
+                server.registerMBean( this, name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "registerMBean caught Exception={}", e.toString() );
+        }
+    }
+
+
+    /**
+     * Remove these metrics from the platform MBean server.
+     */
+    void unregisterMBean()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName( OBJECT_NAME );
+            if ( server.isRegistered( name ) )
+            {
+                server.unregisterMBean( name );
+            }
+        }
+        catch ( Exception e )
+        {
+            LOG.warn( "unregisterMBean caught Exception={}", e.toString() );
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.rest;
+
+
+/**
+ * Management interface of {@link HttpPoolMetrics}, the connection pool shared by {@link RestUtils}.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface HttpPoolMetricsMBean
+{
+    /**
+     * @return number of connections currently leased to a request.
+     */
+    int getLeased();
+
+
+    /**
+     * @return number of idle, kept alive connections ready for reuse.
+     */
+    int getAvailable();
+
+
+    /**
+     * @return number of requests waiting for a connection.
+     */
+    int getPending();
+
+
+    /**
+     * @return configured maximum number of connections, across all routes.
+     */
+    int getMax();
+
+
+    /**
+     * @return configured maximum number of connections per route.
+     */
+    int getMaxPerRoute();
+
+
+    /**
+     * @return number of requests sent since startup.
+     */
+    long getRequests();
+
+
+    /**
+     * @return number of requests that failed with an i/o error, including timeouts waiting for a connection.
+     */
+    long getErrors();
+}
@@ -0,0 +1,186 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.rest;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlTransient;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdDelegatingSerializer;
+import com.fasterxml.jackson.databind.util.StdConverter;
+
+
+/**
+ * Reads and writes the Fortress Rest messages as JSON, used in place of XML when 'http.content.type=json'.  Entities
+ * are mapped the same way JAXB maps them, by field, skipping those marked {@link XmlTransient}, and carry their class
+ * name in the 'fqcn' property per {@link org.apache.directory.fortress.core.model.FortEntity}.  Null fields are left
+ * out.  An entity's JAXB beforeMarshal callback is called first, so lazily read attributes are loaded as they are for
+ * XML.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class JsonCodec
+{
+    private static final ObjectMapper MAPPER = newMapper();
+
+
+    private JsonCodec()
+    {
+    }
+
+
+    private static ObjectMapper newMapper()
+    {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setAnnotationIntrospector( new JacksonAnnotationIntrospector()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean hasIgnoreMarker( AnnotatedMember member )
+            {
+                return member.hasAnnotation( XmlTransient.class ) || super.hasIgnoreMarker( member );
+            }
+        } );
+        mapper.registerModule( new SimpleModule().setSerializerModifier( new BeforeMarshalModifier() ) );
+        mapper.setVisibility( PropertyAccessor.ALL, Visibility.NONE );
+        mapper.setVisibility( PropertyAccessor.FIELD, Visibility.ANY );
+        mapper.setSerializationInclusion( JsonInclude.Include.NON_NULL );
+        mapper.configure( DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false );
+        // the http client owns the streams:
+        mapper.configure( JsonGenerator.Feature.AUTO_CLOSE_TARGET, false );
+        mapper.configure( JsonParser.Feature.AUTO_CLOSE_SOURCE, false );
+        return mapper;
+    }
+
+
+    /**
+     * Write the message as JSON.
+     *
+     * @param message a FortRequest or FortResponse.
+     * @param out receives UTF-8 encoded JSON, left open.
+     * @throws IOException in the event the message can't be written.
+     */
+    static void write( Object message, OutputStream out ) throws IOException
+    {
+        MAPPER.writeValue( out, message );
+    }
+
+
+    /**
+     * Read a message from JSON.
+     *
+     * @param in contains UTF-8 encoded JSON, left open.
+     * @param type of message, FortRequest or FortResponse.
+     * @param <T> type of message.
+     * @return the message.
+     * @throws IOException in the event the JSON is malformed or can't be read.
+     */
+    static <T> T read( InputStream in, Class<T> type ) throws IOException
+    {
+        return MAPPER.readValue( in, type );
+    }
+
+
+    /**
+     * Wraps the serializer of a class that has a JAXB beforeMarshal callback with one that calls it first.
+     */
+    private static final class BeforeMarshalModifier extends BeanSerializerModifier
+    {
+        private static final long serialVersionUID = 1L;
+
+
+        @Override
+        public JsonSerializer<?> modifySerializer( SerializationConfig config, BeanDescription beanDesc,
+            JsonSerializer<?> serializer )
+        {
+            final Method beforeMarshal = getBeforeMarshal( beanDesc.getBeanClass() );
+            if ( beforeMarshal == null )
+            {
+                return serializer;
+            }
+            return new StdDelegatingSerializer( new StdConverter<Object, Object>()
+            {
+                @Override
+                public Object convert( Object value )
+                {
+                    try
+                    {
+                        beforeMarshal.invoke( value, ( Object ) null );
+                    }
+                    catch ( InvocationTargetException e )
+                    {
+                        if ( e.getCause() instanceof RuntimeException )
+                        {
+                            throw ( RuntimeException ) e.getCause();
+                        }
+                        throw new IllegalStateException( e.getCause() );
+                    }
+                    catch ( IllegalAccessException e )
+                    {
+                        throw new IllegalStateException( e );
+                    }
+                    return value;
+                }
+            }, beanDesc.getType(), serializer );
+        }
+
+
+        private static Method getBeforeMarshal( Class<?> type )
+        {
+            for ( Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+            {
+                try
+                {
+                    Method method = cls.getDeclaredMethod( "beforeMarshal", Marshaller.class );
+                    method.setAccessible( true );
+                    return method;
+                }
+                catch ( NoSuchMethodException e )
+                {
+                    // try the super class
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.rest;
+
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.directory.fortress.core.ResultCursor;
+
+
+/**
+ * Cursor over a list that has already been returned in full.  The REST service has no paged searches, so the REST
+ * managers return their results this way.
+ *
+ * @param <T> type of entity.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class ListResultCursor<T> implements ResultCursor<T>
+{
+    private Iterator<T> iterator;
+    private T current;
+
+
+    ListResultCursor( List<T> list )
+    {
+        this.iterator = list.iterator();
+    }
+
+
+    @Override
+    public boolean next()
+    {
+        current = null;
+        if ( iterator != null && iterator.hasNext() )
+        {
+            current = iterator.next();
+            return true;
+        }
+        return false;
+    }
+
+
+    @Override
+    public T get()
+    {
+        return current;
+    }
+
+
+    @Override
+    public void close()
+    {
+        iterator = null;
+        current = null;
+    }
+}
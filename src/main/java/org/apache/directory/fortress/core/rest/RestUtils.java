@@ -20,16 +20,20 @@
 package org.apache.directory.fortress.core.rest;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
@@ -46,27 +50,57 @@ import org.apache.directory.fortress.core.model.Props;
 import org.apache.directory.fortress.core.util.Config;
 import org.apache.directory.fortress.core.util.EncryptUtil;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
 import static org.apache.directory.fortress.core.GlobalIds.*;
 
 
 /**
  * This utility class provides methods that wrap Apache's HTTP Client APIs.  This class is thread safe.
+ * <p>
+ * All requests go through one client whose connections are pooled and kept alive between calls.  The pool size, keep
+ * alive, idle eviction and timeouts are set by the 'http.pool.*', 'http.keep.alive.millis',
+ * 'http.connect.timeout.millis' and 'http.socket.timeout.millis' properties.  Credentials are passed per request,
+ * preemptively, so the service account and per-call user ids share the same connections.
+ * <p>
+ * {@link #post(FortRequest, String)} writes the request straight into the HTTP entity and reads the response from the
+ * entity's stream, using marshallers that are reused by each thread.  The request is sent as XML, or as JSON when
+ * 'http.content.type=json', and the response is read in whichever of the two formats the server returns.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
@@ -81,6 +115,9 @@ public final class RestUtils
     private static final int HTTP_404_NOT_FOUND = 404;
     private static final int HTTP_500_INTERNAL_SERVER_ERROR = 500;
     private static final String VALID_RESPONSE = "FortResponse";
+    private static final String JSON = "json";
+    private static final ContentType APPLICATION_XML = ContentType.create( "application/xml", "UTF-8" );
+    private static final ContentType APPLICATION_JSON = ContentType.create( "application/json", "UTF-8" );
     private static CachedJaxbContext cachedJaxbContext = new CachedJaxbContext();
 
     // static member contains this
@@ -95,6 +132,13 @@ public final class RestUtils
 
     // These members contain the http coordinates to a running fortress-rest instance:
     private String httpUid, httpPw, httpHost, httpPort, httpProtocol, fortressRestVersion, serviceName, uri;
+    private HttpHost target;
+    private boolean isJson;
+
+    // Shared by all requests:
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private HttpPoolMetrics metrics;
 
     /**
      * create a new request and set its tenant id.
@@ -143,7 +187,85 @@ public final class RestUtils
             System.setProperty( "javax.net.ssl.trustStore", trustStore );
             System.setProperty( "javax.net.ssl.trustStorePassword", trustStorePw );
         }
-        //System.setProperty( "http.maxConnections", "50" );
+        target = new HttpHost( httpHost, Integer.parseInt( httpPort ), httpProtocol );
+        isJson = JSON.equalsIgnoreCase( Config.getInstance().getProperty( HTTP_CONTENT_TYPE, "xml" ) );
+        initHttpClient();
+    }
+
+
+    /**
+     * Build the pooled client.  The ssl socket factory is created after the trust store system properties are set.
+     */
+    private void initHttpClient()
+    {
+        Config cfg = Config.getInstance();
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register( "http", PlainConnectionSocketFactory.getSocketFactory() )
+            .register( "https", SSLConnectionSocketFactory.getSystemSocketFactory() )
+            .build();
+        connectionManager = new PoolingHttpClientConnectionManager( registry );
+        connectionManager.setMaxTotal( cfg.getInt( HTTP_POOL_MAX_TOTAL, 50 ) );
+        connectionManager.setDefaultMaxPerRoute( cfg.getInt( HTTP_POOL_MAX_PER_ROUTE, 20 ) );
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout( cfg.getInt( HTTP_CONNECT_TIMEOUT_MILLIS, 5000 ) )
+            .setSocketTimeout( cfg.getInt( HTTP_SOCKET_TIMEOUT_MILLIS, 30000 ) )
+            .setConnectionRequestTimeout( cfg.getInt( HTTP_POOL_MAX_WAIT_MILLIS, 5000 ) )
+            .build();
+        final long keepAlive = cfg.getInt( HTTP_KEEP_ALIVE_MILLIS, 30000 );
+        ConnectionKeepAliveStrategy keepAliveStrategy = new ConnectionKeepAliveStrategy()
+        {
+            @Override
+            public long getKeepAliveDuration( HttpResponse response, HttpContext context )
+            {
+                // Honor the server's Keep-Alive header, otherwise fall back to the configured value:
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration( response, context );
+                return duration > 0 ? duration : keepAlive;
+            }
+        };
+        httpClient = HttpClients.custom()
+            .useSystemProperties()
+            .setConnectionManager( connectionManager )
+            .setDefaultRequestConfig( requestConfig )
+            .setKeepAliveStrategy( keepAliveStrategy )
+            .evictExpiredConnections()
+            .evictIdleConnections( ( long ) cfg.getInt( HTTP_POOL_IDLE_MILLIS, 60000 ), TimeUnit.MILLISECONDS )
+            .build();
+        metrics = new HttpPoolMetrics( connectionManager );
+        if ( !cfg.getBoolean( DISABLE_HTTP_POOL_METRICS, false ) )
+        {
+            metrics.registerMBean();
+        }
+        LOG.info( "HTTP Pool Properties: maxTotal:{}, maxPerRoute:{}, keepAlive:{}", connectionManager.getMaxTotal(),
+            connectionManager.getDefaultMaxPerRoute(), keepAlive );
+    }
+
+
+    /**
+     * Return the metrics of the connection pool, e.g. leased and available connections.
+     *
+     * @return metrics of the shared connection pool.
+     */
+    public HttpPoolMetrics getPoolMetrics()
+    {
+        return metrics;
+    }
+
+
+    /**
+     * Close the pooled connections and release the eviction thread.  Called once during shutdown, the instance
+     * can't be used afterwards.
+     */
+    public static void close()
+    {
+        synchronized ( RestUtils.class )
+        {
+            if ( sINSTANCE != null )
+            {
+                sINSTANCE.metrics.unregisterMBean();
+                IOUtils.closeQuietly( sINSTANCE.httpClient );
+                sINSTANCE = null;
+            }
+        }
     }
 
     private RestUtils(){
@@ -162,13 +284,8 @@ public final class RestUtils
         String szRetValue;
         try
         {
-            // Create a JAXB context passing in the class of the object we want to marshal/unmarshal
-            final JAXBContext context = cachedJaxbContext.getJaxbContext( FortRequest.class );
-            // =============================================================================================================
-            // Marshalling OBJECT to XML
-            // =============================================================================================================
-            // Create the marshaller, that will transform the object into XML
-            final Marshaller marshaller = context.createMarshaller();
+            // The calling thread's marshaller, that will transform the object into XML
+            final Marshaller marshaller = cachedJaxbContext.getMarshaller( FortRequest.class );
             // Create a stringWriter to hold the XML
             final StringWriter stringWriter = new StringWriter();
             // Marshal the javaObject and write the XML to the stringWriter
@@ -196,11 +313,8 @@ public final class RestUtils
         FortResponse response;
         try
         {
-            // Create a JAXB context passing in the class of the object we want to marshal/unmarshal
-            final JAXBContext context = cachedJaxbContext.getJaxbContext( FortResponse.class );
-
-            // Create the unmarshaller, that will transform the XML back into an object
-            final Unmarshaller unmarshaller = context.createUnmarshaller();
+            // The calling thread's unmarshaller, that will transform the XML back into an object
+            final Unmarshaller unmarshaller = cachedJaxbContext.getUnmarshaller( FortResponse.class );
             response = ( FortResponse ) unmarshaller.unmarshal( new StringReader( szResponse ) );
         }
         catch ( JAXBException je )
@@ -244,8 +358,7 @@ public final class RestUtils
         {
             get = new HttpGet(url);
             setMethodHeaders( get );
-            szResponse = handleHttpMethod( get ,HttpClientBuilder.create().useSystemProperties()
-                .setDefaultCredentialsProvider(getCredentialProvider(userId, password)).build() );
+            szResponse = handleHttpMethod( get, httpClient, getContext( userId, password ), metrics );
         }
         catch ( WebApplicationException we )
         {
@@ -259,12 +372,6 @@ public final class RestUtils
             LOG.error( error, e );
             throw new RestException( GlobalErrIds.REST_UNKNOWN_ERR, error);
         }
-        finally
-        {
-            // Release current connection to the connection pool.
-            if ( get != null )
-                get.releaseConnection();
-        }
 
         return szResponse;
     }
@@ -300,6 +407,7 @@ public final class RestUtils
     {
         LOG.debug( "post uri=[{}], function=[{}], request=[{}]", uri, function, szInput );
         String szResponse = null;
+        CloseableHttpResponse response = null;
         HttpPost post = new HttpPost( uri + function);
         post.addHeader( "Accept", "text/xml" );
         setMethodHeaders( post );
@@ -307,9 +415,8 @@ public final class RestUtils
         {
             HttpEntity entity = new StringEntity( szInput, ContentType.TEXT_XML );
             post.setEntity( entity );
-            org.apache.http.client.HttpClient httpclient = HttpClientBuilder.create().useSystemProperties()
-                .setDefaultCredentialsProvider(getCredentialProvider(userId, password)).build();
-            HttpResponse response = httpclient.execute( post );
+            metrics.incrementRequests();
+            response = httpClient.execute( post, getContext( userId, password ) );
             String error;
 
             switch ( response.getStatusLine().getStatusCode() )
@@ -385,6 +492,7 @@ public final class RestUtils
         }
         catch ( IOException ioe )
         {
+            metrics.incrementErrors();
             String error = generateErrorMessage( uri, function, "caught IOException=" + ioe.getMessage() );
             LOG.error( error, ioe );
             throw new RestException( GlobalErrIds.REST_IO_ERR, error, ioe );
@@ -404,11 +512,225 @@ public final class RestUtils
         finally
         {
             // Release current connection to the connection pool.
-            post.releaseConnection();
+            release( response );
         }
         return szResponse;
     }
 
+
+    /**
+     * Perform an HTTP Post REST operation without converting the request or response to a String.  The request is
+     * written to the connection as the entity is sent and the response is read from the connection.
+     *
+     * @param userId of caller, null for the service account.
+     * @param password of caller, null for the service account.
+     * @param request contains the arguments of the function.
+     * @param function name of the rest service, see {@link HttpIds}.
+     * @return FortResponse returned by the server, may contain an error code.
+     * @throws RestException in the event of http error or the response is not a FortResponse.
+     */
+    public FortResponse post( String userId, String password, FortRequest request, String function )
+        throws RestException
+    {
+        LOG.debug( "post uri=[{}], function=[{}]", uri, function );
+        FortResponse fortResponse;
+        CloseableHttpResponse response = null;
+        HttpPost post = new HttpPost( uri + function );
+        post.addHeader( "Accept", isJson ? "application/json, application/xml;q=0.9" : "application/xml" );
+        try
+        {
+            post.setEntity( new FortRequestEntity( request, isJson ) );
+            metrics.incrementRequests();
+            response = httpClient.execute( post, getContext( userId, password ) );
+            int status = response.getStatusLine().getStatusCode();
+            String error;
+            switch ( status )
+            {
+                case HTTP_OK :
+                case HTTP_400_VALIDATION_EXCEPTION :
+                case HTTP_404_NOT_FOUND :
+                case HTTP_500_INTERNAL_SERVER_ERROR :
+                    // Crack the response and see if it can be parsed as a valid Fortress Response object or generic HTTP:
+                    fortResponse = readResponse( response.getEntity() );
+                    if ( fortResponse == null )
+                    {
+                        error = generateErrorMessage( uri, function, status == HTTP_OK ? "invalid response" :
+                            "HTTP Error:" + status );
+                        LOG.error( error );
+                        throw new RestException( getErrorId( status ), error );
+                    }
+                    LOG.debug( "HTTP {}: post uri=[{}], function=[{}], errorCode=[{}]", status, uri, function,
+                        fortResponse.getErrorCode() );
+                    break;
+                case HTTP_401_UNAUTHORIZED :
+                    error = generateErrorMessage( uri, function, "401 function unauthorized on host" );
+                    LOG.error( error );
+                    throw new RestException( GlobalErrIds.REST_UNAUTHORIZED_ERR, error );
+                case HTTP_403_FORBIDDEN :
+                    error = generateErrorMessage( uri, function, "403 function forbidden on host" );
+                    LOG.error( error );
+                    throw new RestException( GlobalErrIds.REST_FORBIDDEN_ERR, error );
+                default :
+                    error = generateErrorMessage( uri, function, "error received from host: " + status );
+                    LOG.error( error );
+                    throw new RestException( GlobalErrIds.REST_UNKNOWN_ERR, error );
+            }
+        }
+        catch ( IOException ioe )
+        {
+            if ( ioe.getCause() instanceof JAXBException )
+            {
+                String error = "post caught JAXBException=" + ioe.getCause();
+                throw new RestException( GlobalErrIds.REST_MARSHALL_ERR, error, ( JAXBException ) ioe.getCause() );
+            }
+            metrics.incrementErrors();
+            String error = generateErrorMessage( uri, function, "caught IOException=" + ioe.getMessage() );
+            LOG.error( error, ioe );
+            throw new RestException( GlobalErrIds.REST_IO_ERR, error, ioe );
+        }
+        finally
+        {
+            // Release current connection to the connection pool.
+            release( response );
+        }
+        return fortResponse;
+    }
+
+
+    /**
+     * Perform an HTTP Post REST operation as the service account, see {@link #post(String, String, FortRequest, String)}.
+     *
+     * @param request contains the arguments of the function.
+     * @param function name of the rest service, see {@link HttpIds}.
+     * @return FortResponse returned by the server, may contain an error code.
+     * @throws RestException in the event of http error or the response is not a FortResponse.
+     */
+    public FortResponse post( FortRequest request, String function ) throws RestException
+    {
+        return post( null, null, request, function );
+    }
+
+
+    private static int getErrorId( int status )
+    {
+        int errorId;
+        switch ( status )
+        {
+            case HTTP_400_VALIDATION_EXCEPTION :
+                errorId = GlobalErrIds.REST_VALIDATION_ERR;
+                break;
+            case HTTP_500_INTERNAL_SERVER_ERROR :
+                errorId = GlobalErrIds.REST_INTERNAL_ERR;
+                break;
+            default :
+                errorId = GlobalErrIds.REST_NOT_FOUND_ERR;
+        }
+        return errorId;
+    }
+
+
+    /**
+     * Read the response entity in the format named by its content type.
+     *
+     * @param entity of the http response, may be null.
+     * @return FortResponse, or null if the entity is empty or isn't a FortResponse.
+     * @throws IOException in the event the connection fails while reading.
+     */
+    private static FortResponse readResponse( HttpEntity entity ) throws IOException
+    {
+        FortResponse fortResponse = null;
+        if ( entity != null )
+        {
+            ContentType contentType = ContentType.get( entity );
+            boolean isJsonResponse = contentType != null && contentType.getMimeType().contains( JSON );
+            try ( InputStream in = entity.getContent() )
+            {
+                if ( isJsonResponse )
+                {
+                    fortResponse = JsonCodec.read( in, FortResponse.class );
+                }
+                else
+                {
+                    Object value = cachedJaxbContext.getUnmarshaller( FortResponse.class ).unmarshal( in );
+                    if ( value instanceof FortResponse )
+                    {
+                        fortResponse = ( FortResponse ) value;
+                    }
+                }
+            }
+            catch ( JsonProcessingException | JAXBException e )
+            {
+                LOG.debug( "readResponse caught {}={}", e.getClass().getSimpleName(), e.getMessage() );
+            }
+        }
+        return fortResponse;
+    }
+
+
+    /**
+     * Writes the request to the connection as XML or JSON when the entity is sent.  May be sent more than once.
+     */
+    private static final class FortRequestEntity extends AbstractHttpEntity
+    {
+        private final FortRequest request;
+        private final boolean isJson;
+
+        private FortRequestEntity( FortRequest request, boolean isJson )
+        {
+            this.request = request;
+            this.isJson = isJson;
+            setContentType( ( isJson ? APPLICATION_JSON : APPLICATION_XML ).toString() );
+        }
+
+        @Override
+        public boolean isRepeatable()
+        {
+            return true;
+        }
+
+        @Override
+        public long getContentLength()
+        {
+            // unknown, sent chunked:
+            return -1;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeTo( out );
+            return new ByteArrayInputStream( out.toByteArray() );
+        }
+
+        @Override
+        public void writeTo( OutputStream out ) throws IOException
+        {
+            if ( isJson )
+            {
+                JsonCodec.write( request, out );
+            }
+            else
+            {
+                try
+                {
+                    cachedJaxbContext.getMarshaller( FortRequest.class ).marshal( request, out );
+                }
+                catch ( JAXBException je )
+                {
+                    throw new IOException( "writeTo caught JAXBException=" + je, je );
+                }
+            }
+        }
+
+        @Override
+        public boolean isStreaming()
+        {
+            return false;
+        }
+    }
+
+
     private String generateErrorMessage( String uri, String function, String messageToShow ) {
         return new StringBuilder().append( "post uri=[" ).append( uri) .append( "], function=[" )
                 .append( function ).append( "], " ).append( messageToShow ).toString();
@@ -435,6 +757,40 @@ public final class RestUtils
         return credentialsProvider;
     }
 
+
+    /**
+     * Create the per request context that carries the caller's credentials.  Basic auth is sent preemptively
+     * which saves the 401 challenge round trip on every call.
+     *
+     * @param uid of caller, null for the service account.
+     * @param password of caller, null for the service account.
+     * @return context to pass with the request.
+     */
+    private HttpClientContext getContext( String uid, String password )
+    {
+        AuthCache authCache = new BasicAuthCache();
+        authCache.put( target, new BasicScheme() );
+        HttpClientContext context = HttpClientContext.create();
+        context.setCredentialsProvider( getCredentialProvider( uid, password ) );
+        context.setAuthCache( authCache );
+        return context;
+    }
+
+
+    /**
+     * Drain what's left of the response so its connection goes back to the pool rather than being closed.
+     *
+     * @param response may be null.
+     */
+    private static void release( CloseableHttpResponse response )
+    {
+        if ( response != null )
+        {
+            EntityUtils.consumeQuietly( response.getEntity() );
+            IOUtils.closeQuietly( response );
+        }
+    }
+
     /**
      * Set these params into their associated HTTP header vars.
      *
@@ -471,15 +827,21 @@ public final class RestUtils
      * Process the HTTP method request.
      *
      * @param httpGetRequest
+     * @param client shared http client.
+     * @param context carries the caller's credentials.
+     * @param metrics of the connection pool.
      * @return String containing response
      * @throws Exception
      */
-    private static String handleHttpMethod( HttpRequestBase httpGetRequest ,org.apache.http.client.HttpClient client ) throws RestException
+    private static String handleHttpMethod( HttpRequestBase httpGetRequest, CloseableHttpClient client,
+        HttpClientContext context, HttpPoolMetrics metrics ) throws RestException
     {
         String szResponse = null;
+        CloseableHttpResponse response = null;
         try
         {
-            HttpResponse response = client.execute( httpGetRequest );
+            metrics.incrementRequests();
+            response = client.execute( httpGetRequest, context );
             LOG.debug( "handleHttpMethod Response status : {}", response.getStatusLine().getStatusCode() );
 
             Response.Status status = Response.Status.fromStatusCode( response.getStatusLine().getStatusCode() );
@@ -504,6 +866,7 @@ public final class RestUtils
         }
         catch ( IOException ioe )
         {
+            metrics.incrementErrors();
             String error = "handleHttpMethod caught IOException=" + ioe;
             LOG.error( error );
             throw new RestException( GlobalErrIds.REST_IO_ERR, error, ioe );
@@ -511,7 +874,7 @@ public final class RestUtils
         finally
         {
             // Release current connection to the connection pool.
-            httpGetRequest.releaseConnection();
+            release( response );
         }
         return szResponse;
     }
@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.ResultCursor;
 import org.apache.directory.fortress.core.ReviewMgr;
 import org.apache.directory.fortress.core.SecurityException;
 import org.apache.directory.fortress.core.impl.Manageable;
@@ -39,6 +40,7 @@ import org.apache.directory.fortress.core.model.RoleConstraint;
 import org.apache.directory.fortress.core.model.RoleConstraint.RCType;
 import org.apache.directory.fortress.core.model.SDSet;
 import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserProjection;
 import org.apache.directory.fortress.core.model.UserRole;
 import org.apache.directory.fortress.core.util.VUtil;
 
@@ -94,9 +96,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(permission);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_READ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_READ);
         if (response.getErrorCode() == 0)
         {
             retPerm = (Permission) response.getEntity();
@@ -121,9 +121,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(permObj);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.OBJ_READ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.OBJ_READ);
         if (response.getErrorCode() == 0)
         {
             retObj = (PermObj) response.getEntity();
@@ -148,9 +146,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(permission);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retPerms = response.getEntities();
@@ -162,6 +158,16 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         return retPerms;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultCursor<Permission> findPermissionsPaged(Permission permission)
+        throws SecurityException
+    {
+        return new ListResultCursor<>( findPermissions( permission ) );
+    }
+
 
     /**
      * {@inheritDoc}
@@ -175,9 +181,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(permObj);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_OBJ_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_OBJ_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retPerms = response.getEntities();
@@ -202,9 +206,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(permission);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_SEARCH_ANY);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_SEARCH_ANY);
         if (response.getErrorCode() == 0)
         {
             retPerms = response.getEntities();
@@ -229,9 +231,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(permObj);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.OBJ_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.OBJ_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retObjs = response.getEntities();
@@ -258,9 +258,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         PermObj inObj = new PermObj();
         inObj.setOu(ou.getName());
         request.setEntity(inObj);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.OBJ_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.OBJ_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retObjs = response.getEntities();
@@ -285,9 +283,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_READ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_READ);
         if (response.getErrorCode() == 0)
         {
             retRole = (Role) response.getEntity();
@@ -312,9 +308,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setValue(searchVal);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retRoles = response.getEntities();
@@ -340,9 +334,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setContextId(this.contextId);
         request.setValue(searchVal);
         request.setLimit(limit);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retRoles = response.getValues();
@@ -367,9 +359,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(user);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_READ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_READ);
         if (response.getErrorCode() == 0)
         {
             retUser = (User) response.getEntity();
@@ -381,6 +371,17 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         return retUser;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final User readUser(User user, UserProjection projection)
+        throws SecurityException
+    {
+        // The server always returns the full user:
+        return readUser( user );
+    }
+
 
     /**
      * {@inheritDoc}
@@ -394,9 +395,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(user);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getEntities();
@@ -408,6 +407,16 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         return retUsers;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultCursor<User> findUsersPaged(User user)
+        throws SecurityException
+    {
+        return new ListResultCursor<>( findUsers( user ) );
+    }
+
 
     /**
      * {@inheritDoc}
@@ -423,9 +432,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         User inUser = new User();
         inUser.setOu( ou.getName() );
         request.setEntity(inUser);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getEntities();
@@ -451,9 +458,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setContextId(this.contextId);
         request.setLimit( limit );
         request.setEntity(user);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_SEARCH);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_SEARCH);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getValues();
@@ -479,9 +484,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setContextId(this.contextId);
         request.setLimit(limit);
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_ASGNED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_ASGNED);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getValues();
@@ -510,9 +513,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         List<User> retUsers;
         FortRequest request = RestUtils.getRequest( this.contextId );
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_ASGNED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_ASGNED);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getEntities();
@@ -537,9 +538,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(user);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_ASGNED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_ASGNED);
         if (response.getErrorCode() == 0)
         {
             retUserRoles = response.getEntities();
@@ -564,9 +563,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setValue( userId );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_ASGNED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_ASGNED);
         if (response.getErrorCode() == 0)
         {
             retUserRoles = response.getValues();
@@ -591,9 +588,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity( role );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_AUTHZED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_AUTHZED);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getEntities();
@@ -622,9 +617,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(user);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_AUTHZED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_AUTHZED);
         if (response.getErrorCode() == 0)
         {
             Set<String> tempNames = response.getValueSet();
@@ -663,9 +656,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setContextId(this.contextId);
         request.setEntity(role);
         request.setIsFlag( noInheritance );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_PERMS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_PERMS);
         if (response.getErrorCode() == 0)
         {
             retPerms = response.getEntities();
@@ -690,9 +681,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setContextId(this.contextId);
         request.setEntity(role);
         request.setIsFlag( noInhertiance );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_PERM_ATTR_SETS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_PERM_ATTR_SETS);
         if (response.getErrorCode() == 0)
         {
             retAttrSets = response.getEntities();
@@ -716,9 +705,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(user);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_PERMS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_PERMS);
         if (response.getErrorCode() == 0)
         {
             retPerms = response.getEntities();
@@ -743,9 +730,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(perm);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_ROLES);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_ROLES);
         if (response.getErrorCode() == 0)
         {
             retRoleNames = response.getValues();
@@ -770,9 +755,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(perm);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_ROLES_AUTHZED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_ROLES_AUTHZED);
         if (response.getErrorCode() == 0)
         {
             Set<String> tempNames = response.getValueSet();
@@ -799,9 +782,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(perm);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_USERS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_USERS);
         if (response.getErrorCode() == 0)
         {
             retUsers = response.getValues();
@@ -826,9 +807,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(perm);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_USERS_AUTHZED);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_USERS_AUTHZED);
         if (response.getErrorCode() == 0)
         {
             Set<String> tempNames = response.getValueSet();
@@ -855,9 +834,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.SSD_ROLE_SETS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.SSD_ROLE_SETS);
         if (response.getErrorCode() == 0)
         {
             retSsdRoleSets = response.getEntities();
@@ -886,9 +863,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(set);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.SSD_READ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.SSD_READ);
         if (response.getErrorCode() == 0)
         {
             retSet = (SDSet) response.getEntity();
@@ -912,9 +887,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
          FortRequest request = new FortRequest();
          request.setContextId(this.contextId);
          request.setEntity(ssd);
-         String szRequest = RestUtils.marshal(request);
-         String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.SSD_SETS);
-         FortResponse response = RestUtils.unmarshall(szResponse);
+         FortResponse response = RestUtils.getInstance().post(request, HttpIds.SSD_SETS);
          if (response.getErrorCode() == 0)
          {
              retSsdSets = response.getEntities();
@@ -943,9 +916,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(ssd);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.SSD_ROLES);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.SSD_ROLES);
         if (response.getErrorCode() == 0)
         {
             Set<String> tempNames = response.getValueSet();
@@ -972,9 +943,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(ssd);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.SSD_CARD);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.SSD_CARD);
         if (response.getErrorCode() == 0)
         {
             retSet = (SDSet) response.getEntity();
@@ -999,9 +968,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(role);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.DSD_ROLE_SETS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.DSD_ROLE_SETS);
         if (response.getErrorCode() == 0)
         {
             retDsdRoleSets = response.getEntities();
@@ -1030,9 +997,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(set);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.DSD_READ);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.DSD_READ);
         if (response.getErrorCode() == 0)
         {
             retSet = (SDSet) response.getEntity();
@@ -1056,9 +1021,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
          FortRequest request = new FortRequest();
          request.setContextId(this.contextId);
          request.setEntity(dsd);
-         String szRequest = RestUtils.marshal(request);
-         String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.DSD_SETS);
-         FortResponse response = RestUtils.unmarshall(szResponse);
+         FortResponse response = RestUtils.getInstance().post(request, HttpIds.DSD_SETS);
          if (response.getErrorCode() == 0)
          {
              retDsdSets = response.getEntities();
@@ -1087,9 +1050,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(dsd);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.DSD_ROLES);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.DSD_ROLES);
         if (response.getErrorCode() == 0)
         {
             Set<String> tempNames = response.getValueSet();
@@ -1116,9 +1077,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         FortRequest request = new FortRequest();
         request.setContextId(this.contextId);
         request.setEntity(dsd);
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.DSD_CARD);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.DSD_CARD);
         if (response.getErrorCode() == 0)
         {
             retSet = (SDSet) response.getEntity();
@@ -1144,9 +1103,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
             FortRequest request = new FortRequest();
             request.setContextId(this.contextId);
             request.setEntity(permAttributeSet);
-            String szRequest = RestUtils.marshal(request);
-            String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.PERM_READ_PERM_ATTRIBUTE_SET);
-            FortResponse response = RestUtils.unmarshall(szResponse);
+            FortResponse response = RestUtils.getInstance().post(request, HttpIds.PERM_READ_PERM_ATTRIBUTE_SET);
             if (response.getErrorCode() == 0)
             {
                 retPermSet = (PermissionAttributeSet)response.getEntity();
@@ -1176,9 +1133,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setEntity( user );
         request.setEntity2( permission);
         request.setValue( rcType.toString() );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.ROLE_FIND_CONSTRAINTS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.ROLE_FIND_CONSTRAINTS);
         if (response.getErrorCode() == 0)
         {
             retConstraints = response.getEntities();
@@ -1201,9 +1156,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         request.setContextId( this.contextId );
         request.setEntity( role );
         request.setEntity2( roleConstraint );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_ASGNED_CONSTRAINTS);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_ASGNED_CONSTRAINTS);
         if (response.getErrorCode() == 0)
         {
             users = response.getEntities();
@@ -1230,9 +1183,7 @@ public class ReviewMgrRestImpl extends Manageable implements ReviewMgr
         constraint.setKey( key );
         constraint.setType( rcType );
         request.setEntity2( constraint );
-        String szRequest = RestUtils.marshal(request);
-        String szResponse = RestUtils.getInstance().post(szRequest, HttpIds.USER_ASGNED_CONSTRAINTS_KEY);
-        FortResponse response = RestUtils.unmarshall(szResponse);
+        FortResponse response = RestUtils.getInstance().post(request, HttpIds.USER_ASGNED_CONSTRAINTS_KEY);
         if (response.getErrorCode() == 0)
         {
             uRoles = response.getEntities();
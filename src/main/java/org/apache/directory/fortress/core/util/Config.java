@@ -727,7 +727,8 @@ public final class Config
     }
 
     /**
-     * Load the properties contained within ou=Config node in LDAP.
+     * Load the properties contained within ou=Config node in LDAP.  Skipped if the realm is empty or 'none', e.g.
+     * -Dfortress.config.realm=none, when running without a directory.
      */
     private void loadRemoteConfig()
     {
@@ -735,7 +736,7 @@ public final class Config
         {
             // Retrieve parameters from the config node stored in target LDAP DIT:
             String realmName = config.getString( GlobalIds.CONFIG_REALM, "DEFAULT" );
-            if ( realmName != null && realmName.length() > 0 )
+            if ( realmName != null && realmName.length() > 0 && !realmName.equalsIgnoreCase( GlobalIds.NONE ) )
             {
                 LOG.info( "static init: load config realm [{}]", realmName );
                 Properties props = getRemoteConfig( realmName );
@@ -584,9 +584,9 @@ public final class VUtil implements ConstraintValidator
             }
             return;
         }
+        Time currTime = TUtil.getCurrentTime();
         for ( Validator val : validators )
         {
-            Time currTime = TUtil.getCurrentTime();
             // first check the constraint on the user:
             if ( type == ConstraintType.USER && !session.isGroupSession() )
             {
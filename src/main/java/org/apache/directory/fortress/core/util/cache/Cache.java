@@ -20,16 +20,15 @@
 package org.apache.directory.fortress.core.util.cache;
 
 
-import net.sf.ehcache.search.Attribute;
-import net.sf.ehcache.search.Query;
-
-
 /**
  * This Interface is implemented by cacheable Fortress objects and is used to wrap the caching implementation to provide isolation.
+ * Instances are obtained by name from {@link CacheMgr}, which decides the implementation in effect.
  *
+ * @param <K> type of key.
+ * @param <V> type of value.
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
-public interface Cache
+public interface Cache<K, V>
 {
     /**
      * Given a key name, return the corresponding value.
@@ -38,7 +37,23 @@ public interface Cache
      * @return entry stored in the cache.
      * @throws CacheException will wraps the implementation's exception.
      */
-    Object get( Object key ) throws CacheException;
+    V get( K key ) throws CacheException;
+
+
+    /**
+     * Given a key name, return the corresponding value, calling the loader to obtain it if it isn't cached.  Only one
+     * load per key runs at a time, callers that miss while it runs wait for its value.  The loaded value is cached
+     * unless it is null or the key was cleared while the load ran.  If the cache is set to refresh entries, an entry
+     * that has been cached longer than the interval is returned and reloaded with the same loader in the background.
+     *
+     * @param key is the name used to store the entry.
+     * @param loader reads the value when it isn't cached.
+     * @param <E> type of exception thrown by the loader.
+     * @return entry stored in the cache, or the loaded value.
+     * @throws E thrown by the loader, the value isn't cached.
+     * @throws CacheException will wraps the implementation's exception.
+     */
+    <E extends Exception> V get( K key, CacheLoader<? super K, ? extends V, E> loader ) throws E;
 
 
     /**
@@ -48,7 +63,7 @@ public interface Cache
      * @param value object that is stored.
      * @throws CacheException will wraps the implementation's exception.
      */
-    void put( Object key, Object value ) throws CacheException;
+    void put( K key, V value ) throws CacheException;
 
 
     /**
@@ -58,7 +73,7 @@ public interface Cache
      * @return boolean value will be false if entry not found and true if entry was found and removed.
      * @throws CacheException will wraps the implementation's exception.
      */
-    boolean clear( Object key ) throws CacheException;
+    boolean clear( K key ) throws CacheException;
 
 
     /**
@@ -70,20 +85,9 @@ public interface Cache
 
 
     /**
-     * Retrieve the Cache attribute
-     *
-     * @param attributeName the name of search attribute
-     * @param <T> the type of search attribute
-     * @return the search attribute
-     * @throws CacheException will wraps the implementation's exception.
-     */
-    <T> Attribute<T> getSearchAttribute( String attributeName ) throws CacheException;
-
-
-    /**
-     * Create a search query for the cache.
+     * Return the counts of hits, misses, loads and evictions since the cache was created.
      *
-     * @return a new Query builder
+     * @return snapshot of the statistics.
      */
-    Query createQuery();
-}
\ No newline at end of file
+    CacheStats getStats();
+}
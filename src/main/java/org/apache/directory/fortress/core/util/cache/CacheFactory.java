@@ -38,7 +38,7 @@ class CacheFactory
      *
      * @return instance of {@link Cache}.
      */
-    public static Cache createInstance(String name, net.sf.ehcache.CacheManager cacheManager)
+    public static <K, V> Cache<K, V> createInstance(String name, net.sf.ehcache.CacheManager cacheManager)
     {
         net.sf.ehcache.Ehcache cache = cacheManager.getEhcache(name);
         if(cache == null)
@@ -50,6 +50,6 @@ class CacheFactory
         blockingCache.setTimeoutMillis(60000);
         
         cacheManager.replaceCacheWithDecoratedCache(cache, blockingCache);
-        return new EhCacheImpl(name, blockingCache);
+        return new EhCacheImpl<>(name, blockingCache);
     }
 }
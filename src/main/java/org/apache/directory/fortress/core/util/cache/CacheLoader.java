@@ -0,0 +1,41 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.cache;
+
+
+/**
+ * Reads the value of a key that isn't cached, see {@link Cache#get(Object, CacheLoader)}.
+ *
+ * @param <K> type of key.
+ * @param <V> type of value.
+ * @param <E> type of exception thrown when the value can't be read, RuntimeException if none.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface CacheLoader<K, V, E extends Exception>
+{
+    /**
+     * Read the value of the key.
+     *
+     * @param key of the entry.
+     * @return the value, or null if there isn't one, which isn't cached.
+     * @throws E if the value can't be read.
+     */
+    V load( K key ) throws E;
+}
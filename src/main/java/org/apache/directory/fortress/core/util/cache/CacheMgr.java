@@ -19,9 +19,19 @@
  */
 package org.apache.directory.fortress.core.util.cache;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.constructs.blocking.BlockingCache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import net.sf.ehcache.config.ConfigurationFactory;
 
 import org.apache.directory.fortress.core.CfgException;
 import org.apache.directory.fortress.core.CfgRuntimeException;
@@ -35,6 +45,16 @@ import org.slf4j.LoggerFactory;
 /**
  * This class is a facade and shields internal Fortress objects from specifics of the actual
  * cache implementation that is in use.
+ * <p>
+ * The implementation is set by fortress config param 'cache.provider':
+ * <ul>
+ *   <li>local - in-heap caches, see {@link LocalCache} (default).  The bounds and expiry of each cache are read from
+ *   its entry in ehcache.xml, maxElementsInMemory, timeToLiveSeconds and timeToIdleSeconds, if there is one, and
+ *   may be set with 'cache.[name].max.entries', 'cache.[name].max.weight', 'cache.[name].expire.after.write.seconds',
+ *   'cache.[name].expire.after.access.seconds' and 'cache.[name].refresh.after.write.seconds'.</li>
+ *   <li>ehcache - Ehcache configured by ehcache.xml, see {@link EhCacheImpl}.</li>
+ * </ul>
+ * One instance of each cache is created per process.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
@@ -42,7 +62,23 @@ public final class CacheMgr
 {
     private static final Logger LOG = LoggerFactory.getLogger( CacheMgr.class.getName() );
     private static final String EHCACHE_CONFIG_FILE = "ehcache.config.file";
+    private static final String CACHE_PROVIDER = "cache.provider";
+    private static final String CACHE_REFRESH_THREADS = "cache.refresh.threads";
+    private static final String LOCAL = "local";
+    private static final String EHCACHE = "ehcache";
+    private static final String PREFIX = "cache.";
+    private static final String MAX_ENTRIES = ".max.entries";
+    private static final String MAX_WEIGHT = ".max.weight";
+    private static final String EXPIRE_AFTER_WRITE = ".expire.after.write.seconds";
+    private static final String EXPIRE_AFTER_ACCESS = ".expire.after.access.seconds";
+    private static final String REFRESH_AFTER_WRITE = ".refresh.after.write.seconds";
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final int DEFAULT_REFRESH_THREADS = 2;
     private CacheManager mEhCacheImpl;
+    // settings of the local caches read from ehcache.xml, null if it can't be read:
+    private Configuration ehCacheConfig;
+    private final ConcurrentMap<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private ExecutorService refresher;
     
     private static volatile CacheMgr sINSTANCE = null;
     
@@ -77,6 +113,21 @@ public final class CacheMgr
     {
         // Use default name of 'ehcache.xml':
         String cacheConfig = Config.getInstance().getProperty( EHCACHE_CONFIG_FILE, "ehcache.xml" );
+        String provider = Config.getInstance().getProperty( CACHE_PROVIDER, LOCAL );
+        if ( !EHCACHE.equalsIgnoreCase( provider ) )
+        {
+            try
+            {
+                // Only the settings are used, Ehcache's caches aren't created:
+                ehCacheConfig = ConfigurationFactory.parseConfiguration( ClassUtil.resourceAsStream( cacheConfig ) );
+            }
+            catch ( CfgException | net.sf.ehcache.CacheException e )
+            {
+                LOG.info( "init cache config file [{}] not read, using defaults: {}", cacheConfig, e.getMessage() );
+            }
+            LOG.info( "init local cache provider" );
+            return;
+        }
         try
         {
             // 1. Construct an instance of Ehcache's CacheManager object.
@@ -108,22 +159,120 @@ public final class CacheMgr
     }
 
     /**
-     * Create a new reference to the ehcache cache implementation.
+     * Return the cache of the given name, creating it on first use.
      *
      * @param cacheName contains the name of the cache to retrieve
+     * @param <K> type of key.
+     * @param <V> type of value.
      * @return reference to cache for specified object.
      */
-    public Cache getCache( String cacheName )
+    public <K, V> Cache<K, V> getCache( String cacheName )
     {
-        Ehcache cache = mEhCacheImpl.getEhcache( cacheName );
-        if(cache != null)
+        return getCache( cacheName, null );
+    }
+
+    /**
+     * Return the cache of the given name, creating it on first use with a weigher, which is needed for its
+     * 'cache.[name].max.weight' bound to apply.  The weigher is ignored if the cache already exists or the provider
+     * is Ehcache.
+     *
+     * @param cacheName contains the name of the cache to retrieve
+     * @param weigher computes the weight of an entry, may be null.
+     * @param <K> type of key.
+     * @param <V> type of value.
+     * @return reference to cache for specified object.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache( String cacheName, Weigher<? super K, ? super V> weigher )
+    {
+        Cache<?, ?> cache = caches.get( cacheName );
+        if ( cache == null )
         {
-            return new EhCacheImpl( cacheName, new BlockingCache(cache) );
+            synchronized ( caches )
+            {
+                cache = caches.get( cacheName );
+                if ( cache == null )
+                {
+                    if ( mEhCacheImpl != null )
+                    {
+                        cache = CacheFactory.createInstance( cacheName, mEhCacheImpl );
+                    }
+                    else
+                    {
+                        cache = newLocalCache( cacheName, weigher );
+                    }
+                    caches.put( cacheName, cache );
+                }
+            }
         }
-        else
+        return ( Cache<K, V> ) cache;
+    }
+
+    private <K, V> Cache<K, V> newLocalCache( String cacheName, Weigher<? super K, ? super V> weigher )
+    {
+        Config cfg = Config.getInstance();
+        long maxEntries = DEFAULT_MAX_ENTRIES;
+        long expireAfterWrite = 0;
+        long expireAfterAccess = 0;
+        CacheConfiguration cacheConfig = ehCacheConfig != null ? ehCacheConfig.getCacheConfigurations().get(
+            cacheName ) : null;
+        if ( cacheConfig != null )
         {
-            return CacheFactory.createInstance( cacheName, mEhCacheImpl );
+            maxEntries = cacheConfig.getMaxEntriesLocalHeap();
+            if ( !cacheConfig.isEternal() )
+            {
+                expireAfterWrite = cacheConfig.getTimeToLiveSeconds();
+                expireAfterAccess = cacheConfig.getTimeToIdleSeconds();
+            }
+        }
+        maxEntries = cfg.getInt( PREFIX + cacheName + MAX_ENTRIES, ( int ) maxEntries );
+        long maxWeight = weigher != null ? cfg.getInt( PREFIX + cacheName + MAX_WEIGHT, 0 ) : 0;
+        expireAfterWrite = cfg.getInt( PREFIX + cacheName + EXPIRE_AFTER_WRITE, ( int ) expireAfterWrite );
+        expireAfterAccess = cfg.getInt( PREFIX + cacheName + EXPIRE_AFTER_ACCESS, ( int ) expireAfterAccess );
+        long refreshAfterWrite = cfg.getInt( PREFIX + cacheName + REFRESH_AFTER_WRITE, 0 );
+        LOG.info( "getCache [{}] max entries [{}] max weight [{}] expire after write [{}] access [{}] refresh [{}]",
+            cacheName, maxEntries, maxWeight, expireAfterWrite, expireAfterAccess, refreshAfterWrite );
+        return new LocalCache<>( cacheName, maxEntries, maxWeight, weigher, expireAfterWrite * 1000,
+            expireAfterAccess * 1000, refreshAfterWrite * 1000, refreshAfterWrite > 0 ? getRefresher() : null );
+    }
+
+    /**
+     * Return the threads that reload refreshed entries, shared by the caches, starting them on first use.
+     */
+    private synchronized ExecutorService getRefresher()
+    {
+        if ( refresher == null )
+        {
+            int threads = Math.max( 1, Config.getInstance().getInt( CACHE_REFRESH_THREADS, DEFAULT_REFRESH_THREADS ) );
+            refresher = Executors.newFixedThreadPool( threads, new ThreadFactory()
+            {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread( Runnable runnable )
+                {
+                    Thread thread = new Thread( runnable, "fortress-cache-refresh-" + count.getAndIncrement() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
         }
+        return refresher;
+    }
+
+    /**
+     * Return the statistics of every cache created so far.
+     *
+     * @return statistics by cache name, sorted by name.
+     */
+    public Map<String, CacheStats> getStats()
+    {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        for ( Map.Entry<String, Cache<?, ?>> cache : caches.entrySet() )
+        {
+            stats.put( cache.getKey(), cache.getValue().getStats() );
+        }
+        return stats;
     }
 
     /**
@@ -132,6 +281,13 @@ public final class CacheMgr
      */
     public void clearAll()
     {
-        mEhCacheImpl.clearAll();
+        for ( Cache<?, ?> cache : caches.values() )
+        {
+            cache.flush();
+        }
+        if ( mEhCacheImpl != null )
+        {
+            mEhCacheImpl.clearAll();
+        }
     }
 }
@@ -0,0 +1,151 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.cache;
+
+
+/**
+ * Immutable snapshot of the statistics of a {@link Cache}.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class CacheStats
+{
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final long refreshCount;
+    private final long evictionCount;
+
+
+    /**
+     * @param hitCount         number of gets that found the entry.
+     * @param missCount        number of gets that didn't.
+     * @param loadSuccessCount number of loads, including refreshes, that returned.
+     * @param loadFailureCount number of loads, including refreshes, that threw.
+     * @param totalLoadTime    nanoseconds spent loading.
+     * @param refreshCount     number of entries reloaded in the background.
+     * @param evictionCount    number of entries removed because they expired or the cache was full.
+     */
+    public CacheStats( long hitCount, long missCount, long loadSuccessCount, long loadFailureCount,
+        long totalLoadTime, long refreshCount, long evictionCount )
+    {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.refreshCount = refreshCount;
+        this.evictionCount = evictionCount;
+    }
+
+
+    /**
+     * @return number of gets that found the entry.
+     */
+    public long getHitCount()
+    {
+        return hitCount;
+    }
+
+
+    /**
+     * @return number of gets that didn't find the entry.
+     */
+    public long getMissCount()
+    {
+        return missCount;
+    }
+
+
+    /**
+     * @return hits divided by gets, 1.0 if there haven't been any.
+     */
+    public double getHitRate()
+    {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : ( double ) hitCount / requests;
+    }
+
+
+    /**
+     * @return number of loads, including refreshes, that returned.
+     */
+    public long getLoadSuccessCount()
+    {
+        return loadSuccessCount;
+    }
+
+
+    /**
+     * @return number of loads, including refreshes, that threw.
+     */
+    public long getLoadFailureCount()
+    {
+        return loadFailureCount;
+    }
+
+
+    /**
+     * @return nanoseconds spent loading.
+     */
+    public long getTotalLoadTime()
+    {
+        return totalLoadTime;
+    }
+
+
+    /**
+     * @return average nanoseconds per load, 0 if there haven't been any.
+     */
+    public double getAverageLoadPenalty()
+    {
+        long loads = loadSuccessCount + loadFailureCount;
+        return loads == 0 ? 0.0 : ( double ) totalLoadTime / loads;
+    }
+
+
+    /**
+     * @return number of entries reloaded in the background.
+     */
+    public long getRefreshCount()
+    {
+        return refreshCount;
+    }
+
+
+    /**
+     * @return number of entries removed because they expired or the cache was full.
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "CacheStats{hits=" + hitCount + ", misses=" + missCount + ", loads=" + loadSuccessCount
+            + ", loadFailures=" + loadFailureCount + ", totalLoadTime=" + totalLoadTime + ", refreshes="
+            + refreshCount + ", evictions=" + evictionCount + "}";
+    }
+}
@@ -20,6 +20,8 @@
 package org.apache.directory.fortress.core.util.cache;
 
 
+import java.util.concurrent.atomic.LongAdder;
+
 import net.sf.ehcache.Element;
 import net.sf.ehcache.constructs.blocking.BlockingCache;
 import net.sf.ehcache.constructs.blocking.LockTimeoutException;
@@ -33,17 +35,27 @@ import org.slf4j.LoggerFactory;
 
 
 /**
- * This class provides cache functionality from <a href="http://ehcache.org//">Ehcache</a> provider.
+ * This class provides cache functionality from <a href="http://ehcache.org//">Ehcache</a> provider.  It is used when
+ * fortress config param 'cache.provider=ehcache', for deployments that tune their caches in ehcache.xml or use the
+ * Ehcache search API, see {@link #createQuery()}.  A miss blocks other readers of the key until the value is put,
+ * which is what makes {@link #get(Object, CacheLoader)} load once per key.  Entries aren't refreshed.
  *
+ * @param <K> type of key.
+ * @param <V> type of value.
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
-public class EhCacheImpl implements Cache
+public class EhCacheImpl<K, V> implements Cache<K, V>
 {
     private static final String CLS_NM = EhCacheImpl.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
 
     private BlockingCache cache;
     private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
 
 
     /**
@@ -72,7 +84,8 @@ public class EhCacheImpl implements Cache
      * @throws CacheException in the event ehcache throws an exception it will be wrapped.
      */
     @Override
-    public Object get( Object key ) throws CacheException
+    @SuppressWarnings("unchecked")
+    public V get( K key ) throws CacheException
     {
         if ( cache == null )
         {
@@ -84,15 +97,18 @@ public class EhCacheImpl implements Cache
             Element element = cache.get( key );
             if ( element != null )
             {
-                return element.getObjectValue();
+                hits.increment();
+                return ( V ) element.getObjectValue();
             }
             else
             {
+                misses.increment();
                 return null;
             }
         }
         catch (LockTimeoutException lte){
             LOG.warn("Lock timout exception for key {}", key);
+            misses.increment();
             return null;
         }
         catch ( net.sf.ehcache.CacheException ce )
@@ -104,6 +120,90 @@ public class EhCacheImpl implements Cache
     }
 
 
+    /**
+     * Given a key name, return the corresponding value, calling the loader to obtain it if it isn't cached.  Other
+     * readers of the key wait for the load.  If the key stays locked by another reader past the blocking timeout the
+     * value is loaded without being cached.
+     *
+     * @param key is the name used to store the entry.
+     * @param loader reads the value when it isn't cached.
+     * @param <E> type of exception thrown by the loader.
+     * @return entry stored in the cache, or the loaded value.
+     * @throws E thrown by the loader, the value isn't cached.
+     * @throws CacheException in the event ehcache throws an exception it will be wrapped.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> V get( K key, CacheLoader<? super K, ? extends V, E> loader ) throws E
+    {
+        if ( cache == null )
+        {
+            String error = "get detected null cache name [" + name + "]";
+            throw new CacheException( GlobalErrIds.FT_NULL_CACHE, error );
+        }
+        Element element;
+        try
+        {
+            // On a miss the key stays locked until it is put:
+            element = cache.get( key );
+        }
+        catch ( LockTimeoutException lte )
+        {
+            LOG.warn( "Lock timout exception for key {}, loading without cache", key );
+            misses.increment();
+            return load( key, loader );
+        }
+        catch ( net.sf.ehcache.CacheException ce )
+        {
+            String error = "get cache name [" + name + "] key [" + key + "] caught CacheException="
+                + ce.getMessage();
+            throw new CacheException( GlobalErrIds.FT_CACHE_GET_ERR, error, ce );
+        }
+        if ( element != null && element.getObjectValue() != null )
+        {
+            hits.increment();
+            return ( V ) element.getObjectValue();
+        }
+        misses.increment();
+        V value = null;
+        try
+        {
+            value = load( key, loader );
+        }
+        finally
+        {
+            // a null value releases the lock without caching anything:
+            cache.put( new Element( key, value ) );
+        }
+        return value;
+    }
+
+
+    private <E extends Exception> V load( K key, CacheLoader<? super K, ? extends V, E> loader ) throws E
+    {
+        long start = System.nanoTime();
+        boolean isLoaded = false;
+        try
+        {
+            V value = loader.load( key );
+            isLoaded = true;
+            return value;
+        }
+        finally
+        {
+            loadTime.add( System.nanoTime() - start );
+            if ( isLoaded )
+            {
+                loadSuccesses.increment();
+            }
+            else
+            {
+                loadFailures.increment();
+            }
+        }
+    }
+
+
     /**
      * Add a new entry to the cache.
      *
@@ -112,7 +212,7 @@ public class EhCacheImpl implements Cache
      * @throws CacheException in the event ehcache throws an exception it will be wrapped.
      */
     @Override
-    public void put( Object key, Object value ) throws CacheException
+    public void put( K key, V value ) throws CacheException
     {
         if ( cache == null )
         {
@@ -140,7 +240,7 @@ public class EhCacheImpl implements Cache
      * @throws CacheException in the event ehcache throws an exception it will be wrapped.
      */
     @Override
-    public boolean clear( Object key ) throws CacheException
+    public boolean clear( K key ) throws CacheException
     {
         boolean result;
         if ( cache == null )
@@ -189,14 +289,26 @@ public class EhCacheImpl implements Cache
 
 
     /**
-     * Retrieve the Cache attribute
+     * Return counts of hits, misses and loads.  Ehcache's evictions aren't counted.
+     *
+     * @return snapshot of the statistics.
+     */
+    @Override
+    public CacheStats getStats()
+    {
+        return new CacheStats( hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), loadTime.sum(), 0,
+            0 );
+    }
+
+
+    /**
+     * Retrieve the Cache attribute.  Only available from the Ehcache provider.
      *
      * @param attributeName the name of search attribute
      * @param <T> the type of search attribute
      * @return the search attribute
      * @throws CacheException in the event ehcache throws an exception it will be wrapped.
      */
-    @Override
     public <T> Attribute<T> getSearchAttribute( String attributeName ) throws CacheException
     {
         if ( cache == null )
@@ -209,11 +321,10 @@ public class EhCacheImpl implements Cache
 
 
     /**
-     * Create a search query builder for the cache.
+     * Create a search query builder for the cache.  Only available from the Ehcache provider.
      *
      * @return a new Query builder
      */
-    @Override
     public Query createQuery()
     {
         if ( cache == null )
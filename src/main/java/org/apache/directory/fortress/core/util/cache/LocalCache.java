@@ -0,0 +1,580 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.cache;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * In-heap cache backed by a {@link ConcurrentHashMap}.  Reads don't lock.  A miss with a loader is loaded once per key
+ * while other callers wait for it, see {@link #get(Object, CacheLoader)}.
+ * <p>
+ * The cache may be bounded by number of entries and by total weight of its entries.  When a put takes it over either
+ * bound, the least recently read entries are evicted by one thread until it is a tenth below the bound, so the cost
+ * of a sweep is spread over the puts that follow.  Entries may expire a time after they were written or last read.
+ * An entry loaded by a loader may also be refreshed: once it is older than the refresh interval, the next read
+ * returns it and reloads it in the background, replacing it unless it was changed or cleared in the meantime.  A
+ * failed refresh is logged and tried again after another interval, as is a refresh whose loader returns null.
+ * <p>
+ * Null keys aren't allowed and putting a null value clears the entry.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <K> type of key.
+ * @param <V> type of value.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+final class LocalCache<K, V> implements Cache<K, V>
+{
+    private static final String CLS_NM = LocalCache.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+    private static final int SWEEP_PERCENT = 10;
+
+    private final String name;
+    private final long maxEntries;
+    private final long maxWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final long refreshAfterWrite;
+    private final Executor refresher;
+
+    private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    // loads in progress, removed by clear so their value isn't cached:
+    private final ConcurrentMap<K, FutureTask<V>> loads = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * @param name              of the cache, used in log messages.
+     * @param maxEntries        maximum number of entries, 0 for no limit.
+     * @param maxWeight         maximum total weight of the entries, 0 for no limit.  Requires a weigher.
+     * @param weigher           computes the weight of an entry, may be null if maxWeight is 0.
+     * @param expireAfterWrite  millis after a put or load the entry is removed, 0 for never.
+     * @param expireAfterAccess millis after the last read the entry is removed, 0 for never.
+     * @param refreshAfterWrite millis after a load the entry is reloaded on its next read, 0 for never.
+     * @param refresher         runs the reloads, may be null if refreshAfterWrite is 0.
+     */
+    LocalCache( String name, long maxEntries, long maxWeight, Weigher<? super K, ? super V> weigher,
+        long expireAfterWrite, long expireAfterAccess, long refreshAfterWrite, Executor refresher )
+    {
+        if ( maxWeight > 0 && weigher == null )
+        {
+            String error = "constructor cache [" + name + "] has a max weight but no weigher";
+            throw new CacheException( GlobalErrIds.FT_CACHE_NOT_CONFIGURED, error );
+        }
+        this.name = name;
+        this.maxEntries = Math.max( 0, maxEntries );
+        this.maxWeight = Math.max( 0, maxWeight );
+        this.weigher = weigher;
+        this.expireAfterWrite = TimeUnit.MILLISECONDS.toNanos( Math.max( 0, expireAfterWrite ) );
+        this.expireAfterAccess = TimeUnit.MILLISECONDS.toNanos( Math.max( 0, expireAfterAccess ) );
+        this.refreshAfterWrite = refresher != null ? TimeUnit.MILLISECONDS.toNanos( Math.max( 0,
+            refreshAfterWrite ) ) : 0;
+        this.refresher = refresher;
+    }
+
+
+    @Override
+    public V get( K key ) throws CacheException
+    {
+        Node<K, V> node = getNode( key, System.nanoTime() );
+        if ( node == null )
+        {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+
+    @Override
+    public <E extends Exception> V get( K key, CacheLoader<? super K, ? extends V, E> loader ) throws E
+    {
+        long now = System.nanoTime();
+        Node<K, V> node = getNode( key, now );
+        if ( node != null )
+        {
+            hits.increment();
+            if ( node.loader != null && refreshAfterWrite > 0 && now - node.nextRefresh >= 0 )
+            {
+                refresh( node );
+            }
+            return node.value;
+        }
+        misses.increment();
+        return load( key, loader );
+    }
+
+
+    @Override
+    public void put( K key, V value ) throws CacheException
+    {
+        checkKey( key );
+        // a load in flight read the prior value, it mustn't replace this one:
+        loads.remove( key );
+        put( key, value, null );
+    }
+
+
+    @Override
+    public boolean clear( K key ) throws CacheException
+    {
+        checkKey( key );
+        loads.remove( key );
+        Node<K, V> node = data.remove( key );
+        if ( node != null )
+        {
+            weight.addAndGet( -node.weight );
+        }
+        return node != null;
+    }
+
+
+    @Override
+    public void flush() throws CacheException
+    {
+        loads.clear();
+        for ( K key : data.keySet() )
+        {
+            Node<K, V> node = data.remove( key );
+            if ( node != null )
+            {
+                weight.addAndGet( -node.weight );
+            }
+        }
+    }
+
+
+    @Override
+    public CacheStats getStats()
+    {
+        return new CacheStats( hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), loadTime.sum(),
+            refreshes.sum(), evictions.sum() );
+    }
+
+
+    /**
+     * @return number of entries, including any that have expired but haven't been removed yet.
+     */
+    int size()
+    {
+        return data.size();
+    }
+
+
+    /**
+     * @return total weight of the entries, 0 if the cache isn't weighed.
+     */
+    long weight()
+    {
+        return weight.get();
+    }
+
+
+    /**
+     * Return the live entry of the key, removing it if it has expired, and mark it read.
+     */
+    private Node<K, V> getNode( K key, long now )
+    {
+        checkKey( key );
+        Node<K, V> node = data.get( key );
+        if ( node != null && isExpired( node, now ) )
+        {
+            remove( node );
+            node = null;
+        }
+        if ( node != null && expireAfterAccess + maxEntries + maxWeight > 0 )
+        {
+            node.accessTime = now;
+        }
+        return node;
+    }
+
+
+    private boolean isExpired( Node<K, V> node, long now )
+    {
+        return ( expireAfterWrite > 0 && now - node.writeTime >= expireAfterWrite )
+            || ( expireAfterAccess > 0 && now - node.accessTime >= expireAfterAccess );
+    }
+
+
+    /**
+     * Load the value of a key, or wait for the load already running.  The thread that starts a load runs it.
+     */
+    private <E extends Exception> V load( final K key, final CacheLoader<? super K, ? extends V, E> loader ) throws E
+    {
+        FutureTask<V> task = loads.get( key );
+        if ( task == null )
+        {
+            FutureTask<V> newTask = new FutureTask<>( new Callable<V>()
+            {
+                @Override
+                public V call() throws Exception
+                {
+                    return loader.load( key );
+                }
+            } );
+            task = loads.putIfAbsent( key, newTask );
+            if ( task == null )
+            {
+                task = newTask;
+                long start = System.nanoTime();
+                task.run();
+                loadTime.add( System.nanoTime() - start );
+                try
+                {
+                    V value = task.get();
+                    loadSuccesses.increment();
+                    if ( value != null )
+                    {
+                        install( key, value, loader, task );
+                    }
+                }
+                catch ( ExecutionException | InterruptedException e )
+                {
+                    loadFailures.increment();
+                }
+                finally
+                {
+                    loads.remove( key, task );
+                }
+            }
+        }
+        return await( task );
+    }
+
+
+    /**
+     * Put a loaded value unless the entry was put, cleared or flushed while it loaded.  Those remove the load before
+     * they change the entry, so checking for the load as the value is put, under the lock of the entry, means either
+     * the value isn't put or it is put before they change the entry.
+     */
+    private void install( K key, V value, CacheLoader<? super K, ? extends V, ?> loader, final FutureTask<V> task )
+    {
+        final Node<K, V> node = newNode( key, value, loader );
+        final long[] delta = new long[1];
+        Node<K, V> current = data.compute( key, new BiFunction<K, Node<K, V>, Node<K, V>>()
+        {
+            @Override
+            public Node<K, V> apply( K k, Node<K, V> prior )
+            {
+                if ( loads.get( k ) != task )
+                {
+                    return prior;
+                }
+                delta[0] = node.weight - ( prior != null ? prior.weight : 0 );
+                return node;
+            }
+        } );
+        if ( current == node )
+        {
+            weight.addAndGet( delta[0] );
+            evict();
+        }
+    }
+
+
+    /**
+     * Wait for a load to finish.  Loads aren't abandoned, an interrupt is restored once it has.
+     */
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> V await( FutureTask<V> task ) throws E
+    {
+        boolean isInterrupted = false;
+        try
+        {
+            while ( true )
+            {
+                try
+                {
+                    return task.get();
+                }
+                catch ( InterruptedException ie )
+                {
+                    isInterrupted = true;
+                }
+            }
+        }
+        catch ( ExecutionException ee )
+        {
+            Throwable cause = ee.getCause();
+            if ( cause instanceof Error )
+            {
+                throw ( Error ) cause;
+            }
+            // the loader only throws E or unchecked exceptions:
+            throw ( E ) cause;
+        }
+        finally
+        {
+            if ( isInterrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Reload the entry in the background, unless a reload of it is already running.
+     */
+    private void refresh( final Node<K, V> node )
+    {
+        if ( !node.refreshing.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        try
+        {
+            refresher.execute( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    reload( node );
+                }
+            } );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            node.refreshing.set( false );
+        }
+    }
+
+
+    private void reload( Node<K, V> node )
+    {
+        long start = System.nanoTime();
+        try
+        {
+            V value = node.loader.load( node.key );
+            loadTime.add( System.nanoTime() - start );
+            loadSuccesses.increment();
+            refreshes.increment();
+            if ( value != null )
+            {
+                Node<K, V> next = newNode( node.key, value, node.loader );
+                // replaced only if the entry hasn't been put, cleared or refreshed in the meantime:
+                if ( data.replace( node.key, node, next ) )
+                {
+                    weight.addAndGet( next.weight - node.weight );
+                    evict();
+                }
+            }
+            else
+            {
+                // nothing to replace it with, keep it until the next interval:
+                node.nextRefresh = System.nanoTime() + refreshAfterWrite;
+                node.refreshing.set( false );
+            }
+        }
+        catch ( Exception e )
+        {
+            loadTime.add( System.nanoTime() - start );
+            loadFailures.increment();
+            LOG.warn( "reload cache [{}] key [{}] caught {}", name, node.key, e.toString() );
+            node.nextRefresh = System.nanoTime() + refreshAfterWrite;
+            node.refreshing.set( false );
+        }
+    }
+
+
+    private void put( K key, V value, CacheLoader<? super K, ? extends V, ?> loader )
+    {
+        checkKey( key );
+        if ( value == null )
+        {
+            clear( key );
+            return;
+        }
+        Node<K, V> node = newNode( key, value, loader );
+        Node<K, V> prior = data.put( key, node );
+        weight.addAndGet( node.weight - ( prior != null ? prior.weight : 0 ) );
+        evict();
+    }
+
+
+    private Node<K, V> newNode( K key, V value, CacheLoader<? super K, ? extends V, ?> loader )
+    {
+        int nodeWeight = 0;
+        if ( weigher != null )
+        {
+            nodeWeight = Math.max( 0, weigher.weigh( key, value ) );
+        }
+        long now = System.nanoTime();
+        return new Node<>( key, value, nodeWeight, now, now + refreshAfterWrite, loader );
+    }
+
+
+    private void remove( Node<K, V> node )
+    {
+        if ( data.remove( node.key, node ) )
+        {
+            weight.addAndGet( -node.weight );
+            evictions.increment();
+        }
+    }
+
+
+    private boolean isOver( long entries, long totalWeight )
+    {
+        return ( entries > 0 && data.size() > entries ) || ( totalWeight > 0 && weight.get() > totalWeight );
+    }
+
+
+    /**
+     * If the cache is over a bound, remove the expired entries and then the least recently read ones until it is a
+     * tenth below.  Does nothing if another thread is already sweeping.
+     */
+    private void evict()
+    {
+        if ( !isOver( maxEntries, maxWeight ) || !evictionLock.tryLock() )
+        {
+            return;
+        }
+        try
+        {
+            long now = System.nanoTime();
+            List<Candidate<K, V>> candidates = new ArrayList<>( data.size() );
+            for ( Map.Entry<K, Node<K, V>> entry : data.entrySet() )
+            {
+                Node<K, V> node = entry.getValue();
+                if ( isExpired( node, now ) )
+                {
+                    remove( node );
+                }
+                else
+                {
+                    candidates.add( new Candidate<>( node ) );
+                }
+            }
+            Collections.sort( candidates );
+            long entries = maxEntries - maxEntries * SWEEP_PERCENT / 100;
+            long totalWeight = maxWeight - maxWeight * SWEEP_PERCENT / 100;
+            for ( Candidate<K, V> candidate : candidates )
+            {
+                if ( !isOver( entries, totalWeight ) )
+                {
+                    break;
+                }
+                remove( candidate.node );
+            }
+            LOG.debug( "evict cache [{}] size [{}] weight [{}]", name, data.size(), weight.get() );
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+
+    private static void checkKey( Object key )
+    {
+        if ( key == null )
+        {
+            throw new CacheException( GlobalErrIds.FT_CACHE_GET_ERR, "null key" );
+        }
+    }
+
+
+    /**
+     * Cached value.
+     */
+    private static final class Node<K, V>
+    {
+        private final K key;
+        private final V value;
+        private final int weight;
+        private final long writeTime;
+        private final CacheLoader<? super K, ? extends V, ?> loader;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long accessTime;
+        private volatile long nextRefresh;
+
+
+        private Node( K key, V value, int weight, long writeTime, long nextRefresh,
+            CacheLoader<? super K, ? extends V, ?> loader )
+        {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+            this.accessTime = writeTime;
+            this.nextRefresh = nextRefresh;
+            this.loader = loader;
+        }
+    }
+
+
+    /**
+     * An entry and the time it was last read, which is fixed so it can be sorted while the entry is being read.
+     */
+    private static final class Candidate<K, V> implements Comparable<Candidate<K, V>>
+    {
+        private final Node<K, V> node;
+        private final long accessTime;
+
+
+        private Candidate( Node<K, V> node )
+        {
+            this.node = node;
+            this.accessTime = node.accessTime;
+        }
+
+
+        @Override
+        public int compareTo( Candidate<K, V> other )
+        {
+            return Long.signum( accessTime - other.accessTime );
+        }
+    }
+}
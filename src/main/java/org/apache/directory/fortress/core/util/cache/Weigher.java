@@ -0,0 +1,41 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.cache;
+
+
+/**
+ * Computes the weight of a cache entry, for caches that are bounded by total weight rather than by number of entries,
+ * see {@link CacheMgr#getCache(String, Weigher)}.
+ *
+ * @param <K> type of key.
+ * @param <V> type of value.
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public interface Weigher<K, V>
+{
+    /**
+     * Return the weight of the entry, which doesn't change while it is cached.
+     *
+     * @param key of the entry.
+     * @param value of the entry.
+     * @return weight, zero or more.
+     */
+    int weigh( K key, V value );
+}
@@ -21,7 +21,6 @@ package org.apache.directory.fortress.core.util.time;
 
 
 import org.apache.directory.fortress.core.GlobalErrIds;
-import org.apache.directory.fortress.core.GlobalIds;
 import org.apache.directory.fortress.core.model.Constraint;
 import org.apache.directory.fortress.core.model.Session;
 import org.apache.directory.fortress.core.util.VUtil;
@@ -60,31 +59,10 @@ public class ClockTime
     public int validate( Session session, Constraint constraint, Time time, VUtil.ConstraintType type )
     {
         int rc = GlobalErrIds.ACTV_FAILED_TIME;
-
-        if ( ( constraint.getBeginTime() == null )
-            || ( constraint.getBeginTime().compareToIgnoreCase( GlobalIds.NONE ) == 0 ) )
+        if ( CompiledConstraint.get( constraint ).isTimeAllowed( time.hhmm ) )
         {
             rc = 0;
         }
-        else
-        {
-            Integer beginTime = Integer.valueOf( constraint.getBeginTime() );
-            Integer endTime = Integer.valueOf( constraint.getEndTime() );
-
-            if ( ( beginTime == 0 ) && ( endTime == 0 ) )
-            {
-                rc = 0;
-            }
-            else
-            {
-                if ( beginTime.compareTo( time.currentTime ) <= 0
-                    && endTime.compareTo( time.currentTime ) >= 0 )
-                {
-                    rc = 0;
-                }
-            }
-        }
-
         return rc;
     }
 }
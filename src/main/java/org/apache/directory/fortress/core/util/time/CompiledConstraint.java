@@ -0,0 +1,296 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.time;
+
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.model.Constraint;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The temporal attributes of a {@link Constraint} parsed into numbers, so the {@link Validator}s compare ints with the
+ * fields of {@link Time} rather than parsing and comparing strings on every check.  Dates are held as YYYYMMDD, times
+ * of day as HHMM and the day mask as a bit per day of week, with {@link #NONE} where the attribute isn't set.  A value
+ * that can't be parsed compiles to {@link #INVALID}, which fails the check it belongs to: the time and date are not
+ * allowed and the entity is locked.  Characters other than 1 through 7 in the day mask allow no day.
+ * <p>
+ * The compiled form of a {@link User} or {@link UserRole} is kept on the entity by {@link #get(Constraint)} and is
+ * compiled again if any of its attributes are set to a different value.
+ * <p>
+ * This class is immutable and thread safe.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public final class CompiledConstraint
+{
+    private static final String CLS_NM = CompiledConstraint.class.getName();
+    private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
+
+    /**
+     * Value of a date or time attribute that isn't set or is 'none'.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Value of a date or time attribute that is set but malformed, denies access.
+     */
+    public static final int INVALID = -2;
+
+    /**
+     * Day mask that allows every day, bits 1 through 7 for Sun through Sat.
+     */
+    public static final int ALL_DAYS = 0xFE;
+
+    private final int timeout;
+    private final int beginTime;
+    private final int endTime;
+    private final int beginDate;
+    private final int endDate;
+    private final int beginLockDate;
+    private final int endLockDate;
+    private final int dayMask;
+
+    // the attributes this was compiled from, compared by reference to tell if the entity has changed:
+    private final Integer srcTimeout;
+    private final String srcBeginTime;
+    private final String srcEndTime;
+    private final String srcBeginDate;
+    private final String srcEndDate;
+    private final String srcBeginLockDate;
+    private final String srcEndLockDate;
+    private final String srcDayMask;
+
+
+    private CompiledConstraint( Constraint constraint )
+    {
+        srcTimeout = constraint.getTimeout();
+        srcBeginTime = constraint.getBeginTime();
+        srcEndTime = constraint.getEndTime();
+        srcBeginDate = constraint.getBeginDate();
+        srcEndDate = constraint.getEndDate();
+        srcBeginLockDate = constraint.getBeginLockDate();
+        srcEndLockDate = constraint.getEndLockDate();
+        srcDayMask = constraint.getDayMask();
+
+        timeout = srcTimeout != null ? srcTimeout : 0;
+        int begin = parse( srcBeginTime );
+        int end = parse( srcEndTime );
+        if ( begin == INVALID || end == INVALID )
+        {
+            begin = INVALID;
+            end = INVALID;
+        }
+        // 0000 to 0000 means no time of day constraint:
+        else if ( begin == NONE || ( begin == 0 && end == 0 ) )
+        {
+            begin = NONE;
+            end = NONE;
+        }
+        beginTime = begin;
+        endTime = end;
+        beginDate = parse( srcBeginDate );
+        endDate = parse( srcEndDate );
+        int beginLock = parse( srcBeginLockDate );
+        int endLock = parse( srcEndLockDate );
+        if ( beginLock == INVALID || endLock == INVALID )
+        {
+            beginLock = INVALID;
+            endLock = INVALID;
+        }
+        // a lock needs both ends:
+        else if ( beginLock == NONE || endLock == NONE )
+        {
+            beginLock = NONE;
+            endLock = NONE;
+        }
+        beginLockDate = beginLock;
+        endLockDate = endLock;
+        dayMask = parseDayMask( srcDayMask );
+    }
+
+
+    /**
+     * Compile the temporal attributes of the constraint.
+     *
+     * @param constraint contains timeout, begin and end time, date and lock date and day mask.
+     * @return new compiled constraint.
+     */
+    public static CompiledConstraint compile( Constraint constraint )
+    {
+        return new CompiledConstraint( constraint );
+    }
+
+
+    /**
+     * Return the compiled form of the constraint.  For a {@link User} or {@link UserRole} the compiled form is kept on
+     * the entity and reused until one of its attributes changes, others are compiled on every call.
+     *
+     * @param constraint contains timeout, begin and end time, date and lock date and day mask.
+     * @return compiled constraint.
+     */
+    public static CompiledConstraint get( Constraint constraint )
+    {
+        CompiledConstraint compiled;
+        if ( constraint instanceof UserRole )
+        {
+            UserRole role = ( UserRole ) constraint;
+            compiled = role.getCompiledConstraint();
+            if ( compiled == null || !compiled.isCompiledFrom( role ) )
+            {
+                compiled = compile( role );
+                role.setCompiledConstraint( compiled );
+            }
+        }
+        else if ( constraint instanceof User )
+        {
+            User user = ( User ) constraint;
+            compiled = user.getCompiledConstraint();
+            if ( compiled == null || !compiled.isCompiledFrom( user ) )
+            {
+                compiled = compile( user );
+                user.setCompiledConstraint( compiled );
+            }
+        }
+        else
+        {
+            compiled = compile( constraint );
+        }
+        return compiled;
+    }
+
+
+    /**
+     * The string attributes are compared by reference, which is enough to tell whether a setter has been called with a
+     * new value and costs nothing.  The timeout may be boxed on every get so it's compared by value.
+     *
+     * @param constraint to compare.
+     * @return true if the constraint's attributes are the ones this was compiled from.
+     */
+    boolean isCompiledFrom( Constraint constraint )
+    {
+        Integer timeout = constraint.getTimeout();
+        return ( srcTimeout == null ? timeout == null : srcTimeout.equals( timeout ) )
+            && srcBeginTime == constraint.getBeginTime()
+            && srcEndTime == constraint.getEndTime()
+            && srcBeginDate == constraint.getBeginDate()
+            && srcEndDate == constraint.getEndDate()
+            && srcBeginLockDate == constraint.getBeginLockDate()
+            && srcEndLockDate == constraint.getEndLockDate()
+            && srcDayMask == constraint.getDayMask();
+    }
+
+
+    private static int parse( String value )
+    {
+        int result = NONE;
+        if ( value != null && value.length() > 0 && !value.equalsIgnoreCase( GlobalIds.NONE ) )
+        {
+            try
+            {
+                result = Integer.parseInt( value.trim() );
+            }
+            catch ( NumberFormatException e )
+            {
+                result = INVALID;
+            }
+            if ( result < 0 )
+            {
+                LOG.warn( "parse invalid value [{}] denies access", value );
+                result = INVALID;
+            }
+        }
+        return result;
+    }
+
+
+    private static int parseDayMask( String value )
+    {
+        int result = ALL_DAYS;
+        if ( value != null && !value.equalsIgnoreCase( GlobalIds.ALL ) )
+        {
+            result = 0;
+            for ( int i = 0; i < value.length(); i++ )
+            {
+                char c = value.charAt( i );
+                if ( c >= '1' && c <= '7' )
+                {
+                    result |= 1 << ( c - '0' );
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * @return max minutes the entity may remain inactive, zero for no limit.
+     */
+    public int getTimeout()
+    {
+        return timeout;
+    }
+
+
+    /**
+     * @param hhmm current time of day.
+     * @return true if there is no time of day constraint or the time falls within it, false if either time is invalid.
+     */
+    public boolean isTimeAllowed( int hhmm )
+    {
+        return beginTime == NONE || ( beginTime != INVALID && beginTime <= hhmm && hhmm <= endTime );
+    }
+
+
+    /**
+     * @param yyyymmdd current date.
+     * @return true if the date is not before the begin date and not after the end date, where set, false if either
+     * date is invalid.
+     */
+    public boolean isDateAllowed( int yyyymmdd )
+    {
+        return beginDate != INVALID && endDate != INVALID && ( beginDate == NONE || beginDate <= yyyymmdd )
+            && ( endDate == NONE || yyyymmdd <= endDate );
+    }
+
+
+    /**
+     * @param yyyymmdd current date.
+     * @return true if the date falls within the lock dates or either lock date is invalid.
+     */
+    public boolean isLocked( int yyyymmdd )
+    {
+        return beginLockDate == INVALID
+            || ( beginLockDate != NONE && beginLockDate <= yyyymmdd && yyyymmdd <= endLockDate );
+    }
+
+
+    /**
+     * @param dayOfWeek 1 through 7 for Sun through Sat.
+     * @return true if the day mask allows the day.
+     */
+    public boolean isDayAllowed( int dayOfWeek )
+    {
+        return ( dayMask & ( 1 << dayOfWeek ) ) != 0;
+    }
+}
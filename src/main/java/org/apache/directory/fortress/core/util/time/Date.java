@@ -20,7 +20,6 @@
 package org.apache.directory.fortress.core.util.time;
 
 import org.apache.directory.fortress.core.GlobalErrIds;
-import org.apache.directory.fortress.core.GlobalIds;
 import org.apache.directory.fortress.core.model.Constraint;
 import org.apache.directory.fortress.core.model.Session;
 import org.apache.directory.fortress.core.util.VUtil;
@@ -62,42 +61,10 @@ public class Date
     public int validate(Session session, Constraint constraint, Time time, VUtil.ConstraintType type )
     {
         int rc = GlobalErrIds.ACTV_FAILED_DATE;
-        boolean noBegin = false;
-        boolean noEnd = false;
-        if (constraint.getBeginDate() == null || constraint.getBeginDate().compareToIgnoreCase(GlobalIds.NONE) == 0)
-        {
-            noBegin = true;
-        }
-        if (constraint.getEndDate() == null || constraint.getEndDate().compareToIgnoreCase(GlobalIds.NONE) == 0)
-        {
-            noEnd = true;
-        }
-        if(noBegin && noEnd)
+        if ( CompiledConstraint.get( constraint ).isDateAllowed( time.yyyymmdd ) )
         {
             rc = 0;
         }
-        else if(noBegin)
-        {
-            if (constraint.getEndDate().compareTo(time.date) >= 0)
-            {
-                rc = 0;
-            }
-        }
-        else if(noEnd)
-        {
-            if (constraint.getBeginDate().compareTo(time.date) <= 0)
-            {
-                rc = 0;
-            }
-        }
-        else
-        {
-            if (constraint.getBeginDate().compareTo(time.date) <= 0
-                && constraint.getEndDate().compareTo(time.date) >= 0)
-            {
-                rc = 0;
-            }
-        }
         return rc;
     }
 }
@@ -23,7 +23,9 @@ package org.apache.directory.fortress.core.util.time;
 import org.apache.directory.api.util.DateUtils;
 
 import java.text.ParseException;
-import java.util.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
 
 
 /**
@@ -34,6 +36,10 @@ import java.util.*;
  */
 public final class TUtil
 {
+    private static final long MILLIS_PER_MINUTE = 60000L;
+    private static final Clock CLOCK = Clock.systemDefaultZone();
+    private static volatile Time currentTime;
+
     /**
      * Private constructor
      *
@@ -43,47 +49,36 @@ public final class TUtil
     }
 
     /**
-     * Get the curent timestamp from Java and convert to {@link Time} format.
+     * Get the curent timestamp from Java and convert to {@link Time} format.  The time is computed once a minute, callers
+     * within the same minute share the instance, which must not be modified.
      *
      * @return Time
      */
     public static Time getCurrentTime()
     {
-        Time time = new Time();
-        GregorianCalendar gc = new GregorianCalendar();
-        String szMinute = "" + gc.get( GregorianCalendar.MINUTE );
-        String szHour = "" + gc.get( GregorianCalendar.HOUR_OF_DAY );
-
-        time.day = "" + gc.get( GregorianCalendar.DAY_OF_WEEK );
-        String szDay = "" + gc.get( GregorianCalendar.DAY_OF_MONTH );
-        int month = gc.get( GregorianCalendar.MONTH );
-        String szMonth = "" + ( month + 1 );
-        String szYear = "" + gc.get( GregorianCalendar.YEAR );
-
-        if ( szMinute.length() == 1 )
+        long epochMinute = CLOCK.millis() / MILLIS_PER_MINUTE;
+        Time time = currentTime;
+        if ( time == null || time.epochMinute != epochMinute )
         {
-            szMinute = "0" + szMinute;
-        }
-
-        if ( szHour.length() == 1 )
-        {
-            szHour = "0" + szHour;
-        }
-
-        if ( szDay.length() == 1 )
-        {
-            szDay = "0" + szDay;
-        }
-
-        if ( szMonth.length() == 1 )
-        {
-            szMonth = "0" + szMonth;
+            time = newTime( epochMinute );
+            currentTime = time;
         }
+        return time;
+    }
 
-        String szCurrentTime = szHour + szMinute;
 
-        time.currentTime = Integer.valueOf( szCurrentTime );
-        time.date = szYear + szMonth + szDay;
+    private static Time newTime( long epochMinute )
+    {
+        ZonedDateTime now = Instant.ofEpochMilli( epochMinute * MILLIS_PER_MINUTE ).atZone( CLOCK.getZone() );
+        Time time = new Time();
+        time.epochMinute = epochMinute;
+        time.hhmm = now.getHour() * 100 + now.getMinute();
+        // java.time numbers Mon through Sun as 1 through 7, fortress uses 1 through 7 for Sun through Sat:
+        time.dayOfWeek = now.getDayOfWeek().getValue() % 7 + 1;
+        time.yyyymmdd = now.getYear() * 10000 + now.getMonthValue() * 100 + now.getDayOfMonth();
+        time.currentTime = time.hhmm;
+        time.day = String.valueOf( time.dayOfWeek );
+        time.date = String.valueOf( time.yyyymmdd );
         return time;
     }
 
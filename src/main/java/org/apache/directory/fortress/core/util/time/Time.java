@@ -21,6 +21,9 @@ package org.apache.directory.fortress.core.util.time;
 
 /**
  * Class contains a custom timestamp that is processed by {@link Validator} to check {@link org.apache.directory.fortress.core.model.Constraint}.
+ * <p>
+ * The instance returned by {@link TUtil#getCurrentTime()} is shared by every caller within the same minute and must not
+ * be modified.
  *
  * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
  */
@@ -40,5 +43,23 @@ public class Time
      * Stored in 'YYYYMMDD' format.  i.e. '20110101' is January 1, 2011.
      */
     public String date;
+
+    /**
+     * Same as {@link #currentTime}, hours and minutes as HHMM.  i.e. 1330 is 1:30 PM.
+     */
+    public int hhmm;
+
+    /**
+     * Same as {@link #day}, 1 through 7 for Sun through Sat.
+     */
+    public int dayOfWeek;
+
+    /**
+     * Same as {@link #date}, as a number.  i.e. 20110101 is January 1, 2011.
+     */
+    public int yyyymmdd;
+
+    // minutes since the epoch this time was computed for:
+    long epochMinute;
 }
 
@@ -64,10 +64,11 @@ public class Timeout implements Validator
         }
         else
         {
+            int timeout = CompiledConstraint.get( constraint ).getTimeout();
             long elapsedTime = System.currentTimeMillis() - lastTime;
-            timeLimit = constraint.getTimeout() * 60000L;
+            timeLimit = timeout * 60000L;
 
-            if ( ( elapsedTime < timeLimit ) || ( constraint.getTimeout() == 0 ) )
+            if ( ( elapsedTime < timeLimit ) || ( timeout == 0 ) )
             {
                 rc = 0;
             }
@@ -0,0 +1,122 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tools.ant.BuildException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BulkLoaderTest
+{
+    private static List<Integer> newEntities( int count )
+    {
+        List<Integer> entities = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            entities.add( i );
+        }
+        return entities;
+    }
+
+
+    @Test
+    public void testSerial()
+    {
+        BulkLoader loader = new BulkLoader( 1, 10 );
+        final List<Integer> loaded = new ArrayList<>();
+        loader.run( "serial", newEntities( 100 ), new BulkLoader.Work<Integer>()
+        {
+            @Override
+            public void load( Integer entity )
+            {
+                loaded.add( entity );
+            }
+        } );
+        // one worker keeps the order of the xml:
+        assertEquals( newEntities( 100 ), loaded );
+        loader.shutdown();
+    }
+
+
+    @Test
+    public void testParallel()
+    {
+        BulkLoader loader = new BulkLoader( 4, 100 );
+        final Set<Integer> loaded = Collections.newSetFromMap( new ConcurrentHashMap<Integer, Boolean>() );
+        final Set<String> threads = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+        for ( int stage = 0; stage < 2; stage++ )
+        {
+            loaded.clear();
+            loader.run( "parallel", newEntities( 1000 ), new BulkLoader.Work<Integer>()
+            {
+                @Override
+                public void load( Integer entity )
+                {
+                    assertTrue( loaded.add( entity ) );
+                    threads.add( Thread.currentThread().getName() );
+                }
+            } );
+            // the stage is complete when run returns:
+            assertEquals( 1000, loaded.size() );
+        }
+        for ( String thread : threads )
+        {
+            assertTrue( thread.startsWith( "fortress-load-" ) );
+        }
+        loader.shutdown();
+    }
+
+
+    @Test
+    public void testFailure()
+    {
+        BulkLoader loader = new BulkLoader( 4, 100 );
+        final Set<Integer> loaded = Collections.newSetFromMap( new ConcurrentHashMap<Integer, Boolean>() );
+        try
+        {
+            loader.run( "failure", newEntities( 100 ), new BulkLoader.Work<Integer>()
+            {
+                @Override
+                public void load( Integer entity )
+                {
+                    if ( entity == 50 )
+                    {
+                        throw new IllegalStateException( "bad entity" );
+                    }
+                    loaded.add( entity );
+                }
+            } );
+            fail( "expected BuildException" );
+        }
+        catch ( BuildException be )
+        {
+            assertTrue( be.getCause() instanceof IllegalStateException );
+        }
+        assertFalse( loaded.contains( 50 ) );
+        loader.shutdown();
+    }
+}
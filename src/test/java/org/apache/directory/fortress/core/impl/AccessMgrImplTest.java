@@ -809,6 +809,75 @@ public class AccessMgrImplTest extends TestCase
     }
 
 
+    /**
+     *
+     */
+    public void testCheckAccessList()
+    {
+        // public List<Boolean> checkAccess(Session session, List<Permission> perms)
+        checkAccessList( "CHCK-ACS-LST TU1_UPD TO1 TOP1 ", UserTestData.USERS_TU1_UPD, PermTestData.OBJS_TOB1,
+            PermTestData.OPS_TOP1, PermTestData.OBJS_TOB3, PermTestData.OPS_TOP3 );
+        checkAccessList( "CHCK-ACS-LST TU3 TO3 TOP1 ", UserTestData.USERS_TU3, PermTestData.OBJS_TOB3,
+            PermTestData.OPS_TOP3, PermTestData.OBJS_TOB2, PermTestData.OPS_TOP2 );
+    }
+
+
+    /**
+     * Call the list form of checkAccess with the good and bad permissions interleaved and verify the decisions
+     * match, in order, the ones returned by the single form.
+     */
+    public static void checkAccessList( String msg, String[][] uArray, String[][] oArray, String[][] opArray,
+        String[][] oArrayBad, String[][] opArrayBad )
+    {
+        LogUtil.logIt( msg );
+        try
+        {
+            AccessMgr accessMgr = AccessMgrFactory.createInstance( TestUtils.getContext() );
+            for ( String[] usr : uArray )
+            {
+                User user = UserTestData.getUser( usr );
+                Session session = accessMgr.createSession( user, false );
+                assertNotNull( session );
+                List<Permission> perms = new ArrayList<>();
+                int i = 0;
+                for ( String[] obj : oArray )
+                {
+                    int j = 0;
+                    for ( String[] op : opArray )
+                    {
+                        perms.add( new Permission( PermTestData.getName( obj ), PermTestData.getName( op ),
+                            PermTestData.getObjId( opArray[j] ) ) );
+                        perms.add( new Permission( PermTestData.getName( oArrayBad[i] ),
+                            PermTestData.getName( opArrayBad[j] ), PermTestData.getObjId( opArrayBad[j] ) ) );
+                        j++;
+                    }
+                    i++;
+                }
+                // a permission that doesn't exist is not authorized:
+                perms.add( new Permission( "CHCK-ACS-LST-BOGUS", "BOGUS" ) );
+
+                List<Boolean> results = accessMgr.checkAccess( session, perms );
+                assertEquals( CLS_NM + ".checkAccessList userId [" + user.getUserId() + "] result size",
+                    perms.size(), results.size() );
+                for ( int k = 0; k < results.size(); k++ )
+                {
+                    boolean expected = k < perms.size() - 1 && k % 2 == 0;
+                    assertEquals( CLS_NM + ".checkAccessList failed userId [" + user.getUserId() + "] Perm objName ["
+                        + perms.get( k ).getObjName() + "] operationName [" + perms.get( k ).getOpName() + "]",
+                        expected, results.get( k ).booleanValue() );
+                }
+            }
+            LOG.debug( "checkAccessList successful" );
+        }
+        catch ( SecurityException ex )
+        {
+            LOG.error( "checkAccessList: failed with SecurityException rc=" + ex.getErrorId() + ", " +
+                "msg=" + ex.getMessage(), ex );
+            fail( ex.getMessage() );
+        }
+    }
+
+
     /**
      *
      */
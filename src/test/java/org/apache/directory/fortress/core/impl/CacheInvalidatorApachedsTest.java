@@ -0,0 +1,127 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+
+import org.apache.directory.fortress.core.AdminMgr;
+import org.apache.directory.fortress.core.AdminMgrFactory;
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.model.Role;
+import org.apache.directory.fortress.core.util.Config;
+import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.apache.directory.server.annotations.CreateLdapServer;
+import org.apache.directory.server.annotations.CreateTransport;
+import org.apache.directory.server.core.annotations.ApplyLdifFiles;
+import org.apache.directory.server.core.annotations.CreateDS;
+import org.apache.directory.server.core.annotations.CreatePartition;
+import org.apache.directory.server.core.integ.AbstractLdapTestUnit;
+import org.apache.directory.server.core.integ.FrameworkRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * The cache change listener, in psearch mode, against an embedded ApacheDS.
+ */
+@RunWith(FrameworkRunner.class)
+@CreateDS(name = "classDS", partitions =
+    { @CreatePartition(name = "example", suffix = "dc=example,dc=com") })
+@CreateLdapServer(
+    transports =
+        {
+            @CreateTransport(protocol = "LDAP", port = 10389)
+    })
+@ApplyLdifFiles(
+    { "fortress-schema.ldif", "init-ldap.ldif" })
+public class CacheInvalidatorApachedsTest extends AbstractLdapTestUnit
+{
+    private static final String ROLE_NAME = "ciRole1";
+    private static final long WAIT_MILLIS = 10000;
+    private static boolean isLoaded = false;
+
+
+    @Before
+    public void init() throws SecurityException
+    {
+        Config.getInstance().setProperty( GlobalIds.ENABLE_CACHE_CHANGE_LISTENER, "true" );
+        CacheInvalidator.start();
+        if ( !isLoaded )
+        {
+            AdminMgr adminMgr = AdminMgrFactory.createInstance( TestUtils.getContext() );
+            adminMgr.addRole( new Role( ROLE_NAME ) );
+            isLoaded = true;
+        }
+    }
+
+
+    @After
+    public void stop()
+    {
+        CacheInvalidator.shutdown();
+        Config.getInstance().setProperty( GlobalIds.ENABLE_CACHE_CHANGE_LISTENER, "false" );
+    }
+
+
+    @Test
+    public void testRoleChange() throws Exception
+    {
+        String contextId = TestUtils.getContext();
+        String key = HierUtil.Type.ROLE.toString() + ":" + contextId;
+        Cache<Object, Object> roleCache = CacheMgr.getInstance().getCache( "fortress.roles" );
+        AdminMgr adminMgr = AdminMgrFactory.createInstance( contextId );
+        // the listener's search is sent in the background, change the role until a change is seen:
+        long until = System.currentTimeMillis() + WAIT_MILLIS;
+        int i = 0;
+        while ( System.currentTimeMillis() < until )
+        {
+            RoleUtil.getInstance().getDescendants( ROLE_NAME, contextId );
+            assertNotNull( roleCache.get( key ) );
+
+            Role role = new Role( ROLE_NAME );
+            role.setDescription( "changed " + i++ );
+            adminMgr.updateRole( role );
+            if ( waitForClear( roleCache, key ) )
+            {
+                return;
+            }
+        }
+        fail( "role cache entry [" + key + "] not dropped after a change to role [" + ROLE_NAME + "]" );
+    }
+
+
+    private static boolean waitForClear( Cache<Object, Object> cache, String key ) throws InterruptedException
+    {
+        for ( int i = 0; i < 20; i++ )
+        {
+            if ( cache.get( key ) == null )
+            {
+                return true;
+            }
+            Thread.sleep( 100 );
+        }
+        return false;
+    }
+}
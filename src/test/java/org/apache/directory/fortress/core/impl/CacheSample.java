@@ -33,8 +33,8 @@ import org.apache.directory.fortress.core.model.SDSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.apache.directory.fortress.core.util.cache.Cache;
 import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.apache.directory.fortress.core.util.cache.EhCacheImpl;
 
 
 /**
@@ -49,13 +49,14 @@ public class CacheSample
     private static final String CLS_NM = CacheSample.class.getName();
     private static final Logger LOG = LoggerFactory.getLogger( CLS_NM );
     private static final SdP sdP = new SdP();
-    private Cache cache;
+    private EhCacheImpl<String, DsdCacheEntry> cache;
 
 
     private void initializeCache()
     {
+        // Search requires fortress config param 'cache.provider=ehcache' and a searchable cache in ehcache.xml:
         CacheMgr cacheManager = CacheMgr.getInstance();
-        cache = cacheManager.getCache( "fortress.dsd" );
+        cache = ( EhCacheImpl<String, DsdCacheEntry> ) cacheManager.<String, DsdCacheEntry>getCache( "fortress.dsd" );
     }
 
 
@@ -0,0 +1,101 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ChangeRouterTest
+{
+    private static final String SUFFIX = "dc=example,dc=com";
+
+
+    private static ChangeRouter newRouter()
+    {
+        Map<String, ChangeRouter.Target> roots = new LinkedHashMap<>();
+        roots.put( "ou=Roles, ou=RBAC,dc=example,dc=com", ChangeRouter.Target.ROLE );
+        roots.put( "ou=AdminRoles,ou=ARBAC,dc=example,dc=com", ChangeRouter.Target.ADMIN_ROLE );
+        roots.put( "ou=Permissions,ou=RBAC,dc=example,dc=com", ChangeRouter.Target.PERM );
+        roots.put( "ou=Constraints,ou=RBAC,dc=example,dc=com", ChangeRouter.Target.SD );
+        // outside of the suffix:
+        roots.put( "ou=passwordPolicies,ou=config", ChangeRouter.Target.POLICY );
+        return new ChangeRouter( SUFFIX, roots );
+    }
+
+
+    @Test
+    public void testRoute()
+    {
+        ChangeRouter router = newRouter();
+
+        ChangeRouter.Change change = router.route( "cn=Teller,ou=Roles,ou=RBAC,DC=Example,dc=com" );
+        assertEquals( ChangeRouter.Target.ROLE, change.getTarget() );
+        assertEquals( GlobalIds.HOME, change.getContextId() );
+        assertEquals( 1, change.getRdns().size() );
+
+        change = router.route( "cn=Teller,ou=roles,ou=rbac,ou=Acme,dc=example,dc=com" );
+        assertEquals( ChangeRouter.Target.ROLE, change.getTarget() );
+        assertEquals( "Acme", change.getContextId() );
+
+        // the container itself:
+        change = router.route( "ou=AdminRoles,ou=ARBAC,dc=example,dc=com" );
+        assertEquals( ChangeRouter.Target.ADMIN_ROLE, change.getTarget() );
+        assertTrue( change.getRdns().isEmpty() );
+
+        assertNull( router.route( "uid=jdoe,ou=People,dc=example,dc=com" ) );
+        assertNull( router.route( "ou=RBAC,dc=example,dc=com" ) );
+        assertNull( router.route( "cn=Teller,ou=Roles,ou=RBAC,dc=example,dc=org" ) );
+        assertNull( router.route( "cn=default,ou=passwordPolicies,ou=config" ) );
+        assertNull( router.route( "" ) );
+    }
+
+
+    @Test
+    public void testPermValues()
+    {
+        ChangeRouter router = newRouter();
+
+        ChangeRouter.Change change = router.route(
+            "ftOpNm=read+ftObjId=42,ftObjNm=com\\,acme.Account,ou=Permissions,ou=RBAC,ou=t1,dc=example,dc=com" );
+        assertEquals( ChangeRouter.Target.PERM, change.getTarget() );
+        assertEquals( "t1", change.getContextId() );
+        assertEquals( "read", change.getValue( GlobalIds.POP_NAME ) );
+        assertEquals( "42", change.getValue( "FTOBJID" ) );
+        assertEquals( "com,acme.Account", change.getValue( GlobalIds.POBJ_NAME ) );
+
+        change = router.route( "ftObjNm=Account,ou=Permissions,ou=RBAC,dc=example,dc=com" );
+        assertEquals( "Account", change.getValue( GlobalIds.POBJ_NAME ) );
+        assertNull( change.getValue( GlobalIds.POP_NAME ) );
+    }
+
+
+    @Test
+    public void testSplit()
+    {
+        assertEquals( 3, ChangeRouter.split( "cn=a\\,b , ou=x,dc=y" ).size() );
+        assertEquals( "cn=a\\,b", ChangeRouter.split( "cn=a\\,b , ou=x,dc=y" ).get( 0 ) );
+        assertTrue( ChangeRouter.split( " " ).isEmpty() );
+    }
+}
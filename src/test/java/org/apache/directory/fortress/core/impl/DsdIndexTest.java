@@ -0,0 +1,84 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.apache.directory.fortress.core.GlobalIds;
+import org.apache.directory.fortress.core.model.SDSet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DsdIndexTest
+{
+    private static SDSet newDsd( String name, String... members )
+    {
+        SDSet dsd = new SDSet();
+        dsd.setName( name );
+        dsd.setType( SDSet.SDType.DYNAMIC );
+        for ( String member : members )
+        {
+            dsd.addMember( member );
+        }
+        return dsd;
+    }
+
+
+    @Test
+    public void testBuild()
+    {
+        DsdIndex index = DsdIndex.build( Arrays.asList( newDsd( "D1", "A", "B" ), newDsd( "D2", "b", "C" ),
+            newDsd( "D3", GlobalIds.NONE ) ) );
+
+        assertEquals( 3, index.size() );
+        assertEquals( 1, index.getDsdSets( "a" ).size() );
+        assertEquals( 2, index.getDsdSets( "B" ).size() );
+        assertTrue( index.getDsdSets( "X" ).isEmpty() );
+        assertTrue( index.getDsdSets( GlobalIds.NONE ).isEmpty() );
+
+        Set<SDSet> dsds = index.getDsdSets( Arrays.asList( "A", "C", "X" ) );
+        assertEquals( 2, dsds.size() );
+        assertTrue( DsdIndex.build( null ).getDsdSets( "A" ).isEmpty() );
+    }
+
+
+    @Test
+    public void testPutRemove()
+    {
+        DsdIndex index = DsdIndex.build( Arrays.asList( newDsd( "D1", "A", "B" ) ) );
+
+        DsdIndex next = index.put( newDsd( "d1", "B", "C" ) );
+        assertEquals( 1, next.size() );
+        assertTrue( next.getDsdSets( "A" ).isEmpty() );
+        assertEquals( 1, next.getDsdSets( "C" ).size() );
+        // prior version is unchanged:
+        assertEquals( 1, index.getDsdSets( "A" ).size() );
+
+        next = next.put( newDsd( "D2", "C" ) );
+        assertEquals( 2, next.getDsdSets( "C" ).size() );
+
+        next = next.remove( "D1" );
+        assertEquals( 1, next.size() );
+        assertTrue( next.getDsdSets( "B" ).isEmpty() );
+        assertSame( next, next.remove( "unknown" ) );
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import java.util.Set;
+
+import org.apache.directory.fortress.core.model.Hier;
+import org.apache.directory.fortress.core.model.Relationship;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HierIndexTest
+{
+    private static SimpleDirectedGraph<String, Relationship> newGraph( String[][] edges )
+    {
+        SimpleDirectedGraph<String, Relationship> graph = new SimpleDirectedGraph<>( Relationship.class );
+        for ( String[] edge : edges )
+        {
+            addEdge( graph, edge[0], edge[1] );
+        }
+        return graph;
+    }
+
+
+    private static void addEdge( SimpleDirectedGraph<String, Relationship> graph, String child, String parent )
+    {
+        graph.addVertex( child );
+        graph.addVertex( parent );
+        graph.addEdge( child, parent, new Relationship( child, parent ) );
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static SimpleDirectedGraph<String, Relationship> copy( SimpleDirectedGraph<String, Relationship> graph )
+    {
+        return ( SimpleDirectedGraph<String, Relationship> ) graph.clone();
+    }
+
+
+    @Test
+    public void testBuild()
+    {
+        // D -> B -> A, D -> C -> A
+        HierIndex index = HierIndex.build( newGraph( new String[][]
+            { { "B", "A" }, { "C", "A" }, { "D", "B" }, { "D", "C" } } ) );
+
+        assertEquals( 4, index.size() );
+        assertTrue( index.isAscendant( "d", "a" ) );
+        assertTrue( index.isAscendant( "D", "B" ) );
+        assertFalse( index.isAscendant( "B", "C" ) );
+        assertFalse( index.isAscendant( "A", "D" ) );
+        assertFalse( index.isAscendant( "X", "A" ) );
+
+        Set<String> ascendants = index.getAscendants( "D" );
+        assertEquals( 3, ascendants.size() );
+        assertTrue( ascendants.contains( "a" ) );
+        assertEquals( 3, index.getDescendants( "A" ).size() );
+        assertTrue( index.getDescendants( "D" ).isEmpty() );
+        assertTrue( index.getAscendants( "unknown" ).isEmpty() );
+    }
+
+
+    @Test
+    public void testAddEdge()
+    {
+        SimpleDirectedGraph<String, Relationship> graph = newGraph( new String[][]
+            { { "B", "A" }, { "D", "C" } } );
+        HierIndex index = HierIndex.build( graph );
+
+        graph = copy( graph );
+        addEdge( graph, "C", "B" );
+        HierIndex next = index.addEdge( graph, "C", "B" );
+        assertTrue( next.getVersion() > index.getVersion() );
+        assertTrue( next.isAscendant( "D", "A" ) );
+        assertTrue( next.getDescendants( "A" ).contains( "D" ) );
+        assertSame( graph, next.getGraph() );
+        // prior version is unchanged:
+        assertFalse( index.isAscendant( "D", "A" ) );
+        assertFalse( index.getGraph().containsEdge( "C", "B" ) );
+
+        graph = copy( graph );
+        addEdge( graph, "E", "D" );
+        next = next.addEdge( graph, "E", "D" );
+        assertEquals( 5, next.size() );
+        assertEquals( 4, next.getAscendants( "E" ).size() );
+    }
+
+
+    @Test
+    public void testRemoveEdge()
+    {
+        // D -> B -> A, D -> C -> A
+        SimpleDirectedGraph<String, Relationship> graph = newGraph( new String[][]
+            { { "B", "A" }, { "C", "A" }, { "D", "B" }, { "D", "C" } } );
+        HierIndex index = HierIndex.build( graph );
+
+        graph = copy( graph );
+        graph.removeEdge( "D", "B" );
+        HierIndex next = index.removeEdge( graph, "D", "B" );
+        assertFalse( next.isAscendant( "D", "B" ) );
+        // still inherits A through C:
+        assertTrue( next.isAscendant( "D", "A" ) );
+        assertFalse( next.getDescendants( "B" ).contains( "D" ) );
+        assertTrue( next.getDescendants( "A" ).contains( "D" ) );
+
+        graph = copy( graph );
+        graph.removeEdge( "D", "C" );
+        next = next.removeEdge( graph, "D", "C" );
+        assertTrue( next.getAscendants( "D" ).isEmpty() );
+        assertEquals( 2, next.getDescendants( "A" ).size() );
+        assertTrue( index.isAscendant( "D", "B" ) );
+        assertTrue( index.getGraph().containsEdge( "D", "B" ) );
+    }
+
+
+    @Test
+    public void testUpdateHier() throws Exception
+    {
+        HierIndex index = HierIndex.build( newGraph( new String[][]
+            { { "B", "A" } } ) );
+
+        HierIndex next = HierUtil.updateHier( index, new Relationship( "C", "B" ), Hier.Op.ADD );
+        assertTrue( next.isAscendant( "C", "A" ) );
+        assertEquals( 1, HierUtil.getParents( "C", next.getGraph() ).size() );
+        // readers of the prior version see neither the edge nor the vertex:
+        assertNotSame( index.getGraph(), next.getGraph() );
+        assertFalse( index.getGraph().containsVertex( "C" ) );
+
+        HierIndex last = HierUtil.updateHier( next, new Relationship( "B", "A" ), Hier.Op.REM );
+        assertFalse( last.isAscendant( "C", "A" ) );
+        assertTrue( next.getGraph().containsEdge( "B", "A" ) );
+    }
+}
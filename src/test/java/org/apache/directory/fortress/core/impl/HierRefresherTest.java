@@ -0,0 +1,265 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.model.Relationship;
+import org.apache.directory.fortress.core.util.cache.Cache;
+import org.apache.directory.fortress.core.util.cache.CacheLoader;
+import org.apache.directory.fortress.core.util.cache.CacheStats;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HierRefresherTest
+{
+    private static final String KEY = "ROLE:refresh";
+
+    private final MapCache cache = new MapCache();
+    private ScheduledExecutorService scheduler;
+    private HierRefresher refresher;
+
+
+    /**
+     * Holds the hierarchies as the hierarchy caches do, without their configuration.
+     */
+    private static final class MapCache implements Cache<String, HierIndex>
+    {
+        private final Map<String, HierIndex> map = new ConcurrentHashMap<>();
+        private final AtomicInteger puts = new AtomicInteger();
+
+        @Override
+        public HierIndex get( String key )
+        {
+            return map.get( key );
+        }
+
+        @Override
+        public <E extends Exception> HierIndex get( String key,
+            CacheLoader<? super String, ? extends HierIndex, E> loader ) throws E
+        {
+            HierIndex value = map.get( key );
+            if ( value == null )
+            {
+                value = loader.load( key );
+                map.put( key, value );
+            }
+            return value;
+        }
+
+        @Override
+        public void put( String key, HierIndex value )
+        {
+            puts.incrementAndGet();
+            map.put( key, value );
+        }
+
+        @Override
+        public boolean clear( String key )
+        {
+            return map.remove( key ) != null;
+        }
+
+        @Override
+        public void flush()
+        {
+            map.clear();
+        }
+
+        @Override
+        public CacheStats getStats()
+        {
+            return new CacheStats( 0, 0, 0, 0, 0, 0, 0 );
+        }
+    }
+
+
+    private static HierIndex newIndex( String child, String parent )
+    {
+        SimpleDirectedGraph<String, Relationship> graph = new SimpleDirectedGraph<>( Relationship.class );
+        graph.addVertex( child );
+        graph.addVertex( parent );
+        graph.addEdge( child, parent, new Relationship( child, parent ) );
+        return HierIndex.build( graph );
+    }
+
+
+    private static CacheLoader<String, HierIndex, SecurityException> returning( final HierIndex index )
+    {
+        return new CacheLoader<String, HierIndex, SecurityException>()
+        {
+            @Override
+            public HierIndex load( String key )
+            {
+                return index;
+            }
+        };
+    }
+
+
+    @Before
+    public void setUp()
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        // reloads are run by the tests rather than the scheduler:
+        refresher = new HierRefresher( 3600, 500, scheduler );
+    }
+
+
+    @After
+    public void tearDown()
+    {
+        scheduler.shutdownNow();
+    }
+
+
+    @Test
+    public void testRefresh()
+    {
+        HierIndex prior = newIndex( "B", "A" );
+        HierIndex next = newIndex( "C", "A" );
+        cache.put( KEY, prior );
+        refresher.add( KEY, cache, returning( next ) );
+        assertEquals( 1, refresher.getHierarchies() );
+
+        refresher.refresh( KEY );
+        assertSame( next, cache.get( KEY ) );
+        assertEquals( 1, refresher.getRefreshCount() );
+        assertEquals( 0, refresher.getFailureCount() );
+        assertTrue( refresher.getMaxStalenessMillis() < 3600000 );
+    }
+
+
+    @Test
+    public void testFailure()
+    {
+        HierIndex prior = newIndex( "B", "A" );
+        cache.put( KEY, prior );
+        refresher.add( KEY, cache, new CacheLoader<String, HierIndex, SecurityException>()
+        {
+            @Override
+            public HierIndex load( String key ) throws SecurityException
+            {
+                throw new SecurityException( 0, "directory unavailable" );
+            }
+        } );
+
+        refresher.refresh( KEY );
+        // the last good version is still served:
+        assertSame( prior, cache.get( KEY ) );
+        assertEquals( 1, refresher.getFailureCount() );
+        assertEquals( 0, refresher.getRefreshCount() );
+        assertEquals( 1, refresher.getHierarchies() );
+    }
+
+
+    @Test
+    public void testMaxStaleness() throws Exception
+    {
+        HierIndex prior = newIndex( "B", "A" );
+        cache.put( KEY, prior );
+        refresher.add( KEY, cache, new CacheLoader<String, HierIndex, SecurityException>()
+        {
+            @Override
+            public HierIndex load( String key ) throws SecurityException
+            {
+                throw new SecurityException( 0, "directory unavailable" );
+            }
+        } );
+        assertEquals( 500, refresher.getMaxStalenessLimitMillis() );
+
+        refresher.refresh( KEY );
+        // put back to keep it from expiring:
+        assertEquals( 2, cache.puts.get() );
+        assertEquals( 0, refresher.getExpiredCount() );
+
+        Thread.sleep( 600 );
+        refresher.refresh( KEY );
+        // too old, left to expire:
+        assertEquals( 2, cache.puts.get() );
+        assertEquals( 1, refresher.getExpiredCount() );
+        assertEquals( 2, refresher.getFailureCount() );
+
+        // once expired it is no longer reloaded:
+        cache.clear( KEY );
+        refresher.refresh( KEY );
+        assertEquals( 0, refresher.getHierarchies() );
+    }
+
+
+    @Test
+    public void testStop()
+    {
+        cache.put( KEY, newIndex( "B", "A" ) );
+        refresher.add( KEY, cache, returning( newIndex( "C", "A" ) ) );
+        refresher.stop();
+        assertTrue( scheduler.isShutdown() );
+        assertEquals( 0, refresher.getHierarchies() );
+        // added after stop, not scheduled:
+        refresher.add( KEY, cache, returning( newIndex( "C", "A" ) ) );
+        assertEquals( 0, refresher.getHierarchies() );
+    }
+
+
+    @Test
+    public void testChangedWhileLoading()
+    {
+        HierIndex prior = newIndex( "B", "A" );
+        final HierIndex updated = newIndex( "B", "A" );
+        cache.put( KEY, prior );
+        refresher.add( KEY, cache, new CacheLoader<String, HierIndex, SecurityException>()
+        {
+            @Override
+            public HierIndex load( String key )
+            {
+                // e.g. updateHier of this process:
+                cache.put( key, updated );
+                return newIndex( "C", "A" );
+            }
+        } );
+
+        refresher.refresh( KEY );
+        assertSame( updated, cache.get( KEY ) );
+        assertEquals( 1, refresher.getSkippedCount() );
+        assertEquals( 0, refresher.getRefreshCount() );
+    }
+
+
+    @Test
+    public void testDropped()
+    {
+        cache.put( KEY, newIndex( "B", "A" ) );
+        refresher.add( KEY, cache, returning( newIndex( "C", "A" ) ) );
+        cache.clear( KEY );
+
+        refresher.refresh( KEY );
+        assertNull( cache.get( KEY ) );
+        assertEquals( 0, refresher.getHierarchies() );
+    }
+}
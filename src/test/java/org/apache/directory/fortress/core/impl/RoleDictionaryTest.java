@@ -0,0 +1,75 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import java.util.Arrays;
+
+import org.apache.directory.fortress.core.model.Relationship;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RoleDictionaryTest
+{
+    private static HierIndex newHierarchy( String child, String parent )
+    {
+        SimpleDirectedGraph<String, Relationship> graph = new SimpleDirectedGraph<>( Relationship.class );
+        graph.addVertex( child );
+        graph.addVertex( parent );
+        graph.addEdge( child, parent, new Relationship( child, parent ) );
+        return HierIndex.build( graph );
+    }
+
+
+    @Test
+    public void testEncode()
+    {
+        RoleDictionary dictionary = RoleDictionary.getInstance( "roleDictionaryTest1" );
+        HierIndex hierarchy = newHierarchy( "B", "A" );
+
+        RoleDictionary.RoleSet authorized = dictionary.encode( Arrays.asList( "b", "a", "Standalone" ), hierarchy );
+        // names not in the hierarchy are not given ids:
+        assertEquals( 2, dictionary.size() );
+        assertTrue( dictionary.getId( "A" ) >= 0 );
+        assertEquals( -1, dictionary.getId( "Standalone" ) );
+
+        assertTrue( authorized.intersects( dictionary.encode( Arrays.asList( "A" ), hierarchy ) ) );
+        assertTrue( authorized.intersects( dictionary.encode( Arrays.asList( "STANDALONE" ), hierarchy ) ) );
+        assertFalse( authorized.intersects( dictionary.encode( Arrays.asList( "C", "unknown" ), hierarchy ) ) );
+        assertFalse( authorized.intersects( dictionary.encode( null, hierarchy ) ) );
+        assertEquals( 2, dictionary.size() );
+    }
+
+
+    @Test
+    public void testRoleJoinsHierarchy()
+    {
+        RoleDictionary dictionary = RoleDictionary.getInstance( "roleDictionaryTest2" );
+        // encoded by name before the role has a parent:
+        RoleDictionary.RoleSet granted = dictionary.encode( Arrays.asList( "C" ), newHierarchy( "B", "A" ) );
+        RoleDictionary.RoleSet authorized = dictionary.encode( Arrays.asList( "c", "D" ), newHierarchy( "C", "D" ) );
+        assertTrue( dictionary.getId( "C" ) >= 0 );
+
+        // by id on one side, by name on the other:
+        assertTrue( authorized.intersects( granted ) );
+        assertTrue( granted.intersects( authorized ) );
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionStoreTest
+{
+    private static Session newSession( String userId, String... roleNames )
+    {
+        User user = new User( userId, "secret" );
+        user.setInternalId( "internal-" + userId );
+        user.setTimeout( 30 );
+        user.addProperty( "key", "value" );
+        for ( String roleName : roleNames )
+        {
+            user.setRole( new UserRole( userId, roleName ) );
+        }
+        return new Session( user );
+    }
+
+
+    @Test
+    public void testCompact()
+    {
+        Session session = newSession( "jtsuser1", "role1", "role2" );
+        Session compact = SessionStore.compact( session );
+
+        assertEquals( session.getSessionId(), compact.getSessionId() );
+        assertEquals( "jtsuser1", compact.getUserId() );
+        assertEquals( "internal-jtsuser1", compact.getInternalUserId() );
+        assertEquals( 30, compact.getUser().getTimeout().intValue() );
+        assertEquals( 2, compact.getRoles().size() );
+        assertNull( compact.getUser().getPassword() );
+        assertTrue( compact.getUser().getProperties() == null || compact.getUser().getProperties().isEmpty() );
+
+        // roles dropped from the copy don't change the original:
+        compact.getRoles().remove( 0 );
+        assertEquals( 2, session.getRoles().size() );
+    }
+
+
+    @Test
+    public void testEvictLeastRecentlyUsed()
+    {
+        SessionStore store = new SessionStore( true, 2, Long.MAX_VALUE, 0 );
+        Session s1 = newSession( "u1", "r1" );
+        Session s2 = newSession( "u2", "r1" );
+        Session s3 = newSession( "u3", "r1" );
+        store.put( s1 );
+        store.put( s2 );
+        // makes s2 the least recently used:
+        assertNotNull( store.get( s1.getSessionId() ) );
+        store.put( s3 );
+
+        assertEquals( 2, store.size() );
+        assertNotNull( store.get( s1.getSessionId() ) );
+        assertNull( store.get( s2.getSessionId() ) );
+        assertNotNull( store.get( s3.getSessionId() ) );
+    }
+
+
+    @Test
+    public void testMemoryCap()
+    {
+        SessionStore store = new SessionStore( true, 1000, 1, 0 );
+        Session s1 = newSession( "u1", "r1", "r2" );
+        Session s2 = newSession( "u2", "r1", "r2" );
+        store.put( s1 );
+        store.put( s2 );
+
+        // over the cap, only the last one is kept:
+        assertEquals( 1, store.size() );
+        assertNull( store.get( s1.getSessionId() ) );
+        assertNotNull( store.get( s2.getSessionId() ) );
+        assertTrue( store.getBytes() > 0 );
+    }
+
+
+    @Test
+    public void testIdleTimeout() throws Exception
+    {
+        SessionStore store = new SessionStore( true, 1000, Long.MAX_VALUE, 20 );
+        Session s1 = newSession( "u1", "r1" );
+        store.put( s1 );
+        assertNotNull( store.get( s1.getSessionId() ) );
+        Thread.sleep( 50 );
+        assertNull( store.get( s1.getSessionId() ) );
+        assertEquals( 0, store.size() );
+        assertEquals( 0, store.getBytes() );
+    }
+
+
+    @Test
+    public void testUpdateAndDelete()
+    {
+        SessionStore store = new SessionStore( true, 1000, Long.MAX_VALUE, 0 );
+        Session s1 = newSession( "u1", "r1" );
+
+        // not stored, so not added:
+        store.update( s1 );
+        assertEquals( 0, store.size() );
+
+        store.put( s1 );
+        s1.setRole( new UserRole( "u1", "r2" ) );
+        store.update( s1 );
+        assertEquals( 2, store.get( s1.getSessionId() ).getRoles().size() );
+
+        assertTrue( store.delete( s1.getSessionId() ) );
+        assertFalse( store.delete( s1.getSessionId() ) );
+        assertNull( store.get( s1.getSessionId() ) );
+        assertEquals( 0, store.getBytes() );
+    }
+
+
+    @Test
+    public void testTenant()
+    {
+        SessionStore store = new SessionStore( true, 1000, Long.MAX_VALUE, 0 );
+        Session home = newSession( "u1", "r1" );
+        Session tenant = newSession( "u2", "r1" );
+        tenant.getUser().setContextId( "acme" );
+        store.put( home );
+        store.put( tenant );
+
+        // the default tenant may be named HOME, null or "null":
+        assertNotNull( store.get( home.getSessionId(), "HOME" ) );
+        assertNotNull( store.get( home.getSessionId(), null ) );
+        assertNotNull( store.get( home.getSessionId(), "null" ) );
+        assertNull( store.get( home.getSessionId(), "acme" ) );
+
+        assertNotNull( store.get( tenant.getSessionId(), "acme" ) );
+        assertNull( store.get( tenant.getSessionId(), "HOME" ) );
+        assertNull( store.get( tenant.getSessionId(), "other" ) );
+        // still stored for its own tenant:
+        assertEquals( 2, store.size() );
+    }
+
+
+    @Test
+    public void testDisabled()
+    {
+        SessionStore store = new SessionStore( false, 1000, Long.MAX_VALUE, 0 );
+        Session s1 = newSession( "u1", "r1" );
+        store.put( s1 );
+        assertNull( store.get( s1.getSessionId() ) );
+        assertEquals( 0, store.size() );
+    }
+}
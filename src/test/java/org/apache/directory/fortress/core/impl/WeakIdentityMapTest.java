@@ -0,0 +1,62 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WeakIdentityMapTest
+{
+    @Test
+    public void testIdentity()
+    {
+        WeakIdentityMap<String, Integer> map = new WeakIdentityMap<>();
+        String key1 = new String( "key" );
+        String key2 = new String( "key" );
+        map.put( key1, 1 );
+        assertEquals( Integer.valueOf( 1 ), map.get( key1 ) );
+        // equal but not the same object:
+        assertNull( map.get( key2 ) );
+
+        map.put( key2, 2 );
+        map.put( key1, 3 );
+        assertEquals( Integer.valueOf( 3 ), map.get( key1 ) );
+        assertEquals( Integer.valueOf( 2 ), map.get( key2 ) );
+        assertEquals( 2, map.size() );
+    }
+
+
+    @Test
+    public void testCollectedKey() throws InterruptedException
+    {
+        WeakIdentityMap<Object, Integer> map = new WeakIdentityMap<>();
+        Object kept = new Object();
+        map.put( kept, 1 );
+        map.put( new Object(), 2 );
+        for ( int i = 0; i < 50 && map.size() > 1; i++ )
+        {
+            System.gc();
+            Thread.sleep( 20 );
+        }
+        assertEquals( 1, map.size() );
+        assertEquals( Integer.valueOf( 1 ), map.get( kept ) );
+    }
+}
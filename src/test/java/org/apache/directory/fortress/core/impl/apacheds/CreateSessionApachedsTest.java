@@ -0,0 +1,160 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl.apacheds;
+
+
+import org.apache.directory.fortress.core.AccessMgr;
+import org.apache.directory.fortress.core.AccessMgrFactory;
+import org.apache.directory.fortress.core.AdminMgr;
+import org.apache.directory.fortress.core.AdminMgrFactory;
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.impl.DelegatedMgrImplTest;
+import org.apache.directory.fortress.core.impl.OrgUnitTestData;
+import org.apache.directory.fortress.core.impl.TestUtils;
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+import org.apache.directory.server.annotations.CreateLdapServer;
+import org.apache.directory.server.annotations.CreateTransport;
+import org.apache.directory.server.core.annotations.ApplyLdifFiles;
+import org.apache.directory.server.core.annotations.CreateDS;
+import org.apache.directory.server.core.annotations.CreatePartition;
+import org.apache.directory.server.core.integ.AbstractLdapTestUnit;
+import org.apache.directory.server.core.integ.FrameworkRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Non-trusted createSession, which authenticates and reads the user entry at the same time, against an embedded
+ * ApacheDS.
+ */
+@RunWith(FrameworkRunner.class)
+@CreateDS(name = "classDS", partitions =
+    { @CreatePartition(name = "example", suffix = "dc=example,dc=com") })
+@CreateLdapServer(
+    transports =
+        {
+            @CreateTransport(protocol = "LDAP", port = 10389)
+    })
+@ApplyLdifFiles(
+    { "fortress-schema.ldif", "init-ldap.ldif" })
+public class CreateSessionApachedsTest extends AbstractLdapTestUnit
+{
+    private static final String USER_ID = "csUser1";
+    private static final String LATE_USER_ID = "csUser2";
+    private static final String PASSWORD = "password1";
+    private static boolean isLoaded = false;
+
+
+    @Before
+    public void init() throws SecurityException
+    {
+        CacheMgr.getInstance().clearAll();
+        if ( !isLoaded )
+        {
+            DelegatedMgrImplTest.addOrgUnits( "ADD ORGS_DEV1", OrgUnitTestData.ORGS_DEV1 );
+            AdminMgr adminMgr = AdminMgrFactory.createInstance( TestUtils.getContext() );
+            adminMgr.addUser( newUser( USER_ID ) );
+            User late = newUser( LATE_USER_ID );
+            // not allowed in until then:
+            late.setBeginDate( "29991231" );
+            adminMgr.addUser( late );
+            isLoaded = true;
+        }
+    }
+
+
+    private static User newUser( String userId )
+    {
+        User user = new User( userId, PASSWORD );
+        user.setOu( OrgUnitTestData.getName( OrgUnitTestData.ORGS_DEV1[0] ) );
+        user.setCn( userId );
+        user.setSn( userId );
+        user.setEmail( userId + "@example.com" );
+        return user;
+    }
+
+
+    @Test
+    public void testCreateSession() throws SecurityException
+    {
+        AccessMgr accessMgr = AccessMgrFactory.createInstance( TestUtils.getContext() );
+        Session session = accessMgr.createSession( new User( USER_ID, PASSWORD ), false );
+        assertTrue( session.isAuthenticated() );
+        assertEquals( USER_ID, session.getUserId() );
+        assertNotNull( session.getUser().getInternalId() );
+        // read later, with the rest of the detail:
+        assertEquals( USER_ID + "@example.com", session.getUser().getEmails().get( 0 ) );
+    }
+
+
+    @Test
+    public void testWrongPassword()
+    {
+        try
+        {
+            AccessMgr accessMgr = AccessMgrFactory.createInstance( TestUtils.getContext() );
+            accessMgr.createSession( new User( USER_ID, "wrong" ), false );
+            fail( "createSession with wrong password succeeded" );
+        }
+        catch ( SecurityException e )
+        {
+            assertEquals( GlobalErrIds.USER_PW_INVLD, e.getErrorId() );
+        }
+    }
+
+
+    @Test
+    public void testMissingUser()
+    {
+        try
+        {
+            AccessMgr accessMgr = AccessMgrFactory.createInstance( TestUtils.getContext() );
+            accessMgr.createSession( new User( "csMissing", PASSWORD ), false );
+            fail( "createSession for missing user succeeded" );
+        }
+        catch ( SecurityException e )
+        {
+            // not reported as a bad password:
+            assertEquals( GlobalErrIds.USER_NOT_FOUND, e.getErrorId() );
+        }
+    }
+
+
+    @Test
+    public void testUserConstraint()
+    {
+        try
+        {
+            AccessMgr accessMgr = AccessMgrFactory.createInstance( TestUtils.getContext() );
+            accessMgr.createSession( new User( LATE_USER_ID, PASSWORD ), false );
+            fail( "createSession before the user's begin date succeeded" );
+        }
+        catch ( SecurityException e )
+        {
+            assertEquals( GlobalErrIds.ACTV_FAILED_DATE, e.getErrorId() );
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl.apacheds;
+
+
+import org.apache.directory.server.annotations.CreateLdapServer;
+import org.apache.directory.server.annotations.CreateTransport;
+import org.apache.directory.server.core.annotations.ApplyLdifFiles;
+import org.apache.directory.server.core.annotations.CreateDS;
+import org.apache.directory.server.core.annotations.CreatePartition;
+import org.apache.directory.server.core.integ.AbstractLdapTestUnit;
+import org.apache.directory.server.core.integ.FrameworkRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.directory.fortress.core.util.cache.CacheMgr;
+
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Runs the {@link LoadHarness} against an embedded ApacheDS, booted the same way as {@link FortressJUnitApachedsTest},
+ * so releases and configurations can be compared locally without a network.  To execute:
+ * <p>
+ * {@code mvn test -Dtest=FortressLoadApachedsTest -Dload.users=1000 -Dload.threads=8 -Dload.seconds=60}
+ * <p>
+ * See {@link LoadHarness#fromSystemProperties()} for the sizes that can be set.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+@RunWith(FrameworkRunner.class)
+@CreateDS(name = "classDS", partitions =
+    { @CreatePartition(name = "example", suffix = "dc=example,dc=com") })
+@CreateLdapServer(
+    transports =
+        {
+            @CreateTransport(protocol = "LDAP", port = 10389)
+    })
+@ApplyLdifFiles(
+    { "fortress-schema.ldif", "init-ldap.ldif" })
+public class FortressLoadApachedsTest extends AbstractLdapTestUnit
+{
+    private static final Logger LOG = LoggerFactory.getLogger( FortressLoadApachedsTest.class.getName() );
+
+
+    @Before
+    public void init()
+    {
+        CacheMgr.getInstance().clearAll();
+    }
+
+
+    @Test
+    public void testLoad() throws Exception
+    {
+        LoadHarness harness = LoadHarness.fromSystemProperties();
+        harness.loadPolicy();
+        String report = harness.run();
+        LOG.info( "testLoad results:\n{}", report );
+        System.out.println( report );
+        assertTrue( "no sessions were created", harness.getCount( LoadHarness.Op.CREATE_SESSION ) > 0 );
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.impl.apacheds;
+
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.fortress.core.AccessMgr;
+import org.apache.directory.fortress.core.AccessMgrFactory;
+import org.apache.directory.fortress.core.AdminMgr;
+import org.apache.directory.fortress.core.AdminMgrFactory;
+import org.apache.directory.fortress.core.DelAdminMgr;
+import org.apache.directory.fortress.core.DelAdminMgrFactory;
+import org.apache.directory.fortress.core.ReviewMgr;
+import org.apache.directory.fortress.core.ReviewMgrFactory;
+import org.apache.directory.fortress.core.SecurityException;
+import org.apache.directory.fortress.core.impl.TestUtils;
+import org.apache.directory.fortress.core.ldap.LatencyHistogram;
+import org.apache.directory.fortress.core.ldap.LdapCounters;
+import org.apache.directory.fortress.core.ldap.LdapDataProvider;
+import org.apache.directory.fortress.core.model.OrgUnit;
+import org.apache.directory.fortress.core.model.PermObj;
+import org.apache.directory.fortress.core.model.Permission;
+import org.apache.directory.fortress.core.model.Role;
+import org.apache.directory.fortress.core.model.SDSet;
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Loads a synthetic policy and drives the main APIs from a number of threads, reporting throughput, latency
+ * percentiles and the ldap operations made.  The policy has users, roles arranged in trees of a given depth and fan
+ * out, permissions granted to the roles and DSD sets over pairs of roles.  Each iteration of a worker thread, for a
+ * random user: createSession, checkAccess, sessionPermissions, assignUser and deassignUser of an extra role, and
+ * findUsers.
+ * <p>
+ * Sizes are read from system properties, e.g. -Dload.users=1000, see {@link #fromSystemProperties()}.  Names are
+ * prefixed by the 'qualifier' property so the policy can be loaded more than once into the same directory.
+ *
+ * @author <a href="mailto:dev@directory.apache.org">Apache Directory Project</a>
+ */
+public class LoadHarness
+{
+    private static final Logger LOG = LoggerFactory.getLogger( LoadHarness.class.getName() );
+    private static final String PASSWORD = "passw0rd";
+
+    enum Op
+    {
+        CREATE_SESSION,
+        CHECK_ACCESS,
+        SESSION_PERMISSIONS,
+        ASSIGN_USER,
+        DEASSIGN_USER,
+        FIND_USERS
+    }
+
+    private final int users;
+    private final int roles;
+    private final int depth;
+    private final int fanOut;
+    private final int perms;
+    private final int dsds;
+    private final int userRoles;
+    private final int threads;
+    private final int seconds;
+    private final String qualifier;
+
+    private final Map<Op, LatencyHistogram> latencies = new EnumMap<>( Op.class );
+    private final Map<Op, AtomicLong> errors = new EnumMap<>( Op.class );
+
+
+    LoadHarness( int users, int roles, int depth, int fanOut, int perms, int dsds, int userRoles, int threads,
+        int seconds, String qualifier )
+    {
+        this.users = users;
+        this.roles = roles;
+        this.depth = depth;
+        this.fanOut = fanOut;
+        this.perms = perms;
+        this.dsds = dsds;
+        this.userRoles = userRoles;
+        this.threads = threads;
+        this.seconds = seconds;
+        this.qualifier = qualifier;
+        for ( Op op : Op.values() )
+        {
+            latencies.put( op, new LatencyHistogram() );
+            errors.put( op, new AtomicLong() );
+        }
+    }
+
+
+    /**
+     * Sizes default to a small policy that loads in well under a minute into the embedded server:
+     * <ul>
+     *   <li>load.users=100</li>
+     *   <li>load.roles=40</li>
+     *   <li>load.depth=3, levels of inheritance in each role tree</li>
+     *   <li>load.fanout=3, juniors per role</li>
+     *   <li>load.perms=100</li>
+     *   <li>load.dsds=5</li>
+     *   <li>load.user.roles=3, roles assigned to each user</li>
+     *   <li>load.threads=4</li>
+     *   <li>load.seconds=30</li>
+     *   <li>qualifier=ld</li>
+     * </ul>
+     *
+     * @return harness sized by the system properties.
+     */
+    static LoadHarness fromSystemProperties()
+    {
+        return new LoadHarness( getInt( "load.users", 100 ), getInt( "load.roles", 40 ), getInt( "load.depth", 3 ),
+            getInt( "load.fanout", 3 ), getInt( "load.perms", 100 ), getInt( "load.dsds", 5 ),
+            getInt( "load.user.roles", 3 ), getInt( "load.threads", 4 ), getInt( "load.seconds", 30 ),
+            getString( "qualifier", "ld" ) );
+    }
+
+
+    private static int getInt( String name, int defaultValue )
+    {
+        String value = System.getProperty( name );
+        // maven passes unset properties through as ${name}:
+        return StringUtils.isNumeric( value ) && StringUtils.isNotEmpty( value ) ? Integer.parseInt( value ) :
+            defaultValue;
+    }
+
+
+    private static String getString( String name, String defaultValue )
+    {
+        String value = System.getProperty( name );
+        return StringUtils.isEmpty( value ) || value.startsWith( "${" ) ? defaultValue : value;
+    }
+
+
+    /**
+     * Load the policy.  Roles are numbered breadth first within trees of the configured depth and fan out, so the
+     * senior of role i in its tree is at (i - 1) / fanOut.
+     *
+     * @throws SecurityException in the event the policy could not be added.
+     */
+    void loadPolicy() throws SecurityException
+    {
+        long start = System.currentTimeMillis();
+        AdminMgr adminMgr = AdminMgrFactory.createInstance( TestUtils.getContext() );
+        DelAdminMgr delAdminMgr = DelAdminMgrFactory.createInstance( TestUtils.getContext() );
+        delAdminMgr.add( new OrgUnit( getUserOu(), OrgUnit.Type.USER ) );
+        delAdminMgr.add( new OrgUnit( getPermOu(), OrgUnit.Type.PERM ) );
+
+        int treeSize = 0;
+        for ( int level = 0, width = 1; level <= depth; level++, width *= fanOut )
+        {
+            treeSize += width;
+        }
+        // one extra role used by assignUser:
+        for ( int i = 0; i <= roles; i++ )
+        {
+            adminMgr.addRole( new Role( getRoleName( i ) ) );
+            int local = i % treeSize;
+            if ( i < roles && local > 0 )
+            {
+                int senior = i - local + ( local - 1 ) / fanOut;
+                adminMgr.addInheritance( new Role( getRoleName( senior ) ), new Role( getRoleName( i ) ) );
+            }
+        }
+
+        for ( int i = 0; i < getObjCount(); i++ )
+        {
+            adminMgr.addPermObj( new PermObj( getObjName( i ), getPermOu() ) );
+        }
+        for ( int i = 0; i < perms; i++ )
+        {
+            Permission perm = getPermission( i );
+            adminMgr.addPermission( perm );
+            adminMgr.grantPermission( perm, new Role( getRoleName( i % roles ) ) );
+        }
+
+        for ( int i = 0; i < dsds && 2 * i + 1 < roles; i++ )
+        {
+            SDSet dsd = new SDSet();
+            dsd.setName( qualifier + "dsd" + i );
+            dsd.setCardinality( 2 );
+            dsd.setMember( getRoleName( roles - 1 - 2 * i ) );
+            dsd.setMember( getRoleName( roles - 2 - 2 * i ) );
+            adminMgr.createDsdSet( dsd );
+        }
+
+        for ( int i = 0; i < users; i++ )
+        {
+            User user = new User( getUserId( i ), PASSWORD );
+            user.setOu( getUserOu() );
+            adminMgr.addUser( user );
+            for ( int k = 0; k < userRoles; k++ )
+            {
+                adminMgr.assignUser( new UserRole( user.getUserId(), getRoleName( ( i + k * 7 ) % roles ) ) );
+            }
+        }
+        LOG.info( "loadPolicy users={}, roles={}, perms={}, dsds={} in {} ms", users, roles, perms, dsds,
+            System.currentTimeMillis() - start );
+    }
+
+
+    /**
+     * Drive the workload from the configured number of threads for the configured time.
+     *
+     * @return report of throughput, latencies and ldap operations.
+     * @throws Exception in the event a worker could not be run.
+     */
+    String run() throws Exception
+    {
+        LdapCounters counters = LdapDataProvider.getLdapCounters();
+        counters.reset();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( seconds );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<Long>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for ( int i = 0; i < threads; i++ )
+        {
+            final int worker = i;
+            futures.add( executor.submit( () -> work( worker, deadline ) ) );
+        }
+        long iterations = 0;
+        for ( Future<Long> future : futures )
+        {
+            iterations += future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return report( iterations, elapsed, counters );
+    }
+
+
+    /**
+     * Users are partitioned across the workers so only one thread assigns and deassigns a given user's extra role.
+     *
+     * @param worker   number of this worker, 0 based.
+     * @param deadline value of {@link System#nanoTime()} at which to stop.
+     * @return number of iterations completed by this thread.
+     * @throws SecurityException in the event the managers could not be created.
+     */
+    private long work( int worker, long deadline ) throws SecurityException
+    {
+        AccessMgr accessMgr = AccessMgrFactory.createInstance( TestUtils.getContext() );
+        AdminMgr adminMgr = AdminMgrFactory.createInstance( TestUtils.getContext() );
+        ReviewMgr reviewMgr = ReviewMgrFactory.createInstance( TestUtils.getContext() );
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int partition = ( users - worker + threads - 1 ) / threads;
+        long iterations = 0;
+        while ( partition > 0 && System.nanoTime() < deadline )
+        {
+            int i = worker + threads * random.nextInt( partition );
+            String userId = getUserId( i );
+            long start = System.nanoTime();
+            Op op = Op.CREATE_SESSION;
+            try
+            {
+                Session session = accessMgr.createSession( new User( userId, PASSWORD ), false );
+                start = record( op, start );
+                op = Op.CHECK_ACCESS;
+                accessMgr.checkAccess( session, getPermission( random.nextInt( perms ) ) );
+                start = record( op, start );
+                op = Op.SESSION_PERMISSIONS;
+                accessMgr.sessionPermissions( session );
+                start = record( op, start );
+                UserRole extra = new UserRole( userId, getRoleName( roles ) );
+                op = Op.ASSIGN_USER;
+                adminMgr.assignUser( extra );
+                start = record( op, start );
+                op = Op.DEASSIGN_USER;
+                adminMgr.deassignUser( extra );
+                start = record( op, start );
+                op = Op.FIND_USERS;
+                // matches the ten or so users whose ids begin with the same digits:
+                reviewMgr.findUsers( new User( getUserId( i / 10 ) ) );
+                record( op, start );
+            }
+            catch ( SecurityException se )
+            {
+                LOG.debug( "work {} user [{}] caught SecurityException={}", op, userId, se.toString() );
+                errors.get( op ).incrementAndGet();
+            }
+            iterations++;
+        }
+        return iterations;
+    }
+
+
+    /**
+     * @param op    the operation that completed.
+     * @param start value of {@link System#nanoTime()} when the operation began.
+     * @return current value of {@link System#nanoTime()}, the start of the next operation.
+     */
+    private long record( Op op, long start )
+    {
+        long now = System.nanoTime();
+        latencies.get( op ).record( now - start );
+        return now;
+    }
+
+
+    /**
+     * @param iterations completed by all threads.
+     * @param elapsed    nanoseconds taken.
+     * @param counters   ldap operations made since the run began.
+     * @return report, one line per operation.
+     */
+    private String report( long iterations, long elapsed, LdapCounters counters )
+    {
+        double secs = elapsed / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append( String.format( "users=%d roles=%d depth=%d fanout=%d perms=%d dsds=%d threads=%d seconds=%.1f%n",
+            users, roles, depth, fanOut, perms, dsds, threads, secs ) );
+        sb.append( String.format( "iterations=%d throughput=%.1f/sec%n", iterations, iterations / secs ) );
+        sb.append( String.format( "%-20s %10s %8s %10s %10s %10s %10s %10s %10s%n", "op", "count", "errors",
+            "ops/sec", "mean(us)", "p50(us)", "p99(us)", "p999(us)", "max(us)" ) );
+        for ( Op op : Op.values() )
+        {
+            LatencyHistogram.Snapshot snapshot = latencies.get( op ).snapshot();
+            sb.append( String.format( "%-20s %10d %8d %10.1f %10d %10d %10d %10d %10d%n", op, snapshot.getCount(),
+                errors.get( op ).get(), snapshot.getCount() / secs, snapshot.getMeanMicros(),
+                snapshot.getPercentileMicros( 50 ), snapshot.getPercentileMicros( 99 ),
+                snapshot.getPercentileMicros( 99.9 ), snapshot.getMaxMicros() ) );
+        }
+        sb.append( String.format( "ldap reads=%d searches=%d compares=%d binds=%d adds=%d mods=%d deletes=%d%n",
+            counters.getRead(), counters.getSearch(), counters.getCompare(), counters.getBind(), counters.getAdd(),
+            counters.getMod(), counters.getDelete() ) );
+        for ( String latency : counters.getLatencySummary() )
+        {
+            sb.append( "ldap " ).append( latency ).append( String.format( "%n" ) );
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * @return total number of errors over all operations.
+     */
+    long getErrors()
+    {
+        long total = 0;
+        for ( AtomicLong count : errors.values() )
+        {
+            total += count.get();
+        }
+        return total;
+    }
+
+
+    /**
+     * @param op the operation.
+     * @return number of times it completed.
+     */
+    long getCount( Op op )
+    {
+        return latencies.get( op ).snapshot().getCount();
+    }
+
+
+    private String getUserOu()
+    {
+        return qualifier + "usrou";
+    }
+
+
+    private String getPermOu()
+    {
+        return qualifier + "prmou";
+    }
+
+
+    private String getUserId( int i )
+    {
+        return qualifier + "user" + i;
+    }
+
+
+    private String getRoleName( int i )
+    {
+        return qualifier + "role" + i;
+    }
+
+
+    private int getObjCount()
+    {
+        return Math.max( 1, perms / 10 );
+    }
+
+
+    private String getObjName( int i )
+    {
+        return qualifier + "obj" + i;
+    }
+
+
+    /**
+     * @param i number of permission.
+     * @return operation i, the operations are spread over the objects ten to an object.
+     */
+    private Permission getPermission( int i )
+    {
+        return new Permission( getObjName( i % getObjCount() ), "op" + i );
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AuthZAuditWriterTest
+{
+    /**
+     * Records the batches, optionally holding the first one until released.
+     */
+    private static class TestSink implements AuthZAuditWriter.Sink
+    {
+        private final CountDownLatch entered = new CountDownLatch( 1 );
+        private final CountDownLatch release;
+        private final List<Integer> batchSizes = Collections.synchronizedList( new ArrayList<Integer>() );
+
+        private TestSink( boolean hold )
+        {
+            release = new CountDownLatch( hold ? 1 : 0 );
+        }
+
+        @Override
+        public int write( List<AuthZAuditWriter.AuditEvent> batch )
+        {
+            entered.countDown();
+            try
+            {
+                release.await( 10, TimeUnit.SECONDS );
+            }
+            catch ( InterruptedException ie )
+            {
+                Thread.currentThread().interrupt();
+            }
+            batchSizes.add( batch.size() );
+            return batch.size();
+        }
+    }
+
+
+    private static AuthZAuditWriter newWriter( int queueSize, int batchSize, long blockTimeout,
+        AuthZAuditWriter.Overflow overflow, File spillFile, TestSink sink ) throws Exception
+    {
+        AuthZAuditWriter writer = new AuthZAuditWriter( queueSize, 1, batchSize, blockTimeout, overflow, spillFile,
+            sink );
+        // park the worker on the first event so the queue can be filled:
+        writer.add( "cn=first", "uid=u", "v" );
+        assertTrue( sink.entered.await( 10, TimeUnit.SECONDS ) );
+        return writer;
+    }
+
+
+    @Test
+    public void testBatching() throws Exception
+    {
+        TestSink sink = new TestSink( true );
+        AuthZAuditWriter writer = newWriter( 100, 10, 0, AuthZAuditWriter.Overflow.DROP, null, sink );
+        for ( int i = 0; i < 25; i++ )
+        {
+            writer.add( "cn=perm" + i, "uid=u", "v" );
+        }
+        assertEquals( 25, writer.getQueueDepth() );
+        sink.release.countDown();
+        writer.stop();
+
+        assertEquals( 26, writer.getEnqueued() );
+        assertEquals( 26, writer.getWritten() );
+        assertEquals( 0, writer.getDropped() );
+        assertEquals( 0, writer.getQueueDepth() );
+        // first event alone, then the queue in batches of at most ten:
+        assertEquals( 1, ( int ) sink.batchSizes.get( 0 ) );
+        for ( int size : sink.batchSizes )
+        {
+            assertTrue( size <= 10 );
+        }
+    }
+
+
+    @Test
+    public void testDrop() throws Exception
+    {
+        TestSink sink = new TestSink( true );
+        AuthZAuditWriter writer = newWriter( 2, 10, 0, AuthZAuditWriter.Overflow.DROP, null, sink );
+        writer.add( "cn=a", "uid=u", "v" );
+        writer.add( "cn=b", "uid=u", "v" );
+        writer.add( "cn=c", "uid=u", "v" );
+        assertEquals( 1, writer.getDropped() );
+        sink.release.countDown();
+        writer.stop();
+
+        assertEquals( 3, writer.getEnqueued() );
+        assertEquals( 3, writer.getWritten() );
+        assertEquals( 1, writer.getDropped() );
+    }
+
+
+    @Test
+    public void testBlock() throws Exception
+    {
+        final TestSink sink = new TestSink( true );
+        AuthZAuditWriter writer = newWriter( 1, 10, 50, AuthZAuditWriter.Overflow.BLOCK, null, sink );
+        writer.add( "cn=a", "uid=u", "v" );
+
+        // no space within the timeout:
+        long start = System.nanoTime();
+        writer.add( "cn=b", "uid=u", "v" );
+        assertTrue( System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos( 50 ) );
+        assertEquals( 1, writer.getDropped() );
+        sink.release.countDown();
+        writer.stop();
+        assertEquals( 2, writer.getWritten() );
+
+        // space freed while waiting:
+        final TestSink sink2 = new TestSink( true );
+        writer = newWriter( 1, 10, 10000, AuthZAuditWriter.Overflow.BLOCK, null, sink2 );
+        writer.add( "cn=a", "uid=u", "v" );
+        new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep( 100 );
+                }
+                catch ( InterruptedException ie )
+                {
+                    return;
+                }
+                sink2.release.countDown();
+            }
+        }.start();
+        writer.add( "cn=b", "uid=u", "v" );
+        writer.stop();
+        assertEquals( 0, writer.getDropped() );
+        assertEquals( 3, writer.getWritten() );
+    }
+
+
+    @Test
+    public void testSpill() throws Exception
+    {
+        File spillFile = File.createTempFile( "authz-audit", ".spill" );
+        try
+        {
+            TestSink sink = new TestSink( true );
+            AuthZAuditWriter writer = newWriter( 1, 10, 0, AuthZAuditWriter.Overflow.SPILL, spillFile, sink );
+            writer.add( "cn=a", "uid=u", "v" );
+            writer.add( "cn=spilled", "uid=u", "v" );
+            assertEquals( 1, writer.getSpilled() );
+            assertEquals( 0, writer.getDropped() );
+            sink.release.countDown();
+            writer.stop();
+
+            assertEquals( 2, writer.getWritten() );
+            List<String> lines = Files.readAllLines( spillFile.toPath(), StandardCharsets.UTF_8 );
+            assertEquals( 1, lines.size() );
+            assertTrue( lines.get( 0 ).endsWith( "\tuid=u\tcn=spilled\tv" ) );
+        }
+        finally
+        {
+            spillFile.delete();
+        }
+    }
+
+
+    @Test
+    public void testStop() throws Exception
+    {
+        TestSink sink = new TestSink( false );
+        AuthZAuditWriter writer = newWriter( 1000, 7, 0, AuthZAuditWriter.Overflow.DROP, null, sink );
+        for ( int i = 0; i < 500; i++ )
+        {
+            writer.add( "cn=perm" + i, "uid=u", "v" );
+        }
+        // pending events are flushed:
+        writer.stop();
+        assertEquals( 501, writer.getWritten() );
+        assertEquals( 0, writer.getQueueDepth() );
+
+        // late events are dropped and counted, not queued:
+        writer.add( "cn=late", "uid=u", "v" );
+        writer.stop();
+        assertEquals( 501, writer.getEnqueued() );
+        assertEquals( 1, writer.getDropped() );
+        assertEquals( 0, writer.getQueueDepth() );
+    }
+
+
+    @Test
+    public void testAddDuringStop() throws Exception
+    {
+        TestSink sink = new TestSink( false );
+        final AuthZAuditWriter writer = newWriter( 100000, 50, 0, AuthZAuditWriter.Overflow.DROP, null, sink );
+        final int perThread = 5000;
+        List<Thread> threads = new ArrayList<>();
+        for ( int t = 0; t < 4; t++ )
+        {
+            Thread thread = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for ( int i = 0; i < perThread; i++ )
+                    {
+                        writer.add( "cn=perm" + i, "uid=u", "v" );
+                    }
+                }
+            };
+            threads.add( thread );
+            thread.start();
+        }
+        writer.stop();
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        // every event added while the writer stopped is either written or dropped, none is left on the queue:
+        assertEquals( 0, writer.getQueueDepth() );
+        assertEquals( 1 + 4 * perThread, writer.getWritten() + writer.getDropped() );
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.pool.BasePoolableObjectFactory;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.apache.directory.api.ldap.model.cursor.CursorException;
+import org.apache.directory.api.ldap.model.exception.LdapAuthenticationException;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.exception.LdapNoSuchObjectException;
+import org.apache.directory.api.ldap.model.exception.LdapServiceUnavailableException;
+import org.apache.directory.api.ldap.model.message.ResultCodeEnum;
+import org.apache.directory.fortress.core.FinderException;
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.LdapConnectionPool;
+import org.apache.directory.ldap.client.api.LdapNetworkConnection;
+import org.apache.directory.ldap.client.api.exception.InvalidConnectionException;
+import org.apache.directory.ldap.client.api.exception.LdapConnectionTimeOutException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest
+{
+    @Test
+    public void testOpenAfterThreshold()
+    {
+        PoolMetrics metrics = new PoolMetrics( "test", new GenericObjectPool<Object>( null ) );
+        CircuitBreaker breaker = new CircuitBreaker( "test", 3, 1000, metrics );
+        assertEquals( "CLOSED", metrics.getCircuitState() );
+
+        breaker.failure( 0 );
+        breaker.failure( 0 );
+        // a success resets the count:
+        breaker.success();
+        breaker.failure( 0 );
+        breaker.failure( 0 );
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+        assertTrue( breaker.allowRequest( 0 ) );
+
+        breaker.failure( 10 );
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+        assertFalse( breaker.allowRequest( 500 ) );
+        assertFalse( breaker.allowRequest( 1009 ) );
+        assertEquals( 1, metrics.getCircuitOpens() );
+        assertEquals( 2, metrics.getCircuitRejections() );
+        assertEquals( "OPEN", metrics.getCircuitState() );
+    }
+
+
+    @Test
+    public void testHalfOpenProbe()
+    {
+        PoolMetrics metrics = new PoolMetrics( "test", new GenericObjectPool<Object>( null ) );
+        CircuitBreaker breaker = new CircuitBreaker( "test", 1, 1000, metrics );
+        breaker.failure( 0 );
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+
+        // one probe at a time once the interval has passed:
+        assertTrue( breaker.allowRequest( 1000 ) );
+        assertEquals( CircuitBreaker.State.HALF_OPEN, breaker.getState() );
+        assertFalse( breaker.allowRequest( 1001 ) );
+
+        // failed probe opens it for another interval:
+        breaker.failure( 1500 );
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+        assertFalse( breaker.allowRequest( 2000 ) );
+        assertTrue( breaker.allowRequest( 2500 ) );
+
+        // successful probe closes it:
+        breaker.success();
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+        assertTrue( breaker.allowRequest( 2501 ) );
+        assertTrue( breaker.allowRequest( 2502 ) );
+        assertEquals( 2, metrics.getCircuitOpens() );
+        assertEquals( 2, metrics.getCircuitHalfOpens() );
+        assertEquals( 1, metrics.getCircuitCloses() );
+        assertEquals( "CLOSED", metrics.getCircuitState() );
+    }
+
+
+    @Test
+    public void testProbeBorrowTimesOut() throws Exception
+    {
+        // connections are never opened:
+        LdapConnectionPool pool = new LdapConnectionPool( new BasePoolableObjectFactory<LdapConnection>()
+        {
+            @Override
+            public LdapConnection makeObject()
+            {
+                return new LdapNetworkConnection( "localhost", 1 );
+            }
+        } );
+        pool.setMaxActive( 1 );
+        pool.setWhenExhaustedAction( GenericObjectPool.WHEN_EXHAUSTED_FAIL );
+        PoolMetrics metrics = new PoolMetrics( "test", pool );
+        CircuitBreaker breaker = new CircuitBreaker( "test", 1, 1, metrics );
+        LdapConnection held = pool.getConnection();
+        breaker.failure( System.currentTimeMillis() - 10 );
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+
+        // the probe's borrow fails on the exhausted pool without reaching the directory:
+        try
+        {
+            LdapConnectionProvider.getConnection( pool, metrics, breaker );
+            fail( "borrow from exhausted pool succeeded" );
+        }
+        catch ( LdapCircuitOpenException e )
+        {
+            fail( "probe was refused" );
+        }
+        catch ( LdapException e )
+        {
+            assertTrue( e.getCause() instanceof NoSuchElementException );
+        }
+        assertEquals( CircuitBreaker.State.HALF_OPEN, breaker.getState() );
+        assertEquals( 1, metrics.getTimeouts() );
+
+        // the next borrow may probe rather than being refused:
+        assertTrue( breaker.allowRequest( System.currentTimeMillis() ) );
+        assertFalse( breaker.allowRequest( System.currentTimeMillis() ) );
+        breaker.success();
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+
+        // not probing, no effect:
+        breaker.probeAborted();
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+        pool.releaseConnection( held );
+        pool.close();
+    }
+
+
+    @Test
+    public void testIsFailure()
+    {
+        assertTrue( CircuitBreaker.isFailure( new LdapException( "TimeOut occurred" ) ) );
+        assertTrue( CircuitBreaker.isFailure( new CursorException( new LdapConnectionTimeOutException( "TimeOut" ) ) ) );
+        assertTrue( CircuitBreaker.isFailure( new InvalidConnectionException( "Cannot connect" ) ) );
+        assertTrue( CircuitBreaker.isFailure( new LdapServiceUnavailableException( ResultCodeEnum.BUSY ) ) );
+        assertTrue( CircuitBreaker.isFailure( new LdapException( new IOException( "reset" ) ) ) );
+        // the directory answered:
+        assertFalse( CircuitBreaker.isFailure( new LdapNoSuchObjectException( "no such object" ) ) );
+        assertFalse( CircuitBreaker.isFailure( new LdapAuthenticationException( "invalid credentials" ) ) );
+        assertFalse( CircuitBreaker.isFailure( new LdapException( "searchNode failed to return unique record" ) ) );
+    }
+
+
+    @Test
+    public void testCircuitOpenErrorId() throws Exception
+    {
+        PoolMetrics metrics = new PoolMetrics( "test", new GenericObjectPool<Object>( null ) );
+        CircuitBreaker breaker = new CircuitBreaker( "test", 1, 60000, metrics );
+        breaker.failure( System.currentTimeMillis() );
+
+        // wrapped as a DAO does, the caller sees the breaker's error id:
+        try
+        {
+            LdapConnectionProvider.getConnection( null, metrics, breaker );
+            fail( "borrow from open circuit succeeded" );
+        }
+        catch ( LdapException e )
+        {
+            FinderException fe = new FinderException( GlobalErrIds.ROLE_SEARCH_FAILED, "read caught " + e, e );
+            assertEquals( GlobalErrIds.FT_LDAP_CIRCUIT_OPEN, fe.getErrorId() );
+            fe = new FinderException( GlobalErrIds.ROLE_SEARCH_FAILED, "read caught " + e, new Exception( e ) );
+            assertEquals( GlobalErrIds.FT_LDAP_CIRCUIT_OPEN, fe.getErrorId() );
+        }
+
+        // any other failure keeps the DAO's:
+        FinderException fe = new FinderException( GlobalErrIds.ROLE_SEARCH_FAILED, "read failed",
+            new LdapServiceUnavailableException( ResultCodeEnum.UNAVAILABLE ) );
+        assertEquals( GlobalErrIds.ROLE_SEARCH_FAILED, fe.getErrorId() );
+    }
+}
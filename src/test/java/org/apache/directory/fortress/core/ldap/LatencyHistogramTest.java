@@ -0,0 +1,65 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void testIndex()
+    {
+        // values are never below their bucket's upper bound, and are within an eighth of it:
+        for ( long micros = 0; micros < 1000000; micros = micros * 3 / 2 + 1 )
+        {
+            long upper = LatencyHistogram.getUpperBound( LatencyHistogram.getIndex( micros ) );
+            assertTrue( upper >= micros );
+            assertTrue( upper - micros <= Math.max( 1, micros / 8 ) );
+        }
+        assertTrue( LatencyHistogram.getIndex( 2 ) > LatencyHistogram.getIndex( 1 ) );
+        assertTrue( LatencyHistogram.getIndex( Long.MAX_VALUE ) >= LatencyHistogram.getIndex( 1L << 40 ) );
+    }
+
+
+    @Test
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( int i = 1; i <= 1000; i++ )
+        {
+            histogram.record( TimeUnit.MICROSECONDS.toNanos( i ) );
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals( 1000, snapshot.getCount() );
+        assertEquals( 1000, snapshot.getMaxMicros() );
+        assertEquals( 500, snapshot.getMeanMicros(), 1 );
+        assertEquals( 500, snapshot.getPercentileMicros( 50 ), 500 / 8 );
+        assertEquals( 990, snapshot.getPercentileMicros( 99 ), 990 / 8 );
+        assertEquals( 1000, snapshot.getPercentileMicros( 100 ) );
+
+        histogram.reset();
+        assertEquals( 0, histogram.snapshot().getCount() );
+        assertEquals( 0, histogram.snapshot().getPercentileMicros( 99 ) );
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LdapServerGroupTest
+{
+    private static LdapServer newServer( String name )
+    {
+        return new LdapServer( name, null, new PoolMetrics( "read@" + name, new GenericObjectPool<Object>( null ) ),
+            null );
+    }
+
+
+    @Test
+    public void testFailover()
+    {
+        LdapServer a = newServer( "a:389" );
+        LdapServer b = newServer( "b:389" );
+        LdapServer c = newServer( "c:389" );
+        LdapServerGroup group = new LdapServerGroup( Arrays.asList( a, b, c ), LdapServerGroup.FAILOVER );
+        assertArrayEquals( new LdapServer[]{ a, b, c }, group.order() );
+        assertArrayEquals( new LdapServer[]{ a, b, c }, group.order() );
+
+        // down servers go last, in order:
+        a.markDown( new Exception( "test" ) );
+        b.markDown( new Exception( "test" ) );
+        assertArrayEquals( new LdapServer[]{ c, a, b }, group.order() );
+        a.markUp();
+        assertArrayEquals( new LdapServer[]{ a, c, b }, group.order() );
+    }
+
+
+    @Test
+    public void testRoundRobin()
+    {
+        LdapServer a = newServer( "a:389" );
+        LdapServer b = newServer( "b:389" );
+        LdapServerGroup group = new LdapServerGroup( Arrays.asList( a, b ), LdapServerGroup.ROUND_ROBIN );
+        assertArrayEquals( new LdapServer[]{ a, b }, group.order() );
+        assertArrayEquals( new LdapServer[]{ b, a }, group.order() );
+        assertArrayEquals( new LdapServer[]{ a, b }, group.order() );
+
+        b.markDown( new Exception( "test" ) );
+        assertArrayEquals( new LdapServer[]{ a, b }, group.order() );
+        assertArrayEquals( new LdapServer[]{ a, b }, group.order() );
+    }
+
+
+    @Test
+    public void testLeastOutstanding()
+    {
+        LdapServer a = newServer( "a:389" );
+        LdapServer b = newServer( "b:389" );
+        LdapServer c = newServer( "c:389" );
+        LdapServerGroup group = new LdapServerGroup( Arrays.asList( a, b, c ), LdapServerGroup.LEAST_OUTSTANDING );
+        a.acquired();
+        a.acquired();
+        c.acquired();
+        assertSame( b, group.order()[0] );
+        b.acquired();
+        b.acquired();
+        assertSame( c, group.order()[0] );
+        c.markDown( new Exception( "test" ) );
+        assertSame( c, group.order()[2] );
+        a.released();
+        a.released();
+        assertSame( a, group.order()[0] );
+    }
+
+
+    @Test
+    public void testGetHosts()
+    {
+        List<String> hosts = LdapConnectionProvider.getHosts( " ldap1, ldap2:1389,,", 389 );
+        assertEquals( Arrays.asList( "ldap1:389", "ldap2:1389" ), hosts );
+        assertTrue( LdapConnectionProvider.getHosts( null, 389 ).isEmpty() );
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.directory.api.ldap.model.cursor.SearchCursor;
+import org.apache.directory.api.ldap.model.entry.Entry;
+import org.apache.directory.api.ldap.model.exception.LdapException;
+import org.apache.directory.api.ldap.model.message.SearchRequest;
+import org.apache.directory.api.ldap.model.message.SearchRequestImpl;
+import org.apache.directory.api.ldap.model.message.SearchScope;
+import org.apache.directory.api.ldap.model.message.controls.PagedResults;
+import org.apache.directory.api.ldap.model.name.Dn;
+import org.apache.directory.fortress.core.FinderException;
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.LdapNetworkConnection;
+import org.apache.directory.server.annotations.CreateLdapServer;
+import org.apache.directory.server.annotations.CreateTransport;
+import org.apache.directory.server.core.annotations.ApplyLdifs;
+import org.apache.directory.server.core.annotations.ContextEntry;
+import org.apache.directory.server.core.annotations.CreateDS;
+import org.apache.directory.server.core.annotations.CreatePartition;
+import org.apache.directory.server.core.integ.AbstractLdapTestUnit;
+import org.apache.directory.server.core.integ.FrameworkRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reads paged results, RFC 2696, from an embedded ApacheDS holding seven entries under ou=People.
+ */
+@RunWith(FrameworkRunner.class)
+@CreateDS(name = "pagedDS", partitions =
+    { @CreatePartition(name = "example", suffix = "dc=example,dc=com", contextEntry = @ContextEntry(entryLdif =
+        "dn: dc=example,dc=com\n" +
+        "objectClass: domain\n" +
+        "objectClass: top\n" +
+        "dc: example\n\n")) })
+@CreateLdapServer(transports =
+    { @CreateTransport(protocol = "LDAP") })
+@ApplyLdifs(
+    {
+        "dn: ou=People,dc=example,dc=com", "objectClass: organizationalUnit", "ou: People", "",
+        "dn: uid=u0,ou=People,dc=example,dc=com", "objectClass: account", "uid: u0", "",
+        "dn: uid=u1,ou=People,dc=example,dc=com", "objectClass: account", "uid: u1", "",
+        "dn: uid=u2,ou=People,dc=example,dc=com", "objectClass: account", "uid: u2", "",
+        "dn: uid=u3,ou=People,dc=example,dc=com", "objectClass: account", "uid: u3", "",
+        "dn: uid=u4,ou=People,dc=example,dc=com", "objectClass: account", "uid: u4", "",
+        "dn: uid=u5,ou=People,dc=example,dc=com", "objectClass: account", "uid: u5", "",
+        "dn: uid=u6,ou=People,dc=example,dc=com", "objectClass: account", "uid: u6", ""
+})
+public class PagedSearchCursorTest extends AbstractLdapTestUnit
+{
+    private static final String PEOPLE_DN = "ou=People,dc=example,dc=com";
+    private static final int ENTRIES = 7;
+    private static final int PAGE_SIZE = 3;
+
+    private LdapConnection connection;
+
+
+    /**
+     * Records the paged results control of each request and the release of the connection.
+     */
+    private static class TestCursor extends PagedSearchCursor<String>
+    {
+        private final List<PagedResults> requests = new ArrayList<>();
+        private int failOnPage = -1;
+        private int releases;
+
+        private TestCursor( LdapConnection connection, String baseDn ) throws LdapException
+        {
+            super( connection, newRequest( baseDn ), PAGE_SIZE, new EntryMapper<String>()
+            {
+                @Override
+                public String map( Entry entry, long sequence ) throws LdapException
+                {
+                    return sequence + ":" + entry.get( "uid" ).getString();
+                }
+            }, GlobalErrIds.USER_SEARCH_FAILED );
+        }
+
+        @Override
+        SearchCursor search( LdapConnection connection, SearchRequest request ) throws LdapException
+        {
+            requests.add( ( PagedResults ) request.getControl( PagedResults.OID ) );
+            if ( requests.size() == failOnPage )
+            {
+                throw new LdapException( "page " + failOnPage + " failed" );
+            }
+            return connection.search( request );
+        }
+
+        @Override
+        void release( LdapConnection connection )
+        {
+            releases++;
+        }
+    }
+
+
+    private static SearchRequest newRequest( String baseDn ) throws LdapException
+    {
+        SearchRequest request = new SearchRequestImpl();
+        request.setBase( new Dn( baseDn ) );
+        request.setScope( SearchScope.ONELEVEL );
+        request.setFilter( "(objectClass=account)" );
+        request.addAttributes( "uid" );
+        return request;
+    }
+
+
+    @Before
+    public void connect() throws Exception
+    {
+        connection = new LdapNetworkConnection( "localhost", getLdapServer().getPort() );
+        connection.bind( "uid=admin,ou=system", "secret" );
+    }
+
+
+    @After
+    public void disconnect() throws Exception
+    {
+        connection.close();
+    }
+
+
+    @Test
+    public void testReadAllPages() throws Exception
+    {
+        TestCursor cursor = new TestCursor( connection, PEOPLE_DN );
+        List<String> results = new ArrayList<>();
+        while ( cursor.next() )
+        {
+            results.add( cursor.get() );
+        }
+        assertEquals( ENTRIES, results.size() );
+        assertTrue( results.get( 0 ).startsWith( "0:" ) );
+        assertTrue( results.get( ENTRIES - 1 ).startsWith( ( ENTRIES - 1 ) + ":" ) );
+
+        // 3 + 3 + 1, each request after the first carries the cookie of the previous page:
+        assertEquals( 3, cursor.requests.size() );
+        assertNull( cursor.requests.get( 0 ).getCookie() );
+        for ( int i = 1; i < cursor.requests.size(); i++ )
+        {
+            assertEquals( PAGE_SIZE, cursor.requests.get( i ).getSize() );
+            assertTrue( cursor.requests.get( i ).getCookie().length > 0 );
+        }
+        assertEquals( 1, cursor.releases );
+
+        // closing again does nothing:
+        cursor.close();
+        assertFalse( cursor.next() );
+        assertEquals( 1, cursor.releases );
+        assertEquals( 3, cursor.requests.size() );
+    }
+
+
+    @Test
+    public void testCloseBetweenPages() throws Exception
+    {
+        TestCursor cursor = new TestCursor( connection, PEOPLE_DN );
+        for ( int i = 0; i < PAGE_SIZE + 1; i++ )
+        {
+            assertTrue( cursor.next() );
+        }
+        cursor.close();
+
+        // the server is told to discard the paged search with a request of size 0:
+        assertEquals( 3, cursor.requests.size() );
+        PagedResults abandon = cursor.requests.get( 2 );
+        assertEquals( 0, abandon.getSize() );
+        assertTrue( abandon.getCookie().length > 0 );
+        assertEquals( 1, cursor.releases );
+        assertFalse( cursor.next() );
+
+        // and the connection can still be used:
+        TestCursor next = new TestCursor( connection, PEOPLE_DN );
+        int count = 0;
+        while ( next.next() )
+        {
+            count++;
+        }
+        assertEquals( ENTRIES, count );
+    }
+
+
+    @Test
+    public void testReleaseOnError() throws Exception
+    {
+        TestCursor cursor = new TestCursor( connection, PEOPLE_DN );
+        cursor.failOnPage = 2;
+        for ( int i = 0; i < PAGE_SIZE; i++ )
+        {
+            assertTrue( cursor.next() );
+        }
+        try
+        {
+            cursor.next();
+            fail( "expected FinderException" );
+        }
+        catch ( FinderException e )
+        {
+            assertEquals( GlobalErrIds.USER_SEARCH_FAILED, e.getErrorId() );
+        }
+        assertEquals( 1, cursor.releases );
+
+        // a missing base dn fails the first page:
+        cursor = new TestCursor( connection, "ou=Missing,dc=example,dc=com" );
+        try
+        {
+            cursor.next();
+            fail( "expected FinderException" );
+        }
+        catch ( FinderException e )
+        {
+            assertEquals( GlobalErrIds.USER_SEARCH_FAILED, e.getErrorId() );
+        }
+        assertEquals( 1, cursor.releases );
+    }
+}
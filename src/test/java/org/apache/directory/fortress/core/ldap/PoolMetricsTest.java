@@ -0,0 +1,71 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.ldap;
+
+import org.apache.commons.pool.BasePoolableObjectFactory;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.apache.directory.ldap.client.api.LdapConnection;
+import org.apache.directory.ldap.client.api.LdapNetworkConnection;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PoolMetricsTest
+{
+    @Test
+    public void testGrows() throws Exception
+    {
+        // connections are never opened, only counted:
+        InstrumentedConnectionFactory factory = new InstrumentedConnectionFactory(
+            new BasePoolableObjectFactory<LdapConnection>()
+            {
+                @Override
+                public LdapConnection makeObject()
+                {
+                    return new LdapNetworkConnection( "localhost", 1 );
+                }
+            } );
+        GenericObjectPool<LdapConnection> pool = new GenericObjectPool<>( factory );
+        pool.setMaxActive( 2 );
+        pool.setWhenExhaustedAction( GenericObjectPool.WHEN_EXHAUSTED_GROW );
+        PoolMetrics metrics = new PoolMetrics( "test", pool );
+        factory.setMetrics( metrics );
+
+        LdapConnection c1 = pool.borrowObject();
+        LdapConnection c2 = pool.borrowObject();
+        assertEquals( 0, metrics.getGrows() );
+        LdapConnection c3 = pool.borrowObject();
+        LdapConnection c4 = pool.borrowObject();
+        assertEquals( 2, metrics.getGrows() );
+        assertEquals( 4, metrics.getCreated() );
+
+        // borrows of idle connections while over the limit open nothing:
+        pool.returnObject( c4 );
+        c4 = pool.borrowObject();
+        assertEquals( 2, metrics.getGrows() );
+        assertEquals( 4, metrics.getCreated() );
+
+        pool.returnObject( c1 );
+        pool.returnObject( c2 );
+        pool.returnObject( c3 );
+        pool.returnObject( c4 );
+        pool.close();
+    }
+}
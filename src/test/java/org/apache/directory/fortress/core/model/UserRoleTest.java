@@ -0,0 +1,134 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UserRoleTest
+{
+    private static final class CountingParentUtil implements ParentUtil
+    {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Set<String> getParentsCB( String name, String contextId )
+        {
+            calls.incrementAndGet();
+            return Collections.singleton( name + "-PARENT" );
+        }
+    }
+
+
+    @Test
+    public void testLoad()
+    {
+        CountingParentUtil parentUtil = new CountingParentUtil();
+        UserRole userRole = new UserRole();
+        userRole.load( "role1$30$0800$1700$20200101$$none$none$23456", "$", "home", parentUtil );
+
+        assertEquals( "role1", userRole.getName() );
+        assertEquals( 30, userRole.getTimeout().intValue() );
+        assertEquals( "0800", userRole.getBeginTime() );
+        assertEquals( "1700", userRole.getEndTime() );
+        assertEquals( "20200101", userRole.getBeginDate() );
+        assertNull( userRole.getEndDate() );
+        assertEquals( "none", userRole.getBeginLockDate() );
+        assertEquals( "none", userRole.getEndLockDate() );
+        assertEquals( "23456", userRole.getDayMask() );
+
+        // parents are looked up once, on first use:
+        assertEquals( 0, parentUtil.calls.get() );
+        assertTrue( userRole.getParents().contains( "ROLE1-PARENT" ) );
+        userRole.getParents();
+        assertEquals( 1, parentUtil.calls.get() );
+    }
+
+
+    @Test
+    public void testLoadRoleConstraint()
+    {
+        CountingParentUtil parentUtil = new CountingParentUtil();
+        UserRole userRole = new UserRole();
+        userRole.load( "role1$30$$$$$$$", "$", "home", parentUtil );
+        userRole.load( "role1$type$USER$pset1$value1$id1", "$", "home", parentUtil );
+
+        assertEquals( 1, userRole.getRoleConstraints().size() );
+        RoleConstraint rc = userRole.getRoleConstraints().get( 0 );
+        assertEquals( "value1", rc.getValue() );
+        assertEquals( "pset1", rc.getKey() );
+        assertEquals( "id1", rc.getId() );
+        assertEquals( RoleConstraint.RCType.USER, rc.getType() );
+        assertNull( userRole.getBeginTime() );
+    }
+
+
+    @Test
+    public void testDelimiter()
+    {
+        UserRole userRole = new UserRole();
+        userRole.load( "role1::-5::0000::2359", "::", "home", new CountingParentUtil() );
+        assertEquals( "role1", userRole.getName() );
+        assertEquals( -5, userRole.getTimeout().intValue() );
+        assertEquals( "0000", userRole.getBeginTime() );
+        assertEquals( "2359", userRole.getEndTime() );
+
+        userRole.setParents( null );
+        assertNull( userRole.getParents() );
+    }
+
+
+    @Test
+    public void testHashCodeAndSerialize() throws Exception
+    {
+        CountingParentUtil parentUtil = new CountingParentUtil();
+        UserRole userRole = new UserRole();
+        userRole.load( "role1$30$$$$$$$", "$", "home", parentUtil );
+
+        // hashing doesn't look up the parents, nor change once they are:
+        int hash = userRole.hashCode();
+        assertEquals( 0, parentUtil.calls.get() );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( userRole );
+        }
+        assertEquals( 1, parentUtil.calls.get() );
+        assertEquals( hash, userRole.hashCode() );
+
+        UserRole copy;
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            copy = ( UserRole ) in.readObject();
+        }
+        assertTrue( copy.getParents().contains( "ROLE1-PARENT" ) );
+        assertEquals( hash, copy.hashCode() );
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.directory.fortress.core.CfgRuntimeException;
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UserTest
+{
+    private static final class CountingDetailUtil implements UserDetailUtil
+    {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public User getDetailCB( User user )
+        {
+            calls.incrementAndGet();
+            User detail = new User();
+            detail.setPhones( new ArrayList<>( Arrays.asList( "555-1212" ) ) );
+            detail.setEmails( new ArrayList<>( Arrays.asList( "jts@example.com" ) ) );
+            detail.setJpegPhoto( new byte[] { 1, 2, 3 } );
+            detail.getAddress().setCity( "Anytown" );
+            return detail;
+        }
+    }
+
+
+    @Test
+    public void testLoadDetail()
+    {
+        CountingDetailUtil detailUtil = new CountingDetailUtil();
+        User user = new User( "jtsuser1" );
+        user.setDetailUtil( detailUtil );
+        assertEquals( 0, detailUtil.calls.get() );
+
+        assertEquals( "555-1212", user.getPhones().get( 0 ) );
+        assertEquals( "Anytown", user.getAddress().getCity() );
+        assertEquals( 3, user.getJpegPhoto().length );
+        assertTrue( user.getMobiles().isEmpty() );
+        assertEquals( 1, detailUtil.calls.get() );
+    }
+
+
+    @Test
+    public void testSetBeforeLoad()
+    {
+        CountingDetailUtil detailUtil = new CountingDetailUtil();
+        User user = new User( "jtsuser1" );
+        user.setDetailUtil( detailUtil );
+        user.setEmails( new ArrayList<>( Arrays.asList( "other@example.com" ) ) );
+        user.setPhone( "555-0000" );
+
+        // set by caller, not overwritten:
+        assertEquals( 1, user.getEmails().size() );
+        assertEquals( "other@example.com", user.getEmails().get( 0 ) );
+        // added to what was read:
+        assertEquals( 2, user.getPhones().size() );
+        assertEquals( 1, detailUtil.calls.get() );
+    }
+
+
+    @Test
+    public void testSerialize() throws Exception
+    {
+        CountingDetailUtil detailUtil = new CountingDetailUtil();
+        User user = new User( "jtsuser1" );
+        user.setDetailUtil( detailUtil );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( user );
+        }
+        assertEquals( 1, detailUtil.calls.get() );
+        User copy;
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            copy = ( User ) in.readObject();
+        }
+        assertEquals( "jts@example.com", copy.getEmails().get( 0 ) );
+        assertEquals( "Anytown", copy.getAddress().getCity() );
+    }
+
+
+    @Test
+    public void testReadFailure()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        User user = new User( "jtsuser1" );
+        user.setDetailUtil( new UserDetailUtil()
+        {
+            @Override
+            public User getDetailCB( User user )
+            {
+                if ( calls.incrementAndGet() == 1 )
+                {
+                    throw new CfgRuntimeException( GlobalErrIds.USER_READ_FAILED, "read failed" );
+                }
+                return new CountingDetailUtil().getDetailCB( user );
+            }
+        } );
+
+        // the failure reaches the caller, the next use reads again:
+        try
+        {
+            user.getEmails();
+            fail( "expected CfgRuntimeException" );
+        }
+        catch ( CfgRuntimeException e )
+        {
+            assertEquals( GlobalErrIds.USER_READ_FAILED, e.getErrorId() );
+        }
+        assertEquals( "jts@example.com", user.getEmails().get( 0 ) );
+        assertEquals( 2, calls.get() );
+    }
+}
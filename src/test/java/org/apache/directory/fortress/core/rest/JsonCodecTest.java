@@ -0,0 +1,110 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.directory.fortress.core.model.FortRequest;
+import org.apache.directory.fortress.core.model.FortResponse;
+import org.apache.directory.fortress.core.model.Permission;
+import org.apache.directory.fortress.core.model.Session;
+import org.apache.directory.fortress.core.model.User;
+import org.apache.directory.fortress.core.model.UserDetailUtil;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JsonCodecTest
+{
+    @Test
+    public void testRequest() throws Exception
+    {
+        User user = new User( "jtsuser1" );
+        user.setRole( new UserRole( "jtsuser1", "role1" ) );
+        user.setContextId( "tenant1" );
+        FortRequest request = new FortRequest();
+        request.setContextId( "tenant1" );
+        request.setSession( new Session( user ) );
+        request.setEntity( new Permission( "obj1", "op1" ) );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonCodec.write( request, out );
+        String json = out.toString( "UTF-8" );
+        // entities carry their class, transient fields are left out:
+        assertTrue( json.contains( "\"fqcn\"" ) );
+        assertFalse( json.contains( "adminSession" ) );
+
+        FortRequest result = JsonCodec.read( new ByteArrayInputStream( out.toByteArray() ), FortRequest.class );
+        assertEquals( "tenant1", result.getContextId() );
+        assertTrue( result.getEntity() instanceof Permission );
+        assertEquals( "op1", ( ( Permission ) result.getEntity() ).getOpName() );
+        assertEquals( "jtsuser1", result.getSession().getUserId() );
+        assertEquals( "role1", result.getSession().getRoles().get( 0 ).getName() );
+        assertEquals( request.getSession().getSessionId(), result.getSession().getSessionId() );
+    }
+
+
+    @Test
+    public void testResponse() throws Exception
+    {
+        FortResponse response = new FortResponse();
+        response.setErrorCode( 0 );
+        response.setAuthorized( true );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonCodec.write( response, out );
+        FortResponse result = JsonCodec.read( new ByteArrayInputStream( out.toByteArray() ), FortResponse.class );
+        assertTrue( result.getAuthorized() );
+        assertNull( result.getSession() );
+
+        // fields the client doesn't know are ignored:
+        String json = "{\"errorCode\":1001,\"errorMessage\":\"bad\",\"newField\":1}";
+        result = JsonCodec.read( new ByteArrayInputStream( json.getBytes( "UTF-8" ) ), FortResponse.class );
+        assertEquals( 1001, result.getErrorCode() );
+        assertEquals( "bad", result.getErrorMessage() );
+    }
+
+
+    @Test
+    public void testLazyDetail() throws Exception
+    {
+        User user = new User( "jtsuser1" );
+        user.setDetailUtil( new UserDetailUtil()
+        {
+            @Override
+            public User getDetailCB( User user )
+            {
+                User detail = new User();
+                detail.setEmail( "jts@example.com" );
+                return detail;
+            }
+        } );
+        FortResponse response = new FortResponse();
+        response.setEntity( user );
+
+        // read before it's written, as for JAXB:
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonCodec.write( response, out );
+        FortResponse result = JsonCodec.read( new ByteArrayInputStream( out.toByteArray() ), FortResponse.class );
+        assertEquals( "jts@example.com", ( ( User ) result.getEntity() ).getEmails().get( 0 ) );
+    }
+}
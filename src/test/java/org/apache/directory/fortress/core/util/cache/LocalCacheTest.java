@@ -0,0 +1,271 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LocalCacheTest
+{
+    private static final Executor DIRECT = new Executor()
+    {
+        @Override
+        public void execute( Runnable command )
+        {
+            command.run();
+        }
+    };
+
+
+    private static final class Counter implements CacheLoader<String, String, RuntimeException>
+    {
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @Override
+        public String load( String key )
+        {
+            return key + loads.incrementAndGet();
+        }
+    }
+
+
+    @Test
+    public void testLoad() throws Exception
+    {
+        final LocalCache<String, String> cache = new LocalCache<>( "test", 0, 0, null, 0, 0, 0, null );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final AtomicInteger loads = new AtomicInteger();
+        final CacheLoader<String, String, RuntimeException> slow = new CacheLoader<String, String, RuntimeException>()
+        {
+            @Override
+            public String load( String key )
+            {
+                loads.incrementAndGet();
+                started.countDown();
+                try
+                {
+                    release.await( 5, TimeUnit.SECONDS );
+                }
+                catch ( InterruptedException ie )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return "v";
+            }
+        };
+        final List<String> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            Thread thread = new Thread( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    String value = cache.get( "k", slow );
+                    synchronized ( results )
+                    {
+                        results.add( value );
+                    }
+                }
+            } );
+            threads.add( thread );
+            thread.start();
+        }
+        assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+        release.countDown();
+        for ( Thread thread : threads )
+        {
+            thread.join( 5000 );
+        }
+        assertEquals( 1, loads.get() );
+        assertEquals( 4, results.size() );
+        for ( String result : results )
+        {
+            assertEquals( "v", result );
+        }
+        assertEquals( "v", cache.get( "k" ) );
+        CacheStats stats = cache.getStats();
+        assertEquals( 1, stats.getLoadSuccessCount() );
+        // threads that got there after the load hit the cache:
+        assertEquals( 5, stats.getHitCount() + stats.getMissCount() );
+        assertTrue( stats.getMissCount() >= 1 );
+    }
+
+
+    @Test
+    public void testLoadFailure()
+    {
+        LocalCache<String, String> cache = new LocalCache<>( "test", 0, 0, null, 0, 0, 0, null );
+        try
+        {
+            cache.get( "k", new CacheLoader<String, String, IOException>()
+            {
+                @Override
+                public String load( String key ) throws IOException
+                {
+                    throw new IOException( "down" );
+                }
+            } );
+            fail( "expected IOException" );
+        }
+        catch ( IOException e )
+        {
+            assertEquals( "down", e.getMessage() );
+        }
+        assertNull( cache.get( "k" ) );
+        assertEquals( 1, cache.getStats().getLoadFailureCount() );
+        assertEquals( "k1", cache.get( "k", new Counter() ) );
+    }
+
+
+    @Test
+    public void testMaxEntries() throws Exception
+    {
+        LocalCache<String, String> cache = new LocalCache<>( "test", 10, 0, null, 0, 0, 0, null );
+        for ( int i = 0; i < 10; i++ )
+        {
+            cache.put( "k" + i, "v" );
+            Thread.sleep( 1 );
+        }
+        // k0 is read last, so k1 is the least recently read:
+        assertEquals( "v", cache.get( "k0" ) );
+        cache.put( "k10", "v" );
+        assertEquals( 9, cache.size() );
+        assertNull( cache.get( "k1" ) );
+        assertEquals( "v", cache.get( "k0" ) );
+        assertEquals( "v", cache.get( "k10" ) );
+        assertEquals( 2, cache.getStats().getEvictionCount() );
+    }
+
+
+    @Test
+    public void testMaxWeight()
+    {
+        LocalCache<String, String> cache = new LocalCache<>( "test", 0, 100, new Weigher<String, String>()
+        {
+            @Override
+            public int weigh( String key, String value )
+            {
+                return value.length();
+            }
+        }, 0, 0, 0, null );
+        cache.put( "a", "0123456789" );
+        cache.put( "b", "0123456789" );
+        assertEquals( 20, cache.weight() );
+        cache.put( "a", "01234" );
+        assertEquals( 15, cache.weight() );
+        cache.put( "c", new String( new char[90] ) );
+        assertTrue( cache.weight() <= 90 );
+        cache.clear( "c" );
+        cache.flush();
+        assertEquals( 0, cache.weight() );
+    }
+
+
+    @Test
+    public void testExpireAfterWrite() throws Exception
+    {
+        LocalCache<String, String> cache = new LocalCache<>( "test", 0, 0, null, 50, 0, 0, null );
+        Counter loader = new Counter();
+        assertEquals( "k1", cache.get( "k", loader ) );
+        assertEquals( "k1", cache.get( "k", loader ) );
+        Thread.sleep( 80 );
+        assertNull( cache.get( "k" ) );
+        assertEquals( "k2", cache.get( "k", loader ) );
+    }
+
+
+    @Test
+    public void testRefreshAfterWrite() throws Exception
+    {
+        LocalCache<String, String> cache = new LocalCache<>( "test", 0, 0, null, 0, 0, 50, DIRECT );
+        Counter loader = new Counter();
+        assertEquals( "k1", cache.get( "k", loader ) );
+        Thread.sleep( 80 );
+        // the stale value is served while it is reloaded:
+        assertEquals( "k1", cache.get( "k", loader ) );
+        assertEquals( "k2", cache.get( "k" ) );
+        assertEquals( 1, cache.getStats().getRefreshCount() );
+        // an entry that was put has no loader to refresh it:
+        cache.put( "p", "v" );
+        Thread.sleep( 80 );
+        assertEquals( "v", cache.get( "p", loader ) );
+        assertEquals( "v", cache.get( "p" ) );
+    }
+
+
+    @Test
+    public void testRefreshReturnsNull() throws Exception
+    {
+        LocalCache<String, String> cache = new LocalCache<>( "test", 0, 0, null, 0, 0, 50, DIRECT );
+        final AtomicInteger loads = new AtomicInteger();
+        CacheLoader<String, String, RuntimeException> loader = new CacheLoader<String, String, RuntimeException>()
+        {
+            @Override
+            public String load( String key )
+            {
+                // e.g. the entry can't be read any more:
+                return loads.incrementAndGet() == 1 ? "v" : null;
+            }
+        };
+        assertEquals( "v", cache.get( "k", loader ) );
+        Thread.sleep( 80 );
+        assertEquals( "v", cache.get( "k", loader ) );
+        assertEquals( 2, loads.get() );
+        // kept, and refreshed again after another interval:
+        assertEquals( "v", cache.get( "k", loader ) );
+        assertEquals( 2, loads.get() );
+        Thread.sleep( 80 );
+        assertEquals( "v", cache.get( "k", loader ) );
+        assertEquals( 3, loads.get() );
+    }
+
+
+    @Test
+    public void testClearDuringLoad()
+    {
+        final LocalCache<String, String> cache = new LocalCache<>( "test", 0, 0, null, 0, 0, 0, null );
+        String value = cache.get( "k", new CacheLoader<String, String, RuntimeException>()
+        {
+            @Override
+            public String load( String key )
+            {
+                // e.g. the entry was changed in the directory after it was read:
+                cache.clear( key );
+                return "stale";
+            }
+        } );
+        assertEquals( "stale", value );
+        assertNull( cache.get( "k" ) );
+        cache.put( "k", null );
+        assertNull( cache.get( "k" ) );
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+package org.apache.directory.fortress.core.util.time;
+
+import org.apache.directory.fortress.core.GlobalErrIds;
+import org.apache.directory.fortress.core.model.UserRole;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompiledConstraintTest
+{
+    @Test
+    public void testCompile()
+    {
+        UserRole role = new UserRole( "jtsuser1", "role1" );
+        role.setBeginTime( "0800" );
+        role.setEndTime( "1700" );
+        role.setBeginDate( "20200101" );
+        role.setEndDate( "none" );
+        role.setBeginLockDate( "20210101" );
+        role.setEndLockDate( "20210115" );
+        role.setDayMask( "23456" );
+        role.setTimeout( 30 );
+
+        CompiledConstraint compiled = CompiledConstraint.get( role );
+        assertEquals( 30, compiled.getTimeout() );
+        assertTrue( compiled.isTimeAllowed( 800 ) );
+        assertTrue( compiled.isTimeAllowed( 1700 ) );
+        assertFalse( compiled.isTimeAllowed( 1701 ) );
+        assertFalse( compiled.isDateAllowed( 20191231 ) );
+        assertTrue( compiled.isDateAllowed( 29991231 ) );
+        assertTrue( compiled.isLocked( 20210110 ) );
+        assertFalse( compiled.isLocked( 20210116 ) );
+        // Sun is 1, Mon is 2:
+        assertFalse( compiled.isDayAllowed( 1 ) );
+        assertTrue( compiled.isDayAllowed( 2 ) );
+        assertFalse( compiled.isDayAllowed( 7 ) );
+    }
+
+
+    @Test
+    public void testNone()
+    {
+        UserRole role = new UserRole( "jtsuser1", "role1" );
+        role.setBeginTime( "0000" );
+        role.setEndTime( "0000" );
+        role.setBeginLockDate( "20210101" );
+        role.setEndLockDate( "none" );
+        role.setDayMask( "all" );
+
+        CompiledConstraint compiled = CompiledConstraint.get( role );
+        assertTrue( compiled.isTimeAllowed( 2359 ) );
+        assertTrue( compiled.isDateAllowed( 20210101 ) );
+        assertFalse( compiled.isLocked( 20210101 ) );
+        assertTrue( compiled.isDayAllowed( 1 ) );
+        assertTrue( compiled.isDayAllowed( 7 ) );
+    }
+
+
+    @Test
+    public void testMalformed()
+    {
+        Time time = TUtil.getCurrentTime();
+        UserRole role = new UserRole( "jtsuser1", "role1" );
+        role.setBeginDate( "2020-01-01" );
+        role.setBeginTime( "8am" );
+        role.setEndTime( "1700" );
+        role.setBeginLockDate( "none" );
+        role.setEndLockDate( "-1" );
+
+        // each malformed value fails its own check:
+        CompiledConstraint compiled = CompiledConstraint.get( role );
+        assertFalse( compiled.isDateAllowed( 29991231 ) );
+        assertFalse( compiled.isTimeAllowed( 1200 ) );
+        assertTrue( compiled.isLocked( 29991231 ) );
+        assertEquals( GlobalErrIds.ACTV_FAILED_DATE, new Date().validate( null, role, time, null ) );
+        assertEquals( GlobalErrIds.ACTV_FAILED_TIME, new ClockTime().validate( null, role, time, null ) );
+        assertEquals( GlobalErrIds.ACTV_FAILED_LOCK, new LockDate().validate( null, role, time, null ) );
+
+        // an invalid end counts too:
+        role.setBeginDate( "none" );
+        role.setEndDate( "tomorrow" );
+        role.setBeginTime( "0800" );
+        role.setEndTime( "17:00" );
+        compiled = CompiledConstraint.get( role );
+        assertFalse( compiled.isDateAllowed( 20200101 ) );
+        assertFalse( compiled.isTimeAllowed( 1200 ) );
+    }
+
+
+    @Test
+    public void testRecompile()
+    {
+        UserRole role = new UserRole( "jtsuser1", "role1" );
+        role.setBeginTime( "0800" );
+        role.setEndTime( "1700" );
+        CompiledConstraint compiled = CompiledConstraint.get( role );
+        assertSame( compiled, CompiledConstraint.get( role ) );
+
+        role.setEndTime( "1800" );
+        CompiledConstraint next = CompiledConstraint.get( role );
+        assertNotSame( compiled, next );
+        assertTrue( next.isTimeAllowed( 1759 ) );
+    }
+
+
+    @Test
+    public void testCurrentTime()
+    {
+        Time time = TUtil.getCurrentTime();
+        assertEquals( time.yyyymmdd, Integer.parseInt( time.date ) );
+        assertEquals( time.hhmm, time.currentTime.intValue() );
+        assertTrue( time.dayOfWeek >= 1 && time.dayOfWeek <= 7 );
+        assertTrue( time.day.equals( String.valueOf( time.dayOfWeek ) ) );
+    }
+}